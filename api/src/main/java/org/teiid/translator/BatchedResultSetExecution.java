@@ -0,0 +1,49 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.translator;
+
+import java.util.List;
+
+/**
+ * An optional extension of {@link ResultSetExecution} that returns results a batch 
+ * at a time rather than with a call to {@link #next()} for each row.
+ * <br>
+ * When implemented the engine will only call {@link #nextBatch(int)} to retrieve results.
+ */
+public interface BatchedResultSetExecution extends ResultSetExecution {
+	
+	/**
+	 * Retrieves the next batch of rows of the resultset.
+	 * <br>
+	 * Each row must be a modifiable {@link List} with a value for each projected column.
+	 * Returning fewer than maxRows rows does not indicate the end of the results.
+	 * A {@link DataNotAvailableException} should only be thrown if no rows are available,
+	 * otherwise the rows already retrieved should be returned.
+	 * @param maxRows the maximum number of rows to return, typically the {@link ExecutionContext#getBatchSize()} 
+	 * @return a non-empty list of rows or null indicating that there are no more results
+	 * @throws TranslatorException
+	 * @throws DataNotAvailableException
+	 */
+	List<List<?>> nextBatch(int maxRows) throws TranslatorException, DataNotAvailableException;
+
+}
@@ -0,0 +1,209 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.translator;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.teiid.core.util.ExecutorUtils;
+import org.teiid.core.util.PropertiesUtils;
+
+/**
+ * A bounded queue that merges the values from one or more producer threads for a single consumer.
+ * <br>
+ * Each producer must call {@link #finish(Throwable)} when done, which always delivers the end marker 
+ * even if the queue has been closed.  Once closed the consumer no longer waits for values, so neither
+ * side can be left blocked by the other.
+ * <br>
+ * The consumer does not block.  When no value is available {@link #next()} throws 
+ * {@link DataNotAvailableException#NO_POLLING} and the engine is notified through 
+ * {@link ExecutionContext#dataAvailable()} once there is.  Producers should be run with 
+ * {@link #getReaderExecutor()}.
+ */
+public class ResultsQueue<T> {
+	
+	private static final Object END = new Object();
+	private static final long WAIT_MILLIS = 100;
+	
+	private static final ExecutorService readerExecutor = ExecutorUtils.newFixedThreadPool(
+			PropertiesUtils.getIntProperty(System.getProperties(), "org.teiid.translatorReaderThreads", Math.max(4, 2 * Runtime.getRuntime().availableProcessors())), //$NON-NLS-1$ 
+			"Translator Reader"); //$NON-NLS-1$
+
+	private BlockingQueue<Object> queue;
+	private int activeProducers;
+	private volatile boolean closed;
+	private volatile Throwable failure;
+	private ExecutionContext context;
+	private AtomicBoolean waiting = new AtomicBoolean();
+	
+	/**
+	 * @param capacity the maximum number of queued values
+	 * @param producers the number of producers that will call {@link #finish(Throwable)}
+	 * @param context the context to notify when data becomes available, may be null
+	 */
+	public ResultsQueue(int capacity, int producers, ExecutionContext context) {
+		this.queue = new ArrayBlockingQueue<Object>(Math.max(1, capacity));
+		this.activeProducers = producers;
+		this.context = context;
+	}
+	
+	/**
+	 * The shared, bounded pool for background reads.  Tasks are started in submission order, so 
+	 * the producers of a query that is consumed in order should be submitted in that order. 
+	 */
+	public static ExecutorService getReaderExecutor() {
+		return readerExecutor;
+	}
+	
+	/**
+	 * Add a value, waiting for space as needed
+	 * @return false if the queue has been closed or the producer was interrupted, in which case the producer should stop
+	 */
+	public boolean put(T value) {
+		try {
+			while (!closed) {
+				if (queue.offer(value, WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+					signal();
+					return true;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return false;
+	}
+	
+	/**
+	 * Called by each producer when it is done.  The end marker is always delivered - 
+	 * if the queue has been closed the unread values are discarded to make room.
+	 * @param t the failure of the producer or null
+	 */
+	public void finish(Throwable t) {
+		if (t != null && !closed && failure == null) {
+			failure = t;
+		}
+		boolean interrupted = false;
+		while (true) {
+			if (closed) {
+				queue.clear();
+			}
+			try {
+				if (queue.offer(END, WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+					break;
+				}
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		signal();
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	private void signal() {
+		if (waiting.compareAndSet(true, false) && context != null) {
+			context.dataAvailable();
+		}
+	}
+	
+	/**
+	 * Get the next value without blocking.
+	 * @return the next value or null if all producers have finished or the queue has been closed
+	 * @throws DataNotAvailableException if no value is available yet, the context will be notified when there is
+	 * @throws ExecutionException with the producer failure once its end marker is reached
+	 */
+	public T next() throws ExecutionException, DataNotAvailableException {
+		T value = poll();
+		if (value != null || isDone()) {
+			return value;
+		}
+		waiting.set(true);
+		//check again so that a value added before waiting was set is not missed
+		value = poll();
+		if (value != null || isDone()) {
+			waiting.set(false);
+			return value;
+		}
+		throw DataNotAvailableException.NO_POLLING;
+	}
+	
+	/**
+	 * Get the next value without waiting.
+	 * @return the next value or null if none is available
+	 * @throws ExecutionException with the producer failure once its end marker is reached
+	 */
+	public T poll() throws ExecutionException {
+		while (!closed) {
+			Object o = queue.poll();
+			if (o == null) {
+				return null;
+			}
+			T value = getValue(o);
+			if (value != null) {
+				return value;
+			}
+		}
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T getValue(Object o) throws ExecutionException {
+		if (o != END) {
+			return (T)o;
+		}
+		activeProducers--;
+		if (failure != null) {
+			throw new ExecutionException(failure);
+		}
+		return null;
+	}
+	
+	/**
+	 * @return true if all producers have finished and their values have been read, or the queue has been closed
+	 */
+	public boolean isDone() {
+		return activeProducers == 0 || closed;
+	}
+	
+	public int size() {
+		return queue.size();
+	}
+	
+	/**
+	 * Stop accepting values and release any waiting producers. 
+	 */
+	public void close() {
+		closed = true;
+		queue.clear();
+	}
+	
+	public boolean isClosed() {
+		return closed;
+	}
+	
+}
@@ -0,0 +1,107 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.translator;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+@SuppressWarnings("nls")
+public class TestResultsQueue {
+
+	@Test public void testProducers() throws Exception {
+		ResultsQueue<String> queue = new ResultsQueue<String>(2, 2, null);
+		assertTrue(queue.put("a"));
+		queue.finish(null);
+		assertEquals("a", queue.next());
+		assertNull(queue.poll());
+		assertFalse(queue.isDone());
+		assertTrue(queue.put("b"));
+		queue.finish(null);
+		assertEquals("b", queue.next());
+		assertNull(queue.next());
+		assertTrue(queue.isDone());
+	}
+	
+	@Test public void testNotAvailable() throws Exception {
+		ExecutionContext context = Mockito.mock(ExecutionContext.class);
+		ResultsQueue<String> queue = new ResultsQueue<String>(2, 1, context);
+		try {
+			queue.next();
+			fail();
+		} catch (DataNotAvailableException e) {
+			assertEquals(DataNotAvailableException.NO_POLLING, e);
+		}
+		Mockito.verify(context, Mockito.never()).dataAvailable();
+		queue.put("a");
+		Mockito.verify(context, Mockito.times(1)).dataAvailable();
+		//only notified when the consumer is waiting
+		queue.put("b");
+		Mockito.verify(context, Mockito.times(1)).dataAvailable();
+		assertEquals("a", queue.next());
+		assertEquals("b", queue.next());
+		try {
+			queue.next();
+			fail();
+		} catch (DataNotAvailableException e) {
+		}
+		queue.finish(null);
+		Mockito.verify(context, Mockito.times(2)).dataAvailable();
+		assertNull(queue.next());
+	}
+	
+	@Test public void testFailure() throws Exception {
+		ResultsQueue<String> queue = new ResultsQueue<String>(2, 1, null);
+		queue.put("a");
+		queue.finish(new RuntimeException("x"));
+		assertEquals("a", queue.next());
+		try {
+			queue.next();
+			fail();
+		} catch (ExecutionException e) {
+			assertEquals("x", e.getCause().getMessage());
+		}
+	}
+	
+	@Test(timeout=10000) public void testCloseWhileFull() throws Exception {
+		final ResultsQueue<String> queue = new ResultsQueue<String>(1, 1, null);
+		queue.put("a");
+		Thread producer = new Thread() {
+			@Override
+			public void run() {
+				while (queue.put("b")) {
+				}
+				queue.finish(null);
+			}
+		};
+		producer.start();
+		queue.close();
+		producer.join();
+		assertFalse(queue.put("c"));
+		assertNull(queue.next());
+	}
+
+}
@@ -47,23 +47,55 @@ public class LobChunkInputStream extends InputStream {
     }
     
     public int read() throws IOException {               
-        if (this.closed) {
+        if (!fill()) {
+        	return -1;
+        }
+        // so we have data
+        return (byteData[currentCounter++] & 0xFF);
+    }
+    
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+    	if (len == 0) {
+    		return 0;
+    	}
+    	if (!fill()) {
+    		return -1;
+    	}
+    	int toCopy = Math.min(len, this.byteData.length - currentCounter);
+    	System.arraycopy(this.byteData, currentCounter, b, off, toCopy);
+    	currentCounter += toCopy;
+    	return toCopy;
+    }
+    
+    @Override
+    public int available() throws IOException {
+    	if (this.byteData == null) {
+    		return 0;
+    	}
+    	return this.byteData.length - currentCounter;
+    }
+
+    /**
+     * Ensure that there is data available from the current chunk
+     * @return false if there is no more data
+     */
+	private boolean fill() throws IOException {
+		if (this.closed) {
             throw new IllegalStateException(CorePlugin.Util.getString("stream_closed")); //$NON-NLS-1$
         }        
         while (this.byteData == null || this.byteData.length <= currentCounter) {
         	if (this.lastChunk) {
 	            // we are done
-	            return -1;
+	            return false;
         	}
         	LobChunk value = this.reader.getNextChunk();
             this.lastChunk = value.isLast();
             this.byteData = value.getBytes();
             this.currentCounter = 0;
         }
-
-        // so we have data
-        return (byteData[currentCounter++] & 0xFF);
-    }
+        return true;
+	}
 
     /**  
      * @see java.io.InputStream#close()
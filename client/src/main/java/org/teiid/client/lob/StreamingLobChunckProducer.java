@@ -58,6 +58,7 @@ public class StreamingLobChunckProducer implements LobChunkProducer {
 	private final DQP dqp;
 	private final long requestId;
 	private final int streamRequestId = REQUEST_SEQUENCE.getAndIncrement();
+	private Future<LobChunk> next;
 
 	public StreamingLobChunckProducer(DQP dqp, long requestId,
 			Streamable<?> streamable) {
@@ -66,10 +67,22 @@ public class StreamingLobChunckProducer implements LobChunkProducer {
 		this.streamable = streamable;
 	}
 
+	/**
+	 * Returns the next chunk.  If it is not the last chunk, the following chunk is requested
+	 * before returning so that the transfer overlaps with the consumption of the current chunk.
+	 */
 	public LobChunk getNextChunk() throws IOException {
 	    try {
-	    	Future<LobChunk> result = dqp.requestNextLobChunk(streamRequestId, requestId, streamable.getReferenceStreamId());
-	    	return result.get();
+	    	Future<LobChunk> result = next;
+	    	next = null;
+	    	if (result == null) {
+	    		result = dqp.requestNextLobChunk(streamRequestId, requestId, streamable.getReferenceStreamId());
+	    	}
+	    	LobChunk chunk = result.get();
+	    	if (!chunk.isLast()) {
+	    		next = dqp.requestNextLobChunk(streamRequestId, requestId, streamable.getReferenceStreamId());
+	    	}
+	    	return chunk;
 	    } catch (Exception e) {
 	        IOException ex = new IOException(JDBCPlugin.Util.getString("StreamImpl.Unable_to_read_data_from_stream", e.getMessage())); //$NON-NLS-1$
 	        ex.initCause(e);
@@ -78,6 +91,15 @@ public class StreamingLobChunckProducer implements LobChunkProducer {
 	}
 
 	public void close() throws IOException {
+		if (next != null) {
+			//let the outstanding request complete so that it is not processed after the close
+			try {
+				next.get();
+			} catch (Exception e) {
+				//ignore
+			}
+			next = null;
+		}
 	    try {
 	    	dqp.closeLobChunkStream(streamRequestId, requestId, streamable.getReferenceStreamId());
 	    } catch (TeiidException e) {
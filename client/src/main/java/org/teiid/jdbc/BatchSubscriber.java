@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+ 
+package org.teiid.jdbc;
+
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * A subscriber for non-blocking statement result processing with flow control.
+ * Rows are only delivered as they are requested through the {@link BatchSubscription}.
+ * {@link Statement#close()} must still be called to release
+ * statement resources.
+ * 
+ * Unlike the {@link StatementCallback} the rows are delivered as detached value lists
+ * in batches, so the subscriber may hold onto them after the call returns.
+ */
+public interface BatchSubscriber {
+	
+	/**
+	 * Called once prior to any other method.  No rows will be delivered 
+	 * until they are requested from the subscription.
+	 * @param s
+	 * @param subscription
+	 * @throws Exception
+	 */
+	void onSubscribe(Statement s, BatchSubscription subscription) throws Exception;
+
+	/**
+	 * Process the next batch of rows.  The batch will not contain more rows 
+	 * than have been requested.
+	 * @param s
+	 * @param rows
+	 * @throws Exception
+	 */
+	void onNext(Statement s, List<List<?>> rows) throws Exception;
+	
+	/**
+	 * Called when an exception occurs.  No further rows will
+	 * be processed by this subscriber.
+	 * @param e
+	 */
+	void onError(Statement s, Exception e) throws Exception;
+
+	/**
+	 * Called when processing has completed normally.
+	 */
+	void onComplete(Statement s) throws Exception;
+	
+}
@@ -0,0 +1,245 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.jdbc;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.teiid.client.util.ResultsFuture;
+import org.teiid.core.TeiidRuntimeException;
+
+/**
+ * Handles the future processing logic for a {@link BatchSubscriber}.
+ * Rows are only read from the {@link ResultSetImpl} while there is outstanding demand,
+ * so no thread is blocked waiting on either the server or the subscriber. 
+ */
+public class NonBlockingBatchProcessor implements
+		ResultsFuture.CompletionListener<Boolean>, BatchSubscription {
+
+	private static Logger logger = Logger.getLogger(NonBlockingBatchProcessor.class.getName());
+	private StatementImpl stmt;
+	private BatchSubscriber subscriber;
+	
+	private ResultSetImpl resultSet;
+	private int columns;
+	private int batchSize;
+	private List<List<?>> batch;
+	
+	//guarded by this
+	private long demand;
+	private boolean running = true;
+	private boolean done;
+
+	public NonBlockingBatchProcessor(StatementImpl stmt, BatchSubscriber subscriber) {
+		this.stmt = stmt;
+		this.subscriber = subscriber;
+	}
+	
+	/**
+	 * Notify the subscriber prior to the execution
+	 */
+	void subscribe() throws SQLException {
+		try {
+			subscriber.onSubscribe(stmt, this);
+		} catch (Exception e) {
+			throw TeiidSQLException.create(e);
+		}
+	}
+	
+	@Override
+	public void onCompletion(ResultsFuture<Boolean> future) {
+		try {
+			boolean hasResultSet = future.get(); 
+			if (!hasResultSet) {
+				complete();
+				return;
+			}
+			resultSet = stmt.getResultSet();
+			resultSet.asynch = true;
+			columns = resultSet.getMetaData().getColumnCount();
+			batchSize = Math.max(1, resultSet.getFetchSize());
+			process(null);
+		} catch (Exception e) {
+			onException(e);
+		}
+	}
+	
+	@Override
+	public void request(long rows) {
+		if (rows <= 0) {
+			onException(new IllegalArgumentException(JDBCPlugin.Util.getString("NonBlockingBatchProcessor.invalid_request", rows))); //$NON-NLS-1$
+			return;
+		}
+		synchronized (this) {
+			demand += rows;
+			if (demand < 0) {
+				demand = Long.MAX_VALUE;
+			}
+			if (running || done) {
+				//the active processing will pick up the new demand
+				return;
+			}
+			running = true;
+		}
+		process(null);
+	}
+	
+	@Override
+	public void cancel() {
+		synchronized (this) {
+			if (done) {
+				return;
+			}
+			done = true;
+		}
+		try {
+			if (resultSet != null) {
+				resultSet.close();
+			}
+		} catch (SQLException e) {
+			logger.log(Level.FINE, "Could not close the cancelled results", e); //$NON-NLS-1$
+		}
+	}
+	
+	/**
+	 * Read and deliver rows until the demand is satisfied or 
+	 * the next row is not yet available.
+	 */
+	void process(ResultsFuture<Boolean> hasNext) {
+		while (true) {
+			synchronized (this) {
+				if (done || demand == 0) {
+					running = false;
+					return;
+				}
+			}
+			try {
+				if (stmt.isClosed()) {
+					sendBatch();
+					complete();
+					return;
+				}
+				if (hasNext == null) {
+					hasNext = resultSet.submitNext();
+				}
+				synchronized (hasNext) {
+					if (!hasNext.isDone()) {
+						//don't hold onto rows while waiting on the server
+						sendBatch();
+						hasNext.addCompletionListener(new ResultsFuture.CompletionListener<Boolean>() {
+							@Override
+							public void onCompletion(ResultsFuture<Boolean> f) {
+								process(f);
+							}
+						});
+						return; // will be resumed by onCompletion above
+					}
+				}
+				boolean hasRow = hasNext.get();
+				hasNext = null;
+				if (!hasRow) {
+					sendBatch();
+					complete();
+					return;
+				}
+				if (resultSet.getCurrentRecord() == null) {
+					continue; //continuous execution boundary
+				}
+				List<Object> row = new ArrayList<Object>(columns);
+				for (int i = 1; i <= columns; i++) {
+					row.add(resultSet.getObject(i));
+				}
+				if (batch == null) {
+					batch = new ArrayList<List<?>>(batchSize);
+				}
+				batch.add(row);
+				boolean satisfied = false;
+				synchronized (this) {
+					satisfied = --demand == 0;
+				}
+				if (satisfied || batch.size() >= batchSize) {
+					sendBatch();
+				}
+			} catch (Exception e) {
+				onException(e);
+				return;
+			} catch (Throwable t) {
+				onException(new TeiidRuntimeException(t));
+				return;
+			}
+		}
+	}
+
+	private void sendBatch() throws Exception {
+		if (batch == null || batch.isEmpty()) {
+			return;
+		}
+		List<List<?>> toSend = batch;
+		batch = null;
+		synchronized (this) {
+			if (done) {
+				return;
+			}
+		}
+		subscriber.onNext(stmt, toSend);
+	}
+
+	private void complete() {
+		synchronized (this) {
+			if (done) {
+				return;
+			}
+			done = true;
+		}
+		try {
+			subscriber.onComplete(stmt);
+		} catch (Exception e) {
+			logger.log(Level.WARNING, "Unhandled exception from BatchSubscriber", e); //$NON-NLS-1$
+		}
+	}
+	
+	private void onException(Exception e) {
+		synchronized (this) {
+			if (done) {
+				return;
+			}
+			done = true;
+		}
+		if (e instanceof ExecutionException) {
+			ExecutionException ee = (ExecutionException)e;
+			if (ee.getCause() instanceof Exception) {
+				e = (Exception) ee.getCause();
+			}
+		}
+		try {
+			subscriber.onError(stmt, e);
+		} catch (Exception e1) {
+			logger.log(Level.WARNING, "Unhandled exception from BatchSubscriber", e1); //$NON-NLS-1$
+		}
+	}
+
+}
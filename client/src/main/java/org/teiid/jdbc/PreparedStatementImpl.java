@@ -167,6 +167,12 @@ public class PreparedStatementImpl extends StatementImpl implements TeiidPrepare
         throw new TeiidSQLException(msg);
     }
     
+    @Override
+    public void submitExecute(String sql, BatchSubscriber subscriber, RequestOptions options) throws TeiidSQLException {
+    	String msg = JDBCPlugin.Util.getString("JDBC.Method_not_supported"); //$NON-NLS-1$
+        throw new TeiidSQLException(msg);
+    }
+    
     @Override
     public ResultSet executeQuery(String sql) throws SQLException {
     	String msg = JDBCPlugin.Util.getString("JDBC.Method_not_supported"); //$NON-NLS-1$
@@ -233,6 +239,14 @@ public class PreparedStatementImpl extends StatementImpl implements TeiidPrepare
     	submitExecute(ResultsMode.EITHER, options).addCompletionListener(processor);
     }
     
+    @Override
+    public void submitExecute(BatchSubscriber subscriber, RequestOptions options)
+    		throws SQLException {
+    	NonBlockingBatchProcessor processor = new NonBlockingBatchProcessor(this, subscriber);
+    	processor.subscribe();
+    	submitExecute(ResultsMode.EITHER, options).addCompletionListener(processor);
+    }
+    
     public ResultsFuture<Boolean> submitExecute(ResultsMode mode, RequestOptions options) throws SQLException {
         return executeSql(new String[] {this.prepareSql}, false, mode, false, options);
     }
@@ -87,6 +87,8 @@ public class ResultSetImpl extends WrapperImpl implements TeiidResultSet, BatchF
     private int resultColumns;
     private int parameters;
     private TimeZone serverTimeZone;
+    private Calendar zoneCheckedCalendar;
+    private boolean sameTimeZone;
     private PlanNode updatedPlanDescription;
     private int maxFieldSize;
     private int fetchSize;
@@ -238,7 +240,14 @@ public class ResultSetImpl extends WrapperImpl implements TeiidResultSet, BatchF
     	if (hasNext != null) {
     		return StatementImpl.booleanFuture(next());
     	}
-    	ResultsFuture<ResultsMessage> pendingResult = submitRequestBatch(batchResults.getCurrentRowNumber() + 1);
+    	ResultsFuture<ResultsMessage> pendingResult = null;
+    	if (prefetch != null) {
+    		//the server does not queue requests, so use the outstanding prefetch
+    		pendingResult = prefetch;
+    		prefetch = null;
+    	} else {
+    		pendingResult = submitRequestBatch(batchResults.getCurrentRowNumber() + 1);
+    	}
     	final ResultsFuture<Boolean> result = new ResultsFuture<Boolean>();
     	pendingResult.addCompletionListener(new ResultsFuture.CompletionListener<ResultsMessage>() {
     		@Override
@@ -318,7 +327,7 @@ public class ResultSetImpl extends WrapperImpl implements TeiidResultSet, BatchF
             } 
         } 
         else if (currentValue instanceof java.util.Date) {
-            return TimestampWithTimezone.create((java.util.Date)currentValue, serverTimeZone, getDefaultCalendar(), currentValue.getClass());
+            return createDateValue((java.util.Date)currentValue);
         }
         else if (maxFieldSize > 0 && currentValue instanceof String) {
         	String val = (String)currentValue;
@@ -331,6 +340,34 @@ public class ResultSetImpl extends WrapperImpl implements TeiidResultSet, BatchF
         return currentValue;
     }
     
+    /**
+     * When the server and client zones match, which is always the case for embedded connections 
+     * using the defaults, the calendar based adjustment is not needed.  A copy is still 
+     * returned since for a local connection the value may be held by the server buffer.
+     */
+    private Object createDateValue(java.util.Date value) {
+    	Calendar cal = getDefaultCalendar();
+    	if (cal != zoneCheckedCalendar) {
+    		zoneCheckedCalendar = cal;
+    		sameTimeZone = serverTimeZone.hasSameRules(cal.getTimeZone());
+    	}
+    	if (sameTimeZone) {
+    		Class<?> type = value.getClass();
+    		if (type == Timestamp.class) {
+    			Timestamp result = new Timestamp(value.getTime());
+    			result.setNanos(((Timestamp)value).getNanos());
+    			return result;
+    		}
+    		if (type == Date.class) {
+    			return new Date(value.getTime());
+    		}
+    		if (type == Time.class) {
+    			return new Time(value.getTime());
+    		}
+    	}
+    	return TimestampWithTimezone.create(value, serverTimeZone, cal, value.getClass());
+    }
+    
 	private InputStreamFactory createInputStreamFactory(Streamable<?> type) {
 		final StreamingLobChunckProducer.Factory factory = new StreamingLobChunckProducer.Factory(this.statement.getDQP(), this.requestID, type);
 		InputStreamFactory isf = new InputStreamFactory() {
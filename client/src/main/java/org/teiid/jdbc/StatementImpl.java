@@ -313,6 +313,13 @@ public class StatementImpl extends WrapperImpl implements TeiidStatement {
     	submitExecute(sql, options).addCompletionListener(processor);
     }
     
+    @Override
+    public void submitExecute(String sql, BatchSubscriber subscriber, RequestOptions options) throws SQLException {
+    	NonBlockingBatchProcessor processor = new NonBlockingBatchProcessor(this, subscriber);
+    	processor.subscribe();
+    	submitExecute(sql, options).addCompletionListener(processor);
+    }
+    
     public ResultsFuture<Boolean> submitExecute(String sql, RequestOptions options) throws SQLException {
     	return executeSql(new String[] {sql}, false, ResultsMode.EITHER, false, options);
     }
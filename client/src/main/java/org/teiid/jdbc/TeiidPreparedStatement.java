@@ -42,5 +42,18 @@ public interface TeiidPreparedStatement extends PreparedStatement {
      * @throws SQLException 
      */
     void submitExecute(StatementCallback callback, RequestOptions options) throws SQLException;
+    
+    /**
+     * Execute the statement and deliver the results to the subscriber 
+     * in batches only as they are requested.  
+     * This method is valid for use with both embedded and socket connections.
+     * 
+     * Note that a single Statement may only have 1 asynch query executing at a time.
+     * 
+     * @param subscriber
+     * @param options
+     * @throws SQLException 
+     */
+    void submitExecute(BatchSubscriber subscriber, RequestOptions options) throws SQLException;
 
 }
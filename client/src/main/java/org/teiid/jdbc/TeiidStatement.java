@@ -112,4 +112,18 @@ public interface TeiidStatement extends java.sql.Statement {
      * @throws SQLException 
      */
     void submitExecute(String sql, StatementCallback callback, RequestOptions options) throws SQLException;
+    
+    /**
+     * Execute the given statement and deliver the results to the subscriber 
+     * in batches only as they are requested.  
+     * This method is valid for use with both embedded and socket connections.
+     * 
+     * Note that a single Statement may only have 1 asynch query executing at a time.
+     * 
+     * @param sql
+     * @param subscriber
+     * @param options
+     * @throws SQLException 
+     */
+    void submitExecute(String sql, BatchSubscriber subscriber, RequestOptions options) throws SQLException;
 }
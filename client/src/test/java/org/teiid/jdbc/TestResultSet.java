@@ -30,6 +30,7 @@ import java.nio.charset.Charset;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.*;
 
@@ -744,6 +745,52 @@ public class TestResultSet {
         assertEquals("<a/>", cs.getString(1));
     }
          
+    @Test public void testSameTimeZoneTimestamp() throws Exception {
+    	Calendar cal = helpTestTimestampInZone("GMT-05:00"); //$NON-NLS-1$
+    	//the fast path does not use the calendar to adjust the value
+    	Mockito.verify(cal, Mockito.never()).setTimeInMillis(Mockito.anyLong());
+    }
+    
+    @Test public void testDifferentTimeZoneTimestamp() throws Exception {
+    	Calendar cal = helpTestTimestampInZone("GMT-05:00", "GMT-06:00"); //$NON-NLS-1$ //$NON-NLS-2$
+    	Mockito.verify(cal, Mockito.atLeastOnce()).setTimeInMillis(Mockito.anyLong());
+    }
+    
+    private Calendar helpTestTimestampInZone(String zone) throws Exception {
+    	return helpTestTimestampInZone(zone, zone);
+    }
+
+    /**
+     * Read a timestamp from a server in GMT-05:00 with the given client zone
+     * @return the spied client calendar
+     */
+    private Calendar helpTestTimestampInZone(String zone, String clientZone) throws Exception {
+    	StatementImpl statement = createMockStatement(ResultSet.TYPE_FORWARD_ONLY);
+    	Mockito.stub(statement.getServerTimeZone()).toReturn(TimeZone.getTimeZone(zone));
+    	Calendar cal = Mockito.spy(Calendar.getInstance(TimeZone.getTimeZone(clientZone)));
+    	Mockito.stub(statement.getDefaultCalendar()).toReturn(cal);
+    	Timestamp ts = new Timestamp(1000);
+    	ts.setNanos(123456789);
+        ResultsMessage resultsMsg = new ResultsMessage();
+        resultsMsg.setResults(new List<?>[] {Arrays.asList(ts)});
+        resultsMsg.setLastRow(1);
+        resultsMsg.setFirstRow(1);
+        resultsMsg.setFinalRow(1);
+        resultsMsg.setColumnNames(new String[] {"x"}); //$NON-NLS-1$
+        resultsMsg.setDataTypes(new String[] {"timestamp"}); //$NON-NLS-1$
+        ResultSetImpl cs = new ResultSetImpl(resultsMsg, statement);
+        cs.next();
+        Timestamp result = cs.getTimestamp(1);
+        if (zone.equals(clientZone)) {
+        	assertEquals(ts, result);
+        } else {
+        	assertEquals(ts.getTime() + 3600000, result.getTime());
+        	assertEquals(ts.getNanos(), result.getNanos());
+        }
+        assertNotSame(ts, result);
+        return cal;
+    }
+
     /////////////////////// Helper Method ///////////////////
 
     private ResultSetImpl helpExecuteQuery() {
@@ -32,6 +32,8 @@ import org.teiid.core.CorePlugin;
  */
 public abstract class Transform {
 	
+	private volatile Object[] range;
+	
 	/**
 	 * This method transforms a value of the source type into a value
 	 * of the target type.
@@ -108,7 +110,13 @@ public abstract class Transform {
 
 	protected void checkValueRange(Object value, Number min, Number max)
 			throws TransformationException {
-		if (((Comparable)value).compareTo(DataTypeManager.transformValue(min, getSourceType())) < 0 || ((Comparable)value).compareTo(DataTypeManager.transformValue(max, getSourceType())) > 0) {
+		//the bounds are constant for a given transform, so only convert them once
+		Object[] bounds = range;
+		if (bounds == null) {
+			bounds = new Object[] {DataTypeManager.transformValue(min, getSourceType()), DataTypeManager.transformValue(max, getSourceType())};
+			range = bounds;
+		}
+		if (((Comparable)value).compareTo(bounds[0]) < 0 || ((Comparable)value).compareTo(bounds[1]) > 0) {
 			  throw new TransformationException(CorePlugin.Event.TEIID10058, CorePlugin.Util.gs(CorePlugin.Event.TEIID10058, value, getSourceType().getSimpleName(), getTargetType().getSimpleName()));
 		}
 	}
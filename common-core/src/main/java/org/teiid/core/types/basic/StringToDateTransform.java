@@ -53,7 +53,10 @@ public class StringToDateTransform extends Transform {
 	 */
 	public Object transformDirect(Object value) throws TransformationException {
 		value = ((String) value).trim();
-		Date result = null;
+		Date result = parseCanonical((String)value);
+		if (result != null) {
+			return result;
+		}
 		try {
 			result = Date.valueOf( (String) value );
 		} catch(Exception e) {
@@ -68,6 +71,29 @@ public class StringToDateTransform extends Transform {
 		return result;
 	}
 
+	/**
+	 * Parse the canonical yyyy-mm-dd form directly, without the intermediate strings
+	 * of {@link Date#valueOf(String)} and the validation round trip.
+	 * @return the date or null if the value should be handled by the full parsing logic
+	 */
+	@SuppressWarnings("deprecation")
+	static Date parseCanonical(String value) {
+		if (value.length() != 10 || value.charAt(4) != '-' || value.charAt(7) != '-') {
+			return null;
+		}
+		int year = StringToTimestampTransform.parseDigits(value, 0, 4);
+		int month = StringToTimestampTransform.parseDigits(value, 5, 7);
+		int day = StringToTimestampTransform.parseDigits(value, 8, 10);
+		if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31) {
+			return null;
+		}
+		Date result = new Date(year - 1900, month - 1, day);
+		if (result.getYear() != year - 1900 || result.getMonth() != month - 1 || result.getDate() != day) {
+			return null;
+		}
+		return result;
+	}
+
 	/**
 	 * Type of the incoming value.
 	 * @return Source type
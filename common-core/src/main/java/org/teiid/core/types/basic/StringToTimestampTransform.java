@@ -53,7 +53,10 @@ public class StringToTimestampTransform extends Transform {
 	 */
 	public Object transformDirect(Object value) throws TransformationException {
 		value = ((String) value).trim();
-		Timestamp result = null;
+		Timestamp result = parseCanonical((String)value);
+		if (result != null) {
+			return result;
+		}
 		try {
 			result = Timestamp.valueOf( (String) value );
 		} catch(Exception e) {
@@ -69,6 +72,66 @@ public class StringToTimestampTransform extends Transform {
 		return result;
 	}
 
+	/**
+	 * Parse the canonical yyyy-mm-dd hh:mm:ss[.f...] form directly, which avoids the 
+	 * intermediate strings of {@link Timestamp#valueOf(String)} and the validation round trip.
+	 * @return the timestamp or null if the value should be handled by the full parsing logic
+	 */
+	@SuppressWarnings("deprecation")
+	static Timestamp parseCanonical(String value) {
+		int length = value.length();
+		if (length < 19 || length == 20 || length > 29 
+				|| value.charAt(4) != '-' || value.charAt(7) != '-' || value.charAt(10) != ' ' 
+				|| value.charAt(13) != ':' || value.charAt(16) != ':') {
+			return null;
+		}
+		int year = parseDigits(value, 0, 4);
+		int month = parseDigits(value, 5, 7);
+		int day = parseDigits(value, 8, 10);
+		int hour = parseDigits(value, 11, 13);
+		int minute = parseDigits(value, 14, 16);
+		int second = parseDigits(value, 17, 19);
+		if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31 
+				|| hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+			return null;
+		}
+		int nanos = 0;
+		if (length > 19) {
+			if (value.charAt(19) != '.') {
+				return null;
+			}
+			nanos = parseDigits(value, 20, length);
+			if (nanos < 0) {
+				return null;
+			}
+			for (int i = length; i < 29; i++) {
+				nanos *= 10;
+			}
+		}
+		Timestamp result = new Timestamp(year - 1900, month - 1, day, hour, minute, second, nanos);
+		//reject anything normalized by the calendar, such as day overflow or a daylight savings gap
+		if (result.getYear() != year - 1900 || result.getMonth() != month - 1 || result.getDate() != day 
+				|| result.getHours() != hour || result.getMinutes() != minute || result.getSeconds() != second) {
+			return null;
+		}
+		return result;
+	}
+	
+	/**
+	 * @return the non-negative value of the digits from start to end or -1 if there is a non-digit
+	 */
+	static int parseDigits(String value, int start, int end) {
+		int result = 0;
+		for (int i = start; i < end; i++) {
+			char c = value.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			result = result * 10 + (c - '0');
+		}
+		return result;
+	}
+
 	/**
 	 * Type of the incoming value.
 	 * @return Source type
@@ -230,6 +230,17 @@ public class TestTransforms {
     	helpTransformException("2005-12-01 11:88:60", Timestamp.class, "TEIID10060 The string representation '2005-12-01 11:88:60' of a Timestamp value is not valid."); //$NON-NLS-1$ //$NON-NLS-2$ 
     }
     
+    @Test public void testStringToTimestampCanonical() throws Exception {
+    	helpTestTransform("2005-12-01 11:13:01.5", TimestampUtil.createTimestamp(105, 11, 1, 11, 13, 1, 500000000)); //$NON-NLS-1$
+    	helpTestTransform("2005-12-01 11:13:01.000000001", TimestampUtil.createTimestamp(105, 11, 1, 11, 13, 1, 1)); //$NON-NLS-1$
+    	helpTransformException("2005-02-30 11:13:01", Timestamp.class, null); //$NON-NLS-1$
+    }
+    
+    @Test public void testStringToDateCanonical() throws Exception {
+    	helpTestTransform("2005-12-01", TimestampUtil.createDate(105, 11, 1)); //$NON-NLS-1$
+    	helpTransformException("2005-02-30", Date.class, null); //$NON-NLS-1$
+    }
+    
     @Test public void testStringToLongWithWS() throws Exception {
     	helpTestTransform(" 1 ", Long.valueOf(1)); //$NON-NLS-1$ 
     }
@@ -33,7 +33,10 @@ import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.KeyspaceMetadata;
 import com.datastax.driver.core.Metadata;
 import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
 
 /**
  * Represents a connection to Cassandra database.
@@ -43,6 +46,7 @@ public class CassandraConnectionImpl extends BasicConnection implements Cassandr
 	private Cluster cluster = null;
 	private Session session = null;
 	private Metadata metadata = null;
+	private volatile String partitioner;
 	
 	public CassandraConnectionImpl(CassandraManagedConnectionFactory config, Metadata metadata) {
 		this.config = config;
@@ -87,6 +91,13 @@ public class CassandraConnectionImpl extends BasicConnection implements Cassandr
 	public ResultSet executeQuery(String query){
 		return session.execute(query);
 	}
+	
+	@Override
+	public ResultSet executeQuery(String query, int fetchSize) {
+		Statement statement = new SimpleStatement(query);
+		statement.setFetchSize(fetchSize);
+		return session.execute(statement);
+	}
 
 	@Override
 	public KeyspaceMetadata keyspaceInfo() throws ResourceException {
@@ -103,4 +114,16 @@ public class CassandraConnectionImpl extends BasicConnection implements Cassandr
 		return result;
 	}
 	
+	@Override
+	public String getPartitioner() throws ResourceException {
+		if (this.partitioner == null) {
+			Row row = session.execute("SELECT partitioner FROM system.local").one(); //$NON-NLS-1$
+			if (row == null) {
+				throw new ResourceException("Could not determine the partitioner"); //$NON-NLS-1$
+			}
+			this.partitioner = row.getString(0);
+		}
+		return this.partitioner;
+	}
+	
 }
@@ -38,10 +38,20 @@ public interface CassandraConnection extends Connection{
 	 * */
 	public ResultSet executeQuery(String query);
 	
+	/**
+	 * Executes a CQL query fetching fetchSize rows at a time.
+	 * */
+	public ResultSet executeQuery(String query, int fetchSize);
+	
 	/**
 	 * Returns metadata about Cassandra keyspace (column families, columns metadata etc.)
 	 * @throws KeyspaceNotDefinedException 
 	 * */
 	public KeyspaceMetadata keyspaceInfo() throws ResourceException;
 	
+	/**
+	 * Returns the class name of the cluster partitioner, which does not change for the life of the connection. 
+	 * */
+	public String getPartitioner() throws ResourceException;
+	
 }
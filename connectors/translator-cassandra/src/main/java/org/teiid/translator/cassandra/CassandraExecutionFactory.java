@@ -46,6 +46,9 @@ public class CassandraExecutionFactory extends ExecutionFactory<ConnectionFactor
 		TEIID22000
 	}
 	
+	private int scanParallelism = 1;
+	private int scanPageSize = 5000;
+	
 	@Override
 	public void start() throws TranslatorException {
 		super.start();
@@ -56,7 +59,10 @@ public class CassandraExecutionFactory extends ExecutionFactory<ConnectionFactor
 	public ResultSetExecution createResultSetExecution(QueryExpression command,
 			ExecutionContext executionContext, RuntimeMetadata metadata,
 			CassandraConnection connection) throws TranslatorException {
-		return new CassandraQueryExecution(command, connection, executionContext);
+		CassandraQueryExecution execution = new CassandraQueryExecution(command, connection, executionContext);
+		execution.setScanParallelism(this.scanParallelism);
+		execution.setScanPageSize(this.scanPageSize);
+		return execution;
 	}
 
 	@Override
@@ -122,4 +128,22 @@ public class CassandraExecutionFactory extends ExecutionFactory<ConnectionFactor
 		return true;
 	}
 	
+	@TranslatorProperty(display="Scan Parallelism", description="The number of token ranges to scan concurrently for queries that do not restrict the partition key.  1 disables token range scans.", advanced=true)
+	public int getScanParallelism() {
+		return scanParallelism;
+	}
+	
+	public void setScanParallelism(int scanParallelism) {
+		this.scanParallelism = scanParallelism;
+	}
+	
+	@TranslatorProperty(display="Scan Page Size", description="The number of rows to fetch at a time for each token range scan.", advanced=true)
+	public int getScanPageSize() {
+		return scanPageSize;
+	}
+	
+	public void setScanPageSize(int scanPageSize) {
+		this.scanPageSize = scanPageSize;
+	}
+	
 }
@@ -22,29 +22,47 @@
 
 package org.teiid.translator.cassandra;
 
+import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
+import javax.resource.ResourceException;
+
+import org.teiid.language.AggregateFunction;
+import org.teiid.language.ColumnReference;
 import org.teiid.language.Command;
+import org.teiid.language.DerivedColumn;
+import org.teiid.language.NamedTable;
+import org.teiid.language.Select;
+import org.teiid.language.visitor.CollectorVisitor;
 import org.teiid.logging.LogConstants;
 import org.teiid.logging.LogManager;
+import org.teiid.translator.BatchedResultSetExecution;
 import org.teiid.translator.DataNotAvailableException;
 import org.teiid.translator.ExecutionContext;
-import org.teiid.translator.ResultSetExecution;
 import org.teiid.translator.TranslatorException;
 
+import com.datastax.driver.core.ColumnMetadata;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
+import com.datastax.driver.core.TableMetadata;
 
-public class CassandraQueryExecution implements ResultSetExecution {
+public class CassandraQueryExecution implements BatchedResultSetExecution {
+	
+	private static final String MURMUR3_PARTITIONER = "Murmur3Partitioner"; //$NON-NLS-1$
+	private static final String RANDOM_PARTITIONER = "RandomPartitioner"; //$NON-NLS-1$
 
 	private Command query;
 	private CassandraConnection connection;
 	private ResultSet resultSet = null;
 	private ExecutionContext executionContext;
 	protected boolean returnsArray;
+	private int scanParallelism = 1;
+	private int scanPageSize;
+	private TokenRangeResults tokenRangeResults;
 	
 	public CassandraQueryExecution(Command query, CassandraConnection connection, ExecutionContext context){
 		this.query = query;
@@ -55,22 +73,122 @@ public class CassandraQueryExecution implements ResultSetExecution {
 	@Override
 	public void close() {
 		LogManager.logDetail(LogConstants.CTX_CONNECTOR, CassandraExecutionFactory.UTIL.getString("close_query")); //$NON-NLS-1$
-		
+		if (this.tokenRangeResults != null) {
+			this.tokenRangeResults.close();
+			this.tokenRangeResults = null;
+		}
 	}
 
 	@Override
 	public void cancel() throws TranslatorException {
 		LogManager.logDetail(LogConstants.CTX_CONNECTOR, CassandraExecutionFactory.UTIL.getString("cancel_query")); //$NON-NLS-1$
-		
+		TokenRangeResults results = this.tokenRangeResults;
+		if (results != null) {
+			results.cancel();
+		}
 	}
 
 	@Override
 	public void execute() throws TranslatorException {
+		if (this.scanParallelism > 1 && executeTokenRanges()) {
+			return;
+		}
 		CassandraSQLVisitor visitor = new CassandraSQLVisitor();
 		visitor.translateSQL(query);
 		String cql = visitor.getTranslatedSQL();
 		execute(cql);
 	}
+	
+	/**
+	 * Split a select that does not restrict the partition key into token range 
+	 * queries that are executed concurrently.
+	 * @return true if the query was executed by token ranges
+	 */
+	private boolean executeTokenRanges() throws TranslatorException {
+		if (!(query instanceof Select)) {
+			return false;
+		}
+		Select select = (Select)query;
+		if (select.getFrom() == null || select.getFrom().size() != 1 || !(select.getFrom().get(0) instanceof NamedTable) 
+				|| select.getGroupBy() != null || select.getOrderBy() != null) {
+			return false;
+		}
+		for (DerivedColumn column : select.getDerivedColumns()) {
+			if (!CollectorVisitor.collectObjects(AggregateFunction.class, column).isEmpty()) {
+				return false;
+			}
+		}
+		NamedTable table = (NamedTable)select.getFrom().get(0);
+		List<String> partitionKey = getPartitionKey(table.getMetadataObject().getSourceName());
+		if (partitionKey == null) {
+			return false;
+		}
+		if (select.getWhere() != null) {
+			Collection<ColumnReference> columns = CollectorVisitor.collectElements(select.getWhere());
+			for (ColumnReference column : columns) {
+				if (partitionKey.contains(column.getMetadataObject().getSourceName())) {
+					return false;
+				}
+			}
+		}
+		BigInteger min = null;
+		BigInteger max = null;
+		String partitioner = getPartitioner();
+		if (partitioner == null) {
+			return false;
+		}
+		if (partitioner.endsWith(MURMUR3_PARTITIONER)) {
+			min = BigInteger.valueOf(Long.MIN_VALUE);
+			max = BigInteger.valueOf(Long.MAX_VALUE);
+		} else if (partitioner.endsWith(RANDOM_PARTITIONER)) {
+			min = BigInteger.ONE.negate();
+			max = BigInteger.ONE.shiftLeft(127);
+		} else {
+			//ordered partitioners do not have numeric tokens
+			return false;
+		}
+		List<BigInteger> boundaries = TokenRangeResults.getBoundaries(min, max, this.scanParallelism);
+		List<String> rangeQueries = new ArrayList<String>(this.scanParallelism);
+		for (int i = 0; i < boundaries.size() - 1; i++) {
+			CassandraSQLVisitor visitor = new CassandraSQLVisitor();
+			visitor.setTokenRange(partitionKey, boundaries.get(i), boundaries.get(i + 1));
+			visitor.translateSQL(query);
+			rangeQueries.add(visitor.getTranslatedSQL());
+		}
+		int limit = -1;
+		if (select.getLimit() != null) {
+			limit = select.getLimit().getRowLimit();
+		}
+		this.tokenRangeResults = new TokenRangeResults(this, this.connection, this.executionContext, rangeQueries, this.scanPageSize, limit);
+		this.tokenRangeResults.start();
+		return true;
+	}
+	
+	private List<String> getPartitionKey(String tableName) {
+		TableMetadata tableMetadata = null;
+		try {
+			tableMetadata = this.connection.keyspaceInfo().getTable(tableName);
+		} catch (ResourceException e) {
+			LogManager.logDetail(LogConstants.CTX_CONNECTOR, e, "Could not get the keyspace metadata"); //$NON-NLS-1$
+		}
+		if (tableMetadata == null || tableMetadata.getPartitionKey().isEmpty()) {
+			return null;
+		}
+		List<String> result = new ArrayList<String>();
+		for (ColumnMetadata column : tableMetadata.getPartitionKey()) {
+			result.add(column.getName());
+		}
+		return result;
+	}
+	
+	private String getPartitioner() {
+		try {
+			return this.connection.getPartitioner();
+		} catch (Throwable t) {
+			LogManager.logDetail(LogConstants.CTX_CONNECTOR, t, "Could not determine the partitioner"); //$NON-NLS-1$
+		}
+		return null;
+	}
 
 	protected void execute(String cql) throws TranslatorException {
 		LogManager.logDetail(LogConstants.CTX_CONNECTOR, "Source-Query:", cql); //$NON-NLS-1$
@@ -83,16 +201,47 @@ public class CassandraQueryExecution implements ResultSetExecution {
 
 	@Override
 	public List<?> next() throws TranslatorException, DataNotAvailableException {
+		if (this.tokenRangeResults != null) {
+			return this.tokenRangeResults.next();
+		}
 		return getRow(resultSet.one());
 	}
 	
+	/**
+	 * Returns the rows from the current page, only blocking for the next page if the current 
+	 * one is exhausted.  The following page is requested in the background once fewer than 
+	 * maxRows remain.
+	 */
+	@Override
+	public List<List<?>> nextBatch(int maxRows) throws TranslatorException,
+			DataNotAvailableException {
+		if (this.tokenRangeResults != null) {
+			return this.tokenRangeResults.nextBatch(maxRows);
+		}
+		List<List<?>> rows = null;
+		do {
+			List<?> row = getRow(resultSet.one());
+			if (row == null) {
+				break;
+			}
+			if (rows == null) {
+				rows = new ArrayList<List<?>>(Math.min(maxRows, resultSet.getAvailableWithoutFetching() + 1));
+			}
+			rows.add(row);
+		} while (rows.size() < maxRows && resultSet.getAvailableWithoutFetching() > 0);
+		if (rows != null && !resultSet.isFullyFetched() && resultSet.getAvailableWithoutFetching() < maxRows) {
+			resultSet.fetchMoreResults();
+		}
+		return rows;
+	}
+	
 	/**
 	 * Iterates through all columns in the {@code row}. For each column, returns its value as Java type
 	 * that matches the CQL type in switch part. Otherwise returns the value as bytes composing the value.
 	 * @param row the row returned by the ResultSet
 	 * @return list of values in {@code row}
 	 */
-	private List<Object> getRow(Row row) {
+	List<Object> getRow(Row row) {
 		if(row == null){
 			return null;
 		}
@@ -169,5 +318,16 @@ public class CassandraQueryExecution implements ResultSetExecution {
 		}
 		return values;
 	}
+	
+	/**
+	 * @param scanParallelism the number of token ranges to scan concurrently, 1 disables token range scans
+	 */
+	public void setScanParallelism(int scanParallelism) {
+		this.scanParallelism = scanParallelism;
+	}
+	
+	public void setScanPageSize(int scanPageSize) {
+		this.scanPageSize = scanPageSize;
+	}
 
 }
@@ -29,6 +29,7 @@ import java.io.InputStream;
 import java.sql.Blob;
 import java.sql.SQLException;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
 import org.teiid.core.TeiidRuntimeException;
@@ -42,6 +43,8 @@ import org.teiid.language.visitor.SQLStringVisitor;
 import org.teiid.translator.TypeFacility;
 
 public class CassandraSQLVisitor extends SQLStringVisitor {
+	
+	private String tokenRange;
 
 	public String getTranslatedSQL() {
 		return buffer.toString();
@@ -55,6 +58,22 @@ public class CassandraSQLVisitor extends SQLStringVisitor {
 	public void translateSQL(LanguageObject obj) {
 		append(obj);
 	}
+	
+	/**
+	 * Restrict a select to the token range (lower, upper] of the partition key
+	 */
+	public void setTokenRange(List<String> partitionKey, Object lower, Object upper) {
+		StringBuilder token = new StringBuilder("token("); //$NON-NLS-1$
+		for (int i = 0; i < partitionKey.size(); i++) {
+			if (i > 0) {
+				token.append(Tokens.COMMA).append(Tokens.SPACE);
+			}
+			token.append(partitionKey.get(i));
+		}
+		token.append(Tokens.RPAREN);
+		this.tokenRange = token + Tokens.SPACE + Tokens.GT + Tokens.SPACE + lower + Tokens.SPACE + AND + Tokens.SPACE 
+				+ token + Tokens.SPACE + Tokens.LE + Tokens.SPACE + upper;
+	}
 
 	@Override
 	public void visit(Select obj) {
@@ -73,6 +92,11 @@ public class CassandraSQLVisitor extends SQLStringVisitor {
 		if(obj.getWhere() != null){
 			buffer.append(Tokens.SPACE).append(WHERE).append(Tokens.SPACE);
 			append(obj.getWhere());
+			if (this.tokenRange != null) {
+				buffer.append(Tokens.SPACE).append(AND).append(Tokens.SPACE).append(this.tokenRange);
+			}
+		} else if (this.tokenRange != null) {
+			buffer.append(Tokens.SPACE).append(WHERE).append(Tokens.SPACE).append(this.tokenRange);
 		}
 		
 		if(obj.getOrderBy() != null){
@@ -0,0 +1,188 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.translator.cassandra;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.teiid.logging.LogConstants;
+import org.teiid.logging.LogManager;
+import org.teiid.translator.DataNotAvailableException;
+import org.teiid.translator.ExecutionContext;
+import org.teiid.translator.ResultsQueue;
+import org.teiid.translator.TranslatorException;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+
+/**
+ * Scans the token ranges of a query concurrently and presents the rows, in no particular order,
+ * as a single stream.  Each range query carries the limit of the original query, so the 
+ * limit is reapplied to the merged rows.
+ */
+class TokenRangeResults {
+	
+	private class Range implements Runnable {
+		private String cql;
+		private Future<?> future;
+		
+		public Range(String cql) {
+			this.cql = cql;
+		}
+		
+		@Override
+		public void run() {
+			Throwable failure = null;
+			try {
+				if (queue.isClosed()) {
+					return;
+				}
+				LogManager.logDetail(LogConstants.CTX_CONNECTOR, "Source-Query:", cql); //$NON-NLS-1$
+				ResultSet rs = connection.executeQuery(cql, pageSize);
+				Row row = null;
+				while (!queue.isClosed() && (row = rs.one()) != null) {
+					if (!queue.put(execution.getRow(row))) {
+						break;
+					}
+				}
+			} catch (Throwable e) {
+				failure = e;
+			} finally {
+				queue.finish(failure);
+			}
+		}
+	}
+	
+	private CassandraQueryExecution execution;
+	private CassandraConnection connection;
+	private int pageSize;
+	private List<Range> ranges = new ArrayList<Range>();
+	private ResultsQueue<List<?>> queue;
+	private int limit;
+	private int rowCount;
+	
+	/**
+	 * @param rangeQueries the query for each token range 
+	 * @param limit the row limit of the original query or -1 if there is none
+	 */
+	TokenRangeResults(CassandraQueryExecution execution, CassandraConnection connection, ExecutionContext context, List<String> rangeQueries, int pageSize, int limit) {
+		this.execution = execution;
+		this.connection = connection;
+		this.pageSize = pageSize;
+		this.limit = limit;
+		this.queue = new ResultsQueue<List<?>>(Math.max(1, pageSize) * rangeQueries.size(), rangeQueries.size(), context);
+		for (String cql : rangeQueries) {
+			ranges.add(new Range(cql));
+		}
+	}
+	
+	void start() {
+		for (Range range : ranges) {
+			range.future = ResultsQueue.getReaderExecutor().submit(range);
+		}
+	}
+	
+	/**
+	 * Get the next row without blocking, the context is notified once a row is available
+	 */
+	List<?> next() throws TranslatorException, DataNotAvailableException {
+		if (limit >= 0 && rowCount >= limit) {
+			return null;
+		}
+		List<?> row = null;
+		try {
+			row = queue.next();
+		} catch (ExecutionException e) {
+			throw new TranslatorException(e.getCause());
+		}
+		if (row != null) {
+			rowCount++;
+		}
+		return row;
+	}
+	
+	/**
+	 * Return at least one row and then whatever other rows are already available
+	 */
+	List<List<?>> nextBatch(int maxRows) throws TranslatorException, DataNotAvailableException {
+		List<?> row = next();
+		if (row == null) {
+			return null;
+		}
+		List<List<?>> rows = new ArrayList<List<?>>(Math.min(maxRows, queue.size() + 1));
+		rows.add(row);
+		while (rows.size() < maxRows && (limit < 0 || rowCount < limit)) {
+			try {
+				row = queue.poll();
+			} catch (ExecutionException e) {
+				throw new TranslatorException(e.getCause());
+			}
+			if (row == null) {
+				break;
+			}
+			rowCount++;
+			rows.add(row);
+		}
+		return rows;
+	}
+	
+	/**
+	 * Stop reading and wait for the range scans that have already started to finish
+	 */
+	void close() {
+		queue.close();
+		for (Range range : ranges) {
+			if (range.future == null || range.future.cancel(false)) {
+				continue;
+			}
+			try {
+				range.future.get();
+			} catch (Exception e) {
+				LogManager.logDetail(LogConstants.CTX_CONNECTOR, e, "Exception closing"); //$NON-NLS-1$
+			}
+		}
+	}
+	
+	void cancel() {
+		queue.close();
+	}
+	
+	/**
+	 * Split the token range (min, max] into count contiguous ranges
+	 * @return the count + 1 boundaries
+	 */
+	static List<BigInteger> getBoundaries(BigInteger min, BigInteger max, int count) {
+		List<BigInteger> result = new ArrayList<BigInteger>(count + 1);
+		BigInteger width = max.subtract(min);
+		BigInteger divisor = BigInteger.valueOf(count);
+		for (int i = 0; i < count; i++) {
+			result.add(min.add(width.multiply(BigInteger.valueOf(i)).divide(divisor)));
+		}
+		result.add(max);
+		return result;
+	}
+	
+}
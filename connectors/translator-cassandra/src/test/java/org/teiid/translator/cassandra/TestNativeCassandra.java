@@ -24,24 +24,33 @@ package org.teiid.translator.cassandra;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.teiid.cdk.api.TranslationUtility;
 import org.teiid.cdk.unittest.FakeTranslationFactory;
+import org.teiid.dqp.internal.datamgr.FakeExecutionContextImpl;
 import org.teiid.language.Command;
 import org.teiid.metadata.RuntimeMetadata;
 import org.teiid.query.metadata.TransformationMetadata;
 import org.teiid.query.unittest.RealMetadataFactory;
+import org.teiid.translator.DataNotAvailableException;
 import org.teiid.translator.Execution;
 import org.teiid.translator.ExecutionContext;
 import org.teiid.translator.ResultSetExecution;
 import org.teiid.translator.TranslatorException;
 
 import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.ColumnMetadata;
+import com.datastax.driver.core.KeyspaceMetadata;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
+import com.datastax.driver.core.TableMetadata;
 
 @SuppressWarnings("nls")
 public class TestNativeCassandra {
@@ -92,4 +101,90 @@ public class TestNativeCassandra {
         Mockito.verify(connection).executeQuery("delete from 'a' where 1");
 	}
 	
+	private CassandraConnection helpMockTokenRangeConnection(ResultSet rs) throws Exception {
+		CassandraConnection connection = Mockito.mock(CassandraConnection.class);
+		Mockito.stub(connection.getPartitioner()).toReturn("org.apache.cassandra.dht.Murmur3Partitioner");
+		
+		KeyspaceMetadata keyspace = Mockito.mock(KeyspaceMetadata.class);
+		TableMetadata table = Mockito.mock(TableMetadata.class);
+		ColumnMetadata column = Mockito.mock(ColumnMetadata.class);
+		Mockito.stub(column.getName()).toReturn("id");
+		Mockito.stub(table.getPartitionKey()).toReturn(Arrays.asList(column));
+		Mockito.stub(keyspace.getTable("Person")).toReturn(table);
+		Mockito.stub(connection.keyspaceInfo()).toReturn(keyspace);
+		
+		Mockito.stub(connection.executeQuery(Mockito.anyString(), Mockito.eq(100))).toReturn(rs);
+		return connection;
+	}
+	
+	private ResultSetExecution helpCreateTokenRangeExecution(CassandraConnection connection, ExecutionContext ec) throws Exception {
+		CassandraExecutionFactory cef = new CassandraExecutionFactory();
+		cef.setScanParallelism(2);
+		cef.setScanPageSize(100);
+		
+		TransformationMetadata metadata = RealMetadataFactory.fromDDL("create foreign table Person (id integer primary key, name string)", "x", "y");
+		TranslationUtility util = new TranslationUtility(metadata);
+		Command command = util.parseCommand("select id, name from Person");
+		RuntimeMetadata rm = Mockito.mock(RuntimeMetadata.class);
+		return (ResultSetExecution)cef.createExecution(command, ec, rm, connection);
+	}
+	
+	/**
+	 * Get the next row as the engine would, waiting to be notified when the scans have not produced one
+	 */
+	private List<?> nextRow(ResultSetExecution execution, FakeExecutionContextImpl ec) throws Exception {
+		while (true) {
+			try {
+				return execution.next();
+			} catch (DataNotAvailableException e) {
+				assertSame(DataNotAvailableException.NO_POLLING, e);
+				while (!ec.isDataAvailable()) {
+					Thread.sleep(10);
+				}
+			}
+		}
+	}
+	
+	@Test public void testTokenRangeScan() throws Exception {
+		ResultSet rs = Mockito.mock(ResultSet.class);
+		CassandraConnection connection = helpMockTokenRangeConnection(rs);
+		FakeExecutionContextImpl ec = new FakeExecutionContextImpl();
+		ResultSetExecution execution = helpCreateTokenRangeExecution(connection, ec);
+		execution.execute();
+		assertNull(nextRow(execution, ec));
+		execution.close();
+		
+		ArgumentCaptor<String> cql = ArgumentCaptor.forClass(String.class);
+		Mockito.verify(connection, Mockito.times(2)).executeQuery(cql.capture(), Mockito.eq(100));
+		List<String> queries = new ArrayList<String>(cql.getAllValues());
+		Collections.sort(queries);
+		assertEquals(Arrays.asList("SELECT id, name FROM Person WHERE token(id) > -1 AND token(id) <= 9223372036854775807", 
+				"SELECT id, name FROM Person WHERE token(id) > -9223372036854775808 AND token(id) <= -1"), queries);
+	}
+	
+	@Test(timeout=10000) public void testTokenRangeCancelAndClose() throws Exception {
+		//ranges that never end
+		ResultSet rs = Mockito.mock(ResultSet.class);
+		Row row = Mockito.mock(Row.class);
+		ColumnDefinitions cd = Mockito.mock(ColumnDefinitions.class);
+		Mockito.stub(row.getColumnDefinitions()).toReturn(cd);
+		Mockito.stub(rs.one()).toReturn(row);
+		CassandraConnection connection = helpMockTokenRangeConnection(rs);
+		
+		FakeExecutionContextImpl ec = new FakeExecutionContextImpl();
+		ResultSetExecution execution = helpCreateTokenRangeExecution(connection, ec);
+		execution.execute();
+		assertNotNull(nextRow(execution, ec));
+		execution.cancel();
+		assertNull(execution.next());
+		execution.close();
+		
+		//closing without reading all results
+		ec = new FakeExecutionContextImpl();
+		execution = helpCreateTokenRangeExecution(connection, ec);
+		execution.execute();
+		assertNotNull(nextRow(execution, ec));
+		execution.close();
+	}
+	
 }
@@ -2,6 +2,8 @@ package org.teiid.translator.cassandra;
 
 import static org.junit.Assert.*;
 
+import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Properties;
 
 import org.junit.Test;
@@ -66,4 +68,25 @@ public class TestTeiidLanguageToCQL {
 		testTranslation("insert into Person (id, custom1) values (1, X'abcd')", "INSERT INTO Person (id, custom1) VALUES (1, 0xABCD)");
 	}
 	
+	@Test
+	public void testTokenRange() throws Exception {
+		CassandraSQLVisitor visitor = new CassandraSQLVisitor();
+		visitor.setTokenRange(Arrays.asList("id", "name"), -1, 5);
+		visitor.translateSQL(getCommand("select id from Person where age = 1 limit 10"));
+		assertEquals("SELECT id FROM Person WHERE age = 1 AND token(id, name) > -1 AND token(id, name) <= 5 LIMIT 10", visitor.getTranslatedSQL());
+		
+		visitor = new CassandraSQLVisitor();
+		visitor.setTokenRange(Arrays.asList("id"), -1, 5);
+		visitor.translateSQL(getCommand("select id from Person"));
+		assertEquals("SELECT id FROM Person WHERE token(id) > -1 AND token(id) <= 5", visitor.getTranslatedSQL());
+	}
+	
+	@Test
+	public void testTokenRangeBoundaries() throws Exception {
+		assertEquals(Arrays.asList(BigInteger.valueOf(Long.MIN_VALUE), BigInteger.valueOf(-1), BigInteger.valueOf(Long.MAX_VALUE)), 
+				TokenRangeResults.getBoundaries(BigInteger.valueOf(Long.MIN_VALUE), BigInteger.valueOf(Long.MAX_VALUE), 2));
+		assertEquals(Arrays.asList(BigInteger.valueOf(-1), BigInteger.valueOf(3), BigInteger.valueOf(7), BigInteger.valueOf(11)), 
+				TokenRangeResults.getBoundaries(BigInteger.valueOf(-1), BigInteger.valueOf(11), 3));
+	}
+	
 }
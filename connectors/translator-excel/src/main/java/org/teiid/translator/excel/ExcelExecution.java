@@ -44,6 +44,7 @@ import javax.resource.ResourceException;
 import org.apache.poi.hssf.usermodel.HSSFSheet;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DateUtil;
 import org.apache.poi.ss.usermodel.FormulaEvaluator;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
@@ -82,6 +83,8 @@ public class ExcelExecution implements ResultSetExecution {
 	private FormulaEvaluator evaluator;
 	private FileInputStream xlsFileStream;
 	private Class<?>[] expectedColumnTypes;
+	private boolean streaming;
+	private StreamingSheetReader sheetReader;
 
 	public ExcelExecution(Select query, ExecutionContext executionContext,
 			RuntimeMetadata metadata, FileConnection connection)
@@ -110,6 +113,10 @@ public class ExcelExecution implements ResultSetExecution {
     }
 
 	private Iterator<Row> readXLSFile(File xlsFile) throws TranslatorException {
+		if (this.streaming && ExcelMetadataProcessor.getFileExtension(xlsFile).equalsIgnoreCase("xlsx")) { //$NON-NLS-1$
+			this.sheetReader = new StreamingSheetReader(xlsFile, this.visitor.getSheetName(), this.visitor.getProjectedColumns());
+			return null;
+		}
 		try {
 			this.xlsFileStream = new FileInputStream(xlsFile);
 			Iterator<Row> rowIter = null;			
@@ -148,6 +155,9 @@ public class ExcelExecution implements ResultSetExecution {
 
     @Override
     public List<?> next() throws TranslatorException, DataNotAvailableException {
+    	if (this.sheetReader != null) {
+    		return nextStreamingRow();
+    	}
         while (hasNext()) {
         	Row row = nextRow();
         	// when the first cell number is -1, then it is empty row, skip it
@@ -160,9 +170,35 @@ public class ExcelExecution implements ResultSetExecution {
         	}
         	return projectRow(row);
         }
+        if (this.sheetReader != null) {
+        	return nextStreamingRow();
+        }
         return null;
     }
     
+    private List<?> nextStreamingRow() throws TranslatorException {
+    	while (true) {
+    		while (this.sheetReader.nextRow()) {
+    			int rowNum = this.sheetReader.getRowNum();
+    			if (this.sheetReader.isEmptyRow() || rowNum < this.visitor.getFirstDataRowNumber() || !this.visitor.allows(rowNum)) {
+    				continue;
+    			}
+    			return projectRow(this.sheetReader);
+    		}
+    		this.sheetReader.close();
+    		this.sheetReader = null;
+    		File nextXlsFile = getNextXLSFile();
+    		if (nextXlsFile == null) {
+    			return null;
+    		}
+    		this.rowIterator = readXLSFile(nextXlsFile);
+    		if (this.sheetReader == null) {
+    			//not an xlsx file
+    			return next();
+    		}
+    	}
+    }
+    
     private boolean hasNext() throws TranslatorException {
     	if (this.currentRow != null) {
     		return true;
@@ -178,7 +214,9 @@ public class ExcelExecution implements ResultSetExecution {
     		File nextXlsFile = getNextXLSFile();
     		if (nextXlsFile != null) {
     			this.rowIterator = readXLSFile(nextXlsFile);
-    			hasNext = this.rowIterator.hasNext();
+    			if (this.rowIterator != null) {
+    				hasNext = this.rowIterator.hasNext();
+    			}
     		}
     	}
     	return hasNext;
@@ -186,11 +224,13 @@ public class ExcelExecution implements ResultSetExecution {
     
     private File getNextXLSFile() {
     	if (this.xlsFiles.length > this.fileCount.get()) {
-    		try {
-				this.xlsFileStream.close();
-			} catch (IOException e) {
-				// ignore
-			}
+    		if (this.xlsFileStream != null) {
+	    		try {
+					this.xlsFileStream.close();
+				} catch (IOException e) {
+					// ignore
+				}
+    		}
     		return this.xlsFiles[this.fileCount.getAndIncrement()];
     	}
     	return null;
@@ -257,8 +297,53 @@ public class ExcelExecution implements ResultSetExecution {
         return output;    
     }
 
+    List<Object> projectRow(StreamingSheetReader reader) throws TranslatorException {
+    	List<Integer> projected = this.visitor.getProjectedColumns();
+    	List<Object> output = new ArrayList<Object>(projected.size());
+    	for (int i = 0; i < projected.size(); i++) {
+    		if (projected.get(i) == -1) {
+    			output.add(reader.getRowNum()+1);
+    			continue;
+    		}
+    		Object value = reader.getValue(i);
+    		if (value instanceof Double) {
+    			Double d = (Double)value;
+    			Date date = null;
+    			if (isDateType(this.expectedColumnTypes[i])) {
+    				date = DateUtil.getJavaDate(d, reader.isDate1904());
+    			}
+    			output.add(convertFromExcelType(d, date, this.expectedColumnTypes[i]));
+    		} else if (value instanceof String) {
+    			output.add(convertFromExcelType((String)value, this.expectedColumnTypes[i]));
+    		} else if (value instanceof Boolean) {
+    			output.add(convertFromExcelType((Boolean)value, this.expectedColumnTypes[i]));
+    		} else {
+    			output.add(null);
+    		}
+    	}
+    	return output;
+    }
+    
+    private static boolean isDateType(Class<?> expectedType) {
+    	return !expectedType.isAssignableFrom(Double.class) && (expectedType.isAssignableFrom(Timestamp.class) 
+    			|| expectedType.isAssignableFrom(java.sql.Date.class) || expectedType.isAssignableFrom(java.sql.Time.class));
+    }
     
     static Object convertFromExcelType(final Double value, Cell cell, final Class<?> expectedType) throws TranslatorException {
+    	if (value == null) {
+			return null;
+		}
+    	Date date = null;
+    	if (isDateType(expectedType)) {
+    		date = cell.getDateCellValue();
+    	}
+    	return convertFromExcelType(value, date, expectedType);
+    }
+    
+    /**
+     * @param date the date value of the cell, which is only needed for a date expected type
+     */
+    static Object convertFromExcelType(final Double value, Date date, final Class<?> expectedType) throws TranslatorException {
 		if (value == null) {
 			return null;
 		}
@@ -267,15 +352,12 @@ public class ExcelExecution implements ResultSetExecution {
 			return value;
 		}
 		else if (expectedType.isAssignableFrom(Timestamp.class)) {
-			Date date = cell.getDateCellValue();
 			return new Timestamp(date.getTime());
 		}
 		else if (expectedType.isAssignableFrom(java.sql.Date.class)) {
-			Date date = cell.getDateCellValue();
 			return new java.sql.Date(date.getTime());
 		}
 		else if (expectedType.isAssignableFrom(java.sql.Time.class)) {
-			Date date = cell.getDateCellValue();
 			Calendar calendar = Calendar.getInstance();
 			calendar.setTime(date);
 			StringBuilder sb = new StringBuilder();
@@ -343,6 +425,10 @@ public class ExcelExecution implements ResultSetExecution {
     
     @Override
     public void close() {
+    	if (this.sheetReader != null) {
+    		this.sheetReader.close();
+    		this.sheetReader = null;
+    	}
     	if (this.xlsFileStream != null) {
 	    	try {
 				this.xlsFileStream.close();
@@ -351,6 +437,13 @@ public class ExcelExecution implements ResultSetExecution {
     	}
     }
 
+    /**
+     * Read xlsx files with a {@link StreamingSheetReader} rather than loading the workbook
+     */
+    public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
     @Override
     public void cancel() throws TranslatorException {
 
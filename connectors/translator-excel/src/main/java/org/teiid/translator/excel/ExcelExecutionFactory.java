@@ -31,6 +31,8 @@ import org.teiid.translator.*;
 
 @Translator(name="excel", description="Excel file translator")
 public class ExcelExecutionFactory extends ExecutionFactory<ConnectionFactory, FileConnection> {
+	
+	private boolean streaming;
 
 	public ExcelExecutionFactory() {
 		setSourceRequiredForMetadata(true);
@@ -44,7 +46,9 @@ public class ExcelExecutionFactory extends ExecutionFactory<ConnectionFactory, F
     @Override
     public ResultSetExecution createResultSetExecution(QueryExpression command, ExecutionContext executionContext, RuntimeMetadata metadata, FileConnection connection)
     		throws TranslatorException {
-    	return new ExcelExecution((Select)command, executionContext, metadata, connection);
+    	ExcelExecution execution = new ExcelExecution((Select)command, executionContext, metadata, connection);
+    	execution.setStreaming(this.streaming);
+    	return execution;
     }    
     	
     @Override
@@ -81,4 +85,13 @@ public class ExcelExecutionFactory extends ExecutionFactory<ConnectionFactory, F
 	public boolean supportsInCriteria() {
 		return true;
 	}
+	
+	@TranslatorProperty(display="Streaming", description="If xlsx files should be read as a stream rather than by loading the whole workbook into memory.  Formulas are not evaluated when streaming, the values saved with the workbook are used instead.", advanced=true)
+	public boolean isStreaming() {
+		return streaming;
+	}
+	
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
 }
@@ -0,0 +1,321 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.translator.excel;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.teiid.core.types.XMLType;
+import org.teiid.translator.TranslatorException;
+import org.xml.sax.SAXException;
+
+/**
+ * Reads the rows of an xlsx sheet by pulling from the sheet xml rather than 
+ * building the workbook in memory.  Only the values of the projected cells are retained.
+ * <br>
+ * Formulas are not evaluated, the cached value saved with the workbook is used instead.
+ */
+class StreamingSheetReader {
+	
+	private static final String SHEET_DATA = "sheetData"; //$NON-NLS-1$
+	private static final String ROW = "row"; //$NON-NLS-1$
+	private static final String CELL = "c"; //$NON-NLS-1$
+	private static final String VALUE = "v"; //$NON-NLS-1$
+	private static final String INLINE_TEXT = "t"; //$NON-NLS-1$
+	private static final String WORKBOOK_PROPERTIES = "workbookPr"; //$NON-NLS-1$
+	
+	private OPCPackage pkg;
+	private InputStream sheetStream;
+	private XMLStreamReader reader;
+	private ReadOnlySharedStringsTable strings;
+	private boolean date1904;
+	/**
+	 * the position in the values of each cell index, or -1 if not projected
+	 */
+	private int[] positions;
+	private Object[] values;
+	private int rowNum = -1;
+	private boolean emptyRow;
+	
+	/**
+	 * @param xlsxFile
+	 * @param sheetName
+	 * @param projectedColumns the 1 based cell numbers of the projected columns or -1 for the row id
+	 * @throws TranslatorException
+	 */
+	StreamingSheetReader(File xlsxFile, String sheetName, List<Integer> projectedColumns) throws TranslatorException {
+		int max = 0;
+		for (int index : projectedColumns) {
+			max = Math.max(max, index);
+		}
+		this.positions = new int[max];
+		Arrays.fill(this.positions, -1);
+		for (int i = 0; i < projectedColumns.size(); i++) {
+			int index = projectedColumns.get(i);
+			if (index > 0) {
+				this.positions[index - 1] = i;
+			}
+		}
+		this.values = new Object[projectedColumns.size()];
+		boolean success = false;
+		try {
+			this.pkg = OPCPackage.open(xlsxFile, PackageAccess.READ);
+			XSSFReader xssfReader = new XSSFReader(this.pkg);
+			this.date1904 = isDate1904(xssfReader.getWorkbookData());
+			XSSFReader.SheetIterator iter = (XSSFReader.SheetIterator)xssfReader.getSheetsData();
+			while (iter.hasNext()) {
+				InputStream is = iter.next();
+				if (iter.getSheetName().equals(sheetName)) {
+					this.sheetStream = is;
+					break;
+				}
+				is.close();
+			}
+			if (this.sheetStream == null) {
+				throw new TranslatorException(ExcelPlugin.Event.TEIID23009, ExcelPlugin.Util.gs(ExcelPlugin.Event.TEIID23009, sheetName, xlsxFile.getName()));
+			}
+			this.strings = new ReadOnlySharedStringsTable(this.pkg);
+			this.reader = XMLType.getXmlInputFactory().createXMLStreamReader(this.sheetStream);
+			success = true;
+		} catch (IOException e) {
+			throw new TranslatorException(e);
+		} catch (OpenXML4JException e) {
+			throw new TranslatorException(e);
+		} catch (SAXException e) {
+			throw new TranslatorException(e);
+		} catch (XMLStreamException e) {
+			throw new TranslatorException(e);
+		} finally {
+			if (!success) {
+				close();
+			}
+		}
+	}
+	
+	private static boolean isDate1904(InputStream workbook) throws XMLStreamException, IOException {
+		try {
+			XMLStreamReader workbookReader = XMLType.getXmlInputFactory().createXMLStreamReader(workbook);
+			try {
+				while (workbookReader.hasNext()) {
+					if (workbookReader.next() == XMLStreamConstants.START_ELEMENT) {
+						if (workbookReader.getLocalName().equals(WORKBOOK_PROPERTIES)) {
+							String value = workbookReader.getAttributeValue(null, "date1904"); //$NON-NLS-1$
+							return "1".equals(value) || "true".equals(value); //$NON-NLS-1$ //$NON-NLS-2$
+						}
+						if (workbookReader.getLocalName().equals("sheets")) { //$NON-NLS-1$
+							//the properties precede the sheets
+							break;
+						}
+					}
+				}
+				return false;
+			} finally {
+				workbookReader.close();
+			}
+		} finally {
+			workbook.close();
+		}
+	}
+	
+	/**
+	 * Advance to the next row in the sheet.
+	 * @return false if there are no more rows
+	 */
+	boolean nextRow() throws TranslatorException {
+		try {
+			while (this.reader.hasNext()) {
+				int event = this.reader.next();
+				if (event == XMLStreamConstants.END_ELEMENT && this.reader.getLocalName().equals(SHEET_DATA)) {
+					return false;
+				}
+				if (event == XMLStreamConstants.START_ELEMENT && this.reader.getLocalName().equals(ROW)) {
+					readRow();
+					return true;
+				}
+			}
+			return false;
+		} catch (XMLStreamException e) {
+			throw new TranslatorException(e);
+		}
+	}
+
+	private void readRow() throws XMLStreamException {
+		String r = this.reader.getAttributeValue(null, "r"); //$NON-NLS-1$
+		if (r != null) {
+			this.rowNum = Integer.parseInt(r) - 1;
+		} else {
+			this.rowNum++;
+		}
+		Arrays.fill(this.values, null);
+		this.emptyRow = true;
+		int cellIndex = -1;
+		while (this.reader.hasNext()) {
+			int event = this.reader.next();
+			if (event == XMLStreamConstants.END_ELEMENT && this.reader.getLocalName().equals(ROW)) {
+				return;
+			}
+			if (event != XMLStreamConstants.START_ELEMENT || !this.reader.getLocalName().equals(CELL)) {
+				continue;
+			}
+			this.emptyRow = false;
+			String ref = this.reader.getAttributeValue(null, "r"); //$NON-NLS-1$
+			if (ref != null) {
+				cellIndex = getCellIndex(ref);
+			} else {
+				cellIndex++;
+			}
+			if (cellIndex >= this.positions.length || this.positions[cellIndex] == -1) {
+				skipElement();
+				continue;
+			}
+			this.values[this.positions[cellIndex]] = readCell(this.reader.getAttributeValue(null, "t")); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Read the value of the current cell element
+	 * @return a Double, String, Boolean, or null for a blank or error cell
+	 */
+	private Object readCell(String type) throws XMLStreamException {
+		String text = null;
+		int depth = 1;
+		while (depth > 0) {
+			int event = this.reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+				String name = this.reader.getLocalName();
+				if (name.equals(VALUE) || name.equals(INLINE_TEXT)) {
+					String value = this.reader.getElementText();
+					depth--;
+					//inline strings may be split into runs
+					text = text == null ? value : text + value;
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+		if (text == null) {
+			return null;
+		}
+		if (type == null || type.equals("n")) { //$NON-NLS-1$
+			return text.length() == 0 ? null : Double.valueOf(text);
+		}
+		if (type.equals("s")) { //$NON-NLS-1$
+			return this.strings.getEntryAt(Integer.parseInt(text));
+		}
+		if (type.equals("b")) { //$NON-NLS-1$
+			return "1".equals(text) || "true".equals(text); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		if (type.equals("e")) { //$NON-NLS-1$
+			return null;
+		}
+		//str or inlineStr
+		return text;
+	}
+	
+	private void skipElement() throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0) {
+			int event = this.reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+	
+	/**
+	 * Get the 0 based cell index from a cell reference such as AB12
+	 */
+	static int getCellIndex(String ref) {
+		int result = 0;
+		for (int i = 0; i < ref.length(); i++) {
+			char c = ref.charAt(i);
+			if (c < 'A' || c > 'Z') {
+				break;
+			}
+			result = result * 26 + (c - 'A' + 1);
+		}
+		return result - 1;
+	}
+	
+	/**
+	 * @return the 0 based number of the current row
+	 */
+	int getRowNum() {
+		return this.rowNum;
+	}
+	
+	/**
+	 * @return true if the current row has no cells
+	 */
+	boolean isEmptyRow() {
+		return this.emptyRow;
+	}
+	
+	/**
+	 * @param position the position in the projected columns
+	 * @return a Double, String, Boolean or null
+	 */
+	Object getValue(int position) {
+		return this.values[position];
+	}
+	
+	boolean isDate1904() {
+		return this.date1904;
+	}
+	
+	void close() {
+		try {
+			if (this.reader != null) {
+				this.reader.close();
+			}
+		} catch (XMLStreamException e) {
+			//ignore
+		}
+		try {
+			if (this.sheetStream != null) {
+				this.sheetStream.close();
+			}
+		} catch (IOException e) {
+			//ignore
+		}
+		if (this.pkg != null) {
+			this.pkg.revert();
+		}
+	}
+	
+}
@@ -44,7 +44,12 @@ import org.teiid.translator.TranslatorException;
 public class TestExcelExecution {
 
 	private ArrayList helpExecute(String ddl, FileConnection connection, String query) throws Exception {
+		return helpExecute(ddl, connection, query, false);
+	}
+	
+	private ArrayList helpExecute(String ddl, FileConnection connection, String query, boolean streaming) throws Exception {
 		ExcelExecutionFactory translator = new ExcelExecutionFactory();
+		translator.setStreaming(streaming);
     	translator.start();
     	
     	TransformationMetadata metadata = RealMetadataFactory.fromDDL(ddl, "vdb", "excel");
@@ -105,6 +110,23 @@ public class TestExcelExecution {
     	assertEquals("[[1, FirstName, LastName, Age], [2, John, Doe, null], [3, Jane, Smith, 40.0], [4, Matt, Liek, 13.0], [5, Sarah, Byne, 10.0], [6, Rocky, Dog, 3.0]]", results.toString());
 	}	
 	
+	@Test
+	public void testExecutionStreamingXLSX() throws Exception {
+		String ddl = "CREATE FOREIGN TABLE Sheet1 (\n" + 
+				"	ROW_ID integer OPTIONS (SEARCHABLE 'All_Except_Like', \"teiid_excel:CELL_NUMBER\" 'ROW_ID'),\n" + 
+				"	column1 string OPTIONS (SEARCHABLE 'Unsearchable', \"teiid_excel:CELL_NUMBER\" '1'),\n" + 
+				"	column2 string OPTIONS (SEARCHABLE 'Unsearchable', \"teiid_excel:CELL_NUMBER\" '2'),\n" + 
+				"	column3 string OPTIONS (SEARCHABLE 'Unsearchable', \"teiid_excel:CELL_NUMBER\" '3'),\n" + 
+				"	CONSTRAINT PK0 PRIMARY KEY(ROW_ID)\n" + 
+				") OPTIONS (\"teiid_excel:FILE\" 'names.xlsx', \"teiid_excel:FIRST_DATA_ROW_NUMBER\" '2');";
+
+    	FileConnection connection = Mockito.mock(FileConnection.class);
+    	Mockito.stub(connection.getFile("names.xlsx")).toReturn(UnitTestUtil.getTestDataFile("names.xlsx"));
+
+    	ArrayList results = helpExecute(ddl, connection, "select * from Sheet1", true);
+    	assertEquals("[[2, John, Doe, null], [3, Jane, Smith, 40.0], [4, Matt, Liek, 13.0], [5, Sarah, Byne, 10.0], [6, Rocky, Dog, 3.0]]", results.toString());
+	}
+	
 	@Test
 	public void testExecutionColumnWithNullCell() throws Exception {
 		String ddl = "CREATE FOREIGN TABLE Sheet1 (\n" + 
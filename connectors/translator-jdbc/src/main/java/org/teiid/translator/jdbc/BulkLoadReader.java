@@ -0,0 +1,201 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.translator.jdbc;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
+
+import org.teiid.language.ColumnReference;
+import org.teiid.language.Expression;
+import org.teiid.language.ExpressionValueSource;
+import org.teiid.language.Insert;
+import org.teiid.language.LanguageObject;
+import org.teiid.language.Literal;
+import org.teiid.language.Parameter;
+import org.teiid.translator.TypeFacility;
+
+/**
+ * Presents bulk insert values as tab delimited text with backslash escapes and \N for null,
+ * which is the default text format of both the PostgreSQL COPY and the MySQL LOAD DATA statements.
+ * <br>
+ * Rows are read from the iterator only as the text is consumed.
+ */
+public class BulkLoadReader extends Reader {
+	
+	private static final int BUFFER_SIZE = 1 << 13;
+	
+	private Iterator<? extends List<?>> rows;
+	private List<Expression> values;
+	private StringBuilder buffer = new StringBuilder(BUFFER_SIZE);
+	private int position;
+	private long rowCount;
+	
+	/**
+	 * @param rows the parameter values
+	 * @param values the insert value expressions, which must all be a {@link Parameter} or {@link Literal} 
+	 */
+	public BulkLoadReader(Iterator<? extends List<?>> rows, List<Expression> values) {
+		this.rows = rows;
+		this.values = values;
+	}
+	
+	/**
+	 * Get the values of the insert if they can be represented in the bulk load text format.
+	 * @return the value expressions or null if the insert cannot be bulk loaded
+	 */
+	public static List<Expression> getBulkLoadValues(Insert insert) {
+		if (!(insert.getValueSource() instanceof ExpressionValueSource) || insert.getParameterValues() == null) {
+			return null;
+		}
+		List<Expression> result = ((ExpressionValueSource)insert.getValueSource()).getValues();
+		if (result.size() != insert.getColumns().size()) {
+			return null;
+		}
+		for (Expression ex : result) {
+			if (!(ex instanceof Parameter) && !(ex instanceof Literal)) {
+				return null;
+			}
+			Class<?> type = ex.getType();
+			if (!(Number.class.isAssignableFrom(type) || type == TypeFacility.RUNTIME_TYPES.STRING 
+					|| type == TypeFacility.RUNTIME_TYPES.CHAR || type == TypeFacility.RUNTIME_TYPES.BOOLEAN 
+					|| type == TypeFacility.RUNTIME_TYPES.DATE || type == TypeFacility.RUNTIME_TYPES.TIME 
+					|| type == TypeFacility.RUNTIME_TYPES.TIMESTAMP)) {
+				return null;
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Get the name of the target table of the insert
+	 */
+	public static String getTableName(Insert insert, JDBCExecutionFactory executionFactory) {
+		return toSQL(insert.getTable(), executionFactory);
+	}
+	
+	/**
+	 * Get the parenthesized column list of the insert
+	 */
+	public static String getColumnList(Insert insert, JDBCExecutionFactory executionFactory) {
+		StringBuilder result = new StringBuilder();
+		result.append('(');
+		for (int i = 0; i < insert.getColumns().size(); i++) {
+			if (i > 0) {
+				result.append(", "); //$NON-NLS-1$
+			}
+			ColumnReference col = insert.getColumns().get(i);
+			result.append(toSQL(new ColumnReference(null, col.getName(), col.getMetadataObject(), col.getType()), executionFactory));
+		}
+		return result.append(')').toString();
+	}
+
+	private static String toSQL(LanguageObject obj, JDBCExecutionFactory executionFactory) {
+		SQLConversionVisitor visitor = executionFactory.getSQLConversionVisitor();
+		visitor.append(obj);
+		return visitor.toString();
+	}
+	
+	@Override
+	public int read(char[] cbuf, int off, int len) {
+		if (position >= buffer.length()) {
+			buffer.setLength(0);
+			position = 0;
+			while (buffer.length() < BUFFER_SIZE && rows.hasNext()) {
+				appendRow(rows.next());
+			}
+			if (buffer.length() == 0) {
+				return -1;
+			}
+		}
+		int count = Math.min(len, buffer.length() - position);
+		buffer.getChars(position, position + count, cbuf, off);
+		position += count;
+		return count;
+	}
+
+	private void appendRow(List<?> row) {
+		for (int i = 0; i < values.size(); i++) {
+			if (i > 0) {
+				buffer.append('\t');
+			}
+			Expression ex = values.get(i);
+			Object value = null;
+			if (ex instanceof Literal) {
+				value = ((Literal)ex).getValue();
+			} else {
+				value = row.get(((Parameter)ex).getValueIndex());
+			}
+			appendValue(value);
+		}
+		buffer.append('\n');
+		rowCount++;
+	}
+	
+	protected void appendValue(Object value) {
+		if (value == null) {
+			buffer.append("\\N"); //$NON-NLS-1$
+		} else if (value instanceof Boolean) {
+			buffer.append(((Boolean)value).booleanValue()?'1':'0');
+		} else if (value instanceof BigDecimal) {
+			buffer.append(((BigDecimal)value).toPlainString());
+		} else if (value instanceof Number || value instanceof java.util.Date) {
+			buffer.append(value);
+		} else {
+			String string = value.toString();
+			for (int i = 0; i < string.length(); i++) {
+				char c = string.charAt(i);
+				switch (c) {
+				case '\\':
+					buffer.append("\\\\"); //$NON-NLS-1$
+					break;
+				case '\t':
+					buffer.append("\\t"); //$NON-NLS-1$
+					break;
+				case '\n':
+					buffer.append("\\n"); //$NON-NLS-1$
+					break;
+				case '\r':
+					buffer.append("\\r"); //$NON-NLS-1$
+					break;
+				default:
+					buffer.append(c);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @return the number of rows read so far
+	 */
+	public long getRowCount() {
+		return rowCount;
+	}
+
+	@Override
+	public void close() {
+		
+	}
+	
+}
@@ -0,0 +1,131 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.translator.jdbc;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the observed fetch round trips and row width for a source to choose 
+ * a statement fetch size.
+ * <br>
+ * Each fetch is modeled as a fixed latency plus a per row cost, fit by an 
+ * exponentially weighted least squares over the observed fetches.  The fetch size
+ * is then chosen so that the latency is a small fraction of each fetch, bounded by
+ * the expected size of the fetched rows.
+ */
+class FetchSizeEstimator {
+	
+	static final int MAX_FETCH_BYTES = 1 << 22;
+	static final int MAX_FETCH_SIZE = 1 << 15;
+	static final long HIGH_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+	/**
+	 * The target ratio of per row time to latency for a single fetch
+	 */
+	static final int LATENCY_FACTOR = 9;
+	private static final double DECAY = .9;
+	
+	private double weight;
+	private double sumRows;
+	private double sumNanos;
+	private double sumRowsSquared;
+	private double sumRowsNanos;
+	private double rowBytes = -1;
+	
+	/**
+	 * Record an observed fetch
+	 * @param rows the number of rows returned by the fetch
+	 * @param nanos the time spent waiting on the fetch
+	 */
+	synchronized void addFetch(int rows, long nanos) {
+		weight = weight * DECAY + 1;
+		sumRows = sumRows * DECAY + rows;
+		sumNanos = sumNanos * DECAY + nanos;
+		sumRowsSquared = sumRowsSquared * DECAY + (double)rows * rows;
+		sumRowsNanos = sumRowsNanos * DECAY + (double)rows * nanos;
+	}
+	
+	/**
+	 * Record the estimated size of a row in bytes
+	 */
+	synchronized void addRowSize(long bytes) {
+		if (rowBytes < 0) {
+			rowBytes = bytes;
+		} else {
+			rowBytes = rowBytes * DECAY + bytes * (1 - DECAY);
+		}
+	}
+	
+	/**
+	 * @param batchSize the engine batch size
+	 * @return the fetch size to use
+	 */
+	synchronized int getFetchSize(int batchSize) {
+		int max = MAX_FETCH_SIZE;
+		if (rowBytes > 0) {
+			max = (int)Math.max(1, Math.min(max, MAX_FETCH_BYTES / rowBytes));
+		}
+		if (weight == 0) {
+			return Math.min(batchSize, max);
+		}
+		double meanRows = sumRows / weight;
+		double meanNanos = sumNanos / weight;
+		double variance = sumRowsSquared / weight - meanRows * meanRows;
+		double result = batchSize;
+		if (variance > 1) {
+			double perRow = (sumRowsNanos / weight - meanRows * meanNanos) / variance;
+			double latency = meanNanos - perRow * meanRows;
+			if (latency >= HIGH_LATENCY_NANOS) {
+				if (perRow > 0) {
+					result = Math.max(batchSize, LATENCY_FACTOR * latency / perRow);
+				} else {
+					//all of the fetch time is latency
+					result = max;
+				}
+			}
+		} else if (meanNanos >= HIGH_LATENCY_NANOS) {
+			//not enough variation in the fetch sizes to separate the latency - explore a larger size
+			result = Math.max(batchSize, 2 * meanRows);
+		}
+		return (int)Math.max(1, Math.min(max, result));
+	}
+	
+	/**
+	 * A rough estimate of the size of a retrieved value.
+	 */
+	static int estimateSize(Object value) {
+		if (value == null) {
+			return 4;
+		}
+		if (value instanceof String) {
+			return 40 + 2 * ((String)value).length();
+		}
+		if (value instanceof byte[]) {
+			return 16 + ((byte[])value).length;
+		}
+		if (value instanceof java.math.BigDecimal || value instanceof java.math.BigInteger) {
+			return 32;
+		}
+		return 16;
+	}
+
+}
@@ -84,6 +84,17 @@ public abstract class JDBCBaseExecution implements Execution  {
      */
 	protected void bind(PreparedStatement stmt, List<?> params, List<?> batchValues)
 			throws SQLException {
+		bindValues(stmt, params, batchValues);
+		if (batchValues != null) {
+			stmt.addBatch();
+		}
+	}
+
+	/**
+	 * Bind the values in the TranslatedCommand to the PreparedStatement without adding a batch
+	 */
+	protected void bindValues(PreparedStatement stmt, List<?> params, List<?> batchValues)
+			throws SQLException {
 		for (int i = 0; i< params.size(); i++) {
 		    Object paramValue = params.get(i);
 		    Object value = null;
@@ -106,9 +117,6 @@ public abstract class JDBCBaseExecution implements Execution  {
 		    }
 		    this.executionFactory.bindValue(stmt, value, paramType, i+1);
 		}
-		if (batchValues != null) {
-			stmt.addBatch();
-		}
 	}
 
     // ===========================================================================================================================
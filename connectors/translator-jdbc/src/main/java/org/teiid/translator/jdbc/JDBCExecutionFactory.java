@@ -31,6 +31,7 @@ import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -117,6 +118,12 @@ public class JDBCExecutionFactory extends ExecutionFactory<DataSource, Connectio
 	private boolean enableDependentJoins;
 	private boolean useBindingsForDependentJoin = true;
 	private String commentFormat = "/*teiid sessionid:{0}, requestid:{1}.{2}*/ "; //$NON-NLS-1$
+	private int parallelPartitions = 1;
+	private Map<Connection, DataSource> partitionDataSources = Collections.synchronizedMap(new IdentityHashMap<Connection, DataSource>());
+	private boolean adaptiveFetchSize;
+	private boolean prefetchResults;
+	private FetchSizeEstimator fetchSizeEstimator = new FetchSizeEstimator();
+	private boolean useBulkLoad;
 	
 	private AtomicBoolean initialConnection = new AtomicBoolean(true);
 	
@@ -236,6 +243,20 @@ public class JDBCExecutionFactory extends ExecutionFactory<DataSource, Connectio
 		}
 	}
 
+    @Override
+    public Execution createExecution(Command command,
+    		ExecutionContext executionContext, RuntimeMetadata metadata,
+    		Connection connection) throws TranslatorException {
+    	Execution result = super.createExecution(command, executionContext, metadata, connection);
+    	if (result instanceof JDBCQueryExecution) {
+    		DataSource ds = partitionDataSources.get(connection);
+    		if (ds != null) {
+    			((JDBCQueryExecution)result).setPartitionDataSource(ds);
+    		}
+    	}
+    	return result;
+    }
+
     @Override
     public ResultSetExecution createResultSetExecution(QueryExpression command, ExecutionContext executionContext, RuntimeMetadata metadata, Connection conn)
     		throws TranslatorException {
@@ -272,11 +293,23 @@ public class JDBCExecutionFactory extends ExecutionFactory<DataSource, Connectio
 		}
     }
     
+    @Override
+    public Connection getConnection(DataSource factory,
+    		ExecutionContext executionContext) throws TranslatorException {
+    	Connection result = super.getConnection(factory, executionContext);
+    	if (this.parallelPartitions > 1 && executionContext != null && result != null) {
+    		//retain the source for executions using this connection so that partitions may obtain additional connections
+    		partitionDataSources.put(result, factory);
+    	}
+    	return result;
+    }
+    
     @Override
     public void closeConnection(Connection connection, DataSource factory) {
     	if (connection == null) {
     		return;
     	}
+    	partitionDataSources.remove(connection);
     	try {
 			connection.close();
 		} catch (SQLException e) {
@@ -1302,6 +1335,48 @@ public class JDBCExecutionFactory extends ExecutionFactory<DataSource, Connectio
 		return SQLConstants.Reserved.LIKE_REGEX;
 	}
 
+	/**
+	 * Load the bulk insert values with a source specific bulk load mechanism rather than
+	 * with batched prepared statements.  Only called if {@link #isUseBulkLoad()} and generated keys are not 
+	 * requested.
+	 * <br>
+	 * The values must not be consumed if -1 is returned.
+	 * @param insert
+	 * @param values
+	 * @param context
+	 * @param connection
+	 * @return the number of rows loaded or -1 if the insert cannot be bulk loaded
+	 * @throws SQLException
+	 * @throws TranslatorException
+	 */
+	public long bulkLoad(Insert insert, Iterator<? extends List<?>> values, ExecutionContext context, Connection connection) throws SQLException, TranslatorException {
+		return -1;
+	}
+	
+	/**
+	 * Get the driver class with the given name if the given object is a wrapper for it.
+	 * The class is loaded by name since the driver is not a dependency of the translator.
+	 * @return the class or null if it cannot be loaded or is not wrapped
+	 * @throws SQLException 
+	 */
+	protected Class<?> getWrappedDriverClass(Wrapper wrapper, String className) throws SQLException {
+		ClassLoader[] loaders = new ClassLoader[] {Thread.currentThread().getContextClassLoader(), wrapper.getClass().getClassLoader(), getClass().getClassLoader()};
+		for (ClassLoader loader : loaders) {
+			if (loader == null) {
+				continue;
+			}
+			try {
+				Class<?> clazz = Class.forName(className, false, loader);
+				if (wrapper.isWrapperFor(clazz)) {
+					return clazz;
+				}
+			} catch (ClassNotFoundException e) {
+				//try the next loader
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Set the fetch size on the given statement.
 	 * @param context 
@@ -1527,4 +1602,44 @@ public class JDBCExecutionFactory extends ExecutionFactory<DataSource, Connectio
 		this.useBindingsForDependentJoin = useBindingsForDependentJoin;
 	}
 	
+	@TranslatorProperty(display="Parallel Partitions", description="The maximum number of concurrent range partitions, each on a separate connection, used to read a single table query that has a non-nullable partition-key column.  Default 1, which disables partitioning.", advanced=true)
+	public int getParallelPartitions() {
+		return parallelPartitions;
+	}
+	
+	public void setParallelPartitions(int parallelPartitions) {
+		this.parallelPartitions = parallelPartitions;
+	}
+	
+	@TranslatorProperty(display="Adaptive Fetch Size", description="If the query fetch size should be adapted from the observed fetch latency and row width of the source rather than using the engine batch size.", advanced=true)
+	public boolean isAdaptiveFetchSize() {
+		return adaptiveFetchSize;
+	}
+	
+	public void setAdaptiveFetchSize(boolean adaptiveFetchSize) {
+		this.adaptiveFetchSize = adaptiveFetchSize;
+	}
+	
+	@TranslatorProperty(display="Prefetch Results", description="If the next batch of query results should be read in the background while the engine processes the current batch.", advanced=true)
+	public boolean isPrefetchResults() {
+		return prefetchResults;
+	}
+	
+	public void setPrefetchResults(boolean prefetchResults) {
+		this.prefetchResults = prefetchResults;
+	}
+	
+	FetchSizeEstimator getFetchSizeEstimator() {
+		return fetchSizeEstimator;
+	}
+	
+	@TranslatorProperty(display="Use Bulk Load", description="If a source specific bulk load, such as PostgreSQL COPY or MySQL LOAD DATA LOCAL, should be used for bulk inserts of simple values that do not return generated keys.", advanced=true)
+	public boolean isUseBulkLoad() {
+		return useBulkLoad;
+	}
+	
+	public void setUseBulkLoad(boolean useBulkLoad) {
+		this.useBulkLoad = useBulkLoad;
+	}
+	
 }
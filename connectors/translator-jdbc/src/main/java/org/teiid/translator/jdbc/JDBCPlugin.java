@@ -57,5 +57,6 @@ public class JDBCPlugin {
 		TEIID11020, 
 		TEIID11021, 
 		TEIID11022,
+		TEIID11023,
 	}
 }
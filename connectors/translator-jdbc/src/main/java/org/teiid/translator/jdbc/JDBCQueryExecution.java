@@ -31,26 +31,41 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import javax.sql.DataSource;
 
 import org.teiid.language.*;
 import org.teiid.language.Comparison.Operator;
+import org.teiid.language.SortSpecification.Ordering;
+import org.teiid.language.visitor.CollectorVisitor;
 import org.teiid.language.visitor.HierarchyVisitor;
 import org.teiid.logging.LogConstants;
 import org.teiid.logging.LogManager;
+import org.teiid.metadata.AbstractMetadataRecord;
+import org.teiid.metadata.BaseColumn.NullType;
+import org.teiid.metadata.Column;
+import org.teiid.metadata.Table;
+import org.teiid.translator.BatchedResultSetExecution;
 import org.teiid.translator.DataNotAvailableException;
 import org.teiid.translator.ExecutionContext;
-import org.teiid.translator.ResultSetExecution;
+import org.teiid.translator.ResultsQueue;
 import org.teiid.translator.TranslatorException;
 
 
 /**
  * 
  */
-public class JDBCQueryExecution extends JDBCBaseExecution implements ResultSetExecution {
+public class JDBCQueryExecution extends JDBCBaseExecution implements BatchedResultSetExecution {
 
     private static final class RenamingVisitor extends HierarchyVisitor {
 		private Map<String, String> nameMap;
@@ -76,6 +91,16 @@ public class JDBCQueryExecution extends JDBCBaseExecution implements ResultSetEx
 		}
 	}
 
+	/**
+	 * Column extension property marking a non-nullable numeric or date column 
+	 * that may be used to split a query into concurrent range partitions
+	 */
+	public static final String TEIID_PARTITION_KEY = AbstractMetadataRecord.RELATIONAL_URI + "partition-key"; //$NON-NLS-1$
+	
+	private static final List<Class<?>> PARTITION_KEY_TYPES = Arrays.asList(new Class<?>[] {Integer.class, Long.class, 
+			Short.class, Byte.class, java.math.BigInteger.class, java.math.BigDecimal.class, Double.class, Float.class, 
+			java.sql.Timestamp.class, java.sql.Date.class});
+
 	private static final String KEY_TABLE_PREFIX = "TEIID_DKJ"; //$//$NON-NLS-1$
     private static final String FULL_TABLE_PREFIX = "TEIID_DJ"; //$//$NON-NLS-1$
     private static final String COL_PREFIX = "COL"; //$//$NON-NLS-1$
@@ -83,6 +108,14 @@ public class JDBCQueryExecution extends JDBCBaseExecution implements ResultSetEx
 	protected ResultSet results;
     protected Class<?>[] columnDataTypes;
     protected List<NamedTable> tempTables;
+    private boolean endOfResults;
+    private DataSource partitionDataSource;
+    private PartitionedResults partitionedResults;
+    private FetchSizeEstimator fetchSizeEstimator;
+    private int rowCount;
+    private long fetchNanos = -1;
+    private Future<List<List<?>>> prefetch;
+    private List<List<?>> prefetched;
 
     public JDBCQueryExecution(Command command, Connection connection, ExecutionContext context, JDBCExecutionFactory env) {
         super(command, connection, context, env);
@@ -94,6 +127,9 @@ public class JDBCQueryExecution extends JDBCBaseExecution implements ResultSetEx
     	QueryExpression qe = (QueryExpression)command;
     	
         columnDataTypes = qe.getColumnTypes();
+        if (this.executionFactory.isAdaptiveFetchSize()) {
+        	adaptFetchSize(qe);
+        }
         TranslatedCommand translatedComm = null;
         
         boolean usingTxn = false;
@@ -109,6 +145,11 @@ public class JDBCQueryExecution extends JDBCBaseExecution implements ResultSetEx
 	        if (qe.getWith() != null) {
 	        	usingTxn = createFullTempTables(qe, usingTxn);
 	        }
+	        
+	        if (executePartitioned()) {
+	        	success = true;
+	        	return;
+	        }
 	
 	        // translate command
 	        translatedComm = translateCommand(command);
@@ -147,6 +188,159 @@ public class JDBCQueryExecution extends JDBCBaseExecution implements ResultSetEx
         }
     }
 
+    /**
+     * Choose the fetch size from the observed fetches against this source, 
+     * limited to the rows that the query can return.
+     */
+    private void adaptFetchSize(QueryExpression qe) {
+    	fetchSizeEstimator = this.executionFactory.getFetchSizeEstimator();
+    	int size = fetchSizeEstimator.getFetchSize(fetchSize);
+    	if (qe.getLimit() != null) {
+    		long rows = (long)qe.getLimit().getRowLimit() + qe.getLimit().getRowOffset() + 1;
+    		size = (int)Math.min(size, rows);
+    	}
+    	if (size != fetchSize) {
+    		LogManager.logDetail(LogConstants.CTX_CONNECTOR, context.getRequestId(), "using adaptive fetch size", size); //$NON-NLS-1$
+    		fetchSize = size;
+    	}
+    }
+    
+    /**
+     * The source of additional connections for reading range partitions concurrently.
+     * If not set, partitioning is not used.
+     * @param partitionDataSource
+     */
+    public void setPartitionDataSource(DataSource partitionDataSource) {
+		this.partitionDataSource = partitionDataSource;
+	}
+    
+    /**
+     * Split a single table query into range partitions on the partition key and read them concurrently.
+     * @return true if partitioning is used
+     * @throws SQLException
+     * @throws TranslatorException
+     */
+    protected boolean executePartitioned() throws SQLException, TranslatorException {
+    	int partitionCount = this.executionFactory.getParallelPartitions();
+    	if (partitionDataSource == null || partitionCount < 2 || !(command instanceof Select) || context.isTransactional()) {
+    		return false;
+    	}
+    	Select select = (Select)command;
+    	if (select.getDependentValues() != null || select.getWith() != null || select.getLimit() != null 
+    			|| select.getGroupBy() != null || select.getHaving() != null || select.isDistinct() 
+    			|| select.getFrom().size() != 1 || !(select.getFrom().get(0) instanceof NamedTable)) {
+    		return false;
+    	}
+    	NamedTable group = (NamedTable)select.getFrom().get(0);
+    	Table table = group.getMetadataObject();
+    	if (table == null || (table.getCardinality() >= 0 && table.getCardinality() < (long)fetchSize * partitionCount)) {
+    		return false;
+    	}
+    	for (DerivedColumn col : select.getDerivedColumns()) {
+    		if (!CollectorVisitor.collectObjects(AggregateFunction.class, col).isEmpty() 
+    				|| !CollectorVisitor.collectObjects(WindowFunction.class, col).isEmpty()) {
+    			return false;
+    		}
+    	}
+    	Column key = getPartitionKey(table);
+    	if (key == null) {
+    		return false;
+    	}
+    	boolean ordered = false;
+    	boolean descending = false;
+    	if (select.getOrderBy() != null) {
+    		//the partitions can be returned in order only if the key is the leading sort
+    		SortSpecification spec = select.getOrderBy().getSortSpecifications().get(0);
+    		if (!(spec.getExpression() instanceof ColumnReference) || ((ColumnReference)spec.getExpression()).getMetadataObject() != key) {
+    			return false;
+    		}
+    		ordered = true;
+    		descending = spec.getOrdering() == Ordering.DESC;
+    	}
+    	Class<?> type = key.getJavaType();
+    	List<Object> boundaries = getPartitionBoundaries(group, key, partitionCount);
+    	if (boundaries == null) {
+    		return false;
+    	}
+    	List<List<?>> ranges = new ArrayList<List<?>>(boundaries.size() - 1);
+    	for (int i = 0; i < boundaries.size() - 1; i++) {
+    		ranges.add(Arrays.asList(boundaries.get(i), boundaries.get(i + 1)));
+    	}
+    	if (descending) {
+    		Collections.reverse(ranges);
+    	}
+    	//the bounds are bound per partition so that the command is only translated once
+    	Parameter lower = new Parameter();
+    	lower.setType(type);
+    	lower.setValueIndex(0);
+    	Parameter upper = new Parameter();
+    	upper.setType(type);
+    	upper.setValueIndex(1);
+    	Condition range = new AndOr(new Comparison(new ColumnReference(group, key.getName(), key, type), lower, Operator.GE), 
+    			new Comparison(new ColumnReference(group, key.getName(), key, type), upper, Operator.LT), AndOr.Operator.AND);
+    	//rewrite a copy so that the engine supplied command is left unchanged
+    	Select partitionSelect = new Select(select.getDerivedColumns(), select.isDistinct(), select.getFrom(), 
+    			LanguageUtil.combineCriteria(select.getWhere(), range, this.executionFactory.getLanguageFactory()), 
+    			select.getGroupBy(), select.getHaving(), select.getOrderBy());
+    	TranslatedCommand translatedComm = translateCommand(partitionSelect);
+    	if (!translatedComm.isPrepared()) {
+    		throw new AssertionError("Expected a prepared partition query"); //$NON-NLS-1$
+    	}
+    	partitionedResults = new PartitionedResults(this, translatedComm, ranges, ordered, partitionDataSource);
+    	partitionedResults.start();
+    	return true;
+    }
+
+	private Column getPartitionKey(Table table) {
+		for (Column column : table.getColumns()) {
+			if (Boolean.valueOf(column.getProperty(TEIID_PARTITION_KEY, false)) 
+					&& column.getNullType() == NullType.No_Nulls 
+					&& PARTITION_KEY_TYPES.contains(column.getJavaType())) {
+				return column;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Query the current min and max key values to determine the partition boundaries
+	 */
+	private List<Object> getPartitionBoundaries(NamedTable group, Column key, int partitionCount) throws SQLException, TranslatorException {
+		NamedTable table = new NamedTable(group.getName(), group.getCorrelationName(), group.getMetadataObject());
+		Class<?> type = key.getJavaType();
+		List<DerivedColumn> cols = new ArrayList<DerivedColumn>(2);
+		cols.add(new DerivedColumn(null, new AggregateFunction(AggregateFunction.MIN, false, Arrays.asList(new ColumnReference(table, key.getName(), key, type)), type)));
+		cols.add(new DerivedColumn(null, new AggregateFunction(AggregateFunction.MAX, false, Arrays.asList(new ColumnReference(table, key.getName(), key, type)), type)));
+		Select minMax = new Select(cols, false, Arrays.asList((TableReference)table), null, null, null, null);
+		TranslatedCommand translatedComm = translateCommand(minMax);
+		Statement s = null;
+		ResultSet rs = null;
+		try {
+			if (translatedComm.isPrepared()) {
+				PreparedStatement ps = connection.prepareStatement(translatedComm.getSql());
+				s = ps;
+				bindValues(ps, translatedComm.getPreparedValues(), null);
+				rs = ps.executeQuery();
+			} else {
+				s = connection.createStatement();
+				rs = s.executeQuery(translatedComm.getSql());
+			}
+			if (!rs.next()) {
+				return null;
+			}
+			Object min = this.executionFactory.retrieveValue(rs, 1, type);
+			Object max = this.executionFactory.retrieveValue(rs, 2, type);
+			return PartitionedResults.getBoundaries(min, max, type, partitionCount);
+		} finally {
+			if (rs != null) {
+				rs.close();
+			}
+			if (s != null) {
+				s.close();
+			}
+		}
+	}
+
     /**
      * 
      * @param qe
@@ -334,8 +528,11 @@ public class JDBCQueryExecution extends JDBCBaseExecution implements ResultSetEx
 
     @Override
     public List<?> next() throws TranslatorException, DataNotAvailableException {
+    	if (partitionedResults != null) {
+    		return partitionedResults.next();
+    	}
         try {
-            if (results.next()) {
+            if (fetchSizeEstimator != null ? nextTimed() : results.next()) {
                 // New row for result set
                 List<Object> vals = new ArrayList<Object>(columnDataTypes.length);
 
@@ -344,6 +541,14 @@ public class JDBCQueryExecution extends JDBCBaseExecution implements ResultSetEx
                     Object value = this.executionFactory.retrieveValue(results, i+1, columnDataTypes[i]);
                     vals.add(value); 
                 }
+                
+                if (fetchSizeEstimator != null && rowCount++ == 0) {
+                	long size = 0;
+                	for (Object value : vals) {
+                		size += FetchSizeEstimator.estimateSize(value);
+                	}
+                	fetchSizeEstimator.addRowSize(size);
+                }
 
                 return vals;
             } 
@@ -355,6 +560,134 @@ public class JDBCQueryExecution extends JDBCBaseExecution implements ResultSetEx
         return null;
     }
     
+    /**
+     * Advance the results timing the calls expected to require a fetch from the source.
+     * Each timed fetch is reported once the number of rows it returned is known.
+     */
+    private boolean nextTimed() throws SQLException {
+    	if (rowCount == 0 || rowCount % fetchSize != 0) {
+    		boolean result = results.next();
+    		if (!result && fetchNanos >= 0) {
+    			fetchSizeEstimator.addFetch(rowCount % fetchSize, fetchNanos);
+    			fetchNanos = -1;
+    		}
+    		return result;
+    	}
+    	if (fetchNanos >= 0) {
+    		fetchSizeEstimator.addFetch(fetchSize, fetchNanos);
+    	}
+    	long start = System.nanoTime();
+    	boolean result = results.next();
+    	fetchNanos = System.nanoTime() - start;
+    	if (!result) {
+    		fetchSizeEstimator.addFetch(0, fetchNanos);
+    		fetchNanos = -1;
+    	}
+    	return result;
+    }
+    
+    @Override
+    public List<List<?>> nextBatch(final int maxRows) throws TranslatorException,
+    		DataNotAvailableException {
+    	if (!this.executionFactory.isPrefetchResults() || !(command instanceof QueryExpression) 
+    			|| partitionedResults != null || context.isTransactional()) {
+    		//transactional work must stay on the calling thread and procedure results 
+    		//must be read before the output parameters
+    		return readBatch(maxRows);
+    	}
+    	if (prefetch != null) {
+    		if (!prefetch.isDone()) {
+    			//the engine is notified when the read completes
+    			throw DataNotAvailableException.NO_POLLING;
+    		}
+    		prefetched = getPrefetch();
+    	}
+    	List<List<?>> result = null;
+    	if (prefetched != null) {
+    		if (prefetched.size() <= maxRows) {
+    			result = prefetched;
+    			prefetched = null;
+    		} else {
+    			//the engine asked for fewer rows than were read ahead
+    			result = new ArrayList<List<?>>(prefetched.subList(0, maxRows));
+    			prefetched = new ArrayList<List<?>>(prefetched.subList(maxRows, prefetched.size()));
+    		}
+    	} else {
+    		result = readBatch(maxRows);
+    	}
+    	if (result != null && prefetched == null && !endOfResults) {
+    		//read the next batch, at most the execution batch size, while the engine processes this one
+    		final int prefetchRows = Math.max(1, context.getBatchSize());
+    		FutureTask<List<List<?>>> task = new FutureTask<List<List<?>>>(new Callable<List<List<?>>>() {
+    			@Override
+    			public List<List<?>> call() throws Exception {
+    				return readBatch(prefetchRows);
+    			}
+			}) {
+    			@Override
+    			protected void done() {
+    				context.dataAvailable();
+    			}
+    		};
+    		prefetch = task;
+    		ResultsQueue.getReaderExecutor().execute(task);
+    	}
+    	return result;
+    }
+
+	private List<List<?>> getPrefetch() throws TranslatorException {
+		Future<List<List<?>>> future = prefetch;
+		prefetch = null;
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TranslatorException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof TranslatorException) {
+				throw (TranslatorException)e.getCause();
+			}
+			throw new TranslatorException(e.getCause());
+		}
+	}
+    
+    private List<List<?>> readBatch(int maxRows) throws TranslatorException,
+    		DataNotAvailableException {
+    	if (endOfResults) {
+    		return null;
+    	}
+    	List<List<?>> rows = null;
+    	for (int i = 0; i < maxRows; i++) {
+    		List<?> row = null;
+    		try {
+    			row = next();
+    		} catch (DataNotAvailableException e) {
+    			if (rows == null) {
+    				throw e;
+    			}
+    			break;
+    		}
+    		if (row == null) {
+    			endOfResults = true;
+    			break;
+    		}
+    		if (rows == null) {
+    			rows = new ArrayList<List<?>>(Math.min(maxRows, 1024));
+    		}
+    		rows.add(row);
+    	}
+    	return rows;
+    }
+    
+    @Override
+    public void cancel() throws TranslatorException {
+    	PartitionedResults partitioned = partitionedResults;
+    	if (partitioned != null) {
+    		partitioned.cancel();
+    	}
+    	super.cancel();
+    }
+    
     /**
      * @see org.teiid.translator.jdbc.JDBCBaseExecution#close()
      */
@@ -362,6 +695,31 @@ public class JDBCQueryExecution extends JDBCBaseExecution implements ResultSetEx
         // first we would need to close the result set here then we can close
         // the statement, using the base class.
     	try {
+    		if (prefetch != null) {
+    			Future<List<List<?>>> future = prefetch;
+    			if (!future.cancel(false) && !future.isDone()) {
+    				//stop the read in progress rather than waiting for the full batch 
+    				try {
+    					cancel();
+    				} catch (TranslatorException e) {
+    					LogManager.logDetail(LogConstants.CTX_CONNECTOR, e, "Exception cancelling"); //$NON-NLS-1$
+    				}
+    			}
+    			if (future.isCancelled()) {
+    				prefetch = null;
+    			} else {
+	    			try {
+	    				getPrefetch();
+	    			} catch (TranslatorException e) {
+	    				LogManager.logDetail(LogConstants.CTX_CONNECTOR, e, "Exception closing"); //$NON-NLS-1$
+	    			}
+    			}
+    		}
+    		prefetched = null;
+    		if (partitionedResults != null) {
+    			partitionedResults.close();
+    			partitionedResults = null;
+    		}
 	        if (results != null) {
 	            try {
 	                results.close();
@@ -180,7 +180,7 @@ public class JDBCUpdateExecution extends JDBCBaseExecution implements UpdateExec
             	}
             	result = new int[] {updateCount};
                 addStatementWarnings();
-            } else {
+            } else if (!executeBulkLoad()) {
             	PreparedStatement pstatement = getPreparedStatement(sql);
             	statement = pstatement;
             	Iterator<? extends List<?>> vi = null;
@@ -257,6 +257,33 @@ public class JDBCUpdateExecution extends JDBCBaseExecution implements UpdateExec
         }
     }
 
+    /**
+     * Use the source specific bulk load for a bulk insert if possible 
+     * @return true if the values were loaded
+     */
+    private boolean executeBulkLoad() throws SQLException, TranslatorException {
+    	if (!(command instanceof Insert) || !this.executionFactory.isUseBulkLoad() 
+    			|| context.getCommandContext().isReturnAutoGeneratedKeys()) {
+    		return false;
+    	}
+    	Insert insert = (Insert)command;
+    	if (insert.getParameterValues() == null) {
+    		return false;
+    	}
+    	long count = this.executionFactory.bulkLoad(insert, insert.getParameterValues(), context, connection);
+    	if (count < 0) {
+    		return false;
+    	}
+    	if (this.executionFactory.returnsSingleUpdateCount()) {
+    		result = new int[] {(int)Math.min(Integer.MAX_VALUE, count)};
+    	} else {
+    		//the engine expects a count for each parameter row
+    		result = new int[(int)Math.min(Integer.MAX_VALUE, count)];
+    		Arrays.fill(result, 1);
+    	}
+    	return true;
+    }
+
     /**
      * @param command
      * @return
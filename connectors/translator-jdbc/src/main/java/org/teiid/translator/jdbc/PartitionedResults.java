@@ -0,0 +1,326 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.translator.jdbc;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
+
+import org.teiid.logging.LogConstants;
+import org.teiid.logging.LogManager;
+import org.teiid.translator.DataNotAvailableException;
+import org.teiid.translator.ResultsQueue;
+import org.teiid.translator.TranslatorException;
+
+/**
+ * Reads the range partitions of a single table query concurrently, each on its own 
+ * connection, and presents the rows as a single stream.
+ * <br>
+ * If ordered, the partitions are returned one after the other in the given order, 
+ * otherwise rows are returned as they become available from any partition.  The 
+ * partitions are read on the shared, bounded {@link ResultsQueue#getReaderExecutor()} 
+ * and the engine is notified as rows become available rather than waiting for them.
+ */
+class PartitionedResults {
+	
+	private class Partition implements Runnable {
+		private List<?> range;
+		private ResultsQueue<List<?>> queue;
+		private Connection connection;
+		private volatile Statement statement;
+		private Future<?> future;
+		
+		public Partition(List<?> range, ResultsQueue<List<?>> queue, Connection connection) {
+			this.range = range;
+			this.queue = queue;
+			this.connection = connection;
+		}
+		
+		@Override
+		public void run() {
+			boolean ownsConnection = false;
+			ResultSet rs = null;
+			Throwable failure = null;
+			try {
+				if (this.connection == null) {
+					this.connection = execution.executionFactory.getConnection(dataSource);
+					ownsConnection = true;
+				}
+				PreparedStatement ps = this.connection.prepareStatement(translatedCommand.getSql());
+				this.statement = ps;
+				execution.setSizeContraints(ps);
+				execution.bindValues(ps, translatedCommand.getPreparedValues(), range);
+				rs = ps.executeQuery();
+				Class<?>[] types = execution.columnDataTypes;
+				while (!closed && rs.next()) {
+					List<Object> vals = new ArrayList<Object>(types.length);
+					for (int i = 0; i < types.length; i++) {
+						vals.add(execution.executionFactory.retrieveValue(rs, i+1, types[i]));
+					}
+					if (!queue.put(vals)) {
+						break;
+					}
+				}
+			} catch (Throwable e) {
+				failure = e;
+			} finally {
+				try {
+					if (rs != null) {
+						rs.close();
+					}
+					if (this.statement != null) {
+						this.statement.close();
+					}
+				} catch (SQLException e) {
+					LogManager.logDetail(LogConstants.CTX_CONNECTOR, e, "Exception closing"); //$NON-NLS-1$
+				}
+				if (ownsConnection) {
+					execution.executionFactory.closeConnection(this.connection, dataSource);
+				}
+				queue.finish(failure);
+			}
+		}
+	}
+	
+	private JDBCQueryExecution execution;
+	private TranslatedCommand translatedCommand;
+	private DataSource dataSource;
+	private List<Partition> partitions = new ArrayList<Partition>();
+	private List<ResultsQueue<List<?>>> queues = new ArrayList<ResultsQueue<List<?>>>();
+	private boolean ordered;
+	private int current;
+	private volatile boolean closed;
+	
+	/**
+	 * @param execution the owning execution whose connection is used for the first partition
+	 * @param translatedCommand the prepared query with the range bounds as the last two parameters
+	 * @param ranges the lower and upper bound values for each partition
+	 * @param ordered true if the partitions must be returned in order
+	 * @param dataSource the source of the additional connections
+	 */
+	PartitionedResults(JDBCQueryExecution execution, TranslatedCommand translatedCommand, 
+			List<List<?>> ranges, boolean ordered, DataSource dataSource) {
+		this.execution = execution;
+		this.translatedCommand = translatedCommand;
+		this.dataSource = dataSource;
+		this.ordered = ordered;
+		int capacity = Math.max(1, execution.fetchSize);
+		ResultsQueue<List<?>> shared = null;
+		if (!ordered) {
+			shared = new ResultsQueue<List<?>>(capacity * ranges.size(), ranges.size(), execution.context);
+			queues.add(shared);
+		}
+		for (int i = 0; i < ranges.size(); i++) {
+			ResultsQueue<List<?>> queue = shared;
+			if (queue == null) {
+				queue = new ResultsQueue<List<?>>(capacity, 1, execution.context);
+				queues.add(queue);
+			}
+			partitions.add(new Partition(ranges.get(i), queue, i == 0?execution.getConnection():null));
+		}
+	}
+	
+	void start() {
+		LogManager.logDetail(LogConstants.CTX_CONNECTOR, "reading", partitions.size(), "partitions concurrently", translatedCommand); //$NON-NLS-1$ //$NON-NLS-2$
+		//submitted in order so that an earlier partition is never waiting for a thread held by a later one
+		for (Partition partition : partitions) {
+			partition.future = ResultsQueue.getReaderExecutor().submit(partition);
+		}
+	}
+	
+	/**
+	 * @throws DataNotAvailableException if the next row has not yet been read
+	 */
+	List<?> next() throws TranslatorException, DataNotAvailableException {
+		while (current < queues.size() && !closed) {
+			List<?> row = null;
+			try {
+				row = queues.get(current).next();
+			} catch (ExecutionException e) {
+				Throwable failure = e.getCause();
+				if (failure instanceof SQLException) {
+					throw new JDBCExecutionException(JDBCPlugin.Event.TEIID11008, (SQLException)failure, translatedCommand);
+				}
+				throw new TranslatorException(failure);
+			}
+			if (row != null) {
+				return row;
+			}
+			current++;
+		}
+		return null;
+	}
+	
+	boolean isOrdered() {
+		return ordered;
+	}
+	
+	void cancel() {
+		closed = true;
+		for (ResultsQueue<List<?>> queue : queues) {
+			queue.close();
+		}
+		for (Partition partition : partitions) {
+			Statement s = partition.statement;
+			if (s != null) {
+				try {
+					s.cancel();
+				} catch (SQLException e) {
+					//not all drivers support cancel
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Stop reading and wait for the partitions to release their resources
+	 */
+	void close() {
+		cancel();
+		for (Partition partition : partitions) {
+			if (partition.future == null) {
+				continue;
+			}
+			try {
+				partition.future.get();
+			} catch (Exception e) {
+				LogManager.logDetail(LogConstants.CTX_CONNECTOR, e, "Exception closing"); //$NON-NLS-1$
+			}
+		}
+	}
+	
+	/**
+	 * Compute the partition boundaries from the min and max key values so that the 
+	 * range [boundary i, boundary i + 1) for each partition covers all values.
+	 * @return the boundaries or null if the values cannot be split
+	 */
+	static List<Object> getBoundaries(Object min, Object max, Class<?> type, int partitionCount) {
+		if (min == null || max == null || partitionCount < 2) {
+			return null;
+		}
+		BigDecimal lower = null;
+		BigDecimal upper = null;
+		if (min instanceof java.util.Date) {
+			lower = BigDecimal.valueOf(((java.util.Date)min).getTime());
+			upper = BigDecimal.valueOf(((java.util.Date)max).getTime());
+			if (type == java.sql.Date.class) {
+				//the bound is truncated to a date, so use more than a day to be safely past the max
+				upper = upper.add(BigDecimal.valueOf(2*24*60*60*1000L));
+			} else {
+				upper = upper.add(BigDecimal.ONE);
+			}
+		} else if (min instanceof Number) {
+			try {
+				lower = new BigDecimal(min.toString());
+				upper = new BigDecimal(max.toString());
+			} catch (NumberFormatException e) {
+				return null; //NaN or Infinity
+			}
+			if (type == Double.class || type == Float.class) {
+				//make sure the increment is significant 
+				upper = upper.add(upper.abs().multiply(BigDecimal.valueOf(.00001))).add(BigDecimal.ONE);
+			} else {
+				upper = upper.add(BigDecimal.ONE);
+			}
+		} else {
+			return null;
+		}
+		if (upper.compareTo(lower) <= 0) {
+			return null;
+		}
+		BigDecimal step = upper.subtract(lower).divide(BigDecimal.valueOf(partitionCount), MathContext.DECIMAL64);
+		List<Object> result = new ArrayList<Object>(partitionCount + 1);
+		Object last = null;
+		for (int i = 0; i <= partitionCount; i++) {
+			BigDecimal value = upper;
+			if (i < partitionCount) {
+				value = lower.add(step.multiply(BigDecimal.valueOf(i)));
+			}
+			Object boundary = convert(value, type);
+			if (boundary == null) {
+				return null;
+			}
+			if (!boundary.equals(last)) {
+				result.add(boundary);
+				last = boundary;
+			}
+		}
+		if (result.size() < 3) {
+			return null;
+		}
+		return result;
+	}
+
+	private static Object convert(BigDecimal value, Class<?> type) {
+		if (type == BigDecimal.class) {
+			return value;
+		}
+		if (type == Double.class) {
+			return value.doubleValue();
+		}
+		if (type == Float.class) {
+			return value.floatValue();
+		}
+		BigInteger whole = value.setScale(0, RoundingMode.FLOOR).toBigInteger();
+		if (type == BigInteger.class) {
+			return whole;
+		}
+		if (type == Timestamp.class) {
+			return new Timestamp(whole.longValue());
+		}
+		if (type == java.sql.Date.class) {
+			return new java.sql.Date(whole.longValue());
+		}
+		if (whole.bitLength() > 63) {
+			return null;
+		}
+		long longValue = whole.longValue();
+		if (type == Long.class) {
+			return longValue;
+		}
+		if (type == Integer.class && longValue <= Integer.MAX_VALUE && longValue >= Integer.MIN_VALUE) {
+			return (int)longValue;
+		}
+		if (type == Short.class && longValue <= Short.MAX_VALUE && longValue >= Short.MIN_VALUE) {
+			return (short)longValue;
+		}
+		if (type == Byte.class && longValue <= Byte.MAX_VALUE && longValue >= Byte.MIN_VALUE) {
+			return (byte)longValue;
+		}
+		return null;
+	}
+	
+}
@@ -24,6 +24,8 @@ package org.teiid.translator.jdbc.mysql;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.Charset;
 import java.sql.Blob;
 import java.sql.CallableStatement;
 import java.sql.Connection;
@@ -31,19 +33,23 @@ import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 import org.teiid.core.types.BlobImpl;
 import org.teiid.core.types.GeometryType;
 import org.teiid.core.types.InputStreamFactory;
+import org.teiid.core.util.ReaderInputStream;
 import org.teiid.language.Command;
 import org.teiid.language.DerivedColumn;
 import org.teiid.language.Expression;
 import org.teiid.language.Function;
+import org.teiid.language.Insert;
 import org.teiid.language.QueryExpression;
 import org.teiid.language.SQLConstants;
 import org.teiid.language.Select;
@@ -56,10 +62,12 @@ import org.teiid.translator.Translator;
 import org.teiid.translator.TranslatorException;
 import org.teiid.translator.TypeFacility;
 import org.teiid.translator.jdbc.AliasModifier;
+import org.teiid.translator.jdbc.BulkLoadReader;
 import org.teiid.translator.jdbc.ConvertModifier;
 import org.teiid.translator.jdbc.FunctionModifier;
 import org.teiid.translator.jdbc.JDBCExecutionFactory;
 import org.teiid.translator.jdbc.JDBCMetdataProcessor;
+import org.teiid.translator.jdbc.JDBCPlugin;
 import org.teiid.translator.jdbc.LocateFunctionModifier;
 
 
@@ -603,4 +611,45 @@ public class MySQLExecutionFactory extends JDBCExecutionFactory {
 		gatherSelects(sq.getLeftQuery(), allQueries);
 		gatherSelects(sq.getRightQuery(), allQueries);
 	}
-}
+	
+	/**
+	 * Bulk load with LOAD DATA LOCAL INFILE reading from a stream rather than a file.
+	 * Since MySQL reports row errors for a local load as warnings, a load that does not
+	 * insert every row is treated as an error.
+	 */
+	@Override
+	public long bulkLoad(Insert insert, Iterator<? extends List<?>> values,
+			ExecutionContext context, Connection connection) throws SQLException, TranslatorException {
+		List<Expression> exprs = BulkLoadReader.getBulkLoadValues(insert);
+		if (exprs == null || getDatabaseTimeZone() != null) {
+			return -1;
+		}
+		Statement statement = connection.createStatement();
+		try {
+			Class<?> mysqlStatementClass = getWrappedDriverClass(statement, "com.mysql.jdbc.Statement"); //$NON-NLS-1$
+			if (mysqlStatementClass == null) {
+				mysqlStatementClass = getWrappedDriverClass(statement, "com.mysql.cj.jdbc.JdbcStatement"); //$NON-NLS-1$
+				if (mysqlStatementClass == null) {
+					return -1;
+				}
+			}
+			BulkLoadReader reader = new BulkLoadReader(values, exprs);
+			try {
+				mysqlStatementClass.getMethod("setLocalInfileInputStream", InputStream.class).invoke(statement.unwrap(mysqlStatementClass), new ReaderInputStream(reader, Charset.forName("UTF-8"))); //$NON-NLS-1$ //$NON-NLS-2$
+			} catch (InvocationTargetException e) {
+				throw new TranslatorException(e.getCause());
+			} catch (Exception e) {
+				throw new TranslatorException(e);
+			}
+			String sql = "LOAD DATA LOCAL INFILE 'teiid_bulk_load' INTO TABLE " + BulkLoadReader.getTableName(insert, this)  //$NON-NLS-1$
+					+ " CHARACTER SET utf8 " + BulkLoadReader.getColumnList(insert, this); //$NON-NLS-1$
+			int count = statement.executeUpdate(sql);
+			if (count != reader.getRowCount()) {
+				throw new TranslatorException(JDBCPlugin.Event.TEIID11023, JDBCPlugin.Util.gs(JDBCPlugin.Event.TEIID11023, reader.getRowCount(), count, statement.getWarnings()));
+			}
+			return count;
+		} finally {
+			statement.close();
+		}
+	}
+}
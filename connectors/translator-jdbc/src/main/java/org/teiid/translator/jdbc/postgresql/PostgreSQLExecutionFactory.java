@@ -24,6 +24,8 @@ package org.teiid.translator.jdbc.postgresql;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
@@ -34,6 +36,7 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 import org.teiid.GeometryInputSource;
@@ -855,4 +858,34 @@ public class PostgreSQLExecutionFactory extends JDBCExecutionFactory {
         return null;
     }
     
-}
+    /**
+     * Bulk load with COPY FROM STDIN through the driver CopyManager
+     */
+    @Override
+    public long bulkLoad(Insert insert, Iterator<? extends List<?>> values,
+    		ExecutionContext context, Connection connection) throws SQLException, TranslatorException {
+    	List<Expression> exprs = BulkLoadReader.getBulkLoadValues(insert);
+    	if (exprs == null || getDatabaseTimeZone() != null) {
+    		return -1;
+    	}
+    	Class<?> pgConnectionClass = getWrappedDriverClass(connection, "org.postgresql.PGConnection"); //$NON-NLS-1$
+    	if (pgConnectionClass == null) {
+    		return -1;
+    	}
+    	String sql = "COPY " + BulkLoadReader.getTableName(insert, this) + " " + BulkLoadReader.getColumnList(insert, this) + " FROM STDIN"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    	LogManager.logDetail(LogConstants.CTX_CONNECTOR, "bulk loading with", sql); //$NON-NLS-1$
+    	try {
+	    	Object copyManager = pgConnectionClass.getMethod("getCopyAPI").invoke(connection.unwrap(pgConnectionClass)); //$NON-NLS-1$
+	    	Object count = copyManager.getClass().getMethod("copyIn", String.class, Reader.class).invoke(copyManager, sql, new BulkLoadReader(values, exprs)); //$NON-NLS-1$
+	    	return ((Number)count).longValue();
+    	} catch (InvocationTargetException e) {
+    		if (e.getCause() instanceof SQLException) {
+    			throw (SQLException)e.getCause();
+    		}
+    		throw new TranslatorException(e.getCause());
+    	} catch (Exception e) {
+    		throw new TranslatorException(e);
+    	}
+    }
+    
+}
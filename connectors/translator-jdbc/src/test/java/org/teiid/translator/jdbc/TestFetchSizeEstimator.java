@@ -0,0 +1,68 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.translator.jdbc;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class TestFetchSizeEstimator {
+	
+	private static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(30);
+	private static final long PER_ROW = TimeUnit.MICROSECONDS.toNanos(10);
+
+	@Test public void testInitialFetchSize() {
+		FetchSizeEstimator estimator = new FetchSizeEstimator();
+		assertEquals(256, estimator.getFetchSize(256));
+	}
+	
+	@Test public void testHighLatency() {
+		FetchSizeEstimator estimator = new FetchSizeEstimator();
+		for (int rows : new int[] {256, 512, 100, 256}) {
+			estimator.addFetch(rows, LATENCY + rows * PER_ROW);
+		}
+		assertEquals(27000, estimator.getFetchSize(256), 1);
+		
+		//bounded by the row width
+		estimator.addRowSize(1000);
+		assertEquals(FetchSizeEstimator.MAX_FETCH_BYTES / 1000, estimator.getFetchSize(256));
+	}
+	
+	@Test public void testLowLatency() {
+		FetchSizeEstimator estimator = new FetchSizeEstimator();
+		for (int rows : new int[] {256, 512, 100, 256}) {
+			estimator.addFetch(rows, 100000 + rows * PER_ROW);
+		}
+		assertEquals(256, estimator.getFetchSize(256));
+	}
+	
+	@Test public void testExploreWithoutVariation() {
+		FetchSizeEstimator estimator = new FetchSizeEstimator();
+		estimator.addFetch(256, LATENCY);
+		estimator.addFetch(256, LATENCY);
+		assertEquals(512, estimator.getFetchSize(256));
+	}
+	
+}
@@ -0,0 +1,184 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.translator.jdbc;
+
+import static org.junit.Assert.*;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.teiid.dqp.internal.datamgr.ExecutionContextImpl;
+import org.teiid.dqp.internal.datamgr.FakeExecutionContextImpl;
+import org.teiid.language.Command;
+import org.teiid.translator.DataNotAvailableException;
+
+@SuppressWarnings("nls")
+public class TestJDBCQueryExecution {
+	
+	private ResultSet helpMockResults(Connection connection) throws Exception {
+		Statement s = Mockito.mock(Statement.class);
+		ResultSet rs = Mockito.mock(ResultSet.class);
+		Mockito.stub(connection.createStatement()).toReturn(s);
+		Mockito.stub(s.executeQuery(Mockito.anyString())).toReturn(rs);
+		Mockito.when(rs.next()).thenReturn(true, true, true, true, true, false);
+		Mockito.when(rs.getInt(1)).thenReturn(1, 2, 3, 4, 5);
+		return rs;
+	}
+	
+	/**
+	 * Get the next batch as the engine would, waiting to be notified when the read ahead is not complete
+	 */
+	private List<List<?>> nextBatch(JDBCQueryExecution execution, ExecutionContextImpl context, int maxRows) throws Exception {
+		while (true) {
+			try {
+				return execution.nextBatch(maxRows);
+			} catch (DataNotAvailableException e) {
+				assertSame(DataNotAvailableException.NO_POLLING, e);
+				while (!context.isDataAvailable()) {
+					Thread.sleep(10);
+				}
+			}
+		}
+	}
+
+	@Test public void testPrefetchHonorsMaxRows() throws Exception {
+		Command command = TranslationHelper.helpTranslate(TranslationHelper.BQT_VDB, "select IntKey from BQT1.SmallA");
+		Connection connection = Mockito.mock(Connection.class);
+		helpMockResults(connection);
+		JDBCExecutionFactory ef = new JDBCExecutionFactory();
+		ef.setPrefetchResults(true);
+		ef.start();
+		FakeExecutionContextImpl context = new FakeExecutionContextImpl();
+		context.setBatchSize(4);
+		JDBCQueryExecution execution = (JDBCQueryExecution)ef.createExecution(command, context, null, connection);
+		execution.execute();
+		assertEquals(Arrays.asList(Arrays.asList(1), Arrays.asList(2)), nextBatch(execution, context, 2));
+		//the remaining rows were read ahead, but are still returned in batches of the requested size
+		assertEquals(Arrays.asList(Arrays.asList(3), Arrays.asList(4)), nextBatch(execution, context, 2));
+		assertEquals(Arrays.asList(Arrays.asList(5)), nextBatch(execution, context, 2));
+		assertNull(nextBatch(execution, context, 2));
+		execution.close();
+	}
+	
+	@Test public void testNoPrefetchWhenTransactional() throws Exception {
+		Command command = TranslationHelper.helpTranslate(TranslationHelper.BQT_VDB, "select IntKey from BQT1.SmallA");
+		Connection connection = Mockito.mock(Connection.class);
+		ResultSet rs = helpMockResults(connection);
+		JDBCExecutionFactory ef = new JDBCExecutionFactory();
+		ef.setPrefetchResults(true);
+		ef.start();
+		FakeExecutionContextImpl context = new FakeExecutionContextImpl() {
+			@Override
+			public boolean isTransactional() {
+				return true;
+			}
+		};
+		JDBCQueryExecution execution = (JDBCQueryExecution)ef.createExecution(command, context, null, connection);
+		execution.execute();
+		List<List<?>> batch = execution.nextBatch(2);
+		assertEquals(2, batch.size());
+		Thread.sleep(100);
+		//only the requested rows are read
+		Mockito.verify(rs, Mockito.times(2)).next();
+		execution.close();
+	}
+	
+	@Test public void testNoPrefetchForProcedure() throws Exception {
+		Command command = TranslationHelper.helpTranslate("create foreign procedure p () returns table (x integer);", "exec p()");
+		Connection connection = Mockito.mock(Connection.class);
+		CallableStatement cs = Mockito.mock(CallableStatement.class);
+		ResultSet rs = Mockito.mock(ResultSet.class);
+		Mockito.stub(connection.prepareCall(Mockito.anyString())).toReturn(cs);
+		Mockito.stub(cs.execute()).toReturn(true);
+		Mockito.stub(cs.getResultSet()).toReturn(rs);
+		Mockito.when(rs.next()).thenReturn(true, true, true, false);
+		JDBCExecutionFactory ef = new JDBCExecutionFactory();
+		ef.setPrefetchResults(true);
+		ef.start();
+		JDBCQueryExecution execution = (JDBCQueryExecution)ef.createProcedureExecution(command, new FakeExecutionContextImpl(), null, connection);
+		execution.execute();
+		assertEquals(2, execution.nextBatch(2).size());
+		Thread.sleep(100);
+		//the output parameters are read after the results, so nothing is read ahead
+		Mockito.verify(rs, Mockito.times(2)).next();
+		execution.close();
+	}
+	
+	@Test(timeout=10000) public void testCloseStopsPrefetch() throws Exception {
+		Command command = TranslationHelper.helpTranslate(TranslationHelper.BQT_VDB, "select IntKey from BQT1.SmallA");
+		Connection connection = Mockito.mock(Connection.class);
+		Statement s = Mockito.mock(Statement.class);
+		ResultSet rs = Mockito.mock(ResultSet.class);
+		Mockito.stub(connection.createStatement()).toReturn(s);
+		Mockito.stub(s.executeQuery(Mockito.anyString())).toReturn(rs);
+		final CountDownLatch cancelled = new CountDownLatch(1);
+		final AtomicInteger rows = new AtomicInteger();
+		//a source that stalls after the first batch until cancelled
+		Mockito.stub(rs.next()).toAnswer(new Answer<Boolean>() {
+			@Override
+			public Boolean answer(InvocationOnMock invocation) throws Throwable {
+				if (rows.incrementAndGet() <= 2) {
+					return true;
+				}
+				if (!cancelled.await(60, TimeUnit.SECONDS)) {
+					return true;
+				}
+				throw new SQLException("cancelled");
+			}
+		});
+		Mockito.doAnswer(new Answer<Void>() {
+			@Override
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				cancelled.countDown();
+				return null;
+			}
+		}).when(s).cancel();
+		JDBCExecutionFactory ef = new JDBCExecutionFactory();
+		ef.setPrefetchResults(true);
+		ef.start();
+		FakeExecutionContextImpl context = new FakeExecutionContextImpl();
+		JDBCQueryExecution execution = (JDBCQueryExecution)ef.createExecution(command, context, null, connection);
+		execution.execute();
+		assertEquals(2, execution.nextBatch(2).size());
+		//wait for the read ahead to start
+		while (rows.get() < 3) {
+			Thread.sleep(10);
+		}
+		execution.close();
+		Mockito.verify(s).cancel();
+		Mockito.verify(s).close();
+	}
+	
+}
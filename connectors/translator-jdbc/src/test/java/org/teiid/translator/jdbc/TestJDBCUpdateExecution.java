@@ -24,18 +24,22 @@ package org.teiid.translator.jdbc;
 
 import static org.junit.Assert.*;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 import org.junit.Test;
 import org.mockito.Mockito;
 import org.teiid.core.types.DataTypeManager;
+import org.teiid.core.util.ObjectConverterUtil;
 import org.teiid.dqp.internal.datamgr.FakeExecutionContextImpl;
 import org.teiid.language.BatchedUpdates;
 import org.teiid.language.Command;
@@ -43,6 +47,8 @@ import org.teiid.language.Expression;
 import org.teiid.language.ExpressionValueSource;
 import org.teiid.language.Insert;
 import org.teiid.language.Parameter;
+import org.teiid.translator.ExecutionContext;
+import org.teiid.translator.TranslatorException;
 
 @SuppressWarnings("nls")
 public class TestJDBCUpdateExecution {
@@ -71,6 +77,44 @@ public class TestJDBCUpdateExecution {
 		Mockito.verify(p, Mockito.times(2)).addBatch();
 	}
 	
+	@Test public void testBulkLoad() throws Exception {
+		Insert command = (Insert)TranslationHelper.helpTranslate(TranslationHelper.BQT_VDB, "insert into BQT1.SmallA (IntKey, StringKey) values (1, 'a')"); //$NON-NLS-1$
+		List<Expression> values = ((ExpressionValueSource)command.getValueSource()).getValues();
+		Parameter param = new Parameter();
+		param.setType(DataTypeManager.DefaultDataClasses.INTEGER);
+		param.setValueIndex(0);
+		values.set(0, param);
+		param = new Parameter();
+		param.setType(DataTypeManager.DefaultDataClasses.STRING);
+		param.setValueIndex(1);
+		values.set(1, param);
+		command.setParameterValues(Arrays.asList(Arrays.asList(1, "a\tb"), Arrays.asList(2, null)).iterator());
+		Connection connection = Mockito.mock(Connection.class);
+		
+		final StringBuilder loaded = new StringBuilder();
+		JDBCExecutionFactory config = new JDBCExecutionFactory() {
+			@Override
+			public long bulkLoad(Insert insert, Iterator<? extends List<?>> values,
+					ExecutionContext context, Connection connection) throws SQLException, TranslatorException {
+				loaded.append(BulkLoadReader.getTableName(insert, this)).append(' ').append(BulkLoadReader.getColumnList(insert, this)).append('\n');
+				BulkLoadReader reader = new BulkLoadReader(values, BulkLoadReader.getBulkLoadValues(insert));
+				try {
+					loaded.append(ObjectConverterUtil.convertToString(reader));
+				} catch (IOException e) {
+					throw new TranslatorException(e);
+				}
+				return reader.getRowCount();
+			}
+		};
+		config.setUseBulkLoad(true);
+		
+		JDBCUpdateExecution updateExecution = new JDBCUpdateExecution(command, connection, new FakeExecutionContextImpl(), config);
+		updateExecution.execute();
+		assertEquals("SmallA (IntKey, StringKey)\n1\ta\\tb\n2\t\\N\n", loaded.toString());
+		assertArrayEquals(new int[] {1, 1}, updateExecution.getUpdateCounts());
+		Mockito.verify(connection, Mockito.never()).prepareStatement(Mockito.anyString());
+	}
+	
 	@Test public void testAutoGeneretionKeys() throws Exception {
 		Insert command = (Insert)TranslationHelper.helpTranslate(TranslationHelper.BQT_VDB, "insert into BQT1.SmallA (IntKey, IntNum) values (1, 2)"); //$NON-NLS-1$
 				
@@ -0,0 +1,145 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.translator.jdbc;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.teiid.dqp.internal.datamgr.ExecutionContextImpl;
+import org.teiid.dqp.internal.datamgr.FakeExecutionContextImpl;
+import org.teiid.language.Select;
+import org.teiid.translator.DataNotAvailableException;
+import org.teiid.translator.ResultSetExecution;
+
+@SuppressWarnings("nls")
+public class TestPartitionedResults {
+
+	@Test public void testIntegerBoundaries() {
+		List<Object> boundaries = PartitionedResults.getBoundaries(0, 9, Integer.class, 4);
+		assertEquals(Arrays.asList(0, 2, 5, 7, 10), boundaries);
+	}
+	
+	@Test public void testNegativeLongBoundaries() {
+		List<Object> boundaries = PartitionedResults.getBoundaries(-10L, -1L, Long.class, 3);
+		assertEquals(Arrays.asList(-10L, -7L, -4L, 0L), boundaries);
+	}
+	
+	@Test public void testSingleValue() {
+		assertNull(PartitionedResults.getBoundaries(5, 5, Integer.class, 4));
+	}
+	
+	@Test public void testOverflow() {
+		assertNull(PartitionedResults.getBoundaries(0, Integer.MAX_VALUE, Integer.class, 2));
+	}
+	
+	@Test public void testDecimalBoundaries() {
+		List<Object> boundaries = PartitionedResults.getBoundaries(new BigDecimal("1.5"), new BigDecimal("2.5"), BigDecimal.class, 2);
+		assertEquals(3, boundaries.size());
+		assertEquals(new BigDecimal("1.5"), boundaries.get(0));
+		assertEquals(0, new BigDecimal("3.5").compareTo((BigDecimal)boundaries.get(2)));
+	}
+	
+	@Test public void testTimestampBoundaries() {
+		List<Object> boundaries = PartitionedResults.getBoundaries(new Timestamp(0), new Timestamp(99), Timestamp.class, 2);
+		assertEquals(Arrays.asList(new Timestamp(0), new Timestamp(50), new Timestamp(100)), boundaries);
+	}
+	
+	@Test public void testDoubleCoversMax() {
+		List<Object> boundaries = PartitionedResults.getBoundaries(1e300, 2e300, Double.class, 4);
+		assertEquals(5, boundaries.size());
+		assertTrue((Double)boundaries.get(4) > 2e300);
+	}
+	
+	@Test(timeout=10000) public void testCancelWhileReading() throws Exception {
+		Select command = (Select)TranslationHelper.helpTranslate("create foreign table t (id integer not null options (\"teiid_rel:partition-key\" 'true'), val string);", "select id, val from t");
+		DataSource ds = Mockito.mock(DataSource.class);
+		Connection connection = Mockito.mock(Connection.class);
+		Connection partitionConnection = Mockito.mock(Connection.class);
+		Mockito.when(ds.getConnection()).thenReturn(connection, partitionConnection);
+		
+		Statement s = Mockito.mock(Statement.class);
+		ResultSet minMax = Mockito.mock(ResultSet.class);
+		Mockito.stub(connection.createStatement()).toReturn(s);
+		Mockito.stub(s.executeQuery(Mockito.anyString())).toReturn(minMax);
+		Mockito.stub(minMax.next()).toReturn(true);
+		Mockito.stub(minMax.getInt(2)).toReturn(100);
+		
+		//partitions that never end
+		ResultSet rs = Mockito.mock(ResultSet.class);
+		Mockito.stub(rs.next()).toReturn(true);
+		PreparedStatement ps = Mockito.mock(PreparedStatement.class);
+		Mockito.stub(ps.executeQuery()).toReturn(rs);
+		Mockito.stub(connection.prepareStatement(Mockito.anyString())).toReturn(ps);
+		Mockito.stub(partitionConnection.prepareStatement(Mockito.anyString())).toReturn(ps);
+		
+		JDBCExecutionFactory ef = new JDBCExecutionFactory();
+		ef.setParallelPartitions(2);
+		ef.start();
+		FakeExecutionContextImpl context = new FakeExecutionContextImpl();
+		JDBCQueryExecution execution = (JDBCQueryExecution)ef.createExecution(command, context, null, ef.getConnection(ds, context));
+		execution.execute();
+		assertNotNull(nextRow(execution, context));
+		//the engine supplied command should not be modified
+		assertNull(command.getWhere());
+		execution.cancel();
+		assertNull(execution.next());
+		execution.close();
+		Mockito.verify(partitionConnection).close();
+		
+		//without the data source association the connection is not partitioned
+		ef.closeConnection(connection, ds);
+		execution = (JDBCQueryExecution)ef.createExecution(command, context, null, connection);
+		execution.execute();
+		Mockito.verify(ds, Mockito.times(2)).getConnection();
+		execution.close();
+	}
+	
+	/**
+	 * Get the next row as the engine would, waiting to be notified when the row has not yet been read
+	 */
+	static List<?> nextRow(ResultSetExecution execution, ExecutionContextImpl context) throws Exception {
+		while (true) {
+			try {
+				return execution.next();
+			} catch (DataNotAvailableException e) {
+				assertSame(DataNotAvailableException.NO_POLLING, e);
+				while (!context.isDataAvailable()) {
+					Thread.sleep(10);
+				}
+			}
+		}
+	}
+	
+}
@@ -54,6 +54,7 @@ public class LDAPExecutionFactory extends ExecutionFactory<ConnectionFactory, Ld
 	public static final String DN_PREFIX = MetadataFactory.LDAP_URI + "dn_prefix"; //$NON-NLS-1$
 	public static final String RDN_TYPE = MetadataFactory.LDAP_URI + "rdn_type"; //$NON-NLS-1$
 	public static final String UNWRAP = MetadataFactory.LDAP_URI + "unwrap"; //$NON-NLS-1$
+	public static final String SEARCH_PARTITIONS = MetadataFactory.LDAP_URI + "search_partitions"; //$NON-NLS-1$
 	
 	public enum SearchDefaultScope {
 		SUBTREE_SCOPE,
@@ -66,6 +67,7 @@ public class LDAPExecutionFactory extends ExecutionFactory<ConnectionFactory, Ld
 	private SearchDefaultScope searchDefaultScope = SearchDefaultScope.ONELEVEL_SCOPE;
 	private boolean usePagination;
 	private boolean exceptionOnSizeLimitExceeded;
+	private boolean readAhead;
 	
 	public LDAPExecutionFactory() {
 		this.setMaxInCriteriaSize(1000);
@@ -201,6 +203,15 @@ public class LDAPExecutionFactory extends ExecutionFactory<ConnectionFactory, Ld
 		this.exceptionOnSizeLimitExceeded = exceptionOnSizeLimitExceeded;
 	}
 	
+	@TranslatorProperty(display="Read Ahead", description="Set to true to run searches, and the request for each next page when using pagination, on a background thread ahead of the results being consumed.", advanced=true)
+	public boolean isReadAhead() {
+		return readAhead;
+	}
+	
+	public void setReadAhead(boolean readAhead) {
+		this.readAhead = readAhead;
+	}
+	
 	@Override
 	public boolean supportsOnlyLiteralComparison() {
 		return true;
@@ -41,8 +41,11 @@
  * as the LDAP attribute name.
  * 
  * 
- * TODO: Implement paged searches -- the LDAP server must support VirtualListViews.
- * TODO: Implement cancel.
+ * Paged searches use the PagedResultsControl when usePagination is set.  With readAhead
+ * the search (and the request for each following page) runs on a background thread that
+ * stays up to a page ahead of the consumer.  The table may also name several base DNs with
+ * the search_partitions extension property, which are then searched concurrently.
+ * TODO: VirtualListViews for row offsets.
  * TODO: Add Sun/Netscape implementation, AD/OpenLDAP implementation.
  * 
  * 
@@ -81,6 +84,8 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import javax.naming.InvalidNameException;
 import javax.naming.NamingEnumeration;
@@ -103,8 +108,10 @@ import org.teiid.core.types.ArrayImpl;
 import org.teiid.logging.LogConstants;
 import org.teiid.logging.LogManager;
 import org.teiid.metadata.Column;
+import org.teiid.translator.DataNotAvailableException;
 import org.teiid.translator.ExecutionContext;
 import org.teiid.translator.ResultSetExecution;
+import org.teiid.translator.ResultsQueue;
 import org.teiid.translator.TranslatorException;
 import org.teiid.translator.TypeFacility;
 
@@ -119,8 +126,64 @@ public class LDAPQueryExecution implements ResultSetExecution {
 	static final String MULTIVALUED_CONCAT = "multivalued-concat"; //$NON-NLS-1$
 	static final String delimiter = "?"; //$NON-NLS-1$
 	
+	/**
+	 * Runs the (paged) search against a single context, queuing the results 
+	 * so that the next page is requested while the current one is consumed.
+	 */
+	private class SearchReader implements Runnable {
+		private LdapContext context;
+		private volatile NamingEnumeration<?> enumeration;
+		private Future<?> future;
+		
+		SearchReader(LdapContext context) {
+			this.context = context;
+		}
+		
+		@Override
+		public void run() {
+			try {
+				setRequestControls(this.context, null);
+				while (!closed) {
+					NamingEnumeration<?> e = executeSearch(this.context);
+					this.enumeration = e;
+					while (!closed && e.hasMore()) {
+						if (!results.put(e.next())) {
+							return;
+						}
+					}
+					if (closed || !executionFactory.usePagination()) {
+						break;
+					}
+					byte[] cookie = getCookie(this.context);
+					if (cookie == null) {
+						break;
+					}
+					setRequestControls(this.context, cookie);
+				}
+			} catch (Throwable t) {
+				//queued rather than reported through finish so that a size limit on one context is just a warning
+				results.put(t);
+			} finally {
+				results.finish(null);
+			}
+		}
+		
+		void close() {
+			NamingEnumeration<?> e = this.enumeration;
+			if (e != null) {
+				try {
+					e.close();
+				} catch (Exception ex) { }
+			}
+		}
+	}
+	
 	private LDAPSearchDetails searchDetails;
 	private LdapContext ldapCtx;
+	private List<LdapContext> partitionContexts;
+	private List<SearchReader> readers;
+	private ResultsQueue<Object> results;
+	private volatile boolean closed;
 	private NamingEnumeration<?> searchEnumeration;
 	private LDAPExecutionFactory executionFactory;
 	private ExecutionContext executionContext;
@@ -170,15 +233,42 @@ public class LDAPQueryExecution implements ResultSetExecution {
 			}
 		}
 		
-		setRequestControls(null);
+		if (this.executionFactory.isReadAhead() || this.partitionContexts != null) {
+			startReaders();
+			return;
+		}
+		
+		setRequestControls(this.ldapCtx, null);
 		// Execute the search.
-		executeSearch();
+		searchEnumeration = executeSearch(this.ldapCtx);
+	}
+	
+	/**
+	 * Search the given contexts, each under the same filter and controls, in place
+	 * of the single context supplied to the constructor. 
+	 */
+	void setPartitionContexts(List<LdapContext> contexts) {
+		this.partitionContexts = contexts;
+	}
+	
+	private void startReaders() {
+		List<LdapContext> contexts = this.partitionContexts;
+		if (contexts == null) {
+			contexts = Collections.singletonList(this.ldapCtx);
+		}
+		this.results = new ResultsQueue<Object>(Math.max(this.executionContext.getBatchSize(), 1) * contexts.size(), contexts.size(), this.executionContext);
+		this.readers = new ArrayList<SearchReader>(contexts.size());
+		for (LdapContext context : contexts) {
+			SearchReader reader = new SearchReader(context);
+			this.readers.add(reader);
+			reader.future = ResultsQueue.getReaderExecutor().submit(reader);
+		}
 	}
 
 	/** 
 	 * Set the standard request controls
 	 */
-	private void setRequestControls(byte[] cookie) throws TranslatorException {
+	private void setRequestControls(LdapContext context, byte[] cookie) throws TranslatorException {
 		List<Control> ctrl = new ArrayList<Control>();
 		SortKey[] keys = searchDetails.getSortKeys();
 		try {			
@@ -189,7 +279,7 @@ public class LDAPQueryExecution implements ResultSetExecution {
 				ctrl.add(new PagedResultsControl(this.executionContext.getBatchSize(), cookie, Control.CRITICAL));
 			}
 			if (!ctrl.isEmpty()) {
-				this.ldapCtx.setRequestControls(ctrl.toArray(new Control[ctrl.size()]));
+				context.setRequestControls(ctrl.toArray(new Control[ctrl.size()]));
 				LogManager.logTrace(LogConstants.CTX_CONNECTOR, "Sort/pagination controls were created successfully."); //$NON-NLS-1$
 			}
 		} catch (NamingException ne) {
@@ -205,10 +295,10 @@ public class LDAPQueryExecution implements ResultSetExecution {
 	 * Perform the LDAP search against the subcontext, using the filter and 
 	 * search controls appropriate to the query and model metadata.
 	 */
-	private void executeSearch() throws TranslatorException {
+	private NamingEnumeration<?> executeSearch(LdapContext context) throws TranslatorException {
 		String filter = searchDetails.getContextFilter();
 		try {
-			searchEnumeration = this.ldapCtx.search("", filter, ctrls); //$NON-NLS-1$
+			return context.search("", filter, ctrls); //$NON-NLS-1$
 		} catch (NamingException ne) {
             final String msg = LDAPPlugin.Util.getString("LDAPSyncQueryExecution.execSearchError"); //$NON-NLS-1$
 			throw new TranslatorException(ne, msg + " : " + ne.getExplanation());  //$NON-NLS-1$ 
@@ -217,6 +307,23 @@ public class LDAPQueryExecution implements ResultSetExecution {
 			throw new TranslatorException(e, msg); 
 		}
 	}
+	
+	/**
+	 * @return the paged results cookie from the last search response, or null if there are no more pages
+	 */
+	private byte[] getCookie(LdapContext context) throws NamingException {
+		byte[] cookie = null;
+		Control[] controls = context.getResponseControls();
+		if (controls != null) {
+			for (int i = 0; i < controls.length; i++) {
+				if (controls[i] instanceof PagedResultsResponseControl) {
+					PagedResultsResponseControl prrc = (PagedResultsResponseControl)controls[i];
+					cookie = prrc.getCookie();
+				}
+			}
+		}
+		return cookie;
+	}
 
 	// GHH 20080326 - attempt to implement cancel here.  First try to
 	// close the searchEnumeration, then the search context.
@@ -236,14 +343,39 @@ public class LDAPQueryExecution implements ResultSetExecution {
 	// on contexts multiple times
 	@Override
 	public void close() {
+		this.closed = true;
 		if (searchEnumeration != null) {
 			try {
 				searchEnumeration.close();
 			} catch (Exception e) { } // catch everything, because NamingEnumeration has undefined behavior if it previously hit an exception
 		}
-		if (ldapCtx != null) {
+		if (readers != null) {
+			results.close();
+			for (SearchReader reader : readers) {
+				reader.close();
+			}
+			for (SearchReader reader : readers) {
+				if (reader.future.cancel(false)) {
+					continue; //never started
+				}
+				try {
+					reader.future.get();
+				} catch (Exception e) { } // failures have already been queued
+			}
+		}
+		if (partitionContexts != null) {
+			for (LdapContext context : partitionContexts) {
+				closeContext(context);
+			}
+		} else {
+			closeContext(ldapCtx);
+		}
+	}
+
+	private void closeContext(LdapContext context) {
+		if (context != null) {
 			try {
-				ldapCtx.close();
+				context.close();
 			} catch (NamingException ne) {
 	            LogManager.logWarning(LogConstants.CTX_CONNECTOR, LDAPPlugin.Util.gs(LDAPPlugin.Event.TEIID12003, ne.getExplanation()));
 			}
@@ -261,7 +393,7 @@ public class LDAPQueryExecution implements ResultSetExecution {
 	// it from being used again.
 	// GHH 20080326 - also added return of explanation for generic
 	// NamingException
-	public List<?> next() throws TranslatorException {
+	public List<?> next() throws TranslatorException, DataNotAvailableException {
 		try {
 			if (unwrapIterator != null) {
 				if (unwrapIterator.hasNext()) {
@@ -269,6 +401,9 @@ public class LDAPQueryExecution implements ResultSetExecution {
 				}
 				unwrapIterator = null;
 			}
+			if (readers != null) {
+				return nextQueued();
+			}
 			// The search has been executed, so process up to one batch of
 			// results.
 			List<?> result = null;
@@ -283,23 +418,13 @@ public class LDAPQueryExecution implements ResultSetExecution {
 			}
 			
 			if (result == null && this.executionFactory.usePagination()) {
-			    byte[] cookie = null;
-				Control[] controls = ldapCtx.getResponseControls();
-		        if (controls != null) {
-		        	for (int i = 0; i < controls.length; i++) {
-		        		if (controls[i] instanceof PagedResultsResponseControl) {
-		        			PagedResultsResponseControl prrc = (PagedResultsResponseControl)controls[i];
-		                    cookie = prrc.getCookie();
-		        		}
-		        	}
-		        }
-		        
+			    byte[] cookie = getCookie(ldapCtx);
 		        if (cookie == null) {
 		        	return null;
 		        }
 	
-		        setRequestControls(cookie);
-		        executeSearch();
+		        setRequestControls(ldapCtx, cookie);
+		        searchEnumeration = executeSearch(ldapCtx);
 		        return next();
 			}
 
@@ -308,20 +433,64 @@ public class LDAPQueryExecution implements ResultSetExecution {
 			}
 			return result;
 		} catch (SizeLimitExceededException e) {
-			if (resultCount != searchDetails.getCountLimit()) {
-				String msg = LDAPPlugin.Util.gs(LDAPPlugin.Event.TEIID12008);
-				TranslatorException te = new TranslatorException(e, msg);
-				if (executionFactory.isExceptionOnSizeLimitExceeded()) {
-					throw te;
-				}
-				this.executionContext.addWarning(te);
-				LogManager.logWarning(LogConstants.CTX_CONNECTOR, e, msg); 
-			}
+			sizeLimitExceeded(e);
 			return null; // GHH 20080326 - if size limit exceeded don't try to read more results
 		} catch (NamingException ne) {
 			throw new TranslatorException(ne, LDAPPlugin.Util.gs("ldap_error")); //$NON-NLS-1$
 		}
 	}
+	
+	private void sizeLimitExceeded(SizeLimitExceededException e) throws TranslatorException {
+		if (resultCount != searchDetails.getCountLimit()) {
+			String msg = LDAPPlugin.Util.gs(LDAPPlugin.Event.TEIID12008);
+			TranslatorException te = new TranslatorException(e, msg);
+			if (executionFactory.isExceptionOnSizeLimitExceeded()) {
+				throw te;
+			}
+			this.executionContext.addWarning(te);
+			LogManager.logWarning(LogConstants.CTX_CONNECTOR, e, msg); 
+		}
+	}
+	
+	/**
+	 * Get the next row from the results queued by the {@link SearchReader}s without blocking,
+	 * the execution context is notified once one is available 
+	 */
+	private List<?> nextQueued() throws TranslatorException, DataNotAvailableException {
+		long limit = searchDetails.getCountLimit();
+		while (limit == -1 || resultCount < limit) {
+			Object o = null;
+			try {
+				o = results.next();
+			} catch (ExecutionException e) {
+				throw new TranslatorException(e.getCause());
+			}
+			if (o == null) {
+				break;
+			}
+			if (o instanceof SizeLimitExceededException) {
+				sizeLimitExceeded((SizeLimitExceededException)o);
+				continue;
+			}
+			if (o instanceof NamingException) {
+				throw new TranslatorException((NamingException)o, LDAPPlugin.Util.gs("ldap_error")); //$NON-NLS-1$
+			}
+			if (o instanceof TranslatorException) {
+				throw (TranslatorException)o;
+			}
+			if (o instanceof Throwable) {
+				throw new TranslatorException((Throwable)o);
+			}
+			try {
+				List<?> result = getRow((SearchResult)o);
+				resultCount++;
+				return result;
+			} catch (InvalidNameException e) {
+				
+			}
+		}
+		return null;
+	}
 
 	/**
 	 * Create a row using the searchResult and add it to the supplied batch.
@@ -72,13 +72,16 @@
 package org.teiid.translator.ldap;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 import javax.naming.NamingException;
 import javax.naming.directory.SearchControls;
 import javax.naming.ldap.LdapContext;
 
+import org.teiid.language.NamedTable;
 import org.teiid.language.Select;
+import org.teiid.language.TableReference;
 import org.teiid.logging.LogConstants;
 import org.teiid.logging.LogManager;
 import org.teiid.metadata.Column;
@@ -127,12 +130,61 @@ public class LDAPSyncQueryExecution implements ResultSetExecution {
 		LDAPSearchDetails searchDetails = parser.translateSQLQueryToLDAPSearch(query);
 
 		// Create and configure the new search context.
-		LdapContext context =  createSearchContext(searchDetails.getContextName());
+		List<LdapContext> partitions = createPartitionContexts(searchDetails);
+		LdapContext context = null;
+		if (partitions != null) {
+			context = partitions.get(0);
+		} else {
+			context = createSearchContext(searchDetails.getContextName());
+		}
 		SearchControls ctrls = setSearchControls(searchDetails);
 		
 		this.delegate = new LDAPQueryExecution(context, searchDetails, ctrls, this.executionFactory, this.executionContext);
+		this.delegate.setPartitionContexts(partitions);
 		this.delegate.execute();
 	}
+	
+	/**
+	 * Create a context for each of the ; separated base DNs named by the 
+	 * search partitions property of a single table query.
+	 * <br>
+	 * The partition results are merged in arrival order, so a sorted search is not partitioned.
+	 * @return the contexts or null if the search is not partitioned
+	 */
+	private List<LdapContext> createPartitionContexts(LDAPSearchDetails searchDetails) throws TranslatorException {
+		if (query.getFrom().size() != 1 || searchDetails.getSortKeys() != null) {
+			return null;
+		}
+		TableReference from = query.getFrom().get(0);
+		if (!(from instanceof NamedTable) || ((NamedTable)from).getMetadataObject() == null) {
+			return null;
+		}
+		String partitions = ((NamedTable)from).getMetadataObject().getProperty(LDAPExecutionFactory.SEARCH_PARTITIONS, false);
+		if (partitions == null) {
+			return null;
+		}
+		List<LdapContext> result = new ArrayList<LdapContext>();
+		try {
+			for (String dn : partitions.split(";")) { //$NON-NLS-1$
+				dn = dn.trim();
+				if (dn.length() > 0) {
+					result.add(createSearchContext(dn));
+				}
+			}
+		} catch (TranslatorException e) {
+			for (LdapContext context : result) {
+				try {
+					context.close();
+				} catch (NamingException ne) {
+				}
+			}
+			throw e;
+		}
+		if (result.isEmpty()) {
+			return null;
+		}
+		return result;
+	}
 
 
 
@@ -160,10 +212,12 @@ public class LDAPSyncQueryExecution implements ResultSetExecution {
 		SearchControls ctrls = new SearchControls();
 		//ArrayList modelAttrList = searchDetails.getAttributeList();
 		ArrayList<Column> modelAttrList = searchDetails.getElementList();
-		String[] attrs = new String[modelAttrList.size()];
-		for (int i = 0; i < attrs.length; i++) {
-			attrs[i] = modelAttrList.get(i).getSourceName();
+		//only request each attribute once, the same attribute may back several columns
+		LinkedHashSet<String> attrSet = new LinkedHashSet<String>();
+		for (int i = 0; i < modelAttrList.size(); i++) {
+			attrSet.add(modelAttrList.get(i).getSourceName());
 		}
+		String[] attrs = attrSet.toArray(new String[attrSet.size()]);
 
 		ctrls.setSearchScope(searchDetails.getSearchScope());
 		ctrls.setReturningAttributes(attrs);
@@ -41,14 +41,18 @@ import javax.naming.directory.SearchResult;
 import javax.naming.ldap.LdapContext;
 
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.teiid.cdk.api.TranslationUtility;
+import org.teiid.dqp.internal.datamgr.FakeExecutionContextImpl;
 import org.teiid.language.Command;
 import org.teiid.language.Literal;
 import org.teiid.metadata.Column;
 import org.teiid.metadata.RuntimeMetadata;
 import org.teiid.query.unittest.RealMetadataFactory;
+import org.teiid.translator.DataNotAvailableException;
 import org.teiid.translator.ExecutionContext;
+import org.teiid.translator.ResultSetExecution;
 
 @SuppressWarnings("nls")
 public class TestQueryExecution {
@@ -179,6 +183,177 @@ public class TestQueryExecution {
         assertNull(execution.next());
 	}
 	
+	/**
+	 * Get the next row as the engine would, waiting to be notified when the searches have not queued one
+	 */
+	private static List<?> nextRow(ResultSetExecution execution, FakeExecutionContextImpl ec) throws Exception {
+		while (true) {
+			try {
+				return execution.next();
+			} catch (DataNotAvailableException e) {
+				assertSame(DataNotAvailableException.NO_POLLING, e);
+				while (!ec.isDataAvailable()) {
+					Thread.sleep(10);
+				}
+			}
+		}
+	}
+	
+	@Test public void testReadAhead() throws Exception {
+        TranslationUtility util = new TranslationUtility(RealMetadataFactory.fromDDL("CREATE FOREIGN TABLE GROUP_PEOPLE (objectClass string options (\"teiid_ldap:unwrap\" true)) OPTIONS(nameinsource 'ou=Infrastructure,ou=Support,o=DEMOCORP,c=AU', updatable true);", "x", "y"));
+        Command command = util.parseCommand("select * from group_people");
+        FakeExecutionContextImpl ec = new FakeExecutionContextImpl();
+        RuntimeMetadata rm = Mockito.mock(RuntimeMetadata.class);
+        LdapContext connection = Mockito.mock(LdapContext.class);
+        LdapContext ctx = Mockito.mock(LdapContext.class);
+        Mockito.stub(connection.lookup("ou=Infrastructure,ou=Support,o=DEMOCORP,c=AU")).toReturn(ctx);
+        BasicAttributes attributes = new BasicAttributes(true);
+        BasicAttribute attrib = new BasicAttribute("objectClass");
+        attributes.put(attrib);
+        attrib.add("foo");
+        attrib.add("bar");
+        
+        final SearchResult sr = new SearchResult("x", null, attributes);
+        final SearchResult sr1 = new SearchResult("y", null, new BasicAttributes(true));
+        
+        NamingEnumeration<SearchResult> enumeration = new SimpleNamingEnumeration(Arrays.asList(sr, sr1).iterator());
+        
+        Mockito.stub(ctx.search((String)Mockito.any(), (String)Mockito.any(), (SearchControls)Mockito.any())).toReturn(enumeration);
+        
+        LDAPExecutionFactory lef = new LDAPExecutionFactory();
+        lef.setReadAhead(true);
+        lef.start();
+        
+        LDAPSyncQueryExecution execution = (LDAPSyncQueryExecution)lef.createExecution(command, ec, rm, connection);
+        execution.execute();
+        assertEquals(Arrays.asList("foo"), nextRow(execution, ec));
+        assertEquals(Arrays.asList("bar"), nextRow(execution, ec));
+        assertEquals(Collections.singletonList(null), nextRow(execution, ec));
+        assertNull(nextRow(execution, ec));
+        execution.close();
+        Mockito.verify(ctx).close();
+	}
+	
+	@Test public void testSearchPartitions() throws Exception {
+        TranslationUtility util = new TranslationUtility(RealMetadataFactory.fromDDL("CREATE FOREIGN TABLE PEOPLE (uid string, cn string options (nameinsource 'uid')) OPTIONS(nameinsource 'o=DEMOCORP,c=AU', \"teiid_ldap:search_partitions\" 'ou=East,o=DEMOCORP,c=AU; ou=West,o=DEMOCORP,c=AU');", "x", "y"));
+        Command command = util.parseCommand("select uid, cn from people");
+        FakeExecutionContextImpl ec = new FakeExecutionContextImpl();
+        RuntimeMetadata rm = Mockito.mock(RuntimeMetadata.class);
+        LdapContext connection = Mockito.mock(LdapContext.class);
+        LdapContext east = Mockito.mock(LdapContext.class);
+        LdapContext west = Mockito.mock(LdapContext.class);
+        Mockito.stub(connection.lookup("ou=East,o=DEMOCORP,c=AU")).toReturn(east);
+        Mockito.stub(connection.lookup("ou=West,o=DEMOCORP,c=AU")).toReturn(west);
+        
+        BasicAttributes attributes = new BasicAttributes(true);
+        attributes.put(new BasicAttribute("uid", "a"));
+        NamingEnumeration<SearchResult> enumeration = new SimpleNamingEnumeration(Arrays.asList(new SearchResult("x", null, attributes)).iterator());
+        Mockito.stub(east.search((String)Mockito.any(), (String)Mockito.any(), (SearchControls)Mockito.any())).toReturn(enumeration);
+        attributes = new BasicAttributes(true);
+        attributes.put(new BasicAttribute("uid", "b"));
+        enumeration = new SimpleNamingEnumeration(Arrays.asList(new SearchResult("y", null, attributes)).iterator());
+        Mockito.stub(west.search((String)Mockito.any(), (String)Mockito.any(), (SearchControls)Mockito.any())).toReturn(enumeration);
+        
+        LDAPExecutionFactory lef = new LDAPExecutionFactory();
+        lef.start();
+        
+        LDAPSyncQueryExecution execution = (LDAPSyncQueryExecution)lef.createExecution(command, ec, rm, connection);
+        execution.execute();
+        List<List<?>> results = new ArrayList<List<?>>();
+        List<?> row = null;
+        while ((row = nextRow(execution, ec)) != null) {
+        	results.add(row);
+        }
+        assertEquals(2, results.size());
+        assertTrue(results.contains(Arrays.asList("a", "a")));
+        assertTrue(results.contains(Arrays.asList("b", "b")));
+        
+        ArgumentCaptor<SearchControls> controls = ArgumentCaptor.forClass(SearchControls.class);
+        Mockito.verify(east).search(Mockito.eq(""), Mockito.anyString(), controls.capture());
+        assertArrayEquals(new String[] {"uid"}, controls.getValue().getReturningAttributes());
+        
+        execution.close();
+        Mockito.verify(east).close();
+        Mockito.verify(west).close();
+        Mockito.verify(connection, Mockito.never()).lookup("o=DEMOCORP,c=AU");
+	}
+	
+	@Test public void testSearchPartitionsOrdered() throws Exception {
+        TranslationUtility util = new TranslationUtility(RealMetadataFactory.fromDDL("CREATE FOREIGN TABLE PEOPLE (uid string, cn string options (nameinsource 'uid')) OPTIONS(nameinsource 'o=DEMOCORP,c=AU', \"teiid_ldap:search_partitions\" 'ou=East,o=DEMOCORP,c=AU; ou=West,o=DEMOCORP,c=AU');", "x", "y"));
+        Command command = util.parseCommand("select uid, cn from people order by uid");
+        ExecutionContext ec = Mockito.mock(ExecutionContext.class);
+        RuntimeMetadata rm = Mockito.mock(RuntimeMetadata.class);
+        LdapContext connection = Mockito.mock(LdapContext.class);
+        LdapContext ctx = Mockito.mock(LdapContext.class);
+        Mockito.stub(connection.lookup("o=DEMOCORP,c=AU")).toReturn(ctx);
+        
+        BasicAttributes attributes = new BasicAttributes(true);
+        attributes.put(new BasicAttribute("uid", "a"));
+        BasicAttributes attributes1 = new BasicAttributes(true);
+        attributes1.put(new BasicAttribute("uid", "b"));
+        NamingEnumeration<SearchResult> enumeration = new SimpleNamingEnumeration(Arrays.asList(new SearchResult("x", null, attributes), new SearchResult("y", null, attributes1)).iterator());
+        Mockito.stub(ctx.search((String)Mockito.any(), (String)Mockito.any(), (SearchControls)Mockito.any())).toReturn(enumeration);
+        
+        LDAPExecutionFactory lef = new LDAPExecutionFactory();
+        lef.start();
+        
+        LDAPSyncQueryExecution execution = (LDAPSyncQueryExecution)lef.createExecution(command, ec, rm, connection);
+        execution.execute();
+        assertEquals(Arrays.asList("a", "a"), execution.next());
+        assertEquals(Arrays.asList("b", "b"), execution.next());
+        assertNull(execution.next());
+        execution.close();
+        
+        //the sort control must apply to a single search
+        Mockito.verify(connection, Mockito.never()).lookup("ou=East,o=DEMOCORP,c=AU");
+        Mockito.verify(connection, Mockito.never()).lookup("ou=West,o=DEMOCORP,c=AU");
+	}
+	
+	@Test(timeout=10000) public void testReadAheadCancel() throws Exception {
+        TranslationUtility util = new TranslationUtility(RealMetadataFactory.fromDDL("CREATE FOREIGN TABLE PEOPLE (uid string) OPTIONS(nameinsource 'o=DEMOCORP,c=AU', \"teiid_ldap:search_partitions\" 'ou=East,o=DEMOCORP,c=AU; ou=West,o=DEMOCORP,c=AU');", "x", "y"));
+        Command command = util.parseCommand("select uid from people");
+        FakeExecutionContextImpl ec = new FakeExecutionContextImpl();
+        RuntimeMetadata rm = Mockito.mock(RuntimeMetadata.class);
+        LdapContext connection = Mockito.mock(LdapContext.class);
+        LdapContext east = Mockito.mock(LdapContext.class);
+        LdapContext west = Mockito.mock(LdapContext.class);
+        Mockito.stub(connection.lookup("ou=East,o=DEMOCORP,c=AU")).toReturn(east);
+        Mockito.stub(connection.lookup("ou=West,o=DEMOCORP,c=AU")).toReturn(west);
+        
+        //searches that never end
+        BasicAttributes attributes = new BasicAttributes(true);
+        attributes.put(new BasicAttribute("uid", "a"));
+        final SearchResult sr = new SearchResult("x", null, attributes);
+        Iterator<SearchResult> iter = new Iterator<SearchResult>() {
+        	@Override
+        	public boolean hasNext() {
+        		return true;
+        	}
+        	@Override
+        	public SearchResult next() {
+        		return sr;
+        	}
+        	@Override
+        	public void remove() {
+        		throw new UnsupportedOperationException();
+        	}
+        };
+        Mockito.stub(east.search((String)Mockito.any(), (String)Mockito.any(), (SearchControls)Mockito.any())).toReturn(new SimpleNamingEnumeration(iter));
+        Mockito.stub(west.search((String)Mockito.any(), (String)Mockito.any(), (SearchControls)Mockito.any())).toReturn(new SimpleNamingEnumeration(iter));
+        
+        LDAPExecutionFactory lef = new LDAPExecutionFactory();
+        lef.start();
+        
+        LDAPSyncQueryExecution execution = (LDAPSyncQueryExecution)lef.createExecution(command, ec, rm, connection);
+        execution.execute();
+        assertEquals(Arrays.asList("a"), nextRow(execution, ec));
+        execution.cancel();
+        assertNull(execution.next());
+        execution.close();
+        Mockito.verify(east).close();
+        Mockito.verify(west).close();
+	}
+	
 	@Test public void testMultiAttribute() throws NamingException {
 		Column c = new Column();
 		c.setDefaultValue(LDAPQueryExecution.MULTIVALUED_CONCAT);
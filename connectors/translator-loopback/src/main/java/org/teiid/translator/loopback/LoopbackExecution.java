@@ -36,11 +36,16 @@ import java.util.Random;
 import org.teiid.language.Argument;
 import org.teiid.language.Argument.Direction;
 import org.teiid.language.Call;
+import org.teiid.language.ColumnReference;
 import org.teiid.language.Command;
+import org.teiid.language.DerivedColumn;
 import org.teiid.language.QueryExpression;
 import org.teiid.logging.LogConstants;
 import org.teiid.logging.LogManager;
+import org.teiid.metadata.Column;
+import org.teiid.metadata.Table;
 import org.teiid.translator.DataNotAvailableException;
+import org.teiid.translator.ExecutionContext;
 import org.teiid.translator.ProcedureExecution;
 import org.teiid.translator.TranslatorException;
 import org.teiid.translator.TypeFacility;
@@ -51,9 +56,45 @@ import org.teiid.translator.UpdateExecution;
  * Represents the execution of a command.
  */
 public class LoopbackExecution implements UpdateExecution, ProcedureExecution {
+	
+	private static final int DEFAULT_BATCH_SIZE = 256;
+	
+	/**
+	 * Generates the seeded random values for a single column
+	 */
+	private static class ColumnGenerator {
+		private Random random;
+		private long distinctValues;
+		private double nullRatio;
+		private double skew;
+		
+		ColumnGenerator(long seed, long distinctValues, double nullRatio, double skew) {
+			this.random = new Random(seed);
+			this.distinctValues = Math.max(1, distinctValues);
+			this.nullRatio = nullRatio;
+			this.skew = skew;
+		}
+		
+		/**
+		 * @return the next value number in [0, distinctValues) or null
+		 */
+		BigInteger next() {
+			if (nullRatio > 0 && random.nextDouble() < nullRatio) {
+				return null;
+			}
+			double val = random.nextDouble();
+			if (skew > 0) {
+				//strict so that the values for a seed are the same on every platform
+				val = StrictMath.pow(val, 1 + skew);
+			}
+			return BigInteger.valueOf(Math.min(distinctValues - 1, (long)(val * distinctValues)));
+		}
+	}
+	
 //     Connector resources
     private LoopbackExecutionFactory config;
     private Command command;
+    private int batchSize = DEFAULT_BATCH_SIZE;
     private String staticStringValue = ""; //$NON-NLS-1$
         
     // Execution state
@@ -64,6 +105,9 @@ public class LoopbackExecution implements UpdateExecution, ProcedureExecution {
     private int rowsReturned = 0;
     private int rowsNeeded = 1;
 	private BigInteger rowNumber = BigInteger.ZERO;
+	private List<ColumnGenerator> generators;
+	private int latencyBatch = -1;
+	private long startTime = -1;
     
     public LoopbackExecution(Command command, LoopbackExecutionFactory config) {
         this.config = config;
@@ -72,6 +116,13 @@ public class LoopbackExecution implements UpdateExecution, ProcedureExecution {
         staticStringValue = constructIncrementedString(config.getCharacterValuesSize());
     }
     
+    public LoopbackExecution(Command command, LoopbackExecutionFactory config, ExecutionContext context) {
+    	this(command, config);
+    	if (context != null && context.getBatchSize() > 0) {
+    		this.batchSize = context.getBatchSize();
+    	}
+    }
+    
     /**
      * Creates string "ABCD...ZABC..." of length characterValueSize
      * @param characterValuesSize
@@ -116,8 +167,11 @@ public class LoopbackExecution implements UpdateExecution, ProcedureExecution {
                 
         List<Object> resultRow = row;
         if(rowsReturned < this.rowsNeeded && resultRow.size() > 0) {
-            rowsReturned++;            
-            if (config.getIncrementRows()) {
+        	throttle();
+            rowsReturned++;
+            if (generators != null) {
+            	generateRandomRow();
+            } else if (config.getIncrementRows()) {
             	rowNumber = rowNumber.add(BigInteger.ONE);
         		generateRow();
             }
@@ -126,9 +180,39 @@ public class LoopbackExecution implements UpdateExecution, ProcedureExecution {
         
         return null;
     }
-
-	
-	
+    
+    /**
+     * Apply the batch latency and rows per second limit prior to returning the next row
+     */
+    private void throttle() throws DataNotAvailableException {
+    	long now = System.currentTimeMillis();
+    	long wait = 0;
+    	int batch = rowsReturned / batchSize;
+    	if (this.config.getBatchLatency() > 0 && batch != latencyBatch) {
+    		latencyBatch = batch;
+    		wait = this.config.getBatchLatency();
+    	}
+    	if (this.config.getMaxRowsPerSecond() > 0) {
+    		if (startTime < 0) {
+    			startTime = now;
+    		}
+    		long due = startTime + (rowsReturned * 1000L) / this.config.getMaxRowsPerSecond();
+    		wait = Math.max(wait, due - now);
+    	}
+    	if (wait <= 0) {
+    		return;
+    	}
+    	if (this.config.getPollIntervalInMilli() >= 0) {
+            DataNotAvailableException dnae = new DataNotAvailableException(wait);
+            dnae.setStrict(true);
+            throw dnae;
+    	}
+        try {
+            Thread.sleep(wait);
+        } catch(InterruptedException e) {
+        	Thread.currentThread().interrupt();
+        }
+    }
 
 	@Override
     public void execute() throws TranslatorException {
@@ -142,6 +226,10 @@ public class LoopbackExecution implements UpdateExecution, ProcedureExecution {
               
         this.rowsNeeded = this.config.getRowCount();
         
+        if (this.config.getRandomSeed() >= 0 && command instanceof QueryExpression) {
+        	createGenerators((QueryExpression)command);
+        }
+        
         if (command instanceof QueryExpression) {
             QueryExpression queryCommand = (QueryExpression)command;
             if (queryCommand.getLimit() != null) {
@@ -152,7 +240,50 @@ public class LoopbackExecution implements UpdateExecution, ProcedureExecution {
         
         // Prepare for execution
         determineOutputTypes();
-        generateRow();
+        if (generators != null) {
+        	generateRandomRow();
+        } else {
+        	generateRow();
+        }
+    }
+    
+    /**
+     * Create a generator for each projected column using the column statistics.
+     * The row count is taken from the table cardinality when known. 
+     */
+    private void createGenerators(QueryExpression query) {
+    	List<DerivedColumn> cols = query.getProjectedQuery().getDerivedColumns();
+    	generators = new ArrayList<ColumnGenerator>(cols.size());
+    	for (int i = 0; i < cols.size(); i++) {
+    		Column column = null;
+    		if (cols.get(i).getExpression() instanceof ColumnReference) {
+    			column = ((ColumnReference)cols.get(i).getExpression()).getMetadataObject();
+    		}
+    		if (column != null && column.getParent() instanceof Table) {
+    			Table table = (Table)column.getParent();
+    			if (table.getCardinality() > 0) {
+    				this.rowsNeeded = table.getCardinality();
+    			}
+    		}
+    	}
+    	for (int i = 0; i < cols.size(); i++) {
+    		long distinctValues = this.rowsNeeded;
+    		double nullRatio = 0;
+    		String name = String.valueOf(i);
+    		if (cols.get(i).getExpression() instanceof ColumnReference) {
+    			Column column = ((ColumnReference)cols.get(i).getExpression()).getMetadataObject();
+    			if (column != null) {
+    				name = column.getFullName();
+    				if (column.getDistinctValues() > 0) {
+    					distinctValues = column.getDistinctValues();
+    				}
+    				if (column.getNullValues() > 0 && this.rowsNeeded > 0) {
+    					nullRatio = Math.min(1, column.getNullValues() / (double)this.rowsNeeded);
+    				}
+    			}
+    		}
+    		generators.add(new ColumnGenerator(this.config.getRandomSeed() * 31 + name.hashCode(), distinctValues, nullRatio, this.config.getSkew()));
+    	}
     }
     
     @Override
@@ -208,13 +339,29 @@ public class LoopbackExecution implements UpdateExecution, ProcedureExecution {
 		List<Object> newRow = new ArrayList<Object>(types.size());
 		String incrementedString = incrementString(staticStringValue,rowNumber);
 		for (Class<?> type : types) {
-			Object val = getVal(incrementedString, type);
+			Object val = getVal(rowNumber, incrementedString, type);
 			newRow.add(val);
 		}
 		row = newRow;
 	}
+	
+	/**
+	 * Generates each value from the column's random value number
+	 */
+	private void generateRandomRow() {
+		List<Object> newRow = new ArrayList<Object>(types.size());
+		for (int i = 0; i < types.size(); i++) {
+			BigInteger number = generators.get(i).next();
+			if (number == null) {
+				newRow.add(null);
+			} else {
+				newRow.add(getVal(number, incrementString(staticStringValue, number), types.get(i)));
+			}
+		}
+		row = newRow;
+	}
 
-	Object getVal(String incrementedString, Class<?> type) {
+	Object getVal(BigInteger rowNumber, String incrementedString, Class<?> type) {
 		Object val;
 		if (type.equals(Integer.class)) {
 			val = rowNumber.intValue();
@@ -248,7 +395,7 @@ public class LoopbackExecution implements UpdateExecution, ProcedureExecution {
 			val = this.config.getTypeFacility().convertToRuntimeType(incrementedString.getBytes());
 		} else if (type.isArray()) {
 			val = Array.newInstance(type.getComponentType(), 1);
-			Array.set(val, 0, getVal(incrementedString, type.getComponentType()));
+			Array.set(val, 0, getVal(rowNumber, incrementedString, type.getComponentType()));
 		} else {
 			val = incrementedString;
 		}
@@ -265,6 +412,9 @@ public class LoopbackExecution implements UpdateExecution, ProcedureExecution {
 		if (number.equals(BigInteger.ZERO)) {
 			return string;//Backward compatibility for first string
 		}
+		if (numberString.length() >= string.length()) {
+			return numberString;
+		}
 		return string.substring(0,string.length()-numberString.length())+ numberString;
 	}
 
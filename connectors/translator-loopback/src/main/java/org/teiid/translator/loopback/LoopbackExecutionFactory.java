@@ -46,6 +46,10 @@ public class LoopbackExecutionFactory extends BaseDelegatingExecutionFactory {
 	private long pollIntervalInMilli = -1;
 	private boolean incrementRows = false;
 	private int charValueSize = 10;
+	private long randomSeed = -1;
+	private double skew = 0;
+	private int batchLatency = 0;
+	private int maxRowsPerSecond = 0;
 	
 	public LoopbackExecutionFactory() {
 		TeiidExecutionFactory tef = new TeiidExecutionFactory();
@@ -79,6 +83,42 @@ public class LoopbackExecutionFactory extends BaseDelegatingExecutionFactory {
 		this.incrementRows = incrementRows;
 	}	
 	
+	@TranslatorProperty(display="Random Seed", description="When non-negative rows are generated from seeded random distributions per column rather than from a single repeated or incremented row.  The number of rows defaults to the table cardinality and the distinct and null value counts of each column are respected.", advanced=true)
+	public long getRandomSeed() {
+		return randomSeed;
+	}
+	
+	public void setRandomSeed(long randomSeed) {
+		this.randomSeed = randomSeed;
+	}
+	
+	@TranslatorProperty(display="Skew", description="Skew of the random values toward the low end of each column's distinct values.  0 is a uniform distribution.", advanced=true)
+	public double getSkew() {
+		return skew;
+	}
+	
+	public void setSkew(double skew) {
+		this.skew = skew;
+	}
+	
+	@TranslatorProperty(display="Batch Latency", description="Milliseconds to wait before each batch of rows.  If a poll interval is set, then a DataNotAvailableException is thrown instead.", advanced=true)
+	public int getBatchLatency() {
+		return batchLatency;
+	}
+	
+	public void setBatchLatency(int batchLatency) {
+		this.batchLatency = batchLatency;
+	}
+	
+	@TranslatorProperty(display="Max Rows Per Second", description="Limits the rate that rows are returned by each execution.  0 indicates no limit.", advanced=true)
+	public int getMaxRowsPerSecond() {
+		return maxRowsPerSecond;
+	}
+	
+	public void setMaxRowsPerSecond(int maxRowsPerSecond) {
+		this.maxRowsPerSecond = maxRowsPerSecond;
+	}
+	
 	@Override
 	public Object getConnection(Object factory) throws TranslatorException {
 		return null;
@@ -129,7 +169,7 @@ public class LoopbackExecutionFactory extends BaseDelegatingExecutionFactory {
     @Override
     public Execution createExecution(Command command, ExecutionContext executionContext, RuntimeMetadata metadata, Object connection)
     		throws TranslatorException {
-        return new LoopbackExecution(command, this);
+        return new LoopbackExecution(command, this, executionContext);
     }   
     
 	@Override
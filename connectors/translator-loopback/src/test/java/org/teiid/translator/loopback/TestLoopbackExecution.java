@@ -27,12 +27,16 @@ import java.math.BigInteger;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import org.junit.Assert;
 import org.junit.Test;
 import org.teiid.cdk.api.ConnectorHost;
 import org.teiid.cdk.api.TranslationUtility;
 import org.teiid.cdk.unittest.FakeTranslationFactory;
+import org.teiid.query.unittest.RealMetadataFactory;
 import org.teiid.translator.TranslatorException;
 
 @SuppressWarnings("nls")
@@ -131,6 +135,34 @@ public class TestLoopbackExecution  {
         TestHelper.helpTestQuery(false, "SELECT intkey FROM BQT1.SmallA LIMIT 3", FakeTranslationFactory.getInstance().getBQTTranslationUtility(), 0, 100, expected); //$NON-NLS-1$
     }
     
+    @Test public void testRandomSeed() throws Exception {
+    	TranslationUtility util = new TranslationUtility(RealMetadataFactory.fromDDL("create foreign table t (a integer options (distinct_values 5), b string options (null_value_count 50), c integer) options (cardinality 100)", "x", "y"));
+    	LoopbackExecutionFactory config = new LoopbackExecutionFactory();
+    	config.setRandomSeed(1);
+    	config.setSkew(1);
+    	
+    	ConnectorHost host = new ConnectorHost(config, null, util);
+    	List<?> results = host.executeCommand("SELECT a, b, c FROM t");
+    	Assert.assertEquals(100, results.size());
+    	Set<Object> distinct = new HashSet<Object>();
+    	int nulls = 0;
+    	for (Object row : results) {
+    		List<?> values = (List<?>)row;
+    		distinct.add(values.get(0));
+    		Assert.assertTrue(((Integer)values.get(0)) < 5);
+    		if (values.get(1) == null) {
+    			nulls++;
+    		}
+    	}
+    	Assert.assertTrue(distinct.size() <= 5);
+    	Assert.assertTrue(nulls > 20 && nulls < 80);
+    	
+    	//repeatable
+    	Assert.assertEquals(results, host.executeCommand("SELECT a, b, c FROM t"));
+    	
+    	Assert.assertEquals(10, host.executeCommand("SELECT a FROM t LIMIT 10").size());
+    }
+    
     @Test public void testArrayType() throws TranslatorException {
     	Object[][] expected = {{new Integer[] {0}, new String[] {"ABCDEFGHIJ"}},
                 {new Integer[] {0}, new String[] {"ABCDEFGHIJ"}},
@@ -30,14 +30,14 @@ import org.teiid.logging.LogConstants;
 import org.teiid.logging.LogManager;
 import org.teiid.metadata.RuntimeMetadata;
 import org.teiid.mongodb.MongoDBConnection;
+import org.teiid.translator.BatchedResultSetExecution;
 import org.teiid.translator.DataNotAvailableException;
 import org.teiid.translator.ExecutionContext;
-import org.teiid.translator.ResultSetExecution;
 import org.teiid.translator.TranslatorException;
 
 import com.mongodb.*;
 
-public class MongoDBQueryExecution extends MongoDBBaseExecution implements ResultSetExecution {
+public class MongoDBQueryExecution extends MongoDBBaseExecution implements BatchedResultSetExecution {
 	private Select command;
 	private MongoDBExecutionFactory executionFactory;
 	private Cursor results;
@@ -133,6 +133,23 @@ public class MongoDBQueryExecution extends MongoDBBaseExecution implements Resul
 		}
 		return null;
 	}
+	
+	@Override
+	public List<List<?>> nextBatch(int maxRows) throws TranslatorException,
+			DataNotAvailableException {
+		List<List<?>> rows = null;
+		for (int i = 0; i < maxRows; i++) {
+			List<?> row = next();
+			if (row == null) {
+				break;
+			}
+			if (rows == null) {
+				rows = new ArrayList<List<?>>(Math.min(maxRows, 1024));
+			}
+			rows.add(row);
+		}
+		return rows;
+	}
 
 	@Override
 	public void close() {
@@ -225,6 +225,32 @@ public class BaseQueryExecution {
 		return execution;
 	}
 
+	/**
+	 * Get the URL for the next page of results from the next link of a feed
+	 * @param uri the URL of the original request
+	 */
+	protected String getNextURL(String uri, String next) throws TranslatorException {
+		int idx = next.indexOf("$skiptoken="); //$NON-NLS-1$
+		if (idx != -1) {
+			String skip = null;
+			try {
+				skip = next.substring(idx + 11);
+				skip = URLDecoder.decode(skip, Charsets.Upper.UTF_8);
+			} catch (UnsupportedEncodingException e) {
+				throw new TranslatorException(e);
+			}
+
+			if (uri.indexOf('?') == -1) {
+				return uri + "?$skiptoken="+skip; //$NON-NLS-1$
+			}
+			return uri + "&$skiptoken="+skip; //$NON-NLS-1$
+		} 
+		if (next.toLowerCase().startsWith("http")) { //$NON-NLS-1$
+			return next;
+		}
+		throw new TranslatorException(ODataPlugin.Util.gs(ODataPlugin.Event.TEIID17001, next));
+	}
+
 	protected Map<String, List<String>> getDefaultHeaders() {
 		Map<String, List<String>> headers = new HashMap<String, List<String>>();
 		headers.put("Accept", Arrays.asList(FormatType.ATOM.getAcceptableMediaTypes())); //$NON-NLS-1$
@@ -329,43 +355,14 @@ public class BaseQueryExecution {
 				return;
 			}
 
-			int idx = next.indexOf("$skiptoken="); //$NON-NLS-1$
-			if (idx != -1) {
-
-				String skip = null;
-				try {
-					skip = next.substring(idx + 11);
-					skip = URLDecoder.decode(skip, Charsets.Upper.UTF_8);
-				} catch (UnsupportedEncodingException e) {
-					throw new TranslatorException(e);
-				}
+			String nextUri = getNextURL(this.uri, next);
+			BinaryWSProcedureExecution execution = executeDirect("GET", nextUri, null, getDefaultHeaders()); //$NON-NLS-1$
+			validateResponse(execution);
+			Blob blob = (Blob)execution.getOutputParameterValues().get(0);
+		    ODataVersion version = getODataVersion(execution);
 
-				String nextUri = this.uri;
-				if (this.uri.indexOf('?') == -1) {
-					nextUri = this.uri + "?$skiptoken="+skip; //$NON-NLS-1$
-				}
-				else {
-					nextUri = this.uri + "&$skiptoken="+skip; //$NON-NLS-1$
-				}
-				BinaryWSProcedureExecution execution = executeDirect("GET", nextUri, null, getDefaultHeaders()); //$NON-NLS-1$
-				validateResponse(execution);
-				Blob blob = (Blob)execution.getOutputParameterValues().get(0);
-			    ODataVersion version = getODataVersion(execution);
-
-				this.feed = parse(blob, version, this.entityTypeName, edsMetadata);
-				this.rowIter = this.feed.getEntries().iterator();
-
-			} else if (next.toLowerCase().startsWith("http")) { //$NON-NLS-1$
-				BinaryWSProcedureExecution execution = executeDirect("GET", next, null, getDefaultHeaders()); //$NON-NLS-1$
-				validateResponse(execution);
-				Blob blob = (Blob)execution.getOutputParameterValues().get(0);
-			    ODataVersion version = getDataServiceVersion((String)execution.getResponseHeader(ODataConstants.Headers.DATA_SERVICE_VERSION));
-
-				this.feed = parse(blob, version, this.entityTypeName, edsMetadata);
-				this.rowIter = this.feed.getEntries().iterator();
-			} else {
-				throw new TranslatorException(ODataPlugin.Util.gs(ODataPlugin.Event.TEIID17001, next));
-			}
+			this.feed = parse(blob, version, this.entityTypeName, edsMetadata);
+			this.rowIter = this.feed.getEntries().iterator();
 		}
 
 		private void validateResponse(BinaryWSProcedureExecution execution) throws TranslatorException {
@@ -0,0 +1,476 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+package org.teiid.translator.odata;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.teiid.metadata.Column;
+import org.teiid.translator.TranslatorException;
+
+/**
+ * A pull reader over an OData JSON feed that returns the raw projected values of
+ * each entry as it is read, rather than first building the whole feed of entities.
+ * <br>
+ * Both the verbose format - {"d":{"results":[...],"__count":"n","__next":"url"}} or {"d":[...]} -
+ * and the light format - {"value":[...],"odata.count":"n","odata.nextLink":"url"} - are understood.
+ * <br>
+ * Values are returned as String, Boolean, or null.  Numbers are returned as their String
+ * text so that no precision is lost before conversion to the expected type.
+ */
+class JsonFeedReader {
+	
+	private static final List<String> RESULTS = Arrays.asList("results", "value"); //$NON-NLS-1$ //$NON-NLS-2$
+	private static final List<String> NEXT = Arrays.asList("__next", "odata.nextLink", "@odata.nextLink"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	private static final List<String> COUNT = Arrays.asList("__count", "odata.count", "@odata.count"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	private static final String VERBOSE_WRAPPER = "d"; //$NON-NLS-1$
+	
+	private Reader reader;
+	private char[] buffer = new char[1 << 13];
+	private int pos;
+	private int limit;
+	private int pushback = -1;
+	
+	private int columnCount;
+	private Map<String, List<Integer>> simpleColumns = new HashMap<String, List<Integer>>();
+	private Map<String, Map<String, List<Integer>>> complexColumns = new HashMap<String, Map<String, List<Integer>>>();
+	
+	private int depth;
+	private boolean inResults;
+	private boolean started;
+	private Object[] singleEntity;
+	private String next;
+	private Long count;
+	private int rowCount;
+	
+	public JsonFeedReader(Reader reader, Column[] columns) {
+		this.reader = reader;
+		this.columnCount = columns.length;
+		for (int i = 0; i < columns.length; i++) {
+			String group = columns[i].getProperty(ODataMetadataProcessor.COLUMN_GROUP, false);
+			if (group == null) {
+				getIndexes(this.simpleColumns, columns[i].getName()).add(i);
+			} else {
+				Map<String, List<Integer>> nested = this.complexColumns.get(group);
+				if (nested == null) {
+					nested = new HashMap<String, List<Integer>>();
+					this.complexColumns.put(group, nested);
+				}
+				getIndexes(nested, columns[i].getSourceName()).add(i);
+			}
+		}
+	}
+
+	private static List<Integer> getIndexes(Map<String, List<Integer>> map, String name) {
+		List<Integer> indexes = map.get(name);
+		if (indexes == null) {
+			indexes = new ArrayList<Integer>(1);
+			map.put(name, indexes);
+		}
+		return indexes;
+	}
+	
+	/**
+	 * @return the projected values of the next entry or null if there are no more entries in this feed
+	 */
+	public Object[] nextRow() throws TranslatorException {
+		try {
+			if (!this.started) {
+				this.started = true;
+				int c = nextToken();
+				if (c == -1) {
+					return null;
+				}
+				expect(c, '{');
+				this.depth = 1;
+				this.inResults = readToResults();
+			}
+			if (this.singleEntity != null) {
+				Object[] result = this.singleEntity;
+				this.singleEntity = null;
+				this.rowCount++;
+				return result;
+			}
+			if (!this.inResults) {
+				return null;
+			}
+			int c = nextToken();
+			if (c == ',') {
+				c = nextToken();
+			}
+			if (c == ']') {
+				this.inResults = false;
+				readToResults();
+				return null;
+			}
+			expect(c, '{');
+			this.rowCount++;
+			return readEntity(null);
+		} catch (IOException e) {
+			throw new TranslatorException(ODataPlugin.Event.TEIID17010, e, e.getMessage());
+		}
+	}
+	
+	/**
+	 * Reads all of the remaining entries
+	 */
+	public List<Object[]> readAll() throws TranslatorException {
+		ArrayList<Object[]> rows = new ArrayList<Object[]>();
+		Object[] row = null;
+		while ((row = nextRow()) != null) {
+			rows.add(row);
+		}
+		return rows;
+	}
+	
+	/**
+	 * The next link, which is only known once all of the entries have been read.
+	 */
+	public String getNext() {
+		return this.next;
+	}
+	
+	/**
+	 * The inline count, or null if one was not returned.
+	 */
+	public Long getCount() {
+		return this.count;
+	}
+	
+	/**
+	 * The number of entries read so far.
+	 */
+	public int getRowCount() {
+		return this.rowCount;
+	}
+	
+	public void close() {
+		try {
+			this.reader.close();
+		} catch (IOException e) {
+			//ignore
+		}
+	}
+	
+	/**
+	 * Read the properties of the wrapper objects until the results array is found
+	 * or the end of the document is reached.
+	 */
+	private boolean readToResults() throws IOException, TranslatorException {
+		while (this.depth > 0) {
+			int c = nextToken();
+			if (c == ',') {
+				continue;
+			}
+			if (c == '}') {
+				this.depth--;
+				continue;
+			}
+			if (readWrapperProperty(readName(c))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean readWrapperProperty(String name) throws IOException, TranslatorException {
+		int c = nextToken();
+		if (c == '[' && (name.equals(VERBOSE_WRAPPER) || RESULTS.contains(name))) {
+			return true;
+		}
+		if (c == '{' && name.equals(VERBOSE_WRAPPER)) {
+			c = nextToken();
+			if (c == '}') {
+				return false;
+			}
+			String first = readName(c);
+			if (RESULTS.contains(first) || NEXT.contains(first) || COUNT.contains(first)) {
+				this.depth++;
+				return readWrapperProperty(first);
+			}
+			//the result of a single entity request
+			this.singleEntity = readEntity(first);
+			return false;
+		}
+		if (NEXT.contains(name)) {
+			Object value = readValue(c);
+			this.next = value == null?null:value.toString();
+		} else if (COUNT.contains(name)) {
+			Object value = readValue(c);
+			if (value != null) {
+				try {
+					this.count = Long.valueOf(value.toString());
+				} catch (NumberFormatException e) {
+					//ignore
+				}
+			}
+		} else {
+			skipValue(c);
+		}
+		return false;
+	}
+	
+	/**
+	 * Read an entity object after the opening brace
+	 * @param name the already read first property name or null
+	 */
+	private Object[] readEntity(String name) throws IOException, TranslatorException {
+		Object[] values = new Object[this.columnCount];
+		while (true) {
+			if (name == null) {
+				int c = nextToken();
+				if (c == ',') {
+					c = nextToken();
+				}
+				if (c == '}') {
+					return values;
+				}
+				name = readName(c);
+			}
+			int c = nextToken();
+			List<Integer> indexes = this.simpleColumns.get(name);
+			Map<String, List<Integer>> nested = null;
+			if (indexes != null) {
+				setValue(values, indexes, readValue(c));
+			} else if (c == '{' && (nested = this.complexColumns.get(name)) != null) {
+				readComplex(values, nested);
+			} else {
+				skipValue(c);
+			}
+			name = null;
+		}
+	}
+
+	private void readComplex(Object[] values, Map<String, List<Integer>> nested) throws IOException, TranslatorException {
+		while (true) {
+			int c = nextToken();
+			if (c == ',') {
+				c = nextToken();
+			}
+			if (c == '}') {
+				return;
+			}
+			String name = readName(c);
+			c = nextToken();
+			List<Integer> indexes = nested.get(name);
+			if (indexes != null) {
+				setValue(values, indexes, readValue(c));
+			} else {
+				skipValue(c);
+			}
+		}
+	}
+
+	private static void setValue(Object[] values, List<Integer> indexes, Object value) {
+		for (int i = 0; i < indexes.size(); i++) {
+			values[indexes.get(i)] = value;
+		}
+	}
+	
+	private String readName(int c) throws IOException, TranslatorException {
+		expect(c, '"');
+		String name = readString();
+		expect(nextToken(), ':');
+		return name;
+	}
+	
+	/**
+	 * Read a scalar value starting with the given character.  Objects and arrays are skipped
+	 * and returned as null.
+	 */
+	private Object readValue(int c) throws IOException, TranslatorException {
+		switch (c) {
+		case '"':
+			return readString();
+		case '{':
+		case '[':
+			skipValue(c);
+			return null;
+		}
+		String literal = readLiteral(c);
+		if (literal.equals("null")) { //$NON-NLS-1$
+			return null;
+		}
+		if (literal.equals("true")) { //$NON-NLS-1$
+			return Boolean.TRUE;
+		}
+		if (literal.equals("false")) { //$NON-NLS-1$
+			return Boolean.FALSE;
+		}
+		return literal;
+	}
+
+	private void skipValue(int c) throws IOException, TranslatorException {
+		if (c == '"') {
+			skipString();
+			return;
+		}
+		if (c != '{' && c != '[') {
+			readLiteral(c);
+			return;
+		}
+		int nesting = 1;
+		while (nesting > 0) {
+			c = read();
+			switch (c) {
+			case -1:
+				throw unexpected(c);
+			case '"':
+				skipString();
+				break;
+			case '{':
+			case '[':
+				nesting++;
+				break;
+			case '}':
+			case ']':
+				nesting--;
+				break;
+			}
+		}
+	}
+	
+	private String readLiteral(int c) throws IOException, TranslatorException {
+		if (c == -1 || c == ',' || c == '}' || c == ']' || c == ':') {
+			throw unexpected(c);
+		}
+		StringBuilder sb = new StringBuilder();
+		sb.append((char)c);
+		while (true) {
+			c = read();
+			if (c == -1 || c == ',' || c == '}' || c == ']' || Character.isWhitespace(c)) {
+				this.pushback = c;
+				return sb.toString();
+			}
+			sb.append((char)c);
+		}
+	}
+	
+	private void skipString() throws IOException, TranslatorException {
+		while (true) {
+			int c = read();
+			if (c == '"') {
+				return;
+			}
+			if (c == '\\') {
+				c = read();
+			}
+			if (c == -1) {
+				throw unexpected(c);
+			}
+		}
+	}
+	
+	private String readString() throws IOException, TranslatorException {
+		StringBuilder sb = new StringBuilder();
+		while (true) {
+			int c = read();
+			switch (c) {
+			case -1:
+				throw unexpected(c);
+			case '"':
+				return sb.toString();
+			case '\\':
+				c = read();
+				switch (c) {
+				case 'b':
+					sb.append('\b');
+					break;
+				case 'f':
+					sb.append('\f');
+					break;
+				case 'n':
+					sb.append('\n');
+					break;
+				case 'r':
+					sb.append('\r');
+					break;
+				case 't':
+					sb.append('\t');
+					break;
+				case 'u':
+					int value = 0;
+					for (int i = 0; i < 4; i++) {
+						int digit = Character.digit(read(), 16);
+						if (digit < 0) {
+							throw unexpected(c);
+						}
+						value = (value << 4) + digit;
+					}
+					sb.append((char)value);
+					break;
+				case -1:
+					throw unexpected(c);
+				default:
+					sb.append((char)c);
+				}
+				break;
+			default:
+				sb.append((char)c);
+			}
+		}
+	}
+	
+	private void expect(int c, char expected) throws TranslatorException {
+		if (c != expected) {
+			throw unexpected(c);
+		}
+	}
+
+	private TranslatorException unexpected(int c) {
+		return new TranslatorException(ODataPlugin.Event.TEIID17018, ODataPlugin.Util.gs(ODataPlugin.Event.TEIID17018, c == -1?"EOF":String.valueOf((char)c))); //$NON-NLS-1$
+	}
+
+	/**
+	 * @return the next non-whitespace character
+	 */
+	private int nextToken() throws IOException {
+		int c = read();
+		while (c != -1 && Character.isWhitespace(c)) {
+			c = read();
+		}
+		return c;
+	}
+	
+	private int read() throws IOException {
+		if (this.pushback != -1) {
+			int c = this.pushback;
+			this.pushback = -1;
+			return c;
+		}
+		if (this.pos == this.limit) {
+			this.limit = this.reader.read(this.buffer);
+			this.pos = 0;
+			if (this.limit <= 0) {
+				this.limit = 0;
+				return -1;
+			}
+		}
+		return this.buffer[this.pos++];
+	}
+
+}
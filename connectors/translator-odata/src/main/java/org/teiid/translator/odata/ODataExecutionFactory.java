@@ -31,9 +31,12 @@ import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.joda.time.LocalDateTime;
 import org.joda.time.LocalTime;
+import org.joda.time.format.ISOPeriodFormat;
 import org.odata4j.core.UnsignedByte;
 import org.odata4j.internal.InternalUtil;
 import org.teiid.core.types.DataTypeManager;
+import org.teiid.core.types.TransformationException;
+import org.teiid.core.util.Base64;
 import org.teiid.core.util.PropertiesUtils;
 import org.teiid.core.util.StringUtil;
 import org.teiid.language.*;
@@ -64,6 +67,8 @@ public class ODataExecutionFactory extends ExecutionFactory<ConnectionFactory, W
 	private boolean supportsOdataCount;
 	private boolean supportsOdataSkip;
 	private boolean supportsOdataTop;
+	private boolean jsonFormat;
+	private boolean pageReadAhead;
 
 	public ODataExecutionFactory() {
 		setSourceRequiredForMetadata(true);
@@ -231,6 +236,24 @@ public class ODataExecutionFactory extends ExecutionFactory<ConnectionFactory, W
 		this.supportsOdataTop = supports;
 	}	
 	
+	@TranslatorProperty(display="JSON Format", description="True, if query results should be requested and read as JSON rather than ATOM", advanced=true)
+	public boolean isJsonFormat() {
+		return jsonFormat;
+	}
+	
+	public void setJsonFormat(boolean jsonFormat) {
+		this.jsonFormat = jsonFormat;
+	}
+	
+	@TranslatorProperty(display="Page Read Ahead", description="If the next $skip based result page should be requested in the background while the current page is read, when the source reports a count. Only used with the JSON format.", advanced=true)
+	public boolean isPageReadAhead() {
+		return pageReadAhead;
+	}
+	
+	public void setPageReadAhead(boolean pageReadAhead) {
+		this.pageReadAhead = pageReadAhead;
+	}
+	
 	@Override
     public boolean supportsCompareCriteriaEquals() {
     	return this.supportsOdataFilter;
@@ -330,6 +353,69 @@ public class ODataExecutionFactory extends ExecutionFactory<ConnectionFactory, W
 		return value;
 	}
 
+	/**
+	 * Convert a raw JSON value, which will be a String, Boolean, or null, to the expected type
+	 * @param value
+	 * @param expectedType
+	 * @return
+	 * @throws TranslatorException
+	 */
+	public Object retrieveJsonValue(Object value, Class<?> expectedType) throws TranslatorException {
+		if (value == null) {
+			return null;
+		}
+		if (value instanceof String) {
+			String str = (String)value;
+			if (expectedType == DataTypeManager.DefaultDataClasses.STRING) {
+				return str;
+			}
+			if (expectedType == DataTypeManager.DefaultDataClasses.VARBINARY || expectedType == DataTypeManager.DefaultDataClasses.BLOB) {
+				return Base64.decode(str);
+			}
+			if (expectedType == DataTypeManager.DefaultDataClasses.TIMESTAMP 
+					|| expectedType == DataTypeManager.DefaultDataClasses.DATE 
+					|| expectedType == DataTypeManager.DefaultDataClasses.TIME) {
+				value = parseJsonDateTime(str);
+			}
+		}
+		value = retrieveValue(value, expectedType);
+		if (!expectedType.isInstance(value)) {
+			try {
+				value = DataTypeManager.transformValue(value, expectedType);
+			} catch (TransformationException e) {
+				throw new TranslatorException(e);
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Parse the JSON representations of Edm.DateTime, Edm.DateTimeOffset, and Edm.Time.  
+	 * Values that are not recognized are returned as is.
+	 */
+	static Object parseJsonDateTime(String str) {
+		if (str.startsWith("/Date(") && str.endsWith(")/")) { //$NON-NLS-1$ //$NON-NLS-2$
+			String ticks = str.substring(6, str.length() - 2);
+			int offset = Math.max(ticks.lastIndexOf('+'), ticks.lastIndexOf('-'));
+			if (offset > 0) {
+				//an offset is only present for an instant
+				return new java.sql.Timestamp(Long.parseLong(ticks.substring(0, offset)));
+			}
+			return new LocalDateTime(Long.parseLong(ticks), DateTimeZone.UTC);
+		}
+		if (str.startsWith("PT")) { //$NON-NLS-1$
+			return new LocalTime(0, 0).plus(ISOPeriodFormat.standard().parsePeriod(str));
+		}
+		int time = str.indexOf('T');
+		if (time > 0) {
+			if (str.endsWith("Z") || str.indexOf('+', time) > 0 || str.indexOf('-', time) > 0) { //$NON-NLS-1$
+				return new java.sql.Timestamp(new DateTime(str).getMillis());
+			}
+			return new LocalDateTime(str);
+		}
+		return str;
+	}
+
 	public void convertToODataInput(Literal obj, StringBuilder sb) {
 		if (obj.getValue() == null) {
             sb.append(NULL);
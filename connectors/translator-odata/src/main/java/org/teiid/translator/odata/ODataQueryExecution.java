@@ -22,18 +22,29 @@
 package org.teiid.translator.odata;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
 import java.sql.Blob;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import javax.ws.rs.core.Response.Status;
 
 import org.odata4j.edm.EdmDataServices;
+import org.teiid.core.util.ExecutorUtils;
 import org.teiid.core.util.ObjectConverterUtil;
 import org.teiid.language.QueryExpression;
+import org.teiid.logging.LogConstants;
+import org.teiid.logging.LogManager;
 import org.teiid.metadata.RuntimeMetadata;
 import org.teiid.metadata.Schema;
 import org.teiid.translator.DataNotAvailableException;
@@ -44,12 +55,29 @@ import org.teiid.translator.WSConnection;
 import org.teiid.translator.ws.BinaryWSProcedureExecution;
 
 public class ODataQueryExecution extends BaseQueryExecution implements ResultSetExecution {
+	
+	/**
+	 * Reads the next page for each execution.  Bounded as each execution has at most one page in flight,
+	 * which then only has to wait for a thread.
+	 */
+	private static final ExecutorService pageExecutor = ExecutorUtils.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), "OData Page Reader"); //$NON-NLS-1$
     
 	private ODataSQLVisitor visitor;
 	private int countResponse = -1;
 	private Class<?>[] expectedColumnTypes;
 	private ODataEntitiesResponse response;
 	
+	//json results
+	private boolean json;
+	private String uri;
+	private JsonFeedReader jsonReader;
+	private boolean firstPage = true;
+	private Iterator<Object[]> pageRows;
+	private Future<List<Object[]>> nextPage;
+	private int pageSize;
+	private long nextSkip;
+	private long endSkip;
+	
 	public ODataQueryExecution(ODataExecutionFactory translator,
 			QueryExpression command, ExecutionContext executionContext,
 			RuntimeMetadata metadata, WSConnection connection) throws TranslatorException {
@@ -86,6 +114,15 @@ public class ODataQueryExecution extends BaseQueryExecution implements ResultSet
 				throw new TranslatorException(e);
 			}			
 		}
+		else if (this.translator.isJsonFormat()) {
+			this.json = true;
+			if (this.translator.isPageReadAhead() && !this.visitor.isKeyLookup()) {
+				//request the count so that the remaining pages can be fetched by $skip
+				URI = this.visitor.buildURL(this.visitor.getSkip(), this.visitor.getTop(), true);
+			}
+			this.uri = URI;
+			this.jsonReader = executeJson(URI);
+		}
 		else {
 			Schema schema = visitor.getEnityTable().getParent();
 			EdmDataServices edm = new TeiidEdmMetadata(schema.getName(), ODataEntitySchemaBuilder.buildMetadata( schema));
@@ -104,6 +141,10 @@ public class ODataQueryExecution extends BaseQueryExecution implements ResultSet
 			return Arrays.asList(count);
 		}
 
+		if (this.json) {
+			return nextJsonRow();
+		}
+
 		// Feed based response
 		if (this.response != null && !this.response.hasError()) {
 			return this.response.getNextRow(visitor.getSelect(), this.expectedColumnTypes);
@@ -111,8 +152,160 @@ public class ODataQueryExecution extends BaseQueryExecution implements ResultSet
 		return null;
 	}
 	
+	private List<?> nextJsonRow() throws TranslatorException {
+		while (true) {
+			if (this.pageRows != null) {
+				if (this.pageRows.hasNext()) {
+					return convertJsonRow(this.pageRows.next());
+				}
+				this.pageRows = null;
+			} else if (this.jsonReader != null) {
+				Object[] values = this.jsonReader.nextRow();
+				if (values != null) {
+					return convertJsonRow(values);
+				}
+				JsonFeedReader reader = this.jsonReader;
+				this.jsonReader = null;
+				reader.close();
+				boolean first = this.firstPage;
+				this.firstPage = false;
+				if (reader.getNext() != null) {
+					if (!first || !startReadAhead(reader)) {
+						this.jsonReader = executeJson(getNextURL(this.uri, reader.getNext()));
+					}
+					continue;
+				}
+			}
+			if (this.nextPage == null) {
+				return null;
+			}
+			Future<List<Object[]>> page = this.nextPage;
+			this.nextPage = null;
+			this.pageRows = getPage(page).iterator();
+			//read the following page while the rows of this one are returned
+			submitPage();
+		}
+	}
+
+	private List<?> convertJsonRow(Object[] values) throws TranslatorException {
+		ArrayList<Object> results = new ArrayList<Object>(values.length);
+		for (int i = 0; i < values.length; i++) {
+			results.add(this.translator.retrieveJsonValue(values[i], this.expectedColumnTypes[i]));
+		}
+		return results;
+	}
+	
+	/**
+	 * If the first page is $skip based and the count is known, then each following 
+	 * page may be requested before the current one has been read.
+	 * @return true if the remaining pages will be fetched by $skip 
+	 */
+	private boolean startReadAhead(JsonFeedReader reader) {
+		String next = reader.getNext();
+		if (!this.translator.isPageReadAhead() || reader.getCount() == null || reader.getRowCount() == 0
+				|| next.indexOf("$skiptoken=") != -1 || next.indexOf("$skip=") == -1) { //$NON-NLS-1$ //$NON-NLS-2$
+			return false;
+		}
+		this.pageSize = reader.getRowCount();
+		long skip = this.visitor.getSkip() == null?0:this.visitor.getSkip();
+		this.endSkip = reader.getCount();
+		if (this.visitor.getTop() != null) {
+			this.endSkip = Math.min(this.endSkip, skip + this.visitor.getTop());
+		}
+		this.nextSkip = skip + this.pageSize;
+		submitPage();
+		return true;
+	}
+	
+	/**
+	 * Only a single page is requested at a time, so the connection is never used concurrently
+	 */
+	private void submitPage() {
+		if (this.nextSkip >= this.endSkip) {
+			return;
+		}
+		final int skip = (int)this.nextSkip;
+		final int top = (int)Math.min(this.pageSize, this.endSkip - this.nextSkip);
+		this.nextSkip += top;
+		this.nextPage = pageExecutor.submit(new Callable<List<Object[]>>() {
+			@Override
+			public List<Object[]> call() throws Exception {
+				return readPage(skip, top);
+			}
+		});
+	}
+	
+	private List<Object[]> readPage(int skip, int top) throws TranslatorException {
+		List<Object[]> rows = new ArrayList<Object[]>(top);
+		while (rows.size() < top) {
+			JsonFeedReader reader = executeJson(this.visitor.buildURL(skip + rows.size(), top - rows.size(), false));
+			if (reader == null) {
+				break;
+			}
+			try {
+				rows.addAll(reader.readAll());
+			} finally {
+				reader.close();
+			}
+			if (reader.getNext() == null || reader.getRowCount() == 0) {
+				break;
+			}
+			//the source page size is smaller than expected, get the rest
+		}
+		while (rows.size() > top) {
+			rows.remove(rows.size() - 1);
+		}
+		return rows;
+	}
+
+	private List<Object[]> getPage(Future<List<Object[]>> future) throws TranslatorException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TranslatorException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof TranslatorException) {
+				throw (TranslatorException)e.getCause();
+			}
+			throw new TranslatorException(e.getCause());
+		}
+	}
+	
+	private JsonFeedReader executeJson(String uri) throws TranslatorException {
+		Map<String, List<String>> headers = getDefaultHeaders();
+		headers.put("Accept", Arrays.asList("application/json")); //$NON-NLS-1$ //$NON-NLS-2$
+		BinaryWSProcedureExecution execution = executeDirect("GET", uri, null, headers); //$NON-NLS-1$
+		if (execution.getResponseCode() == Status.NO_CONTENT.getStatusCode() 
+				|| execution.getResponseCode() == Status.NOT_FOUND.getStatusCode()) {
+			return null;
+		}
+		if (execution.getResponseCode() != Status.OK.getStatusCode()) {
+			throw buildError(execution);
+		}
+		Blob blob = (Blob)execution.getOutputParameterValues().get(0);
+		try {
+			return new JsonFeedReader(new InputStreamReader(blob.getBinaryStream(), Charset.forName("UTF-8")), this.visitor.getSelect()); //$NON-NLS-1$
+		} catch (SQLException e) {
+			throw new TranslatorException(ODataPlugin.Event.TEIID17010, e, e.getMessage());
+		}
+	}
+	
 	@Override
 	public void close() {
+		if (this.nextPage != null) {
+			//the connection may not be released while the page request is using it
+			try {
+				this.nextPage.get();
+			} catch (Exception e) {
+				LogManager.logDetail(LogConstants.CTX_CONNECTOR, e, "Exception closing"); //$NON-NLS-1$
+			}
+			this.nextPage = null;
+		}
+		if (this.jsonReader != null) {
+			this.jsonReader.close();
+			this.jsonReader = null;
+		}
 	}
 
 	@Override
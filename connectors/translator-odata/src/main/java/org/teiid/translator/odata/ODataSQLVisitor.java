@@ -74,6 +74,14 @@ public class ODataSQLVisitor extends HierarchyVisitor {
 		return this.count;
 	}
 
+	public Integer getSkip() {
+		return this.skip;
+	}
+
+	public Integer getTop() {
+		return this.top;
+	}
+
 	public boolean isKeyLookup() {
 		return this.entities.isKeyLookup();
 	}
@@ -89,6 +97,14 @@ public class ODataSQLVisitor extends HierarchyVisitor {
 	}
 
 	public String buildURL() {
+		return buildURL(this.skip, this.top, false);
+	}
+	
+	/**
+	 * Build the URL with the given paging values in place of those from the query
+	 * @param inlineCount true if the total count should be requested with the results
+	 */
+	public String buildURL(Integer skip, Integer top, boolean inlineCount) {
     	StringBuilder url = new StringBuilder();
     	this.entities.append(url);
     	if (this.count) {
@@ -119,11 +135,14 @@ public class ODataSQLVisitor extends HierarchyVisitor {
     		}
     		uriBuilder.queryParam("$select", sb.toString()); //$NON-NLS-1$
     	}
-    	if (this.skip != null) {
-    		uriBuilder.queryParam("$skip", this.skip); //$NON-NLS-1$
+    	if (skip != null) {
+    		uriBuilder.queryParam("$skip", skip); //$NON-NLS-1$
+    	}
+    	if (top != null) {
+    		uriBuilder.queryParam("$top", top); //$NON-NLS-1$
     	}
-    	if (this.top != null) {
-    		uriBuilder.queryParam("$top", this.top); //$NON-NLS-1$
+    	if (inlineCount && !this.count) {
+    		uriBuilder.queryParam("$inlinecount", "allpages"); //$NON-NLS-1$ //$NON-NLS-2$
     	}
     	//if (!this.count) {
     	//	uriBuilder.queryParam("$format", "atom"); //$NON-NLS-1$ //$NON-NLS-2$
@@ -31,9 +31,14 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.StringReader;
 import java.net.URLDecoder;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import javax.activation.DataSource;
 import javax.xml.ws.Dispatch;
@@ -45,6 +50,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.odata4j.core.OError;
 import org.odata4j.format.FormatParser;
 import org.teiid.cdk.api.TranslationUtility;
@@ -80,6 +87,21 @@ public class TestODataQueryExecution {
 		ExecutionContext context = Mockito.mock(ExecutionContext.class);
 		WSConnection connection = Mockito.mock(WSConnection.class);
 		
+		Dispatch<DataSource> dispatch = helpMockDispatch(resultXML, responseCode);
+		Mockito.stub(connection.createDispatch(Mockito.eq(HTTPBinding.HTTP_BINDING), Mockito.anyString(), Mockito.eq(DataSource.class), Mockito.eq(Mode.MESSAGE))).toReturn(dispatch);
+		
+		ResultSetExecution execution = this.translator.createResultSetExecution((QueryExpression)cmd, context, this.utility.createRuntimeMetadata(), connection);
+		execution.execute();
+		
+		ArgumentCaptor<String> endpoint = ArgumentCaptor.forClass(String.class);
+		ArgumentCaptor<String> binding = ArgumentCaptor.forClass(String.class);
+		
+		Mockito.verify(connection).createDispatch(binding.capture(), endpoint.capture(), Mockito.eq(DataSource.class), Mockito.eq(Mode.MESSAGE));
+		assertEquals(expectedURL, URLDecoder.decode(endpoint.getValue(), "utf-8"));
+		return execution;
+	}
+
+	private Dispatch<DataSource> helpMockDispatch(final String resultXML, int responseCode) throws Exception {
 		Map<String, Object> headers = new HashMap<String, Object>();
 		headers.put(MessageContext.HTTP_REQUEST_HEADERS, new HashMap<String, List<String>>());
 		headers.put(WSConnection.STATUS_CODE, new Integer(responseCode));
@@ -88,8 +110,6 @@ public class TestODataQueryExecution {
 		Mockito.stub(dispatch.getRequestContext()).toReturn(headers);
 		Mockito.stub(dispatch.getResponseContext()).toReturn(headers);
 		
-		Mockito.stub(connection.createDispatch(Mockito.eq(HTTPBinding.HTTP_BINDING), Mockito.anyString(), Mockito.eq(DataSource.class), Mockito.eq(Mode.MESSAGE))).toReturn(dispatch);
-		
 		DataSource ds = new DataSource() {
 			@Override
 			public OutputStream getOutputStream() throws IOException {
@@ -110,16 +130,7 @@ public class TestODataQueryExecution {
 			}
 		};
 		Mockito.stub(dispatch.invoke(Mockito.any(DataSource.class))).toReturn(ds);
-		
-		ResultSetExecution execution = this.translator.createResultSetExecution((QueryExpression)cmd, context, this.utility.createRuntimeMetadata(), connection);
-		execution.execute();
-		
-		ArgumentCaptor<String> endpoint = ArgumentCaptor.forClass(String.class);
-		ArgumentCaptor<String> binding = ArgumentCaptor.forClass(String.class);
-		
-		Mockito.verify(connection).createDispatch(binding.capture(), endpoint.capture(), Mockito.eq(DataSource.class), Mockito.eq(Mode.MESSAGE));
-		assertEquals(expectedURL, URLDecoder.decode(endpoint.getValue(), "utf-8"));
-		return execution;
+		return dispatch;
 	}
 
 	@Test
@@ -209,6 +220,83 @@ public class TestODataQueryExecution {
 	}	
 	
 	
+	@Test
+	public void testJsonSelect() throws Exception {
+		this.translator.setJsonFormat(true);
+		String query = "SELECT CategoryID, CategoryName, Description FROM Categories";
+		String expectedURL = "Categories?$select=CategoryID,CategoryName,Description";
+		String json = "{\"d\" : {\"results\": [" +
+				"{\"__metadata\": {\"uri\": \"http://localhost/Categories(1)\"}, \"CategoryID\": 1, \"CategoryName\": \"Beverages\", \"Description\": \"Soft drinks, coffees, teas, beers, and ales\"}," +
+				"{\"__metadata\": {\"uri\": \"http://localhost/Categories(2)\"}, \"CategoryID\": 2, \"CategoryName\": \"Condiments\", \"Description\": null}" +
+				"]}}";
+		
+		ResultSetExecution excution = helpExecute(query, json, expectedURL);
+		
+		assertArrayEquals(new Object[] {1, "Beverages", "Soft drinks, coffees, teas, beers, and ales"}, excution.next().toArray(new Object[3]));
+		assertArrayEquals(new Object[] {2, "Condiments", null}, excution.next().toArray(new Object[3]));
+		assertNull(excution.next());
+	}
+	
+	@Test
+	public void testJsonPageReadAhead() throws Exception {
+		this.translator.setJsonFormat(true);
+		this.translator.setPageReadAhead(true);
+		String query = "SELECT CategoryID, CategoryName FROM Categories";
+		Command cmd = this.utility.parseCommand(query);
+		WSConnection connection = Mockito.mock(WSConnection.class);
+		final List<String> urls = new ArrayList<String>();
+		
+		//a source with 5 rows and a page size of 2
+		Mockito.stub(connection.createDispatch(Mockito.eq(HTTPBinding.HTTP_BINDING), Mockito.anyString(), Mockito.eq(DataSource.class), Mockito.eq(Mode.MESSAGE))).toAnswer(new Answer<Dispatch<DataSource>>() {
+			@Override
+			public Dispatch<DataSource> answer(InvocationOnMock invocation) throws Throwable {
+				String url = URLDecoder.decode((String)invocation.getArguments()[1], "utf-8");
+				urls.add(url);
+				int skip = 0;
+				int top = 5;
+				Matcher m = Pattern.compile("\\$skip=(\\d+)").matcher(url);
+				if (m.find()) {
+					skip = Integer.parseInt(m.group(1));
+				}
+				m = Pattern.compile("\\$top=(\\d+)").matcher(url);
+				if (m.find()) {
+					top = Integer.parseInt(m.group(1));
+				}
+				int end = Math.min(5, skip + Math.min(top, 2));
+				StringBuilder json = new StringBuilder("{\"d\" : {\"__count\": \"5\", \"results\": [");
+				for (int i = skip + 1; i <= end; i++) {
+					if (i > skip + 1) {
+						json.append(",");
+					}
+					json.append("{\"CategoryID\": ").append(i).append(", \"CategoryName\": \"c").append(i).append("\"}");
+				}
+				json.append("]");
+				if (end < 5) {
+					json.append(", \"__next\": \"http://localhost/Categories?$skip=").append(end).append("\"");
+				}
+				json.append("}}");
+				return helpMockDispatch(json.toString(), 200);
+			}
+		});
+		
+		ResultSetExecution excution = this.translator.createResultSetExecution((QueryExpression)cmd, Mockito.mock(ExecutionContext.class), this.utility.createRuntimeMetadata(), connection);
+		excution.execute();
+		for (int i = 1; i <= 5; i++) {
+			assertEquals(Arrays.asList(i, "c" + i), excution.next());
+		}
+		assertNull(excution.next());
+		excution.close();
+		assertEquals(Arrays.asList("Categories?$select=CategoryID,CategoryName&$inlinecount=allpages", 
+				"Categories?$select=CategoryID,CategoryName&$skip=2&$top=2", 
+				"Categories?$select=CategoryID,CategoryName&$skip=4&$top=1"), urls);
+	}
+	
+	@Test
+	public void testJsonDateTime() throws Exception {
+		assertEquals(new Timestamp(1358640000000L), this.translator.retrieveJsonValue("/Date(1358640000000+0060)/", Timestamp.class));
+		assertEquals(Long.valueOf(12), this.translator.retrieveJsonValue("12", Long.class));
+	}
+	
 	@Test
 	public void testErrorParsing() {
 		String innerError = "<innererror>\n" + 
@@ -38,6 +38,7 @@ import org.teiid.translator.jdbc.FunctionModifier;
 
 @Translator(name = "solr", description = "A translator for Solr search platform")
 public class SolrExecutionFactory extends ExecutionFactory<ConnectionFactory, SolrConnection> {
+	private boolean useCursorMark = true;
 	protected Map<String, FunctionModifier> functionModifiers = new TreeMap<String, FunctionModifier>(String.CASE_INSENSITIVE_ORDER);
 	
 	public SolrExecutionFactory() {
@@ -215,4 +216,13 @@ public class SolrExecutionFactory extends ExecutionFactory<ConnectionFactory, So
 	public boolean returnsSingleUpdateCount() {
 		return true;
 	}
+	
+	@TranslatorProperty(display="Use Cursor Mark", description="If queries without a limit should be paged with a cursorMark rather than a start offset.  Requires Solr 4.7 or later and a uniqueKey defined as the table primary key, otherwise start offsets are used.", advanced=true)
+	public boolean isUseCursorMark() {
+		return useCursorMark;
+	}
+	
+	public void setUseCursorMark(boolean useCursorMark) {
+		this.useCursorMark = useCursorMark;
+	}
 }
@@ -29,6 +29,7 @@ import org.apache.solr.client.solrj.SolrQuery;
 import org.apache.solr.client.solrj.response.QueryResponse;
 import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.util.NamedList;
 import org.teiid.language.Command;
 import org.teiid.language.QueryExpression;
 import org.teiid.logging.LogManager;
@@ -39,6 +40,9 @@ import org.teiid.translator.ResultSetExecution;
 import org.teiid.translator.TranslatorException;
 
 public class SolrQueryExecution implements ResultSetExecution {
+	private static final String CURSOR_MARK = "cursorMark"; //$NON-NLS-1$
+	private static final String NEXT_CURSOR_MARK = "nextCursorMark"; //$NON-NLS-1$
+	
 	private ExecutionContext executionContext;
 	private SolrConnection connection;
 	private SolrSQLHierarchyVistor visitor;
@@ -47,6 +51,8 @@ public class SolrQueryExecution implements ResultSetExecution {
 	private SolrExecutionFactory executionFactory;
 	private int offset = 0;
 	private Long resultSize;
+	private String cursorMark;
+	private boolean lastBatch;
 
 	public SolrQueryExecution(SolrExecutionFactory ef, Command command,
 			ExecutionContext executionContext, RuntimeMetadata metadata,
@@ -64,14 +70,27 @@ public class SolrQueryExecution implements ResultSetExecution {
 
 	@Override
 	public void execute() throws TranslatorException {
+		if (this.executionFactory.isUseCursorMark() && !this.visitor.isLimitInUse() 
+				&& !this.visitor.isCountStarInUse() && this.visitor.addUniqueKeySort()) {
+			//page by cursor to avoid solr re-ranking all of the preceding results for each batch
+			this.cursorMark = "*"; //$NON-NLS-1$
+		}
 		LogManager.logDetail("Solr Source Query:", this.visitor.getSolrQuery()); //$NON-NLS-1$
 		nextBatch();
 	}
 	
 	public void nextBatch() throws TranslatorException {
+		if (this.lastBatch) {
+			this.resultsItr = null;
+			return;
+		}
 		SolrQuery query = this.visitor.getSolrQuery();
 		if (!this.visitor.isLimitInUse()) {
-			query.setStart(this.offset);
+			if (this.cursorMark != null) {
+				query.set(CURSOR_MARK, this.cursorMark);
+			} else {
+				query.setStart(this.offset);
+			}
 			query.setRows(this.executionContext.getBatchSize());
 		}
 		
@@ -79,6 +98,21 @@ public class SolrQueryExecution implements ResultSetExecution {
 		SolrDocumentList docList = queryResponse.getResults();
 		this.resultSize = docList.getNumFound();
 		this.resultsItr = docList.iterator();
+		
+		if (this.visitor.isLimitInUse() || docList.size() < this.executionContext.getBatchSize()) {
+			this.lastBatch = true;
+		} else if (this.cursorMark != null) {
+			NamedList<Object> response = queryResponse.getResponse();
+			String next = response != null ? (String)response.get(NEXT_CURSOR_MARK) : null;
+			if (next == null) {
+				//not supported by the server, so the first page was by offset
+				this.cursorMark = null;
+			} else if (next.equals(this.cursorMark)) {
+				this.lastBatch = true;
+			} else {
+				this.cursorMark = next;
+			}
+		}
 	}
 
 	/*
@@ -32,6 +32,7 @@ import java.util.Stack;
 import java.util.TimeZone;
 
 import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrQuery.SortClause;
 import org.teiid.core.types.DataTypeManager;
 import org.teiid.core.util.StringUtil;
 import org.teiid.language.*;
@@ -40,6 +41,7 @@ import org.teiid.language.SQLConstants.Tokens;
 import org.teiid.language.visitor.HierarchyVisitor;
 import org.teiid.metadata.AbstractMetadataRecord;
 import org.teiid.metadata.RuntimeMetadata;
+import org.teiid.metadata.Table;
 import org.teiid.translator.jdbc.FunctionModifier;
 
 public class SolrSQLHierarchyVistor extends HierarchyVisitor {
@@ -59,6 +61,7 @@ public class SolrSQLHierarchyVistor extends HierarchyVisitor {
 	private SolrExecutionFactory ef;
 	private HashMap<String, String> columnAliasMap = new HashMap<String, String>();
 	private boolean countStarInUse;
+	private String uniqueKeyField;
 
 	public SolrSQLHierarchyVistor(RuntimeMetadata metadata, SolrExecutionFactory ef) {
 		this.metadata = metadata;
@@ -342,6 +345,31 @@ public class SolrSQLHierarchyVistor extends HierarchyVisitor {
 		return query.setQuery(buffer.toString());
 	}
 	
+	@Override
+	public void visit(NamedTable obj) {
+		Table table = obj.getMetadataObject();
+		if (table != null && table.getPrimaryKey() != null && table.getPrimaryKey().getColumns().size() == 1) {
+			this.uniqueKeyField = getRecordName(table.getPrimaryKey().getColumns().get(0));
+		}
+	}
+	
+	/**
+	 * Add the uniqueKey as the final sort, which is required to page with a cursorMark.
+	 * @return false if the uniqueKey is not known
+	 */
+	public boolean addUniqueKeySort() {
+		if (this.uniqueKeyField == null) {
+			return false;
+		}
+		for (SortClause sort : this.query.getSorts()) {
+			if (sort.getItem().equals(this.uniqueKeyField)) {
+				return true;
+			}
+		}
+		this.query.addSort(this.uniqueKeyField, SolrQuery.ORDER.asc);
+		return true;
+	}
+	
 	public boolean isLimitInUse() {
 		return this.limitInUse;
 	}
@@ -27,13 +27,24 @@ import java.io.IOException;
 import java.net.URLDecoder;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.List;
 import java.util.TimeZone;
 
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.util.NamedList;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.teiid.cdk.CommandBuilder;
 import org.teiid.cdk.api.TranslationUtility;
 import org.teiid.core.util.ObjectConverterUtil;
@@ -44,6 +55,7 @@ import org.teiid.language.Select;
 import org.teiid.query.metadata.QueryMetadataInterface;
 import org.teiid.query.metadata.TransformationMetadata;
 import org.teiid.query.unittest.RealMetadataFactory;
+import org.teiid.translator.ExecutionContext;
 
 @SuppressWarnings("nls")
 public class TestTeiidLanguageToSolr {
@@ -302,6 +314,49 @@ public class TestTeiidLanguageToSolr {
 				getSolrTranslation("select name,(popularity+1)/2 as x from example order by popularity ASC"));		
 	}
 	
+	@Test
+	public void testCursorMarkPaging() throws Exception {
+		Select select = (Select)getCommand("select name, popularity from example");
+		ExecutionContext context = Mockito.mock(ExecutionContext.class);
+		Mockito.stub(context.getBatchSize()).toReturn(2);
+		SolrConnection connection = Mockito.mock(SolrConnection.class);
+		final List<String> queries = new ArrayList<String>();
+		final QueryResponse first = cursorResponse("AoE", 2);
+		final QueryResponse second = cursorResponse("AoF", 1);
+		Mockito.stub(connection.query(Mockito.any(SolrQuery.class))).toAnswer(new Answer<QueryResponse>() {
+			@Override
+			public QueryResponse answer(InvocationOnMock invocation) throws Throwable {
+				queries.add(URLDecoder.decode(invocation.getArguments()[0].toString(), "UTF-8"));
+				return queries.size() == 1?first:second;
+			}
+		});
+		SolrQueryExecution execution = new SolrQueryExecution(this.translator, select, context, this.utility.createRuntimeMetadata(), connection);
+		execution.execute();
+		int rows = 0;
+		while (execution.next() != null) {
+			rows++;
+		}
+		assertEquals(3, rows);
+		assertEquals(Arrays.asList("fl=name,popularity&sort=name asc&q=*:*&cursorMark=*&rows=2", 
+				"fl=name,popularity&sort=name asc&q=*:*&cursorMark=AoE&rows=2"), queries);
+	}
+
+	private QueryResponse cursorResponse(String nextCursorMark, int docs) {
+		SolrDocumentList list = new SolrDocumentList();
+		for (int i = 0; i < docs; i++) {
+			SolrDocument doc = new SolrDocument();
+			doc.addField("name", "name" + i);
+			doc.addField("popularity", i);
+			list.add(doc);
+		}
+		NamedList<Object> response = new NamedList<Object>();
+		response.add("nextCursorMark", nextCursorMark);
+		QueryResponse queryResponse = Mockito.mock(QueryResponse.class);
+		Mockito.stub(queryResponse.getResults()).toReturn(list);
+		Mockito.stub(queryResponse.getResponse()).toReturn(response);
+		return queryResponse;
+	}
+	
 	@Before public void setUp() { 
 		TimestampWithTimezone.resetCalendar(TimeZone.getTimeZone("PST")); //$NON-NLS-1$ 
 	}
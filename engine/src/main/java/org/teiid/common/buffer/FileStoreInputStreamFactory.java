@@ -76,6 +76,14 @@ public final class FileStoreInputStreamFactory extends InputStreamFactory {
 		throw new IllegalStateException("In persistent mode or not closed for writing"); //$NON-NLS-1$
 	}
 	
+	/**
+	 * The backing store, which is only complete in persistent mode
+	 * @return
+	 */
+	public FileStore getFileStore() {
+		return lobBuffer;
+	}
+
 	@Override
 	public Reader getCharacterStream() throws IOException {
 		return new InputStreamReader(getInputStream(), Charset.forName(encoding).newDecoder());
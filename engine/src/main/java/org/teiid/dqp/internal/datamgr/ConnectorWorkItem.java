@@ -26,7 +26,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.activation.DataSource;
@@ -53,6 +57,7 @@ import org.teiid.core.types.InputStreamFactory;
 import org.teiid.core.types.SQLXMLImpl;
 import org.teiid.core.types.StandardXMLTranslator;
 import org.teiid.core.types.Streamable;
+import org.teiid.core.types.Transform;
 import org.teiid.core.types.TransformationException;
 import org.teiid.core.types.XMLType;
 import org.teiid.core.util.Assertion;
@@ -118,6 +123,20 @@ public class ConnectorWorkItem implements ConnectorWork {
     private boolean[] convertToDesiredRuntimeType;
     private boolean[] isLob;
     private Class<?>[] schema;
+    //the conversion plan, resolved from the first non-null source value of each column
+    private Class<?>[] sourceTypes;
+    private Transform[] transforms;
+    //values seen in the current batch by type when the value cache is enabled
+    //values of different types may be equal, such as a date and a timestamp with the same millis
+    private Map<Class<?>, Map<Object, Object>> batchValues;
+    private static final Set<Class<?>> DEDUP_TYPES = new HashSet<Class<?>>(Arrays.asList(
+    		DataTypeManager.DefaultDataClasses.STRING, DataTypeManager.DefaultDataClasses.CHAR,
+    		DataTypeManager.DefaultDataClasses.SHORT, DataTypeManager.DefaultDataClasses.INTEGER,
+    		DataTypeManager.DefaultDataClasses.LONG, DataTypeManager.DefaultDataClasses.BIG_INTEGER,
+    		DataTypeManager.DefaultDataClasses.FLOAT, DataTypeManager.DefaultDataClasses.DOUBLE,
+    		DataTypeManager.DefaultDataClasses.BIG_DECIMAL, DataTypeManager.DefaultDataClasses.DATE,
+    		DataTypeManager.DefaultDataClasses.TIME, DataTypeManager.DefaultDataClasses.TIMESTAMP,
+    		DataTypeManager.DefaultDataClasses.VARBINARY));
 	private boolean explicitClose;
 	
 	private boolean copyLobs;
@@ -169,6 +188,8 @@ public class ConnectorWorkItem implements ConnectorWork {
         this.convertToDesiredRuntimeType = new boolean[symbols.size()];
 		this.convertToRuntimeType = new boolean[symbols.size()];
 		this.isLob = new boolean[symbols.size()];
+		this.sourceTypes = new Class[symbols.size()];
+		this.transforms = new Transform[symbols.size()];
 		for (int i = 0; i < symbols.size(); i++) {
 			Expression symbol = symbols.get(i);
 			this.schema[i] = symbol.getType();
@@ -412,11 +433,34 @@ public class ConnectorWorkItem implements ConnectorWork {
         LogManager.logDetail(LogConstants.CTX_CONNECTOR, new Object[] {this.id, "Getting results from connector"}); //$NON-NLS-1$
         int batchSize = 0;
         List<List<?>> rows = new ResizingArrayList<List<?>>(batchSize/4);
+        BatchedResultSetExecution batchedExecution = null;
+        if (this.execution instanceof BatchedResultSetExecution) {
+        	batchedExecution = (BatchedResultSetExecution)this.execution;
+        }
+        List<List<?>> block = null;
+        int blockIndex = 0;
+        boolean checkTypes = needsTypeCorrection();
+        if (DataTypeManager.isValueCacheEnabled()) {
+        	batchValues = new HashMap<Class<?>, Map<Object, Object>>();
+        } else {
+        	batchValues = null;
+        }
         
         try {
 	        while (batchSize < this.requestMsg.getFetchSize()) {
 	        	
-        		List<?> row = this.execution.next();
+        		List<?> row = null;
+        		if (batchedExecution != null) {
+        			if (block == null || blockIndex >= block.size()) {
+        				block = batchedExecution.nextBatch(getMaxBlockSize(batchSize));
+        				blockIndex = 0;
+        			}
+        			if (block != null) {
+        				row = block.get(blockIndex++);
+        			}
+        		} else {
+        			row = this.execution.next();
+        		}
             	if (row == null) {
             		this.lastBatch = true;
             		break;
@@ -424,12 +468,14 @@ public class ConnectorWorkItem implements ConnectorWork {
             	if (row.size() != this.expectedColumns) {
             		throw new AssertionError("Inproper results returned.  Expected " + this.expectedColumns + " columns, but was " + row.size()); //$NON-NLS-1$ //$NON-NLS-2$
         		}
-            	try {
-					row = correctTypes(row);
-				} catch (TeiidException e) {
-					conversionError = e;
-					break;
-				}
+            	if (checkTypes) {
+	            	try {
+						row = correctTypes(row);
+					} catch (TeiidException e) {
+						conversionError = e;
+						break;
+					}
+            	}
             	if (this.procedureBatchHandler != null) {
             		row = this.procedureBatchHandler.padRow(row);
             	}
@@ -501,6 +547,38 @@ public class ConnectorWorkItem implements ConnectorWork {
 		return response;
 	}
     
+    /**
+     * The number of rows to request from a {@link BatchedResultSetExecution} so 
+     * that neither the fetch size nor the max rows are exceeded.
+     */
+    private int getMaxBlockSize(int batchSize) {
+    	int result = this.requestMsg.getFetchSize() - batchSize;
+    	if (this.requestMsg.getMaxResultRows() > -1) {
+    		int remaining = this.requestMsg.getMaxResultRows() - this.rowCount;
+    		if (this.requestMsg.isExceptionOnMaxRows()) {
+    			//read one more to detect the overflow
+    			remaining++;
+    		}
+    		result = Math.min(result, remaining);
+    	}
+    	return Math.max(1, result);
+    }
+    
+    /**
+     * @return true if {@link #correctTypes(List)} may still modify the rows
+     */
+    private boolean needsTypeCorrection() {
+    	if (DataTypeManager.isValueCacheEnabled()) {
+    		return true;
+    	}
+    	for (int i = 0; i < this.schema.length; i++) {
+    		if (convertToRuntimeType[i] || convertToDesiredRuntimeType[i]) {
+    			return true;
+    		}
+    	}
+    	return false;
+    }
+    
     public static AtomicResultsMessage createResultsMessage(List<?>[] batch) {
         return new AtomicResultsMessage(batch);
     }    
@@ -558,7 +636,7 @@ public class ConnectorWorkItem implements ConnectorWork {
 			}
 			if (convertToDesiredRuntimeType[i]) {
 				if (value != null) {
-					Object result = DataTypeManager.transformValue(value, value.getClass(), this.schema[i]);
+					Object result = transform(i, value);
 					if (isLob[i] && copyLobs) {
 						if (lobStore == null) {
 							lobStore = requestMsg.getBufferManager().createFileStore("lobs"); //$NON-NLS-1$
@@ -571,13 +649,60 @@ public class ConnectorWorkItem implements ConnectorWork {
 					}
 					row.set(i, result);
 				}
-			} else if (DataTypeManager.isValueCacheEnabled()) {
-				row.set(i, DataTypeManager.getCanonicalValue(value));
+			} else if (batchValues != null) {
+				row.set(i, getBatchValue(value));
 			}
 		}
 		return row;
 	}
 	
+	/**
+	 * Convert using the transform planned for the column, which avoids 
+	 * the type name and transform lookups of {@link DataTypeManager#transformValue(Object, Class, Class)}
+	 */
+	private Object transform(int i, Object value) throws TransformationException {
+		Class<?> sourceType = value.getClass();
+		Class<?> targetType = this.schema[i];
+		if (sourceType == targetType || targetType == DataTypeManager.DefaultDataClasses.OBJECT) {
+			return value;
+		}
+		if (sourceType != sourceTypes[i]) {
+			Transform transform = DataTypeManager.getTransform(sourceType, targetType);
+			if (transform == null) {
+				//throws the appropriate exception
+				return DataTypeManager.transformValue(value, sourceType, targetType);
+			}
+			sourceTypes[i] = sourceType;
+			transforms[i] = transform;
+		}
+		Object result = transforms[i].transform(value, targetType);
+		if (batchValues != null) {
+			return getBatchValue(result);
+		}
+		return result;
+	}
+	
+	/**
+	 * Deduplicate the value against the current batch rather than the global value cache
+	 */
+	private Object getBatchValue(Object value) {
+		if (value == null || !DEDUP_TYPES.contains(value.getClass())) {
+			return value;
+		}
+		Map<Object, Object> values = batchValues.get(value.getClass());
+		if (values == null) {
+			values = new HashMap<Object, Object>();
+			batchValues.put(value.getClass(), values);
+		} else {
+			Object existing = values.get(value);
+			if (existing != null) {
+				return existing;
+			}
+		}
+		values.put(value, value);
+		return value;
+	}
+	
 	static Object convertToRuntimeType(BufferManager bm, Object value, Class<?> desiredType, CommandContext context) throws TransformationException {
 		if (desiredType != DataTypeManager.DefaultDataClasses.XML || !(value instanceof Source)) {
 			if (value instanceof InputStreamFactory) {
@@ -878,16 +878,42 @@ public class LanguageBridgeFactory {
     	if (bc.getParameterValues() != null) {
     		throw new IllegalStateException("Already set batch values"); //$NON-NLS-1$
     	}
-    	int rowCount = allValues.get(0).size();
-    	List<List<?>> result = new ArrayList<List<?>>(rowCount);
-    	for (int i = 0; i < rowCount; i++) {
-    		List<Object> row = new ArrayList<Object>(allValues.size());
-	    	for (List<?> vals : allValues) {
-	    		row.add(vals.get(i));
-	    	}
-	    	result.add(row);
-    	}
-    	bc.setParameterValues(result.iterator());
+    	//the values are held by column, so rather than copying into rows
+    	//expose a row view over the columns as the source consumes them 
+    	final List<List<?>> columns = new ArrayList<List<?>>(allValues);
+    	final int rowCount = columns.get(0).size();
+    	bc.setParameterValues(new Iterator<List<?>>() {
+    		int row;
+    		
+    		@Override
+    		public boolean hasNext() {
+    			return row < rowCount;
+    		}
+    		
+    		@Override
+    		public List<?> next() {
+    			if (row >= rowCount) {
+    				throw new NoSuchElementException();
+    			}
+    			final int index = row++;
+    			return new AbstractList<Object>() {
+    				@Override
+    				public Object get(int i) {
+    					return columns.get(i).get(index);
+    				}
+    				
+    				@Override
+    				public int size() {
+    					return columns.size();
+    				}
+    			};
+    		}
+    		
+    		@Override
+    		public void remove() {
+    			throw new UnsupportedOperationException();
+    		}
+		});
     }
 
     /* Update */
@@ -28,15 +28,22 @@ import java.io.PushbackInputStream;
 
 import org.teiid.client.lob.LobChunk;
 import org.teiid.client.lob.LobChunkProducer;
+import org.teiid.common.buffer.FileStore;
 import org.teiid.core.CorePlugin;
 
 
 /**
  * A wrapper class, given a InputStream object can convert a underlying 
  * stream into sequence of ByteLobChunk objects of given chunk size. 
+ * <br>
+ * If the lob is already backed by a {@link FileStore} the chunks are read
+ * directly from the store.
  */
 public class ByteLobChunkStream implements LobChunkProducer {
     private PushbackInputStream stream;
+    private FileStore store;
+    private long position;
+    private long length;
     private int chunkSize;
     private boolean closed;
     
@@ -45,11 +52,25 @@ public class ByteLobChunkStream implements LobChunkProducer {
         this.chunkSize = chunkSize;
     }
     
+    public ByteLobChunkStream(FileStore store, long length, int chunkSize) {
+    	this.store = store;
+    	this.length = length;
+    	this.chunkSize = chunkSize;
+    }
+    
     public LobChunk getNextChunk() throws IOException{
 
         if (this.closed) {
             throw new IllegalStateException(CorePlugin.Util.getString("stream_closed")); //$NON-NLS-1$
         }
+        
+        if (this.store != null) {
+        	int size = (int)Math.min(this.chunkSize, this.length - this.position);
+        	byte[] cbuf = new byte[size];
+        	this.store.readFully(this.position, cbuf, 0, size);
+        	this.position += size;
+        	return new LobChunk(cbuf, this.position == this.length);
+        }
                 
         // read contents from the stream
         byte[] cbuf = new byte[this.chunkSize];
@@ -71,9 +92,22 @@ public class ByteLobChunkStream implements LobChunkProducer {
         }
         return new LobChunk(cbuf, isLast);
     }
+    
+    public int getChunkSize() {
+		return chunkSize;
+	}
+    
+    /**
+     * Set the size of subsequent chunks
+     */
+    public void setChunkSize(int chunkSize) {
+		this.chunkSize = chunkSize;
+	}
 
     public void close() throws IOException {
         this.closed = true;
-        this.stream.close();
+        if (this.stream != null) {
+        	this.stream.close();
+        }
     }        
-}
\ No newline at end of file
+}
@@ -30,9 +30,13 @@ import javax.resource.spi.work.Work;
 
 import org.teiid.client.lob.LobChunk;
 import org.teiid.client.util.ResultsReceiver;
+import org.teiid.common.buffer.FileStoreInputStreamFactory;
 import org.teiid.core.TeiidComponentException;
+import org.teiid.core.types.BaseLob;
 import org.teiid.core.types.BlobType;
 import org.teiid.core.types.ClobType;
+import org.teiid.core.types.InputStreamFactory;
+import org.teiid.core.types.InputStreamFactory.StorageMode;
 import org.teiid.core.types.Streamable;
 import org.teiid.core.types.XMLType;
 import org.teiid.core.util.Assertion;
@@ -43,17 +47,26 @@ import org.teiid.query.QueryPlugin;
 
 public class LobWorkItem implements Work {
 	
+	/**
+	 * The upper bound for growing the chunk size, well below the default max object size
+	 */
+	static final int MAX_CHUNK_SIZE = 1 << 21;
+	
 	private RequestWorkItem parent;
 	private int chunkSize; 
+	private int maxChunkSize;
     
 	/* private work item state */
 	private String streamId; 
     private ByteLobChunkStream stream;
     private int streamRequestId;
     private ResultsReceiver<LobChunk> resultsReceiver;
+    private long lastSent;
+    private long waitTime;
 	
 	public LobWorkItem(RequestWorkItem parent, DQPCore dqpCore, String streamId, int streamRequestId) {
 		this.chunkSize = dqpCore.getChunkSize();
+		this.maxChunkSize = Math.max(this.chunkSize, MAX_CHUNK_SIZE);
 		this.streamId = streamId;
 		this.parent = parent;
 		this.streamRequestId = streamRequestId;
@@ -72,9 +85,12 @@ public class LobWorkItem implements Work {
             }
             
             // now get the chunk from stream
+            long start = System.nanoTime();
+            int size = stream.getChunkSize();
             chunk = stream.getNextChunk();
             parent.dataBytes.addAndGet(chunk.getBytes().length);
             shouldClose = chunk.isLast();
+            adjustChunkSize(size, chunk.getBytes().length, System.nanoTime() - start);
         } catch (TeiidComponentException e) {            
             LogManager.logWarning(org.teiid.logging.LogConstants.CTX_DQP, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30027));
             ex = e;
@@ -90,6 +106,7 @@ public class LobWorkItem implements Work {
 	        	resultsReceiver.receiveResults(chunk);
 	        }
 	        resultsReceiver = null;
+	        lastSent = System.nanoTime();
         }
         
         if (shouldClose) {
@@ -97,6 +114,18 @@ public class LobWorkItem implements Work {
         }
 	}
 
+	/**
+	 * Grow the chunk size when the time spent waiting on the client for the next request 
+	 * exceeds the time to read a full chunk, so that fewer round trips are needed when 
+	 * the transfer is latency bound.
+	 */
+	private void adjustChunkSize(int size, int read, long readTime) {
+		if (read < size || size >= maxChunkSize || waitTime <= readTime) {
+			return;
+		}
+		stream.setChunkSize(Math.min(maxChunkSize, size << 1));
+	}
+
 	void close() {
 		try {
 			if (stream != null) {
@@ -129,6 +158,14 @@ public class LobWorkItem implements Work {
                 return new ByteLobChunkStream(new ReaderInputStream(clob.getCharacterStream(), Charset.forName(Streamable.ENCODING)), chunkSize);            
             } 
             BlobType blob = (BlobType)streamable;
+            if (blob.getReference() instanceof BaseLob) {
+            	InputStreamFactory isf = ((BaseLob)blob.getReference()).getStreamFactory();
+            	if (isf instanceof FileStoreInputStreamFactory && isf.getStorageMode() == StorageMode.PERSISTENT) {
+            		//read directly from the buffer file rather than through the buffered stream
+            		FileStoreInputStreamFactory fsisf = (FileStoreInputStreamFactory)isf;
+            		return new ByteLobChunkStream(fsisf.getFileStore(), fsisf.getLength(), chunkSize);
+            	}
+            }
             return new ByteLobChunkStream(blob.getBinaryStream(), chunkSize);                        
         } catch(SQLException e) {
             throw new IOException(e);
@@ -138,6 +175,9 @@ public class LobWorkItem implements Work {
     synchronized void setResultsReceiver(ResultsReceiver<LobChunk> resultsReceiver) {
     	Assertion.isNull(this.resultsReceiver, "Cannot request results with a pending request"); //$NON-NLS-1$
     	this.resultsReceiver = resultsReceiver;
+    	if (this.lastSent != 0) {
+    		this.waitTime = System.nanoTime() - this.lastSent;
+    	}
     }
 
 	@Override
@@ -178,55 +178,65 @@ public class PreparedStatementRequest extends Request {
 		        supportPreparedBatchUpdate = caps.supportsCapability(SourceCapabilities.Capability.BULK_UPDATE);
 			}
 		}
-		List<Command> commands = new LinkedList<Command>();
-		List<VariableContext> contexts = new LinkedList<VariableContext>();
-		List<List<Object>> multiValues = new ArrayList<List<Object>>(this.prepPlan.getReferences().size());
-		for (List<?> values : paramValues) {
-	    	PreparedStatementRequest.resolveParameterValues(this.prepPlan.getReferences(), values, this.context, this.metadata);
-			contexts.add(this.context.getVariableContext());
-			if(supportPreparedBatchUpdate){
-				if (multiValues.isEmpty()) {
-					for (int i = 0; i < values.size(); i++) {
-						multiValues.add(new ArrayList<Object>(paramValues.size()));
-					}					
-				}
-				for (int i = 0; i < values.size(); i++) {
-					List<Object> multiValue = multiValues.get(i);
-					Object value = this.context.getVariableContext().getGlobalValue(this.prepPlan.getReferences().get(i).getContextSymbol());
-					multiValue.add(value);
-				}
-			} else { //just accumulate copies of the command/plan - clones are not necessary
-				if (command == null) {
-					command = this.prepPlan.getCommand();
-				}
-				command.setProcessorPlan(this.processPlan);
-				commands.add(command);
-			}
-		}
-		
-		if (paramValues.size() > 1) {
-			this.context.setVariableContext(new VariableContext());
-		} 
 		
 		if (paramValues.size() == 1) {
+	    	PreparedStatementRequest.resolveParameterValues(this.prepPlan.getReferences(), paramValues.get(0), this.context, this.metadata);
 			return; // just use the existing plan, and global reference evaluation
 		}
 		
 		if (supportPreparedBatchUpdate) {
-			for (int i = 0; i < this.prepPlan.getReferences().size(); i++) {
-				Constant c = new Constant(null, this.prepPlan.getReferences().get(i).getType());
-				c.setMultiValued(multiValues.get(i));
-				this.context.getVariableContext().setGlobalValue(this.prepPlan.getReferences().get(i).getContextSymbol(), c);
-			}
+			handleBulkUpdate(paramValues);
 			return;
 		}
 		
+		List<Command> commands = new LinkedList<Command>();
+		List<VariableContext> contexts = new LinkedList<VariableContext>();
+		for (List<?> values : paramValues) {
+	    	PreparedStatementRequest.resolveParameterValues(this.prepPlan.getReferences(), values, this.context, this.metadata);
+			contexts.add(this.context.getVariableContext());
+			//just accumulate copies of the command/plan - clones are not necessary
+			if (command == null) {
+				command = this.prepPlan.getCommand();
+			}
+			command.setProcessorPlan(this.processPlan);
+			commands.add(command);
+		}
+		
+		this.context.setVariableContext(new VariableContext());
+		
 		BatchedUpdateCommand buc = new BatchedUpdateCommand(commands);
 		buc.setVariableContexts(contexts);
 		BatchedUpdatePlanner planner = new BatchedUpdatePlanner();
 		this.processPlan = planner.optimize(buc, idGenerator, metadata, capabilitiesFinder, analysisRecord, context);
 	}
 
+	/**
+	 * Bind each reference to the column of values for the whole batch, which
+	 * the source receives as a single bulk command.  No per row variable contexts 
+	 * or commands are created.
+	 */
+	private void handleBulkUpdate(List<List<?>> paramValues)
+			throws QueryResolverException, TeiidComponentException, QueryValidatorException {
+		List<Reference> references = this.prepPlan.getReferences();
+		List<List<Object>> multiValues = new ArrayList<List<Object>>(references.size());
+		for (int i = 0; i < references.size(); i++) {
+			multiValues.add(new ArrayList<Object>(paramValues.size()));
+		}
+		for (List<?> values : paramValues) {
+			checkParameterCount(references, values);
+			for (int i = 0; i < references.size(); i++) {
+				multiValues.get(i).add(resolveParameterValue(references.get(i), values.get(i), i, this.metadata));
+			}
+		}
+		VariableContext vc = new VariableContext();
+		for (int i = 0; i < references.size(); i++) {
+			Constant c = new Constant(null, references.get(i).getType());
+			c.setMultiValued(multiValues.get(i));
+			vc.setGlobalValue(references.get(i).getContextSymbol(), c);
+		}
+		this.context.setVariableContext(vc);
+	}
+
 	/** 
 	 * @param params
 	 * @param values
@@ -236,41 +246,51 @@ public class PreparedStatementRequest extends Request {
 	public static void resolveParameterValues(List<Reference> params,
 	                                    List values, CommandContext context, QueryMetadataInterface metadata) throws QueryResolverException, TeiidComponentException, QueryValidatorException {
 		VariableContext result = new VariableContext();
-	    //the size of the values must be the same as that of the parameters
-	    if (params.size() != values.size()) {
-	        String msg = QueryPlugin.Util.getString("QueryUtil.wrong_number_of_values", new Object[] {new Integer(values.size()), new Integer(params.size())}); //$NON-NLS-1$
-	         throw new QueryResolverException(QueryPlugin.Event.TEIID30556, msg);
-	    }
+	    checkParameterCount(params, values);
 	
-	    //the type must be the same, or the type of the value can be implicitly converted
-	    //to that of the reference
 	    for (int i = 0; i < params.size(); i++) {
 	        Reference param = params.get(i);
-	        Object value = values.get(i);
-	        
-        	if(value != null) {
-                try {
-                    String targetTypeName = DataTypeManager.getDataTypeName(param.getType());
-                    Expression expr = ResolverUtil.convertExpression(new Constant(DataTypeManager.convertToRuntimeType(value, param.getType() != DataTypeManager.DefaultDataClasses.OBJECT)), targetTypeName, metadata);
-                    value = Evaluator.evaluate(expr);
-				} catch (ExpressionEvaluationException e) {
-                    String msg = QueryPlugin.Util.getString("QueryUtil.Error_executing_conversion_function_to_convert_value", i + 1, value, value.getClass(), DataTypeManager.getDataTypeName(param.getType())); //$NON-NLS-1$
-                    throw new QueryResolverException(QueryPlugin.Event.TEIID30557, e, msg);
-				} catch (QueryResolverException e) {
-					String msg = QueryPlugin.Util.getString("QueryUtil.Error_executing_conversion_function_to_convert_value", i + 1, value, value.getClass(), DataTypeManager.getDataTypeName(param.getType())); //$NON-NLS-1$
-                    throw new QueryResolverException(QueryPlugin.Event.TEIID30558, e, msg);
-				}
-	        }
-	        	        
-        	if (param.getConstraint() != null) {
-        		param.getConstraint().validate(value);
-        	}
+	        Object value = resolveParameterValue(param, values.get(i), i, metadata);
 	        //bind variable
 	        result.setGlobalValue(param.getContextSymbol(), value);
 	    }
 	    
 	    context.setVariableContext(result);
 	}
+
+	private static void checkParameterCount(List<Reference> params, List<?> values) throws QueryResolverException {
+		//the size of the values must be the same as that of the parameters
+	    if (params.size() != values.size()) {
+	        String msg = QueryPlugin.Util.getString("QueryUtil.wrong_number_of_values", new Object[] {new Integer(values.size()), new Integer(params.size())}); //$NON-NLS-1$
+	         throw new QueryResolverException(QueryPlugin.Event.TEIID30556, msg);
+	    }
+	}
+	
+	/**
+	 * The type must be the same, or the type of the value can be implicitly converted
+	 * to that of the reference
+	 */
+	private static Object resolveParameterValue(Reference param, Object value, int i, QueryMetadataInterface metadata) 
+			throws QueryResolverException, TeiidComponentException, QueryValidatorException {
+    	if(value != null && value.getClass() != param.getType()) {
+            try {
+                String targetTypeName = DataTypeManager.getDataTypeName(param.getType());
+                Expression expr = ResolverUtil.convertExpression(new Constant(DataTypeManager.convertToRuntimeType(value, param.getType() != DataTypeManager.DefaultDataClasses.OBJECT)), targetTypeName, metadata);
+                value = Evaluator.evaluate(expr);
+			} catch (ExpressionEvaluationException e) {
+                String msg = QueryPlugin.Util.getString("QueryUtil.Error_executing_conversion_function_to_convert_value", i + 1, value, value.getClass(), DataTypeManager.getDataTypeName(param.getType())); //$NON-NLS-1$
+                throw new QueryResolverException(QueryPlugin.Event.TEIID30557, e, msg);
+			} catch (QueryResolverException e) {
+				String msg = QueryPlugin.Util.getString("QueryUtil.Error_executing_conversion_function_to_convert_value", i + 1, value, value.getClass(), DataTypeManager.getDataTypeName(param.getType())); //$NON-NLS-1$
+                throw new QueryResolverException(QueryPlugin.Event.TEIID30558, e, msg);
+			}
+        }
+        	        
+    	if (param.getConstraint() != null) {
+    		param.getConstraint().validate(value);
+    	}
+    	return value;
+	}
 	
 	@Override
 	public boolean isReturingParams() {
@@ -0,0 +1,789 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.query.eval;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.teiid.api.exception.query.ExpressionEvaluationException;
+import org.teiid.common.buffer.BlockedException;
+import org.teiid.core.TeiidComponentException;
+import org.teiid.core.types.ArrayImpl;
+import org.teiid.core.types.DataTypeManager;
+import org.teiid.core.types.Sequencable;
+import org.teiid.core.util.EquivalenceUtil;
+import org.teiid.core.util.PropertiesUtils;
+import org.teiid.metadata.FunctionMethod.PushDown;
+import org.teiid.query.QueryPlugin;
+import org.teiid.query.function.FunctionDescriptor;
+import org.teiid.query.function.FunctionLibrary;
+import org.teiid.query.sql.lang.CompareCriteria;
+import org.teiid.query.sql.lang.CompoundCriteria;
+import org.teiid.query.sql.lang.Criteria;
+import org.teiid.query.sql.lang.ExpressionCriteria;
+import org.teiid.query.sql.lang.IsNullCriteria;
+import org.teiid.query.sql.lang.MatchCriteria;
+import org.teiid.query.sql.lang.NotCriteria;
+import org.teiid.query.sql.lang.SetCriteria;
+import org.teiid.query.sql.symbol.CaseExpression;
+import org.teiid.query.sql.symbol.Constant;
+import org.teiid.query.sql.symbol.DerivedExpression;
+import org.teiid.query.sql.symbol.Expression;
+import org.teiid.query.sql.symbol.ExpressionSymbol;
+import org.teiid.query.sql.symbol.Function;
+import org.teiid.query.sql.symbol.SearchedCaseExpression;
+
+/**
+ * An {@link Expression} or {@link Criteria} compiled against the element map of an {@link Evaluator}.
+ * <br>
+ * Element lookups are resolved to tuple indexes and the common expression and criteria 
+ * forms are bound to their operands ahead of time, so that evaluating a row does not 
+ * walk the language objects.  Everything else falls back to the {@link Evaluator}.
+ * <br>
+ * A compiled expression is only valid for use with the {@link Evaluator} that created it.
+ */
+public abstract class CompiledExpression {
+	
+	static final boolean COMPILE = PropertiesUtils.getBooleanProperty(System.getProperties(), "org.teiid.compileExpressions", true); //$NON-NLS-1$
+	
+	private static class TupleValue extends CompiledExpression {
+		private int index;
+		
+		TupleValue(Expression expression, int index) {
+			super(expression);
+			this.index = index;
+		}
+		
+		@Override
+		Object eval(List<?> tuple) {
+			return tuple.get(index);
+		}
+	}
+	
+	private static class ConstantValue extends CompiledExpression {
+		private Object value;
+		
+		ConstantValue(Constant expression) {
+			super(expression);
+			this.value = expression.getValue();
+		}
+		
+		@Override
+		Object eval(List<?> tuple) {
+			return value;
+		}
+	}
+	
+	private static class FunctionValue extends CompiledExpression {
+		private Evaluator evaluator;
+		private FunctionDescriptor fd;
+		private CompiledExpression[] args;
+		
+		FunctionValue(Function expression, Evaluator evaluator, CompiledExpression[] args) {
+			super(expression);
+			this.evaluator = evaluator;
+			this.fd = expression.getFunctionDescriptor();
+			this.args = args;
+		}
+		
+		@Override
+		Object eval(List<?> tuple) throws ExpressionEvaluationException,
+				BlockedException, TeiidComponentException {
+			int start = fd.requiresContext()?1:0;
+			Object[] values = new Object[args.length + start];
+			if (start == 1) {
+				values[0] = evaluator.context;
+			}
+			for (int i = 0; i < args.length; i++) {
+				values[i+start] = args[i].eval(tuple);
+			}
+			return fd.invokeFunction(values, evaluator.context, null);
+		}
+	}
+	
+	private static class CaseValue extends CompiledExpression {
+		private CompiledExpression expr;
+		private CompiledExpression[] whens;
+		private CompiledExpression[] thens;
+		private CompiledExpression elseExpr;
+		
+		CaseValue(Expression expression, CompiledExpression expr, CompiledExpression[] whens, CompiledExpression[] thens, CompiledExpression elseExpr) {
+			super(expression);
+			this.expr = expr;
+			this.whens = whens;
+			this.thens = thens;
+			this.elseExpr = elseExpr;
+		}
+		
+		@Override
+		Object eval(List<?> tuple) throws ExpressionEvaluationException,
+				BlockedException, TeiidComponentException {
+			Object exprVal = null;
+			if (expr != null) {
+				exprVal = expr.eval(tuple);
+			}
+			for (int i = 0; i < whens.length; i++) {
+				if (expr != null) {
+					if (EquivalenceUtil.areEqual(exprVal, whens[i].eval(tuple))) {
+						return thens[i].eval(tuple);
+					}
+				} else if (Boolean.TRUE.equals(whens[i].eval(tuple))) {
+					return thens[i].eval(tuple);
+				}
+			}
+			if (elseExpr != null) {
+				return elseExpr.eval(tuple);
+			}
+			return null;
+		}
+	}
+	
+	private static class CompoundValue extends CompiledExpression {
+		private CompiledExpression[] crits;
+		private boolean and;
+		
+		CompoundValue(CompoundCriteria expression, CompiledExpression[] crits) {
+			super(expression);
+			this.crits = crits;
+			this.and = expression.getOperator() == CompoundCriteria.AND;
+		}
+		
+		@Override
+		Object eval(List<?> tuple) throws ExpressionEvaluationException,
+				BlockedException, TeiidComponentException {
+			Boolean result = and?Boolean.TRUE:Boolean.FALSE;
+			for (int i = 0; i < crits.length; i++) {
+				Boolean value = (Boolean)crits[i].eval(tuple);
+				if (value == null) {
+					result = null;
+				} else if (!value.booleanValue()) {
+					if (and) {
+						return Boolean.FALSE;
+					}
+				} else if (!and) {
+					return Boolean.TRUE;
+				}
+			}
+			return result;
+		}
+		
+		@Override
+		public int filter(List<? extends List<?>> tuples, int[] selection, int count)
+				throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+			if (and) {
+				for (int i = 0; i < crits.length && count > 0; i++) {
+					count = crits[i].filter(tuples, selection, count);
+				}
+				return count;
+			}
+			//each disjunct only needs to consider the rows not already selected
+			boolean[] selected = new boolean[tuples.size()];
+			int[] candidates = Arrays.copyOf(selection, count);
+			int candidateCount = count;
+			for (int i = 0; i < crits.length && candidateCount > 0; i++) {
+				int[] childSelection = Arrays.copyOf(candidates, candidateCount);
+				int matched = crits[i].filter(tuples, childSelection, candidateCount);
+				for (int j = 0; j < matched; j++) {
+					selected[childSelection[j]] = true;
+				}
+				int remaining = 0;
+				for (int j = 0; j < candidateCount; j++) {
+					if (!selected[candidates[j]]) {
+						candidates[remaining++] = candidates[j];
+					}
+				}
+				candidateCount = remaining;
+			}
+			int matched = 0;
+			for (int i = 0; i < count; i++) {
+				int row = selection[i];
+				if (selected[row]) {
+					selection[matched++] = row;
+				}
+			}
+			return matched;
+		}
+	}
+	
+	private static class NotValue extends CompiledExpression {
+		private CompiledExpression crit;
+		
+		NotValue(NotCriteria expression, CompiledExpression crit) {
+			super(expression);
+			this.crit = crit;
+		}
+		
+		@Override
+		Object eval(List<?> tuple) throws ExpressionEvaluationException,
+				BlockedException, TeiidComponentException {
+			Boolean result = (Boolean)crit.eval(tuple);
+			if (result == null) {
+				return null;
+			}
+			return Boolean.valueOf(!result.booleanValue());
+		}
+	}
+	
+	private static class CompareValue extends CompiledExpression {
+		private CompiledExpression left;
+		private CompiledExpression right;
+		
+		CompareValue(CompareCriteria expression, CompiledExpression left, CompiledExpression right) {
+			super(expression);
+			this.left = left;
+			this.right = right;
+		}
+		
+		@Override
+		Object eval(List<?> tuple) throws ExpressionEvaluationException,
+				BlockedException, TeiidComponentException {
+			Object leftValue = null;
+			try {
+				leftValue = left.evaluate(tuple);
+			} catch(ExpressionEvaluationException e) {
+	             throw new ExpressionEvaluationException(QueryPlugin.Event.TEIID30312, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30312, "left", getExpression())); //$NON-NLS-1$
+			}
+			if (leftValue == null) {
+				return null;
+			}
+			Object rightValue = null;
+			try {
+				rightValue = right.evaluate(tuple);
+			} catch(ExpressionEvaluationException e) {
+	             throw new ExpressionEvaluationException(QueryPlugin.Event.TEIID30312, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30312, "right", getExpression())); //$NON-NLS-1$
+			}
+			if (rightValue == null) {
+				return null;
+			}
+			return Evaluator.compare((CompareCriteria)getExpression(), leftValue, rightValue);
+		}
+	}
+	
+	/**
+	 * A comparison of a column against a non-null constant.  Filtering uses a 
+	 * single loop over the selection with primitive comparisons for the 
+	 * common numeric types.
+	 */
+	private static class ColumnCompareValue extends CompareValue {
+		private int index;
+		private Object constant;
+		//indexed by the sign of the comparison + 1, 1 if the row is accepted
+		private int[] accept = new int[3];
+		
+		ColumnCompareValue(CompareCriteria expression, TupleValue left, ConstantValue right) {
+			super(expression, left, right);
+			this.index = left.index;
+			this.constant = right.value;
+			switch (expression.getOperator()) {
+			case CompareCriteria.EQ:
+				accept[1] = 1;
+				break;
+			case CompareCriteria.NE:
+				accept[0] = 1;
+				accept[2] = 1;
+				break;
+			case CompareCriteria.LT:
+				accept[0] = 1;
+				break;
+			case CompareCriteria.LE:
+				accept[0] = 1;
+				accept[1] = 1;
+				break;
+			case CompareCriteria.GT:
+				accept[2] = 1;
+				break;
+			case CompareCriteria.GE:
+				accept[1] = 1;
+				accept[2] = 1;
+				break;
+			default:
+				throw new AssertionError();
+			}
+		}
+		
+		@Override
+		public int filter(List<? extends List<?>> tuples, int[] selection, int count) {
+			Class<?> type = constant.getClass();
+			int matched = 0;
+			if (type == Integer.class) {
+				int k = ((Integer)constant).intValue();
+				for (int i = 0; i < count; i++) {
+					int row = selection[i];
+					Object value = tuples.get(row).get(index);
+					if (value == null) {
+						continue;
+					}
+					int x = ((Integer)value).intValue();
+					selection[matched] = row;
+					matched += accept[x < k ? 0 : (x == k ? 1 : 2)];
+				}
+			} else if (type == Long.class) {
+				long k = ((Long)constant).longValue();
+				for (int i = 0; i < count; i++) {
+					int row = selection[i];
+					Object value = tuples.get(row).get(index);
+					if (value == null) {
+						continue;
+					}
+					long x = ((Long)value).longValue();
+					selection[matched] = row;
+					matched += accept[x < k ? 0 : (x == k ? 1 : 2)];
+				}
+			} else if (type == Double.class) {
+				double k = ((Double)constant).doubleValue();
+				for (int i = 0; i < count; i++) {
+					int row = selection[i];
+					Object value = tuples.get(row).get(index);
+					if (value == null) {
+						continue;
+					}
+					//same ordering as Double.compareTo
+					int c = Double.compare(((Double)value).doubleValue(), k);
+					selection[matched] = row;
+					matched += accept[c < 0 ? 0 : (c == 0 ? 1 : 2)];
+				}
+			} else {
+				for (int i = 0; i < count; i++) {
+					int row = selection[i];
+					Object value = tuples.get(row).get(index);
+					if (value == null) {
+						continue;
+					}
+					int c = Constant.COMPARATOR.compare(value, constant);
+					selection[matched] = row;
+					matched += accept[c < 0 ? 0 : (c == 0 ? 1 : 2)];
+				}
+			}
+			return matched;
+		}
+	}
+	
+	private static class IsNullValue extends CompiledExpression {
+		private CompiledExpression expr;
+		private boolean negated;
+		
+		IsNullValue(IsNullCriteria expression, CompiledExpression expr) {
+			super(expression);
+			this.expr = expr;
+			this.negated = expression.isNegated();
+		}
+		
+		@Override
+		Object eval(List<?> tuple) throws ExpressionEvaluationException,
+				BlockedException, TeiidComponentException {
+			Object value = null;
+			try {
+				value = expr.evaluate(tuple);
+			} catch(ExpressionEvaluationException e) {
+	             throw new ExpressionEvaluationException(QueryPlugin.Event.TEIID30323, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30323, getExpression()));
+			}
+			return Boolean.valueOf(value == null ^ negated);
+		}
+		
+		@Override
+		public int filter(List<? extends List<?>> tuples, int[] selection, int count)
+				throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+			if (!(expr instanceof TupleValue)) {
+				return super.filter(tuples, selection, count);
+			}
+			int index = ((TupleValue)expr).index;
+			int matched = 0;
+			for (int i = 0; i < count; i++) {
+				int row = selection[i];
+				if (tuples.get(row).get(index) == null ^ negated) {
+					selection[matched++] = row;
+				}
+			}
+			return matched;
+		}
+	}
+	
+	/**
+	 * Criteria used as a value is either true or false
+	 */
+	private static class CriteriaValue extends CompiledExpression {
+		private CompiledExpression crit;
+		
+		CriteriaValue(Criteria expression, CompiledExpression crit) {
+			super(expression);
+			this.crit = crit;
+		}
+		
+		@Override
+		Object eval(List<?> tuple) throws ExpressionEvaluationException,
+				BlockedException, TeiidComponentException {
+			return Boolean.TRUE.equals(crit.eval(tuple));
+		}
+	}
+	
+	private static class InterpretedValue extends CompiledExpression {
+		private Evaluator evaluator;
+		
+		InterpretedValue(Expression expression, Evaluator evaluator) {
+			super(expression);
+			this.evaluator = evaluator;
+		}
+		
+		@Override
+		Object eval(List<?> tuple) throws ExpressionEvaluationException,
+				BlockedException, TeiidComponentException {
+			return evaluator.internalEvaluate(getExpression(), tuple);
+		}
+	}
+	
+	private static class InterpretedCriteria extends CompiledExpression {
+		private Evaluator evaluator;
+		
+		InterpretedCriteria(Criteria expression, Evaluator evaluator) {
+			super(expression);
+			this.evaluator = evaluator;
+		}
+		
+		@Override
+		Object eval(List<?> tuple) throws ExpressionEvaluationException,
+				BlockedException, TeiidComponentException {
+			return evaluator.evaluateTVL((Criteria)getExpression(), tuple);
+		}
+	}
+	
+	/**
+	 * A column IN a list of constants.  Row evaluation is interpreted, filtering
+	 * probes a set of the raw values when the type's equality is consistent with 
+	 * comparison, otherwise the constants as the {@link Evaluator} does.
+	 */
+	private static class ColumnSetValue extends InterpretedCriteria {
+		private int index;
+		private boolean negated;
+		private boolean hasNull;
+		private Class<?> type;
+		private Collection<?> constants;
+		private Set<Object> values;
+		
+		ColumnSetValue(SetCriteria expression, Evaluator evaluator, TupleValue expr) {
+			super(expression, evaluator);
+			this.index = expr.index;
+			this.negated = expression.isNegated();
+			this.constants = expression.getValues();
+			this.hasNull = this.constants.contains(Constant.NULL_CONSTANT);
+			this.type = expression.getExpression().getType();
+			if (RAW_EQUALITY.contains(this.type)) {
+				this.values = new HashSet<Object>();
+				for (Object constant : this.constants) {
+					Constant c = (Constant)constant;
+					if (c.getType() == this.type) {
+						this.values.add(c.getValue());
+					}
+				}
+			}
+		}
+		
+		@Override
+		public int filter(List<? extends List<?>> tuples, int[] selection, int count) {
+			if (negated && hasNull) {
+				//not in with a null is never true
+				return 0;
+			}
+			int matched = 0;
+			for (int i = 0; i < count; i++) {
+				int row = selection[i];
+				Object value = tuples.get(row).get(index);
+				if (value == null) {
+					continue;
+				}
+				boolean exists = values != null?values.contains(value):constants.contains(new Constant(value, type));
+				if (exists ^ negated) {
+					selection[matched++] = row;
+				}
+			}
+			return matched;
+		}
+	}
+	
+	/**
+	 * A match against a constant pattern, which is compiled 
+	 * once for the plan rather than looked up for each row.
+	 */
+	private static class MatchValue extends CompiledExpression {
+		private CompiledExpression expr;
+		private boolean negated;
+		private PatternMatcher matcher;
+		
+		MatchValue(MatchCriteria expression, CompiledExpression expr) {
+			super(expression);
+			this.expr = expr;
+			this.negated = expression.isNegated();
+		}
+		
+		private PatternMatcher getMatcher() throws ExpressionEvaluationException {
+			if (matcher == null) {
+				MatchCriteria criteria = (MatchCriteria)getExpression();
+				matcher = PatternMatcher.compile((String)((Constant)criteria.getRightExpression()).getValue(), criteria.getEscapeChar(), criteria.getMode());
+			}
+			return matcher;
+		}
+		
+		private Object getValue(List<?> tuple) throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+			try {
+				return expr.evaluate(tuple);
+			} catch(ExpressionEvaluationException e) {
+	             throw new ExpressionEvaluationException(QueryPlugin.Event.TEIID30312, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30312, "left", getExpression())); //$NON-NLS-1$
+			}
+		}
+		
+		@Override
+		Object eval(List<?> tuple) throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+			Object value = getValue(tuple);
+			if (value == null) {
+				return null;
+			}
+			return Boolean.valueOf(getMatcher().matches(getCharSequence(value)) ^ negated);
+		}
+		
+		@Override
+		public int filter(List<? extends List<?>> tuples, int[] selection, int count)
+				throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+			PatternMatcher patternMatcher = getMatcher();
+			int matched = 0;
+			for (int i = 0; i < count; i++) {
+				int row = selection[i];
+				Object value = getValue(tuples.get(row));
+				if (value == null) {
+					continue;
+				}
+				if (patternMatcher.matches(getCharSequence(value)) ^ negated) {
+					selection[matched++] = row;
+				}
+			}
+			return matched;
+		}
+
+		private static CharSequence getCharSequence(Object value) throws ExpressionEvaluationException {
+			if (value instanceof CharSequence) {
+				return (CharSequence)value;
+			}
+			try {
+				return ((Sequencable)value).getCharSequence();
+			} catch (SQLException err) {
+				throw new ExpressionEvaluationException(QueryPlugin.Event.TEIID30316, err, err.getMessage());
+			}
+		}
+	}
+	
+	/**
+	 * Types whose equals/hashCode agree with {@link Constant#COMPARATOR}
+	 */
+	private static final Set<Class<?>> RAW_EQUALITY = new HashSet<Class<?>>(Arrays.asList(
+			DataTypeManager.DefaultDataClasses.INTEGER, DataTypeManager.DefaultDataClasses.LONG, 
+			DataTypeManager.DefaultDataClasses.SHORT, DataTypeManager.DefaultDataClasses.BYTE, 
+			DataTypeManager.DefaultDataClasses.DOUBLE, DataTypeManager.DefaultDataClasses.FLOAT, 
+			DataTypeManager.DefaultDataClasses.BIG_INTEGER, DataTypeManager.DefaultDataClasses.BOOLEAN));
+	
+	private Expression expression;
+	
+	CompiledExpression(Expression expression) {
+		this.expression = expression;
+	}
+	
+	public Expression getExpression() {
+		return expression;
+	}
+	
+	abstract Object eval(List<?> tuple) throws ExpressionEvaluationException, BlockedException, TeiidComponentException;
+	
+	/**
+	 * Evaluate as with {@link Evaluator#evaluate(Expression, List)}
+	 */
+	public Object evaluate(List<?> tuple) throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+	    try {
+			return eval(tuple);
+	    } catch (ExpressionEvaluationException e) {
+	         throw new ExpressionEvaluationException(QueryPlugin.Event.TEIID30328, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30328, new Object[] {expression, e.getMessage()}));
+	    }
+	}
+	
+	/**
+	 * Evaluate compiled criteria as with {@link Evaluator#evaluateTVL(Criteria, List)}
+	 */
+	public Boolean evaluateTVL(List<?> tuple) throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+		return (Boolean)eval(tuple);
+	}
+	
+	/**
+	 * Evaluate compiled criteria as with {@link Evaluator#evaluate(Criteria, List)}
+	 */
+	public boolean matches(List<?> tuple) throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+		return Boolean.TRUE.equals(eval(tuple));
+	}
+	
+	/**
+	 * Filter a batch of tuples by compiled criteria, retaining the rows that {@link #matches(List)}.
+	 * <br>
+	 * Conjuncts and disjuncts are applied to the whole selection one at a time, and simple 
+	 * column comparison, IN, IS NULL and LIKE predicates are evaluated in a single loop
+	 * rather than row by row.
+	 * @param tuples the batch
+	 * @param selection the indexes of the candidate tuples, which will be overwritten in order 
+	 * with the indexes of the matching tuples
+	 * @param count the number of candidate indexes
+	 * @return the number of matching indexes
+	 */
+	public int filter(List<? extends List<?>> tuples, int[] selection, int count) throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+		int matched = 0;
+		for (int i = 0; i < count; i++) {
+			int row = selection[i];
+			if (matches(tuples.get(row))) {
+				selection[matched++] = row;
+			}
+		}
+		return matched;
+	}
+	
+	@Override
+	public String toString() {
+		return String.valueOf(expression);
+	}
+	
+	static CompiledExpression compileCriteria(Criteria criteria, Evaluator evaluator, Map<?, ?> elements) {
+		if (COMPILE) {
+			if (criteria instanceof CompoundCriteria) {
+				List<Criteria> crits = ((CompoundCriteria)criteria).getCriteria();
+				CompiledExpression[] compiled = new CompiledExpression[crits.size()];
+				for (int i = 0; i < compiled.length; i++) {
+					compiled[i] = compileCriteria(crits.get(i), evaluator, elements);
+				}
+				return new CompoundValue((CompoundCriteria)criteria, compiled);
+			} 
+			if (criteria instanceof NotCriteria) {
+				return new NotValue((NotCriteria)criteria, compileCriteria(((NotCriteria)criteria).getCriteria(), evaluator, elements));
+			}
+			if (criteria instanceof CompareCriteria) {
+				CompareCriteria cc = (CompareCriteria)criteria;
+				CompiledExpression left = compile(cc.getLeftExpression(), evaluator, elements);
+				CompiledExpression right = compile(cc.getRightExpression(), evaluator, elements);
+				if (left instanceof TupleValue && right instanceof ConstantValue) {
+					Object value = ((ConstantValue)right).value;
+					if (value != null && !(value instanceof ArrayImpl) && value.getClass() == cc.getLeftExpression().getType()) {
+						return new ColumnCompareValue(cc, (TupleValue)left, (ConstantValue)right);
+					}
+				}
+				return new CompareValue(cc, left, right);
+			}
+			if (criteria instanceof IsNullCriteria) {
+				return new IsNullValue((IsNullCriteria)criteria, compile(((IsNullCriteria)criteria).getExpression(), evaluator, elements));
+			}
+			if (criteria instanceof SetCriteria) {
+				SetCriteria set = (SetCriteria)criteria;
+				if (set.isAllConstants() && !set.getValues().isEmpty()) {
+					CompiledExpression expr = compile(set.getExpression(), evaluator, elements);
+					if (expr instanceof TupleValue) {
+						return new ColumnSetValue(set, evaluator, (TupleValue)expr);
+					}
+				}
+			}
+			if (criteria instanceof MatchCriteria) {
+				MatchCriteria match = (MatchCriteria)criteria;
+				if (match.getRightExpression() instanceof Constant && ((Constant)match.getRightExpression()).getValue() instanceof String) {
+					return new MatchValue(match, compile(match.getLeftExpression(), evaluator, elements));
+				}
+			}
+			if (criteria instanceof ExpressionCriteria) {
+				final CompiledExpression expr = compile(((ExpressionCriteria)criteria).getExpression(), evaluator, elements);
+				return new CompiledExpression(criteria) {
+					@Override
+					Object eval(List<?> tuple) throws ExpressionEvaluationException,
+							BlockedException, TeiidComponentException {
+						return expr.evaluate(tuple);
+					}
+				};
+			}
+		}
+		return new InterpretedCriteria(criteria, evaluator);
+	}
+	
+	static CompiledExpression compile(Expression expression, Evaluator evaluator, Map<?, ?> elements) {
+		if (!COMPILE) {
+			return new InterpretedValue(expression, evaluator);
+		}
+		if (expression instanceof DerivedExpression) {
+			if (elements != null) {
+				Integer index = (Integer) elements.get(expression);
+				if (index != null) {
+					return new TupleValue(expression, index);
+				}
+			}
+			if (expression instanceof ExpressionSymbol) {
+				return compile(((ExpressionSymbol)expression).getExpression(), evaluator, elements);
+			}
+			return new InterpretedValue(expression, evaluator);
+		}
+		if (expression instanceof Constant) {
+			return new ConstantValue((Constant)expression);
+		}
+		if (expression instanceof Function) {
+			Function function = (Function)expression;
+			FunctionDescriptor fd = function.getFunctionDescriptor();
+			if (fd == null || fd.getPushdown() == PushDown.MUST_PUSHDOWN || fd.getProcedure() != null 
+					|| function.getName().equalsIgnoreCase(FunctionLibrary.LOOKUP)) {
+				return new InterpretedValue(expression, evaluator);
+			}
+			Expression[] args = function.getArgs();
+			CompiledExpression[] compiled = new CompiledExpression[args.length];
+			for (int i = 0; i < args.length; i++) {
+				compiled[i] = compile(args[i], evaluator, elements);
+			}
+			return new FunctionValue(function, evaluator, compiled);
+		}
+		if (expression instanceof CaseExpression) {
+			CaseExpression expr = (CaseExpression)expression;
+			CompiledExpression[] whens = new CompiledExpression[expr.getWhenCount()];
+			CompiledExpression[] thens = new CompiledExpression[expr.getWhenCount()];
+			for (int i = 0; i < whens.length; i++) {
+				whens[i] = compile(expr.getWhenExpression(i), evaluator, elements);
+				thens[i] = compile(expr.getThenExpression(i), evaluator, elements);
+			}
+			CompiledExpression elseExpr = expr.getElseExpression() != null?compile(expr.getElseExpression(), evaluator, elements):null;
+			return new CaseValue(expression, compile(expr.getExpression(), evaluator, elements), whens, thens, elseExpr);
+		}
+		if (expression instanceof SearchedCaseExpression) {
+			SearchedCaseExpression expr = (SearchedCaseExpression)expression;
+			CompiledExpression[] whens = new CompiledExpression[expr.getWhenCount()];
+			CompiledExpression[] thens = new CompiledExpression[expr.getWhenCount()];
+			for (int i = 0; i < whens.length; i++) {
+				whens[i] = compileCriteria(expr.getWhenCriteria(i), evaluator, elements);
+				thens[i] = compile(expr.getThenExpression(i), evaluator, elements);
+			}
+			CompiledExpression elseExpr = expr.getElseExpression() != null?compile(expr.getElseExpression(), evaluator, elements):null;
+			return new CaseValue(expression, null, whens, thens, elseExpr);
+		}
+		if (expression instanceof Criteria) {
+			return new CriteriaValue((Criteria)expression, compileCriteria((Criteria)expression, evaluator, elements));
+		}
+		return new InterpretedValue(expression, evaluator);
+	}
+
+}
@@ -37,7 +37,6 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.xml.transform.stream.StreamResult;
@@ -212,6 +211,20 @@ public class Evaluator {
 		this.context = context;
 		this.dataMgr = dataMgr;
 	}
+    
+    /**
+     * Compile the expression for repeated evaluation with this evaluator
+     */
+    public CompiledExpression compile(Expression expression) {
+    	return CompiledExpression.compile(expression, this, elements);
+    }
+    
+    /**
+     * Compile the criteria for repeated evaluation with this evaluator
+     */
+    public CompiledExpression compileCriteria(Criteria criteria) {
+    	return CompiledExpression.compileCriteria(criteria, this, elements);
+    }
 
 	public boolean evaluate(Criteria criteria, List<?> tuple)
         throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
@@ -372,6 +385,11 @@ public class Evaluator {
 	private boolean match(String pattern, char escape, CharSequence search, MatchMode mode)
 		throws ExpressionEvaluationException {
 
+        return PatternMatcher.getMatcher(pattern, escape, mode).matches(search);
+	}
+
+	static Pattern getPattern(String pattern, char escape, MatchMode mode)
+			throws ExpressionEvaluationException {
 		Pattern patternRegex = null;
 		switch (mode) {
 		case LIKE:
@@ -386,9 +404,7 @@ public class Evaluator {
 		default:
 			throw new AssertionError();
 		}
-		
-        Matcher matcher = patternRegex.matcher(search);
-        return matcher.find();
+		return patternRegex;
 	}
 
 	private Boolean evaluate(AbstractSetCriteria criteria, List<?> tuple)
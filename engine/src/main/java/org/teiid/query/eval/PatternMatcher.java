@@ -0,0 +1,338 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.query.eval;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.teiid.api.exception.query.ExpressionEvaluationException;
+import org.teiid.core.util.PropertiesUtils;
+import org.teiid.language.Like.MatchMode;
+import org.teiid.query.sql.lang.MatchCriteria;
+
+/**
+ * Matches a LIKE or SIMILAR TO pattern against a string.
+ * <br>
+ * Patterns consisting only of literals and % wildcards are matched with direct prefix, suffix 
+ * and index scans, and patterns of literals and _ are matched by length and position.  
+ * Everything else, along with the inputs where the direct matching could differ from the regular 
+ * expression, uses the translated {@link Pattern}.
+ */
+abstract class PatternMatcher {
+	
+	private static final int MAX_CACHE_SIZE = PropertiesUtils.getIntProperty(System.getProperties(), "org.teiid.maxPatternCacheSize", 4096); //$NON-NLS-1$
+	private static final ConcurrentHashMap<List<?>, PatternMatcher> CACHE = new ConcurrentHashMap<List<?>, PatternMatcher>();
+	
+	private static final char[] SIMILAR_SPECIAL = new char[] {'%', '(', ')', '*', '+', '?', '[', ']', '_', '{', '|', '}'}; //in sorted order
+	
+	private static class RegexMatcher extends PatternMatcher {
+		private Pattern pattern;
+		
+		RegexMatcher(Pattern pattern) {
+			this.pattern = pattern;
+		}
+		
+		@Override
+		boolean matches(CharSequence search) {
+			return pattern.matcher(search).find();
+		}
+	}
+	
+	/**
+	 * Literal parts separated by % wildcards
+	 */
+	private static class WildcardMatcher extends PatternMatcher {
+		private String[] parts;
+		private boolean anchorStart;
+		private boolean anchorEnd;
+		private int minLength;
+		
+		WildcardMatcher(String pattern, char escape, MatchMode mode, List<String> parts) {
+			super(pattern, escape, mode);
+			this.parts = parts.toArray(new String[parts.size()]);
+			this.anchorStart = this.parts[0].length() > 0;
+			this.anchorEnd = this.parts[this.parts.length - 1].length() > 0;
+			for (String part : this.parts) {
+				minLength += part.length();
+			}
+		}
+		
+		@Override
+		boolean matches(CharSequence search) throws ExpressionEvaluationException {
+			int length = search.length();
+			if (length < minLength) {
+				return false;
+			}
+			if (anchorEnd && endsWithLineTerminator(search)) {
+				return getRegex().matches(search);
+			}
+			int first = 0;
+			int last = parts.length;
+			int pos = 0;
+			int end = length;
+			if (anchorStart) {
+				if (!regionMatches(search, 0, parts[0])) {
+					return false;
+				}
+				pos = parts[0].length();
+				first++;
+			}
+			if (anchorEnd) {
+				String suffix = parts[--last];
+				end = length - suffix.length();
+				if (!regionMatches(search, end, suffix)) {
+					return false;
+				}
+			}
+			for (int i = first; i < last; i++) {
+				String part = parts[i];
+				if (part.length() == 0) {
+					continue;
+				}
+				int index = indexOf(search, part, pos, end);
+				if (index < 0) {
+					return false;
+				}
+				pos = index + part.length();
+			}
+			return true;
+		}
+	}
+	
+	/**
+	 * A literal with optional _ positions and no % wildcards
+	 */
+	private static class FixedLengthMatcher extends PatternMatcher {
+		private String literal;
+		private boolean[] any;
+		
+		FixedLengthMatcher(String pattern, char escape, MatchMode mode, String literal, boolean[] any) {
+			super(pattern, escape, mode);
+			this.literal = literal;
+			this.any = any;
+		}
+		
+		@Override
+		boolean matches(CharSequence search) throws ExpressionEvaluationException {
+			int length = search.length();
+			if (endsWithLineTerminator(search)) {
+				return getRegex().matches(search);
+			}
+			if (any == null) {
+				return length == literal.length() && regionMatches(search, 0, literal);
+			}
+			if (length > literal.length() * 2) {
+				//can't match even if every char is a surrogate pair
+				return false;
+			}
+			for (int i = 0; i < length; i++) {
+				if (Character.isHighSurrogate(search.charAt(i))) {
+					//a single match is a code point
+					return getRegex().matches(search);
+				}
+			}
+			if (length != literal.length()) {
+				return false;
+			}
+			for (int i = 0; i < length; i++) {
+				if (!any[i] && literal.charAt(i) != search.charAt(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+	
+	private String pattern;
+	private char escape;
+	private MatchMode mode;
+	private volatile RegexMatcher regex;
+	
+	PatternMatcher() {
+	}
+	
+	PatternMatcher(String pattern, char escape, MatchMode mode) {
+		this.pattern = pattern;
+		this.escape = escape;
+		this.mode = mode;
+	}
+	
+	abstract boolean matches(CharSequence search) throws ExpressionEvaluationException;
+	
+	RegexMatcher getRegex() throws ExpressionEvaluationException {
+		if (regex == null) {
+			regex = new RegexMatcher(Evaluator.getPattern(pattern, escape, mode));
+		}
+		return regex;
+	}
+	
+	/**
+	 * Get a matcher for the pattern from a bounded cache.  Constant patterns should 
+	 * instead be held by the plan via {@link #compile(String, char, MatchMode)}.
+	 */
+	static PatternMatcher getMatcher(String pattern, char escape, MatchMode mode) throws ExpressionEvaluationException {
+		List<?> key = Arrays.asList(pattern, escape, mode);
+		PatternMatcher result = CACHE.get(key);
+		if (result == null) {
+			result = compile(pattern, escape, mode);
+			if (CACHE.size() >= MAX_CACHE_SIZE) {
+				//cheaper than tracking usage, the hot patterns will quickly be re-added
+				CACHE.clear();
+			}
+			CACHE.put(key, result);
+		}
+		return result;
+	}
+	
+	static PatternMatcher compile(String pattern, char escape, MatchMode mode) throws ExpressionEvaluationException {
+		PatternMatcher result = null;
+		if (mode != MatchMode.REGEX) {
+			result = analyze(pattern, escape, mode);
+		}
+		if (result == null) {
+			//also validates the pattern
+			result = new RegexMatcher(Evaluator.getPattern(pattern, escape, mode));
+		}
+		return result;
+	}
+	
+	/**
+	 * @return the direct matcher or null if the pattern needs a regular expression 
+	 */
+	private static PatternMatcher analyze(String pattern, char escape, MatchMode mode) {
+		if (isSpecial(escape, mode)) {
+			return null;
+		}
+		List<String> parts = new ArrayList<String>();
+		StringBuilder part = new StringBuilder(pattern.length());
+		List<Integer> singleMatches = null;
+		boolean escaped = false;
+		for (int i = 0; i < pattern.length(); i++) {
+			char c = pattern.charAt(i);
+			if (escaped) {
+				if (mode != MatchMode.LIKE) {
+					//keep the exact escape handling of the similar translation
+					return null;
+				}
+				if (c != escape && !isSpecial(c, mode)) {
+					//invalid, let the translation report the error
+					return null;
+				}
+				part.append(c);
+				escaped = false;
+			} else if (c == escape && c != MatchCriteria.NULL_ESCAPE_CHAR) {
+				escaped = true;
+			} else if (c == MatchCriteria.WILDCARD_CHAR) {
+				parts.add(part.toString());
+				part.setLength(0);
+			} else if (c == MatchCriteria.MATCH_CHAR) {
+				if (singleMatches == null) {
+					singleMatches = new ArrayList<Integer>();
+				}
+				singleMatches.add(part.length());
+				part.append(c);
+			} else if (isSpecial(c, mode)) {
+				return null;
+			} else {
+				part.append(c);
+			}
+		}
+		if (escaped) {
+			return null;
+		}
+		parts.add(part.toString());
+		if (parts.size() > 1) {
+			if (singleMatches != null) {
+				return null;
+			}
+			return new WildcardMatcher(pattern, escape, mode, parts);
+		}
+		boolean[] any = null;
+		if (singleMatches != null) {
+			any = new boolean[part.length()];
+			for (Integer index : singleMatches) {
+				any[index] = true;
+			}
+		}
+		return new FixedLengthMatcher(pattern, escape, mode, part.toString(), any);
+	}
+	
+	private static boolean isSpecial(char c, MatchMode mode) {
+		if (mode == MatchMode.LIKE) {
+			return c == MatchCriteria.WILDCARD_CHAR || c == MatchCriteria.MATCH_CHAR;
+		}
+		return Arrays.binarySearch(SIMILAR_SPECIAL, c) >= 0;
+	}
+	
+	/**
+	 * The regular expression end anchor will also match before a final line terminator
+	 */
+	static boolean endsWithLineTerminator(CharSequence search) {
+		if (search.length() == 0) {
+			return false;
+		}
+		switch (search.charAt(search.length() - 1)) {
+		case '\n':
+		case '\r':
+		case '\u0085':
+		case '\u2028':
+		case '\u2029':
+			return true;
+		}
+		return false;
+	}
+	
+	static boolean regionMatches(CharSequence search, int offset, String literal) {
+		if (search instanceof String) {
+			return ((String)search).startsWith(literal, offset);
+		}
+		for (int i = 0; i < literal.length(); i++) {
+			if (search.charAt(offset + i) != literal.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Find the literal wholly contained in the range from start to end
+	 */
+	static int indexOf(CharSequence search, String literal, int start, int end) {
+		int last = end - literal.length();
+		if (search instanceof String) {
+			int index = ((String)search).indexOf(literal, start);
+			return index > last?-1:index;
+		}
+		char first = literal.charAt(0);
+		for (int i = start; i <= last; i++) {
+			if (search.charAt(i) == first && regionMatches(search, i, literal)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+}
@@ -0,0 +1,223 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.query.function;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import org.teiid.api.exception.query.FunctionExecutionException;
+
+/**
+ * Calls the most frequently used {@link FunctionMethods} directly rather than 
+ * through reflection, which avoids the argument array checks and boxing of 
+ * {@link Method#invoke(Object, Object...)}.
+ * <br>
+ * Invokers are only created for methods that do not require the {@link org.teiid.CommandContext}
+ * and are otherwise semantically identical to the reflective invocation.
+ */
+abstract class DirectFunctionInvoker {
+	
+	private static final int PLUS = 0;
+	private static final int MINUS = 1;
+	private static final int MULTIPLY = 2;
+	private static final int DIVIDE = 3;
+	private static final int MOD = 4;
+	
+	private static final String[] ARITHMETIC = {"plus", "minus", "multiply", "divide", "mod"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+	
+	/**
+	 * Invoke the function with the same (already unwrapped) values 
+	 * that would have been passed to the reflective method.
+	 */
+	abstract Object invoke(Object[] values) throws FunctionExecutionException;
+	
+	/**
+	 * Get a direct invoker for the given method
+	 * @return the invoker or null if the method must be invoked reflectively
+	 */
+	static DirectFunctionInvoker getInvoker(Method method) {
+		if (method == null || method.getDeclaringClass() != FunctionMethods.class) {
+			return null;
+		}
+		String name = method.getName();
+		Class<?>[] params = method.getParameterTypes();
+		for (int op = 0; op < ARITHMETIC.length; op++) {
+			if (!ARITHMETIC[op].equals(name) || params.length != 2 || params[0] != params[1]) {
+				continue;
+			}
+			if (params[0] == Integer.TYPE) {
+				return new IntegerArithmetic(op);
+			}
+			if (params[0] == Long.TYPE) {
+				return new LongArithmetic(op);
+			}
+			if (params[0] == Float.TYPE) {
+				return new FloatArithmetic(op);
+			}
+			if (params[0] == Double.TYPE) {
+				return new DoubleArithmetic(op);
+			}
+			return null;
+		}
+		if ("concat".equals(name) && Arrays.equals(params, new Class<?>[] {String.class, String.class})) { //$NON-NLS-1$
+			return new DirectFunctionInvoker() {
+				@Override
+				Object invoke(Object[] values) {
+					return FunctionMethods.concat((String)values[0], (String)values[1]);
+				}
+			};
+		}
+		if ("substring".equals(name)) { //$NON-NLS-1$
+			if (Arrays.equals(params, new Class<?>[] {String.class, Integer.class, Integer.class})) {
+				return new DirectFunctionInvoker() {
+					@Override
+					Object invoke(Object[] values) {
+						return FunctionMethods.substring((String)values[0], (Integer)values[1], (Integer)values[2]);
+					}
+				};
+			}
+			if (Arrays.equals(params, new Class<?>[] {String.class, Integer.class})) {
+				return new DirectFunctionInvoker() {
+					@Override
+					Object invoke(Object[] values) {
+						return FunctionMethods.substring((String)values[0], (Integer)values[1]);
+					}
+				};
+			}
+		}
+		if ("convert".equals(name) && Arrays.equals(params, new Class<?>[] {Object.class, String.class})) { //$NON-NLS-1$
+			return new DirectFunctionInvoker() {
+				@Override
+				Object invoke(Object[] values) throws FunctionExecutionException {
+					return FunctionMethods.convert(values[0], (String)values[1]);
+				}
+			};
+		}
+		return null;
+	}
+	
+	private static final class IntegerArithmetic extends DirectFunctionInvoker {
+		private final int op;
+		
+		IntegerArithmetic(int op) {
+			this.op = op;
+		}
+		
+		@Override
+		Object invoke(Object[] values) throws FunctionExecutionException {
+			int x = (Integer)values[0];
+			int y = (Integer)values[1];
+			switch (op) {
+			case PLUS:
+				return FunctionMethods.plus(x, y);
+			case MINUS:
+				return FunctionMethods.minus(x, y);
+			case MULTIPLY:
+				return FunctionMethods.multiply(x, y);
+			case DIVIDE:
+				return FunctionMethods.divide(x, y);
+			default:
+				return FunctionMethods.mod(x, y);
+			}
+		}
+	}
+
+	private static final class LongArithmetic extends DirectFunctionInvoker {
+		private final int op;
+		
+		LongArithmetic(int op) {
+			this.op = op;
+		}
+		
+		@Override
+		Object invoke(Object[] values) throws FunctionExecutionException {
+			long x = (Long)values[0];
+			long y = (Long)values[1];
+			switch (op) {
+			case PLUS:
+				return FunctionMethods.plus(x, y);
+			case MINUS:
+				return FunctionMethods.minus(x, y);
+			case MULTIPLY:
+				return FunctionMethods.multiply(x, y);
+			case DIVIDE:
+				return FunctionMethods.divide(x, y);
+			default:
+				return FunctionMethods.mod(x, y);
+			}
+		}
+	}
+	
+	private static final class FloatArithmetic extends DirectFunctionInvoker {
+		private final int op;
+		
+		FloatArithmetic(int op) {
+			this.op = op;
+		}
+		
+		@Override
+		Object invoke(Object[] values) {
+			float x = (Float)values[0];
+			float y = (Float)values[1];
+			switch (op) {
+			case PLUS:
+				return FunctionMethods.plus(x, y);
+			case MINUS:
+				return FunctionMethods.minus(x, y);
+			case MULTIPLY:
+				return FunctionMethods.multiply(x, y);
+			case DIVIDE:
+				return FunctionMethods.divide(x, y);
+			default:
+				return FunctionMethods.mod(x, y);
+			}
+		}
+	}
+
+	private static final class DoubleArithmetic extends DirectFunctionInvoker {
+		private final int op;
+		
+		DoubleArithmetic(int op) {
+			this.op = op;
+		}
+		
+		@Override
+		Object invoke(Object[] values) {
+			double x = (Double)values[0];
+			double y = (Double)values[1];
+			switch (op) {
+			case PLUS:
+				return FunctionMethods.plus(x, y);
+			case MINUS:
+				return FunctionMethods.minus(x, y);
+			case MULTIPLY:
+				return FunctionMethods.multiply(x, y);
+			case DIVIDE:
+				return FunctionMethods.divide(x, y);
+			default:
+				return FunctionMethods.mod(x, y);
+			}
+		}
+	}
+
+}
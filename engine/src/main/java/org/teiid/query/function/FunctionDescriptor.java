@@ -62,11 +62,14 @@ public class FunctionDescriptor implements Serializable, Cloneable {
     private String schema; //TODO: remove me - we need to create a proper schema for udf and system functions
     private boolean hasWrappedArgs;
     private boolean calledWithVarArgArrayParam; //TODO: could store this on the function and pass to invoke
+    private boolean cacheResults;
     
     // This is transient as it would be useless to invoke this method in 
     // a different VM.  This function descriptor can be used to look up 
     // the real VM descriptor for execution.
     private transient Method invocationMethod;
+    private transient Class<?>[] parameterTypes;
+    private transient DirectFunctionInvoker directInvoker;
     
     private ClassLoader classLoader;
 
@@ -84,6 +87,12 @@ public class FunctionDescriptor implements Serializable, Cloneable {
         this.requiresContext = requiresContext;
         this.method = method;
         this.classLoader = classloader;
+        if (invocationMethod != null) {
+        	this.parameterTypes = invocationMethod.getParameterTypes();
+        	if (!requiresContext && !method.isVarArgs()) {
+        		this.directInvoker = DirectFunctionInvoker.getInvoker(invocationMethod);
+        	}
+        }
 	}
 	
 	public Object newInstance() {
@@ -106,6 +115,7 @@ public class FunctionDescriptor implements Serializable, Cloneable {
 	
 	public void setSchema(String schema) {
 		this.schema = schema;
+		this.cacheResults = FunctionResultCache.isCacheable(this);
 	}
 	
 	public String getName() {
@@ -134,6 +144,14 @@ public class FunctionDescriptor implements Serializable, Cloneable {
     Method getInvocationMethod() {
         return this.invocationMethod;
     }
+    
+    DirectFunctionInvoker getDirectInvoker() {
+		return directInvoker;
+	}
+    
+    void setDirectInvoker(DirectFunctionInvoker directInvoker) {
+		this.directInvoker = directInvoker;
+	}
        
     public boolean requiresContext() {
         return this.requiresContext;
@@ -220,6 +238,24 @@ public class FunctionDescriptor implements Serializable, Cloneable {
         	 throw new FunctionExecutionException(QueryPlugin.Event.TEIID30382, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30382, getFullName()));
         }
         
+        if (cacheResults && context != null && functionTarget == null) {
+        	FunctionResultCache cache = context.getFunctionResultCache(getDeterministic());
+        	if (cache != null) {
+        		return cache.invoke(this, values, context);
+        	}
+        }
+        
+        return invoke(values, context, functionTarget);
+	}
+	
+	/**
+	 * Invoke the function without checking for null values or cached results
+	 */
+	Object invoke(Object[] values, CommandContext context, Object functionTarget) throws FunctionExecutionException, BlockedException {
+        if (directInvoker != null) {
+        	return invokeDirect(values, context);
+        }
+        
         // Invoke the method and return the result
         try {
         	if (hasWrappedArgs) {
@@ -245,7 +281,7 @@ public class FunctionDescriptor implements Serializable, Cloneable {
 	        				}
 	        				values[values.length - 1] = vals;
 	        			}
-	    				Class<?> arrayType = invocationMethod.getParameterTypes()[types.length - 1];
+	    				Class<?> arrayType = parameterTypes[types.length - 1];
 						if (arrayType.getComponentType() != Object.class
 	    						&& vals.getClass() != arrayType) {
 	    					Object varArgs = Array.newInstance(arrayType.getComponentType(), vals.length);
@@ -256,12 +292,13 @@ public class FunctionDescriptor implements Serializable, Cloneable {
 	    				}
         			}
         		} else {
-	        		int i = invocationMethod.getParameterTypes().length;
+	        		int i = parameterTypes.length;
 	        		Object[] newValues = Arrays.copyOf(values, i);
 	        		Object varArgs = null;
-	        		if (invocationMethod.getParameterTypes()[i - 1].getComponentType() != Object.class) {
+	        		Class<?> componentType = parameterTypes[i - 1].getComponentType();
+	        		if (componentType != Object.class) {
 		        		int varArgCount = values.length - i + 1;
-		        		varArgs = Array.newInstance(invocationMethod.getParameterTypes()[i - 1].getComponentType(), varArgCount);
+		        		varArgs = Array.newInstance(componentType, varArgCount);
 		        		for (int j = 0; j < varArgCount; j++) {
 		        			Array.set(varArgs, j, values[i-1+j]);
 		        		}
@@ -273,18 +310,18 @@ public class FunctionDescriptor implements Serializable, Cloneable {
         		}
         	}
         	Object result = null;
-        	ClassLoader originalCL = Thread.currentThread().getContextClassLoader();
-        	try {
-        	    if (this.classLoader != null) {
-        	        Thread.currentThread().setContextClassLoader(this.classLoader);
-        	    }
-        	    result = invocationMethod.invoke(functionTarget, values);
-        	} finally {
-        	    Thread.currentThread().setContextClassLoader(originalCL);
+        	if (this.classLoader == null) {
+        		result = invocationMethod.invoke(functionTarget, values);
+        	} else {
+	        	ClassLoader originalCL = Thread.currentThread().getContextClassLoader();
+	        	try {
+	        	    Thread.currentThread().setContextClassLoader(this.classLoader);
+	        	    result = invocationMethod.invoke(functionTarget, values);
+	        	} finally {
+	        	    Thread.currentThread().setContextClassLoader(originalCL);
+	        	}
         	}
-            if (context != null && getDeterministic().ordinal() <= Determinism.USER_DETERMINISTIC.ordinal()) {
-            	context.setDeterminismLevel(getDeterministic());
-            }
+            setDeterminismLevel(context);
             return importValue(result, getReturnType());
         } catch(ArithmeticException e) {
     		 throw new FunctionExecutionException(QueryPlugin.Event.TEIID30384, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30384, getFullName()));
@@ -299,6 +336,35 @@ public class FunctionDescriptor implements Serializable, Cloneable {
         	 throw new FunctionExecutionException(e);
 		}
 	}
+	
+	/**
+	 * Invoke a system function without reflection.  Exceptions from the function itself are 
+	 * wrapped just as {@link InvocationTargetException}s are for the reflective call.
+	 */
+	private Object invokeDirect(Object[] values, CommandContext context) throws FunctionExecutionException {
+		Object result = null;
+		try {
+			result = directInvoker.invoke(values);
+		} catch (FunctionExecutionException e) {
+			throw new FunctionExecutionException(QueryPlugin.Event.TEIID30384, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30384, getFullName()));
+		} catch (RuntimeException e) {
+			throw new FunctionExecutionException(QueryPlugin.Event.TEIID30384, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30384, getFullName()));
+		}
+		setDeterminismLevel(context);
+		try {
+			return importValue(result, getReturnType());
+		} catch(ArithmeticException e) {
+			throw new FunctionExecutionException(QueryPlugin.Event.TEIID30384, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30384, getFullName()));
+		} catch (TransformationException e) {
+			throw new FunctionExecutionException(e);
+		}
+	}
+
+	void setDeterminismLevel(CommandContext context) {
+		if (context != null && getDeterministic().ordinal() <= Determinism.USER_DETERMINISTIC.ordinal()) {
+			context.setDeterminismLevel(getDeterministic());
+		}
+	}
 
 	public static Object importValue(Object result, Class<?> expectedType)
 			throws ArithmeticException, TransformationException {
@@ -0,0 +1,202 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.query.function;
+
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.SQLXML;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.teiid.adminapi.impl.VDBMetaData;
+import org.teiid.api.exception.query.FunctionExecutionException;
+import org.teiid.common.buffer.BlockedException;
+import org.teiid.core.CoreConstants;
+import org.teiid.core.types.BinaryType;
+import org.teiid.core.types.Streamable;
+import org.teiid.core.util.PropertiesUtils;
+import org.teiid.metadata.FunctionMethod;
+import org.teiid.metadata.FunctionMethod.Determinism;
+import org.teiid.query.util.CommandContext;
+import org.teiid.translator.SourceSystemFunctions;
+
+/**
+ * A bounded, concurrent memo of function results keyed by the function and its argument values.
+ * <br>
+ * Only user defined functions and the more expensive system functions are cached, and only when
+ * they are not {@link Determinism#NONDETERMINISTIC}.  Deterministic and vdb deterministic results 
+ * are shared by the vdb, the other levels are held only for the life of the command.
+ * <br>
+ * Rather than tracking usage the cache is cleared when full, which keeps access lock free.  
+ * Lob values, and strings or binary values longer than {@link #MAX_VALUE_LENGTH}, are not 
+ * cached as either an argument or a result, so the memory is bounded by the number of entries 
+ * times the number of arguments and the max value length.  Hits and misses are counted by the 
+ * {@link CommandContext} of each command.
+ */
+public class FunctionResultCache {
+	
+	public static final int MAX_SIZE = PropertiesUtils.getIntProperty(System.getProperties(), "org.teiid.functionResultCacheSize", 0); //$NON-NLS-1$
+	public static final int MAX_VALUE_LENGTH = PropertiesUtils.getIntProperty(System.getProperties(), "org.teiid.functionResultCacheMaxValueLength", 1024); //$NON-NLS-1$
+	
+	private static final Set<String> SYSTEM_FUNCTIONS = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+	static {
+		SYSTEM_FUNCTIONS.add(SourceSystemFunctions.REGEXP_REPLACE);
+		SYSTEM_FUNCTIONS.add(SourceSystemFunctions.XPATHVALUE);
+	}
+	
+	private static final Object NULL = new Object();
+	
+	private static final class CacheKey {
+		private FunctionMethod method;
+		private Class<?> returnType;
+		private Object[] values;
+		private int hashCode;
+		
+		CacheKey(FunctionMethod method, Class<?> returnType, Object[] values) {
+			this.method = method;
+			this.returnType = returnType;
+			this.values = values;
+			this.hashCode = method.hashCode() * 31 + Arrays.hashCode(values);
+		}
+		
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this) {
+				return true;
+			}
+			if (!(obj instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey other = (CacheKey)obj;
+			return hashCode == other.hashCode 
+					&& method == other.method 
+					&& returnType == other.returnType
+					&& Arrays.equals(values, other.values);
+		}
+	}
+	
+	private ConcurrentHashMap<CacheKey, Object> results = new ConcurrentHashMap<CacheKey, Object>();
+	private AtomicInteger size = new AtomicInteger();
+	private int maxSize;
+	
+	public FunctionResultCache(int maxSize) {
+		this.maxSize = maxSize;
+	}
+	
+	public static boolean isEnabled() {
+		return MAX_SIZE > 0;
+	}
+	
+	/**
+	 * @return true if results of the function may be cached
+	 */
+	static boolean isCacheable(FunctionDescriptor fd) {
+		if (fd.getInvocationMethod() == null || fd.getDeterministic() == Determinism.NONDETERMINISTIC) {
+			return false;
+		}
+		return !CoreConstants.SYSTEM_MODEL.equals(fd.getSchema()) || SYSTEM_FUNCTIONS.contains(fd.getName());
+	}
+	
+	/**
+	 * @return true if the argument or result value is small enough to be held by the cache
+	 */
+	static boolean isCacheable(Object value) {
+		if (value instanceof String) {
+			return ((String)value).length() <= MAX_VALUE_LENGTH;
+		}
+		if (value instanceof BinaryType) {
+			return ((BinaryType)value).getLength() <= MAX_VALUE_LENGTH;
+		}
+		if (value instanceof byte[]) {
+			return ((byte[])value).length <= MAX_VALUE_LENGTH;
+		}
+		return !(value instanceof Streamable<?> || value instanceof Clob || value instanceof Blob || value instanceof SQLXML);
+	}
+	
+	/**
+	 * Get the vdb scoped cache, which holds results that are the same for every user of the vdb.
+	 */
+	public static FunctionResultCache getVDBCache(VDBMetaData vdb) {
+		FunctionResultCache cache = vdb.getAttachment(FunctionResultCache.class);
+		if (cache == null) {
+			synchronized (vdb) {
+				cache = vdb.getAttachment(FunctionResultCache.class);
+				if (cache == null) {
+					cache = new FunctionResultCache(MAX_SIZE);
+					vdb.addAttchment(FunctionResultCache.class, cache);
+				}
+			}
+		}
+		return cache;
+	}
+	
+	/**
+	 * Return the cached result for the function and values, or invoke the function
+	 * and cache the result.
+	 */
+	Object invoke(FunctionDescriptor fd, Object[] values, CommandContext context) throws FunctionExecutionException, BlockedException {
+		int start = fd.requiresContext()?1:0;
+		Object[] key = new Object[values.length - start];
+		for (int i = start; i < values.length; i++) {
+			Object value = values[i];
+			if (!isCacheable(value)) {
+				return fd.invoke(values, context, null);
+			}
+			key[i - start] = value;
+		}
+		CacheKey cacheKey = new CacheKey(fd.getMethod(), fd.getReturnType(), key);
+		Object result = results.get(cacheKey);
+		if (result != null) {
+			context.functionResultCacheAccessed(true);
+			fd.setDeterminismLevel(context);
+			if (result == NULL) {
+				return null;
+			}
+			return result;
+		}
+		context.functionResultCacheAccessed(false);
+		result = fd.invoke(values, context, null);
+		if (!isCacheable(result)) {
+			return result;
+		}
+		if (size.incrementAndGet() > maxSize) {
+			results.clear();
+			size.set(1);
+		}
+		results.put(cacheKey, result == null?NULL:result);
+		return result;
+	}
+	
+	int getSize() {
+		return results.size();
+	}
+
+}
@@ -32,9 +32,10 @@ import java.sql.SQLException;
 import java.sql.SQLXML;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.NoSuchElementException;
 
@@ -200,29 +201,49 @@ public class XMLSystemFunctions {
 
 	private static final class JsonToXmlContentHandler implements
 			ContentHandler, XMLEventReader {
+		private static final int MAX_ELEMENT_CACHE_SIZE = 256;
+		
+		private String rootName;
 		private Reader reader;
 		private JSONParser parser;
 		private XMLEventFactory eventFactory;
 
-		private LinkedList<String> nameStack = new LinkedList<String>();
-		private LinkedList<XMLEvent> eventStack = new LinkedList<XMLEvent>();
-		private LinkedList<Boolean> parentArray = new LinkedList<Boolean>();
+		private ArrayDeque<XMLEvent[]> nameStack = new ArrayDeque<XMLEvent[]>();
+		private ArrayDeque<XMLEvent> eventStack = new ArrayDeque<XMLEvent>();
+		private ArrayDeque<Boolean> parentArray = new ArrayDeque<Boolean>();
+		private HashMap<String, XMLEvent[]> elementEvents = new HashMap<String, XMLEvent[]>();
 		
 		private boolean end;
 		private boolean declaredNs;
 
 		private JsonToXmlContentHandler(String rootName,
 				Reader reader, JSONParser parser, XMLEventFactory eventFactory) {
-			this.nameStack.push(escapeName(rootName, true));
+			this.rootName = rootName;
 			this.reader = reader;
 			this.eventFactory = eventFactory;
 			this.parser = parser;
 		}
+		
+		/**
+		 * Get the start and end element events for the given key.  The events are immutable 
+		 * and are reused since large documents typically repeat the same keys for each array entry.
+		 */
+		private XMLEvent[] getElementEvents(String key) {
+			XMLEvent[] events = elementEvents.get(key);
+			if (events == null) {
+				String name = escapeName(key, true);
+				events = new XMLEvent[] {eventFactory.createStartElement("", "", name), eventFactory.createEndElement("", "", name)}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+				if (elementEvents.size() < MAX_ELEMENT_CACHE_SIZE) {
+					elementEvents.put(key, events);
+				}
+			}
+			return events;
+		}
 
 		@Override
 		public boolean startObjectEntry(String key)
 				throws org.teiid.json.simple.ParseException, IOException {
-			this.nameStack.push(escapeName(key, true));
+			this.nameStack.push(getElementEvents(key));
 			return false;
 		}
 
@@ -235,7 +256,7 @@ public class XMLSystemFunctions {
 		}
 
 		private void start() {
-			eventStack.add(eventFactory.createStartElement("", "", nameStack.peek())); //$NON-NLS-1$ //$NON-NLS-2$ 
+			eventStack.add(nameStack.peek()[0]);
 			if (!declaredNs) {
 				eventStack.add(eventFactory.createNamespace("xsi", XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI)); //$NON-NLS-1$
 				declaredNs = true;
@@ -245,6 +266,8 @@ public class XMLSystemFunctions {
 		@Override
 		public void startJSON() throws org.teiid.json.simple.ParseException,
 				IOException {
+			//the root events are created here, after any location has been set on the factory
+			this.nameStack.push(getElementEvents(rootName));
 			//specify the defaults, since different providers emit/omit differently
 			eventStack.add(eventFactory.createStartDocument("UTF-8", "1.0")); //$NON-NLS-1$ //$NON-NLS-2$
 		}
@@ -283,7 +306,7 @@ public class XMLSystemFunctions {
 		}
 
 		private void end() {
-			eventStack.add(eventFactory.createEndElement("", "", nameStack.peek())); //$NON-NLS-1$ //$NON-NLS-2$ 
+			eventStack.add(nameStack.peek()[1]);
 		}
 
 		@Override
@@ -47,6 +47,7 @@ import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.core.types.DataTypeManager;
 import org.teiid.language.SortSpecification.NullOrdering;
+import org.teiid.query.eval.CompiledExpression;
 import org.teiid.query.eval.Evaluator;
 import org.teiid.query.function.aggregate.*;
 import org.teiid.query.processor.BatchCollector;
@@ -70,20 +71,22 @@ public class GroupingNode extends SubqueryAwareRelationalNode {
     static class ProjectingTupleSource extends
 			BatchCollector.BatchProducerTupleSource {
     	
-    	private Evaluator eval;
     	private List<Expression> collectedExpressions;
     	private int[] projectionIndexes;
+    	private CompiledExpression[] compiledExpressions;
     	
 		ProjectingTupleSource(BatchProducer sourceNode, Evaluator eval, List<Expression> expressions, Map<Expression, Integer> elementMap) {
 			super(sourceNode);
-			this.eval = eval;
 			this.collectedExpressions = expressions;
 			this.projectionIndexes = new int[this.collectedExpressions.size()];
+			this.compiledExpressions = new CompiledExpression[this.collectedExpressions.size()];
 	    	Arrays.fill(this.projectionIndexes, -1);
 			for (int i = 0; i < expressions.size(); i++) {
 				Integer index = elementMap.get(expressions.get(i));
 	            if(index != null) {
 	            	projectionIndexes[i] = index;
+	            } else {
+	            	compiledExpressions[i] = eval.compile(expressions.get(i));
 	            }
 			}
 		}
@@ -100,7 +103,7 @@ public class GroupingNode extends SubqueryAwareRelationalNode {
 		    	} else {
 			        // The following call may throw BlockedException, but all state to this point
 			        // is saved in class variables so we can start over on building this tuple
-			        value = eval.evaluate(collectedExpressions.get(col), tuple);
+			        value = compiledExpressions[col].evaluate(tuple);
 		    	}
 		        exprTuple.add(value);
 		    }
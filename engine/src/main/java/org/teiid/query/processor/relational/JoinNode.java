@@ -37,6 +37,8 @@ import org.teiid.common.buffer.TupleBatch;
 import org.teiid.common.buffer.TupleBuffer;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
+import org.teiid.query.eval.CompiledExpression;
+import org.teiid.query.eval.Evaluator;
 import org.teiid.query.processor.ProcessorDataManager;
 import org.teiid.query.processor.relational.SourceState.ImplicitBuffer;
 import org.teiid.query.sql.LanguageObject;
@@ -73,6 +75,7 @@ public class JoinNode extends SubqueryAwareRelationalNode {
     private boolean leftDistinct;
     private boolean rightDistinct;
     private Criteria joinCriteria;
+    private CompiledExpression compiledCriteria;
     
     private Map combinedElementMap;
     private int[] projectionIndexes;
@@ -350,7 +353,14 @@ public class JoinNode extends SubqueryAwareRelationalNode {
     }
     
     boolean matchesCriteria(List outputTuple) throws BlockedException, TeiidComponentException, ExpressionEvaluationException {
-		return (this.joinCriteria == null || getEvaluator(this.combinedElementMap).evaluate(this.joinCriteria, outputTuple));
+    	if (this.joinCriteria == null) {
+    		return true;
+    	}
+    	Evaluator eval = getEvaluator(this.combinedElementMap);
+    	if (compiledCriteria == null || compiledCriteria.getExpression() != this.joinCriteria) {
+    		compiledCriteria = eval.compileCriteria(this.joinCriteria);
+    	}
+		return compiledCriteria.matches(outputTuple);
     }
 
     public List getLeftExpressions() {
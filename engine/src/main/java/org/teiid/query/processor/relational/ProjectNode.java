@@ -39,6 +39,8 @@ import org.teiid.common.buffer.TupleBuffer;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.query.analysis.AnalysisRecord;
+import org.teiid.query.eval.CompiledExpression;
+import org.teiid.query.eval.Evaluator;
 import org.teiid.query.sql.LanguageObject;
 import org.teiid.query.sql.symbol.AliasSymbol;
 import org.teiid.query.sql.symbol.Expression;
@@ -57,6 +59,8 @@ public class ProjectNode extends SubqueryAwareRelationalNode {
     private List<Expression> expressions;
     private int[] projectionIndexes;
 
+    private CompiledExpression[] compiledExpressions;
+    
     // Saved state when blocked on evaluating a row - must be reset
     private TupleBatch currentBatch;
     private int currentRow = 1;
@@ -87,6 +91,7 @@ public class ProjectNode extends SubqueryAwareRelationalNode {
 	public void setSelectSymbols(List<? extends Expression> symbols) {
 		this.selectSymbols = symbols;
 		elementMap = Collections.emptyMap();
+		this.compiledExpressions = null;
 		this.projectionIndexes = new int[this.selectSymbols.size()];
     	Arrays.fill(this.projectionIndexes, -1);
     	
@@ -106,6 +111,7 @@ public class ProjectNode extends SubqueryAwareRelationalNode {
 		List<? extends Expression> childElements = getChildren()[0].getElements();
         // Create element lookup map for evaluating project expressions
         this.elementMap = createLookupMap(childElements);
+        this.compiledExpressions = null;
 
         // Check whether project needed at all - this occurs if:
         // 1. outputMap == null (see previous block)
@@ -158,6 +164,16 @@ public class ProjectNode extends SubqueryAwareRelationalNode {
             }
         }
 
+        Evaluator eval = getEvaluator(this.elementMap);
+        if (compiledExpressions == null) {
+        	compiledExpressions = new CompiledExpression[expressions.size()];
+        	for (int i = 0; i < expressions.size(); i++) {
+        		if (this.projectionIndexes[i] == -1) {
+        			compiledExpressions[i] = eval.compile(expressions.get(i));
+        		}
+        	}
+        }
+        
         while (currentRow <= currentBatch.getEndRow() && !isBatchFull()) {
     		List<?> tuple = currentBatch.getTuple(currentRow);
 
@@ -191,7 +207,7 @@ public class ProjectNode extends SubqueryAwareRelationalNode {
         if(index != -1) {
 			tuple.add(values.get(index));
         } else { 
-			tuple.add(getEvaluator(this.elementMap).evaluate(symbol, values));
+			tuple.add(this.compiledExpressions[projectionIndex].evaluate(values));
 		}
 	}
 
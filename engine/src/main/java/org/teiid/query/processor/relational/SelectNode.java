@@ -36,10 +36,13 @@ import org.teiid.common.buffer.TupleBatch;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.query.analysis.AnalysisRecord;
+import org.teiid.query.eval.CompiledExpression;
+import org.teiid.query.eval.Evaluator;
 import org.teiid.query.processor.ProcessorDataManager;
 import org.teiid.query.sql.LanguageObject;
 import org.teiid.query.sql.lang.Criteria;
 import org.teiid.query.sql.symbol.Expression;
+import org.teiid.query.sql.visitor.ValueIteratorProviderCollectorVisitor;
 import org.teiid.query.util.CommandContext;
 
 
@@ -51,10 +54,17 @@ public class SelectNode extends SubqueryAwareRelationalNode {
     // Derived element lookup map
     private Map<Expression, Integer> elementMap; 
     private int[] projectionIndexes;
+    private CompiledExpression compiledCriteria;
+    private boolean filterBatches;
 	
     // State if blocked on evaluating a criteria
     private TupleBatch currentBatch;
     private int currentRow = 1;
+    
+    // Matching row offsets of the current batch when filtering whole batches
+    private int[] selection;
+    private int selectionCount;
+    private int selectionIndex;
 
 	protected SelectNode() {
 		super();
@@ -69,6 +79,7 @@ public class SelectNode extends SubqueryAwareRelationalNode {
         
         currentBatch = null;
         currentRow = 1;
+        selection = null;
     }
 
 	public void setCriteria(Criteria criteria) { 
@@ -104,10 +115,21 @@ public class SelectNode extends SubqueryAwareRelationalNode {
         	currentBatch = this.getChildren()[0].nextBatch();
         }
 
+        Evaluator eval = getEvaluator(this.elementMap);
+        if (compiledCriteria == null || compiledCriteria.getExpression() != this.criteria) {
+        	compiledCriteria = eval.compileCriteria(this.criteria);
+        	//subqueries may block per row, so they are evaluated incrementally 
+        	filterBatches = ValueIteratorProviderCollectorVisitor.getValueIteratorProviders(this.criteria).isEmpty();
+        }
+        
+        if (filterBatches) {
+        	return nextFilteredBatch();
+        }
+        
         while (currentRow <= currentBatch.getEndRow() && !isBatchFull()) {
     		List<?> tuple = currentBatch.getTuple(currentRow);
 
-            if(getEvaluator(this.elementMap).evaluate(this.criteria, tuple)) {
+            if(compiledCriteria.matches(tuple)) {
                 addBatchRow(projectTuple(this.projectionIndexes, tuple));
             }
             currentRow++;
@@ -122,6 +144,39 @@ public class SelectNode extends SubqueryAwareRelationalNode {
         
     	return pullBatch();
 	}
+	
+	/**
+	 * Evaluate the criteria against the whole of the current batch at once, then 
+	 * output the selected rows.  If the evaluation blocks, it will be restarted
+	 * for the batch on the next call. 
+	 */
+	private TupleBatch nextFilteredBatch() throws BlockedException,
+			TeiidComponentException, TeiidProcessingException {
+		List<List<?>> tuples = currentBatch.getTuples();
+		if (selection == null) {
+			int[] rows = new int[tuples.size()];
+			for (int i = 0; i < rows.length; i++) {
+				rows[i] = i;
+			}
+			selectionCount = compiledCriteria.filter(tuples, rows, rows.length);
+			selectionIndex = 0;
+			selection = rows;
+		}
+		
+		while (selectionIndex < selectionCount && !isBatchFull()) {
+			addBatchRow(projectTuple(this.projectionIndexes, tuples.get(selection[selectionIndex++])));
+		}
+		
+		if (selectionIndex >= selectionCount) {
+	        if(currentBatch.getTerminationFlag()) {
+	            terminateBatches();
+	        }
+	        currentBatch = null;
+	        selection = null;
+		}
+		
+		return pullBatch();
+	}
     
 	protected void getNodeString(StringBuffer str) {
 		super.getNodeString(str);
@@ -22,7 +22,6 @@
 
 package org.teiid.query.processor.relational;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.sql.SQLException;
@@ -76,7 +75,12 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
     private Map<String, List<String>> parentLines;
 	
     //per file state
-	private BufferedReader reader;
+	private Reader reader;
+	private char[] buffer;
+	private int bufferIndex;
+	private int bufferLength;
+	private StringBuilder lineBuilder;
+	private StringBuilder valueBuilder;
 	private int textLine = 0;
 	private Map<String, Integer> nameIndexes;
 	private String systemId;
@@ -166,6 +170,8 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
 			}
 			this.reader = null;
 		}
+		this.bufferIndex = 0;
+		this.bufferLength = 0;
 		this.nameIndexes = null;
 		this.textLine = 0;
 		this.rowNumber = 0;
@@ -356,11 +362,20 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
 		}
 	}
 
+	/**
+	 * Read the next line into the shared line builder.  The result is only valid until the next call.
+	 */
 	private StringBuilder readLine(int maxLength, boolean exact) throws TeiidProcessingException {
 		if (eof) {
 			return null;
 		}
-		StringBuilder sb = new StringBuilder(exact ? maxLength : (maxLength >> 4));
+		StringBuilder sb = lineBuilder;
+		if (sb == null) {
+			sb = new StringBuilder(exact ? maxLength : 256);
+			lineBuilder = sb;
+		} else {
+			sb.setLength(0);
+		}
 		while (true) {
 			char c = readChar();
 			if (c == newLine) {
@@ -399,10 +414,10 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
 	
 	private char readChar() throws TeiidProcessingException {
 		try {
-			int c = reader.read();
+			int c = read();
 		    if (cr) {
 				if (c == newLine) {
-				    c = reader.read();
+				    c = read();
 				}
 				cr = false;
 		    }
@@ -429,6 +444,21 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
 		}
 	}
 
+	/**
+	 * Read from our own buffer, which avoids the per character locking of {@link java.io.BufferedReader#read()}
+	 */
+	private int read() throws IOException {
+		if (bufferIndex == bufferLength) {
+			bufferLength = reader.read(buffer, 0, buffer.length);
+			bufferIndex = 0;
+			if (bufferLength <= 0) {
+				bufferLength = 0;
+				return -1;
+			}
+		}
+		return buffer[bufferIndex++];
+	}
+
 	private void initReader() throws ExpressionEvaluationException,
 			BlockedException, TeiidComponentException, TeiidProcessingException {
 		
@@ -447,11 +477,9 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
 					this.systemId = "Unknown"; //$NON-NLS-1$
 				}
 			} 
-			Reader r = file.getCharacterStream();
-			if (!(r instanceof BufferedReader)) {
-				reader = new BufferedReader(r);
-			} else {
-				reader = (BufferedReader)r;
+			reader = file.getCharacterStream();
+			if (buffer == null) {
+				buffer = new char[1 << 13];
 			}
 		} catch (SQLException e) {
 			 throw new TeiidProcessingException(QueryPlugin.Event.TEIID30180, e);
@@ -511,8 +539,14 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
 	}
 
 	private List<String> parseDelimitedLine(StringBuilder line) throws TeiidProcessingException {
-		ArrayList<String> result = new ArrayList<String>();
-		StringBuilder builder = new StringBuilder();
+		ArrayList<String> result = new ArrayList<String>(table.getColumns().size());
+		StringBuilder builder = valueBuilder;
+		if (builder == null) {
+			builder = new StringBuilder();
+			valueBuilder = builder;
+		} else {
+			builder.setLength(0);
+		}
 		boolean escaped = false;
 		boolean wasQualified = false;
 		boolean qualified = false;
@@ -530,7 +564,7 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
 				} 
 				if (!qualified) {
 					//close the last entry
-					addValue(result, wasQualified || noTrim, builder.toString());
+					addValue(result, wasQualified || noTrim, builder);
 					return result;
 				} 
 				line = readLine(lineWidth, false);
@@ -545,9 +579,9 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
 						builder.append(chr);
 						escaped = false;
 					} else {
-						addValue(result, wasQualified || noTrim, builder.toString());
+						addValue(result, wasQualified || noTrim, builder);
 						wasQualified = false;
-						builder = new StringBuilder();  //next entry
+						builder.setLength(0);  //next entry
 					} 
 				} else if (chr == quote) {
 					if (noQuote) { 	//it's the escape char
@@ -563,11 +597,11 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
 								qualified = true;
 								builder.append(chr);
 							} else {
-								if (builder.toString().trim().length() != 0) {
+								if (!isBlank(builder)) {
 									 throw new TeiidProcessingException(QueryPlugin.Event.TEIID30183, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30183, textLine, systemId));
 								}
 								qualified = true;
-								builder = new StringBuilder(); //start the entry over
+								builder.setLength(0); //start the entry over
 								wasQualified = true;
 							}
 						}
@@ -600,15 +634,48 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
 		}
 		result.add(val);
 	}
+	
+	/**
+	 * Add the value from the builder, trimming directly rather than through an intermediate string
+	 */
+	private void addValue(ArrayList<String> result, boolean wasQualified, StringBuilder val) {
+		if (wasQualified) {
+			result.add(val.toString());
+			return;
+		}
+		//same whitespace definition as String.trim
+		int start = 0;
+		int end = val.length();
+		while (start < end && val.charAt(start) <= ' ') {
+			start++;
+		}
+		while (end > start && val.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		if (start == end) {
+			result.add(null);
+		} else {
+			result.add(val.substring(start, end));
+		}
+	}
+	
+	private static boolean isBlank(StringBuilder val) {
+		for (int i = 0; i < val.length(); i++) {
+			if (val.charAt(i) > ' ') {
+				return false;
+			}
+		}
+		return true;
+	}
 
 	private List<String> parseFixedWidth(StringBuilder line) {
-		ArrayList<String> result = new ArrayList<String>();
+		ArrayList<String> result = new ArrayList<String>(table.getColumns().size());
 		int beginIndex = 0;
 		for (TextColumn col : table.getColumns()) {
 			if (beginIndex >= line.length()) {
 				result.add(null);
 			} else {
-				String val = new String(line.substring(beginIndex, Math.min(line.length(), beginIndex + col.getWidth())));
+				String val = line.substring(beginIndex, Math.min(line.length(), beginIndex + col.getWidth()));
 				addValue(result, col.isNoTrim(), val);
 				beginIndex += col.getWidth();
 			}		
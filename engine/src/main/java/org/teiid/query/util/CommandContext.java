@@ -73,6 +73,7 @@ import org.teiid.logging.MessageLevel;
 import org.teiid.metadata.FunctionMethod.Determinism;
 import org.teiid.net.ServerConnection;
 import org.teiid.query.QueryPlugin;
+import org.teiid.query.function.FunctionResultCache;
 import org.teiid.query.metadata.QueryMetadataInterface;
 import org.teiid.query.metadata.TempMetadataAdapter;
 import org.teiid.query.parser.ParseInfo;
@@ -179,6 +180,9 @@ public class CommandContext implements Cloneable, org.teiid.CommandContext {
 	    private LRUCache<String, DecimalFormat> decimalFormatCache;
 		private LRUCache<String, SimpleDateFormat> dateFormatCache;
 		private LRUCache<Entry<String,Integer>, Pattern> patternCache;
+		private volatile FunctionResultCache functionResultCache;
+		private int functionResultCacheHits;
+		private int functionResultCacheMisses;
 		private AtomicLong reuseCount = null;
 		
 	    private List<Exception> warnings = null;
@@ -264,6 +268,55 @@ public class CommandContext implements Cloneable, org.teiid.CommandContext {
     	}
     }
     
+    /**
+     * Get the cache that may hold function results of the given determinism.  
+     * Vdb and fully deterministic results are shared through the vdb, while 
+     * the other levels are only held for the life of this command.
+     * @return the cache or null if the results should not be cached
+     */
+    public FunctionResultCache getFunctionResultCache(Determinism level) {
+    	if (!FunctionResultCache.isEnabled() || level == Determinism.NONDETERMINISTIC) {
+    		return null;
+    	}
+    	if (level.compareTo(Determinism.VDB_DETERMINISTIC) >= 0) {
+    		VDBMetaData vdb = getVdb();
+    		if (vdb != null) {
+    			return FunctionResultCache.getVDBCache(vdb);
+    		}
+    	}
+    	FunctionResultCache cache = this.globalState.functionResultCache;
+    	if (cache == null) {
+	    	synchronized (this.globalState) {
+	    		cache = this.globalState.functionResultCache;
+	    		if (cache == null) {
+	    			cache = new FunctionResultCache(FunctionResultCache.MAX_SIZE);
+	    			this.globalState.functionResultCache = cache;
+	    		}
+			}
+    	}
+    	return cache;
+    }
+    
+    /**
+     * Record a hit or miss against a {@link FunctionResultCache} by this command.
+     * Counting by command rather than by cache avoids contention on the shared vdb cache.
+     */
+    public void functionResultCacheAccessed(boolean hit) {
+    	if (hit) {
+    		this.globalState.functionResultCacheHits++;
+    	} else {
+    		this.globalState.functionResultCacheMisses++;
+    	}
+    }
+    
+    public int getFunctionResultCacheHits() {
+    	return this.globalState.functionResultCacheHits;
+    }
+    
+    public int getFunctionResultCacheMisses() {
+    	return this.globalState.functionResultCacheMisses;
+    }
+    
     /**
      * @return
      */
@@ -792,6 +845,10 @@ public class CommandContext implements Cloneable, org.teiid.CommandContext {
 				}
 				this.globalState.created.clear();
 			}
+			if (this.globalState.functionResultCacheHits > 0 || this.globalState.functionResultCacheMisses > 0) {
+				LogManager.logDetail(LogConstants.CTX_DQP, this.globalState.requestId, "Function result cache hits", this.globalState.functionResultCacheHits, "misses", this.globalState.functionResultCacheMisses); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			this.globalState.functionResultCache = null;
 		}
 	}
 
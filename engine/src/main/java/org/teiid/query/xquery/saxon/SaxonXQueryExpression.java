@@ -44,6 +44,7 @@ import net.sf.saxon.Configuration;
 import net.sf.saxon.expr.ContextItemExpression;
 import net.sf.saxon.expr.Expression;
 import net.sf.saxon.expr.RootExpression;
+import net.sf.saxon.expr.StaticProperty;
 import net.sf.saxon.expr.parser.PathMap;
 import net.sf.saxon.expr.parser.PathMap.PathMapArc;
 import net.sf.saxon.expr.parser.PathMap.PathMapNode;
@@ -60,10 +61,12 @@ import net.sf.saxon.query.QueryResult;
 import net.sf.saxon.query.StaticQueryContext;
 import net.sf.saxon.query.XQueryExpression;
 import net.sf.saxon.sxpath.IndependentContext;
+import net.sf.saxon.sxpath.XPathDynamicContext;
 import net.sf.saxon.sxpath.XPathEvaluator;
 import net.sf.saxon.sxpath.XPathExpression;
 import net.sf.saxon.trace.ExpressionPresenter;
 import net.sf.saxon.trans.XPathException;
+import net.sf.saxon.type.BuiltInAtomicType;
 import net.sf.saxon.type.ItemType;
 import net.sf.saxon.type.TypeHierarchy;
 import net.sf.saxon.value.EmptySequence;
@@ -183,6 +186,8 @@ public class SaxonXQueryExpression {
 	Configuration config = new Configuration();
 	PathMapRoot contextRoot;
 	String streamingPath;
+	XPathExpression streamingFilter;
+	IndependentContext staticContext;
 
     public SaxonXQueryExpression(String xQueryString, XMLNamespaces namespaces, List<DerivedColumn> passing, List<XMLTable.XMLColumn> columns) 
     throws QueryResolverException {
@@ -190,6 +195,7 @@ public class SaxonXQueryExpression {
         this.xQueryString = xQueryString;
         StaticQueryContext context = config.newStaticQueryContext();
         IndependentContext ic = new IndependentContext(config);
+        this.staticContext = ic;
         namespaceMap.put(EMPTY_STRING, EMPTY_STRING);
         if (namespaces != null) {
         	for (NamespaceItem item : namespaces.getNamespaceItems()) {
@@ -243,6 +249,8 @@ public class SaxonXQueryExpression {
     	clone.contextRoot = contextRoot;
     	clone.namespaceMap = namespaceMap;
     	clone.streamingPath = streamingPath;
+    	clone.streamingFilter = streamingFilter;
+    	clone.staticContext = staticContext;
     	return clone;
     }
     
@@ -251,9 +259,11 @@ public class SaxonXQueryExpression {
     }
     
 	public void useDocumentProjection(List<XMLTable.XMLColumn> columns, AnalysisRecord record) {
+		streamingFilter = null;
 		try {
-			streamingPath = StreamingUtils.getStreamingPath(xQueryString, namespaceMap);
+			streamingPath = StreamingUtils.getStreamingPath(getStreamingFilter(record), namespaceMap);
 		} catch (IllegalArgumentException e) {
+			streamingFilter = null;
 			if (record.recordAnnotations()) {
 				record.addAnnotation(XQUERY_PLANNING, "Invalid streaming path " + xQueryString + " "+ e.getMessage(), "Document streaming will not be used", Priority.MEDIUM); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 			}
@@ -367,7 +377,7 @@ public class SaxonXQueryExpression {
     			continue;
     		}
 	    	for (PathMapArc arc : subContextRoot.getArcs()) {
-	    		if (streamingPath != null && !validateColumnForStreaming(record, xmlColumn, arc)) {
+	    		if (streamingPath != null && !validateForStreaming(record, xmlColumn.getPath(), arc)) {
 	    			streamingPath = null;
 	    		}
 				finalNode.createArc(arc.getAxis(), arc.getNodeTest(), arc.getTarget());
@@ -396,8 +406,111 @@ public class SaxonXQueryExpression {
 		return newMap.reduceToDownwardsAxes(newRoot);
 	}
 
-	private boolean validateColumnForStreaming(AnalysisRecord record,
-			XMLColumn xmlColumn, PathMapArc arc) {
+	/**
+	 * Predicates on the final step of the xquery path are split off and evaluated against each 
+	 * streamed element if they are not positional and only reference the element, its subtree,
+	 * or ancestor attributes.
+	 * @return the xquery string minus the final predicates that may be used for streaming
+	 */
+	private String getStreamingFilter(AnalysisRecord record) {
+		List<String> predicates = new LinkedList<String>();
+		int predicateStart = getFinalPredicates(xQueryString, predicates);
+		if (predicateStart < 0) {
+			return xQueryString;
+		}
+		XPathEvaluator eval = new XPathEvaluator(config);
+		eval.setStaticContext(staticContext);
+		TypeHierarchy th = config.getTypeHierarchy();
+		try {
+			for (String predicate : predicates) {
+				Expression expr = eval.createExpression(predicate).getInternalExpression();
+				if ((expr.getDependencies() & (StaticProperty.DEPENDS_ON_POSITION | StaticProperty.DEPENDS_ON_LAST)) != 0 
+						|| th.relationship(expr.getItemType(th), BuiltInAtomicType.NUMERIC) != TypeHierarchy.DISJOINT) {
+					if (record.recordAnnotations()) {
+						record.addAnnotation(XQUERY_PLANNING, "The predicate may be positional " + predicate, "Document streaming will not be used", Priority.MEDIUM); //$NON-NLS-1$ //$NON-NLS-2$
+					}
+					return xQueryString;
+				}
+				PathMap map = new PathMap(expr);
+				for (PathMapRoot root : map.getPathMapRoots()) {
+					if (root.getRootExpression() instanceof RootExpression) {
+						if (record.recordAnnotations()) {
+							record.addAnnotation(XQUERY_PLANNING, "The predicate references the document root " + predicate, "Document streaming will not be used", Priority.MEDIUM); //$NON-NLS-1$ //$NON-NLS-2$
+						}
+						return xQueryString;
+					}
+					if (root.getRootExpression() instanceof ContextItemExpression) {
+						for (PathMapArc arc : root.getArcs()) {
+							if (!validateForStreaming(record, predicate, arc)) {
+								return xQueryString;
+							}
+						}
+					}
+				}
+			}
+			streamingFilter = eval.createExpression("self::node()" + xQueryString.substring(predicateStart)); //$NON-NLS-1$
+		} catch (XPathException e) {
+			//most likely a variable reference, which is not available when streaming
+			if (record.recordAnnotations()) {
+				record.addAnnotation(XQUERY_PLANNING, "The predicates could not be evaluated independently " + e.getMessage(), "Document streaming will not be used", Priority.MEDIUM); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			return xQueryString;
+		}
+		return xQueryString.substring(0, predicateStart);
+	}
+	
+	/**
+	 * Find the predicates that apply to the final step of the path.
+	 * @return the start index of the final predicates or -1 if there are none
+	 */
+	static int getFinalPredicates(String path, List<String> predicates) {
+		int depth = 0;
+		char quote = 0;
+		int predicateStart = -1;
+		int start = -1;
+		for (int i = 0; i < path.length(); i++) {
+			char c = path.charAt(i);
+			if (quote != 0) {
+				if (c == quote) {
+					quote = 0;
+				}
+				continue;
+			}
+			switch (c) {
+			case '\'':
+			case '"':
+				quote = c;
+				break;
+			case '[':
+				if (depth++ == 0) {
+					if (predicateStart < 0) {
+						predicateStart = i;
+					}
+					start = i + 1;
+				}
+				break;
+			case ']':
+				if (--depth == 0) {
+					predicates.add(path.substring(start, i));
+				}
+				break;
+			default:
+				if (depth == 0 && predicateStart >= 0 && !Character.isWhitespace(c)) {
+					//the predicates were not on the final step
+					predicateStart = -1;
+					predicates.clear();
+				}
+			}
+		}
+		if (depth != 0 || quote != 0) {
+			predicates.clear();
+			return -1;
+		}
+		return predicateStart;
+	}
+
+	private boolean validateForStreaming(AnalysisRecord record,
+			String path, PathMapArc arc) {
 		boolean ancestor = false;
 		LinkedList<PathMapArc> arcStack = new LinkedList<PathMapArc>();
 		arcStack.add(arc);
@@ -408,14 +521,14 @@ public class SaxonXQueryExpression {
 				if (current.getTarget().isReturnable()) {
 					if (axis != AxisInfo.NAMESPACE && axis != AxisInfo.ATTRIBUTE) {
 						if (record.recordAnnotations()) {
-							record.addAnnotation(XQUERY_PLANNING, "The column path contains an invalid reverse axis " + xmlColumn.getPath(), "Document streaming will not be used", Priority.MEDIUM); //$NON-NLS-1$ //$NON-NLS-2$
+							record.addAnnotation(XQUERY_PLANNING, "The path contains an invalid reverse axis " + path, "Document streaming will not be used", Priority.MEDIUM); //$NON-NLS-1$ //$NON-NLS-2$
 						}
 						return false;
 					}
 				}
 				if (!isValidAncestorAxis[axis]) {
 					if (record.recordAnnotations()) {
-						record.addAnnotation(XQUERY_PLANNING, "The column path contains an invalid reverse axis " + xmlColumn.getPath(), "Document streaming will not be used", Priority.MEDIUM); //$NON-NLS-1$ //$NON-NLS-2$
+						record.addAnnotation(XQUERY_PLANNING, "The path contains an invalid reverse axis " + path, "Document streaming will not be used", Priority.MEDIUM); //$NON-NLS-1$ //$NON-NLS-2$
 					}
 					return false;
 				}
@@ -425,14 +538,14 @@ public class SaxonXQueryExpression {
 						|| axis == AxisInfo.ANCESTOR_OR_SELF) {
 					if (current.getTarget().isReturnable()) {
 						if (record.recordAnnotations()) {
-							record.addAnnotation(XQUERY_PLANNING, "The column path contains an invalid reverse axis " + xmlColumn.getPath(), "Document streaming will not be used", Priority.MEDIUM); //$NON-NLS-1$ //$NON-NLS-2$
+							record.addAnnotation(XQUERY_PLANNING, "The path contains an invalid reverse axis " + path, "Document streaming will not be used", Priority.MEDIUM); //$NON-NLS-1$ //$NON-NLS-2$
 						}
 						return false;
 					}
 					ancestor = true; 
 				} else {
 					if (record.recordAnnotations()) {
-						record.addAnnotation(XQUERY_PLANNING, "The column path may not reference an ancestor or subtree " + xmlColumn.getPath(), "Document streaming will not be used", Priority.MEDIUM); //$NON-NLS-1$ //$NON-NLS-2$
+						record.addAnnotation(XQUERY_PLANNING, "The path may not reference an ancestor or subtree " + path, "Document streaming will not be used", Priority.MEDIUM); //$NON-NLS-1$ //$NON-NLS-2$
 					}
 					return false;
 				}
@@ -559,5 +672,16 @@ public class SaxonXQueryExpression {
 	public boolean isStreaming() {
 		return streamingPath != null;
 	}
+	
+	/**
+	 * @return true if the streamed row satisfies the predicates of the final path step
+	 */
+	boolean matchesStreamingFilter(NodeInfo row) throws XPathException {
+		if (streamingFilter == null) {
+			return true;
+		}
+		XPathDynamicContext dynamicContext = streamingFilter.createDynamicContext(row);
+		return streamingFilter.iterate(dynamicContext).next() != null;
+	}
 
 }
@@ -129,7 +129,15 @@ public class XQueryEvaluator {
 						
 						final StreamingTransform myTransform = new StreamingTransform() {
 							public Nodes transform(Element elem) {
-								processor.processRow(XQueryEvaluator.wrap(elem, xquery.config));
+								NodeInfo row = XQueryEvaluator.wrap(elem, xquery.config);
+								try {
+									if (!xquery.matchesStreamingFilter(row)) {
+										return NONE;
+									}
+								} catch (XPathException e) {
+									throw new TeiidRuntimeException(QueryPlugin.Event.TEIID30151, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30151));
+								}
+								processor.processRow(row);
 								return NONE;
 							}
 						};
@@ -25,6 +25,8 @@ package org.teiid.dqp.internal.datamgr;
 import static org.junit.Assert.*;
 
 import java.io.StringReader;
+import java.sql.Date;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -70,6 +72,7 @@ import org.teiid.query.sql.lang.StoredProcedure;
 import org.teiid.query.sql.symbol.Constant;
 import org.teiid.query.unittest.RealMetadataFactory;
 import org.teiid.query.util.CommandContext;
+import org.teiid.translator.BatchedResultSetExecution;
 import org.teiid.translator.DataNotAvailableException;
 import org.teiid.translator.ExecutionContext;
 import org.teiid.translator.ExecutionFactory;
@@ -417,6 +420,153 @@ public class TestConnectorWorkItem {
 		}
     }
     
+    @Test public void testBatchValuesByType() throws Exception {
+    	final ExecutionFactory<Object, Object> ef = new ExecutionFactory<Object, Object> () {
+    		@Override
+    		public boolean isSourceRequired() {
+    			return false;
+    		}
+    		@Override
+    		public ResultSetExecution createResultSetExecution(
+    				QueryExpression command, ExecutionContext executionContext,
+    				RuntimeMetadata metadata, Object connection)
+    				throws TranslatorException {
+    			return new ResultSetExecution() {
+    				
+    				private int row;
+    				
+    				@Override
+    				public void execute() throws TranslatorException {
+    					
+    				}
+    				
+    				@Override
+    				public void close() {
+    					
+    				}
+    				
+    				@Override
+    				public void cancel() throws TranslatorException {
+    					
+    				}
+    				
+    				@Override
+    				public List<?> next() throws TranslatorException, DataNotAvailableException {
+    					if (row++ < 2) {
+    						//the timestamp and date have the same millis
+    						return Arrays.asList("2000-01-01 00:00:00.0", "2000-01-01");
+    					}
+    					return null;
+    				}
+    			};
+    		}
+    	};
+    	ConnectorManager cm = new ConnectorManager("FakeConnector","FakeConnector") { //$NON-NLS-1$ //$NON-NLS-2$
+    		public ExecutionFactory getExecutionFactory() {
+    			return ef;
+    		}
+    		public Object getConnectionFactory(){
+    			return null;
+    		}
+    	};
+    	cm.start();
+    	AtomicRequestMessage requestMsg = createNewAtomicRequestMessage(1, 1);
+    	requestMsg.setCommand(helpGetCommand("SELECT TimestampValue, DateValue FROM bqt1.smalla", EXAMPLE_BQT)); //$NON-NLS-1$
+    	requestMsg.setBufferManager(BufferManagerFactory.getStandaloneBufferManager());
+    	boolean valueCacheEnabled = DataTypeManager.isValueCacheEnabled();
+    	DataTypeManager.setValueCacheEnabled(true);
+    	try {
+	    	ConnectorWorkItem cwi = new ConnectorWorkItem(requestMsg, cm);
+	    	cwi.execute();
+	    	AtomicResultsMessage message = cwi.more();
+	    	assertEquals(2, message.getResults().length);
+	    	for (List<?> row : message.getResults()) {
+	    		assertEquals(Timestamp.class, row.get(0).getClass());
+	    		assertEquals(Date.class, row.get(1).getClass());
+	    	}
+	    	//equal values of the same type are shared
+	    	assertSame(message.getResults()[0].get(0), message.getResults()[1].get(0));
+	    	assertSame(message.getResults()[0].get(1), message.getResults()[1].get(1));
+    	} finally {
+    		DataTypeManager.setValueCacheEnabled(valueCacheEnabled);
+    	}
+    }
+    
+    @Test public void testBatchedExecution() throws Exception {
+    	final List<Integer> requested = new ArrayList<Integer>();
+    	final ExecutionFactory<Object, Object> ef = new ExecutionFactory<Object, Object> () {
+    		@Override
+    		public boolean isSourceRequired() {
+    			return false;
+    		}
+    		@Override
+    		public ResultSetExecution createResultSetExecution(
+    				QueryExpression command, ExecutionContext executionContext,
+    				RuntimeMetadata metadata, Object connection)
+    				throws TranslatorException {
+    			return new BatchedResultSetExecution() {
+					
+    				private int row;
+    				
+					@Override
+					public void execute() throws TranslatorException {
+						
+					}
+					
+					@Override
+					public void close() {
+						
+					}
+					
+					@Override
+					public void cancel() throws TranslatorException {
+						
+					}
+					
+					@Override
+					public List<?> next() throws TranslatorException, DataNotAvailableException {
+						throw new AssertionError();
+					}
+					
+					@Override
+					public List<List<?>> nextBatch(int maxRows) throws TranslatorException, DataNotAvailableException {
+						requested.add(maxRows);
+						List<List<?>> result = new ArrayList<List<?>>();
+						for (int i = 0; i < Math.min(maxRows, 2); i++) {
+							List<Object> values = new ArrayList<Object>();
+							values.add(String.valueOf(row++));
+							result.add(values);
+						}
+						return result;
+					}
+				};
+    		}
+    	};
+		ConnectorManager cm = new ConnectorManager("FakeConnector","FakeConnector") { //$NON-NLS-1$ //$NON-NLS-2$
+			public ExecutionFactory getExecutionFactory() {
+				return ef;
+			}
+			public Object getConnectionFactory(){
+				return null;
+			}
+		};
+		cm.start();
+    	AtomicRequestMessage requestMsg = createNewAtomicRequestMessage(1, 1);
+    	requestMsg.setCommand(helpGetCommand("SELECT intkey FROM bqt1.smalla", EXAMPLE_BQT)); //$NON-NLS-1$
+    	requestMsg.setBufferManager(BufferManagerFactory.getStandaloneBufferManager());
+    	requestMsg.setMaxResultRows(8);
+    	ConnectorWorkItem cwi = new ConnectorWorkItem(requestMsg, cm);
+    	cwi.execute();
+    	AtomicResultsMessage message = cwi.more();
+    	assertEquals(5, message.getResults().length);
+    	assertEquals(4, message.getResults()[4].get(0));
+    	assertEquals(-1, message.getFinalRow());
+    	message = cwi.more();
+    	assertEquals(3, message.getResults().length);
+    	assertEquals(8, message.getFinalRow());
+    	assertEquals(Arrays.asList(5, 3, 1, 3, 1), requested);
+    }
+    
 	@Test public void testSourcHints() throws Exception {
 		Command command = helpGetCommand("update bqt1.smalla set stringkey = 1 where stringkey = 2", EXAMPLE_BQT); //$NON-NLS-1$
 		command.setSourceHint(new SourceHint());
@@ -25,7 +25,10 @@ package org.teiid.dqp.internal.process;
 import java.io.ByteArrayInputStream;
 import java.util.Arrays;
 
+import org.teiid.client.lob.LobChunk;
 import org.teiid.client.lob.LobChunkInputStream;
+import org.teiid.common.buffer.BufferManagerFactory;
+import org.teiid.common.buffer.FileStore;
 import org.teiid.core.util.ObjectConverterUtil;
 
 import junit.framework.TestCase;
@@ -40,4 +43,19 @@ public class TestByteLobChunkStream extends TestCase {
         assertTrue(Arrays.equals(bytes, ObjectConverterUtil.convertToByteArray(new LobChunkInputStream(stream))));            
     }
     
+    public void testGetChunkFromFileStore() throws Exception {
+    	byte[] bytes = "hello world".getBytes(); //$NON-NLS-1$
+    	FileStore fs = BufferManagerFactory.getStandaloneBufferManager().createFileStore("test"); //$NON-NLS-1$
+    	fs.write(bytes, 0, bytes.length);
+        ByteLobChunkStream stream = new ByteLobChunkStream(fs, bytes.length, 5);
+        
+        LobChunk chunk = stream.getNextChunk();
+        assertEquals(5, chunk.getBytes().length);
+        assertFalse(chunk.isLast());
+        stream.setChunkSize(10);
+        chunk = stream.getNextChunk();
+        assertEquals(6, chunk.getBytes().length);
+        assertTrue(chunk.isLast());
+    }
+    
 }
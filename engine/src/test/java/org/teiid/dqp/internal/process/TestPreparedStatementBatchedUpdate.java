@@ -43,6 +43,7 @@ import org.teiid.query.optimizer.capabilities.SourceCapabilities.Capability;
 import org.teiid.query.processor.FakeDataManager;
 import org.teiid.query.processor.HardcodedDataManager;
 import org.teiid.query.processor.TestProcessor;
+import org.teiid.query.sql.lang.CompareCriteria;
 import org.teiid.query.sql.lang.Insert;
 import org.teiid.query.sql.lang.Update;
 import org.teiid.query.sql.symbol.Constant;
@@ -89,6 +90,35 @@ public class TestPreparedStatementBatchedUpdate {
     	assertTrue(((Constant)update.getChangeList().getClauses().get(0).getValue()).isMultiValued());
     }
     
+    @Test public void testBatchedUpdatePushdownConversion() throws Exception {
+		String preparedSql = "UPDATE pm1.g1 SET pm1.g1.e1=?, pm1.g1.e3=? WHERE pm1.g1.e2=?"; //$NON-NLS-1$
+        
+		SessionAwareCache<PreparedPlan> prepPlanCache = new SessionAwareCache<PreparedPlan>("preparedplan", DefaultCacheFactory.INSTANCE, SessionAwareCache.Type.PREPAREDPLAN, 0);
+		
+        HardcodedDataManager dataManager = new HardcodedDataManager();
+		dataManager.addData("UPDATE pm1.g1 SET e1 = ?, e3 = ? WHERE pm1.g1.e2 = ?", new List[] {Arrays.asList(4)}); //$NON-NLS-1$
+        FakeCapabilitiesFinder capFinder = new FakeCapabilitiesFinder();
+        BasicSourceCapabilities caps = TestOptimizer.getTypicalCapabilities();
+        caps.setCapabilitySupport(Capability.BULK_UPDATE, true);
+        capFinder.addCapabilities("pm1", caps); //$NON-NLS-1$
+        
+        // the values require conversion to the parameter types
+		ArrayList<ArrayList<Object>> values = new ArrayList<ArrayList<Object>>(3);
+		values.add(new ArrayList<Object>(Arrays.asList(new Object[] { "a",  "false", "0" })));  //$NON-NLS-1$
+    	values.add(new ArrayList<Object>(Arrays.asList(new Object[] { null, Boolean.TRUE, 1 })));
+    	values.add(new ArrayList<Object>(Arrays.asList(new Object[] { "c", null, (short)2 })));  //$NON-NLS-1$
+    	
+    	List<?>[] expected = new List[] { 
+                Arrays.asList(4)
+        };
+    	
+    	TestPreparedStatement.helpTestProcessing(preparedSql, values, expected, dataManager, capFinder, RealMetadataFactory.example1Cached(), prepPlanCache, false, false, false,RealMetadataFactory.example1VDB());
+    	Update update = (Update)dataManager.getCommandHistory().iterator().next();
+    	assertEquals(Arrays.asList("a", null, "c"), ((Constant)update.getChangeList().getClauses().get(0).getValue()).getValue());
+    	assertEquals(Arrays.asList(Boolean.FALSE, Boolean.TRUE, null), ((Constant)update.getChangeList().getClauses().get(1).getValue()).getValue());
+    	assertEquals(Arrays.asList(0, 1, 2), ((Constant)((CompareCriteria)update.getCriteria()).getRightExpression()).getValue());
+    }
+    
     @Test public void testBatchedUpdatePushdown1() throws Exception {
     	//TODO: just use straight ddl
     	TransformationMetadata metadata = TestUpdateValidator.example1();
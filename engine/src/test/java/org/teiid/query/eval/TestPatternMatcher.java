@@ -0,0 +1,71 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.query.eval;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.teiid.api.exception.query.ExpressionEvaluationException;
+import org.teiid.language.Like.MatchMode;
+import org.teiid.query.sql.lang.MatchCriteria;
+
+@SuppressWarnings("nls")
+public class TestPatternMatcher {
+	
+	private static final String[] VALUES = {"", "a", "ab", "abc", "abcabc", "xabc", "abcx", "xabcx", "a_c", "a%c", "abc\n", "a\nc", "\uD801\uDC00", "a\uD801\uDC00c", "\\"};
+	
+	private void helpTestMatches(String pattern, char escape, MatchMode mode) throws ExpressionEvaluationException {
+		PatternMatcher matcher = PatternMatcher.compile(pattern, escape, mode);
+		for (String value : VALUES) {
+			boolean expected = Evaluator.getPattern(pattern, escape, mode).matcher(value).find();
+			assertEquals(pattern + " " + value, expected, matcher.matches(value));
+			assertEquals(pattern + " " + value, expected, matcher.matches(new StringBuilder(value)));
+		}
+	}
+	
+	@Test public void testLike() throws Exception {
+		String[] patterns = {"", "%", "%%", "abc", "abc%", "%abc", "%abc%", "a%c", "a%b%c", "%b%", "a_c", "___", "_", "a\\_c", "a\\%c", "a\\\\%", "abc\n", "a.c", "a^$c%"};
+		for (String pattern : patterns) {
+			helpTestMatches(pattern, '\\', MatchMode.LIKE);
+			helpTestMatches(pattern, MatchCriteria.NULL_ESCAPE_CHAR, MatchMode.LIKE);
+		}
+	}
+	
+	@Test public void testSimilar() throws Exception {
+		String[] patterns = {"abc", "abc%", "%abc", "a_c", "a.c", "a(b|x)c", "a\\%c", "ab+c%"};
+		for (String pattern : patterns) {
+			helpTestMatches(pattern, '\\', MatchMode.SIMILAR);
+		}
+	}
+	
+	@Test(expected=ExpressionEvaluationException.class) public void testInvalidEscape() throws Exception {
+		PatternMatcher.compile("a\\bc", '\\', MatchMode.LIKE);
+	}
+	
+	@Test public void testCache() throws Exception {
+		PatternMatcher matcher = PatternMatcher.getMatcher("a%", '\\', MatchMode.LIKE);
+		assertSame(matcher, PatternMatcher.getMatcher("a%", '\\', MatchMode.LIKE));
+		assertNotSame(matcher, PatternMatcher.getMatcher("a%", MatchCriteria.NULL_ESCAPE_CHAR, MatchMode.LIKE));
+	}
+
+}
@@ -1456,5 +1456,73 @@ public class TestFunctionLibrary {
 	@Test() public void testTokenize() throws Exception {
 		helpInvokeMethod("tokenize", new Object[] {"bxaxxc", 'x'}, new ArrayImpl("b", "axc")); //$NON-NLS-1$
 	}
+	
+	@Test public void testDirectInvocation() throws Exception {
+		Object[][] calls = new Object[][] {
+				{"+", 3, 2}, {"-", 3L, 2L}, {"*", 1.5f, 2f}, {"/", 7.0, 2.0}, {"mod", 7, 3}, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+				{"concat", "a", "b"}, {"substring", "abcde", 2, 2}, {"substring", "abcde", -2}, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+				{"convert", 1, "string"}, {"convert", "1", "string"}, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+		};
+		for (Object[] call : calls) {
+			Object[] inputs = Arrays.copyOfRange(call, 1, call.length);
+			Class<?>[] types = new Class<?>[inputs.length];
+			for (int i = 0; i < inputs.length; i++) {
+				types[i] = DataTypeManager.determineDataTypeClass(inputs[i]);
+			}
+			FunctionDescriptor direct = library.findFunction((String)call[0], types);
+			assertNotNull(Arrays.toString(call), direct.getDirectInvoker());
+			FunctionDescriptor reflective = direct.clone();
+			reflective.setDirectInvoker(null);
+			assertEquals(Arrays.toString(call), reflective.invokeFunction(inputs.clone(), null, null), direct.invokeFunction(inputs.clone(), null, null));
+		}
+	}
+	
+	@Test public void testDirectInvocationFailure() throws Exception {
+		helpInvokeMethodFail("+", new Object[] {Integer.MAX_VALUE, 1}); //$NON-NLS-1$
+		helpInvokeMethodFail("/", new Object[] {1L, 0L}); //$NON-NLS-1$
+		helpInvokeMethodFail("/", new Object[] {1.0, 0.0}); //$NON-NLS-1$
+		helpInvokeMethodFail("convert", new Object[] {"a", "integer"}); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+	
+	@Test public void testFunctionResultCache() throws Exception {
+		FunctionDescriptor fd = library.findFunction(SourceSystemFunctions.REGEXP_REPLACE, new Class<?>[] {String.class, String.class, String.class});
+		assertTrue(FunctionResultCache.isCacheable(fd));
+		assertFalse(FunctionResultCache.isCacheable(library.findFunction(SourceSystemFunctions.RAND, new Class<?>[] {})));
+		assertFalse(FunctionResultCache.isCacheable(library.findFunction("concat", new Class<?>[] {String.class, String.class}))); //$NON-NLS-1$
+		
+		FunctionResultCache cache = new FunctionResultCache(2);
+		CommandContext cc = new CommandContext();
+		assertEquals("cbc", cache.invoke(fd, new Object[] {cc, "aba", "a", "c"}, cc)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		assertEquals("cbc", cache.invoke(fd, new Object[] {new CommandContext(), "aba", "a", "c"}, cc)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		assertEquals("xbx", cache.invoke(fd, new Object[] {cc, "aba", "a", "x"}, cc)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		assertEquals(1, cc.getFunctionResultCacheHits());
+		assertEquals(2, cc.getFunctionResultCacheMisses());
+		assertEquals(2, cache.getSize());
+		
+		//exceeding the max size clears
+		assertEquals("dbd", cache.invoke(fd, new Object[] {cc, "aba", "a", "d"}, cc)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		assertEquals(1, cache.getSize());
+	}
+	
+	@Test public void testFunctionResultCacheLargeValues() throws Exception {
+		FunctionDescriptor fd = library.findFunction(SourceSystemFunctions.REGEXP_REPLACE, new Class<?>[] {String.class, String.class, String.class});
+		FunctionResultCache cache = new FunctionResultCache(10);
+		CommandContext cc = new CommandContext();
+		char[] chars = new char[FunctionResultCache.MAX_VALUE_LENGTH];
+		Arrays.fill(chars, 'b');
+		String large = new String(chars);
+		
+		//large argument
+		assertEquals("c" + large, cache.invoke(fd, new Object[] {cc, "a" + large, "a", "c"}, cc)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		assertEquals(0, cache.getSize());
+		
+		//large result
+		assertEquals(large + "b", cache.invoke(fd, new Object[] {cc, "a", "a", large + "b"}, cc)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertEquals(0, cache.getSize());
+		assertEquals(0, cc.getFunctionResultCacheHits());
+		
+		assertTrue(FunctionResultCache.isCacheable(large));
+		assertFalse(FunctionResultCache.isCacheable(new ClobType(new SerialClob(new char[0]))));
+	}
 
 }
@@ -217,6 +217,8 @@ public class TestXMLSystemFunctions {
 		assertEquals(expected, xml.getString());
 		xml = XMLSystemFunctions.jsonToXml(cc, rootName, new SerialBlob(json.getBytes(Charset.forName("UTF-32BE"))));
 		assertEquals(expected, xml.getString());
+		xml = XMLSystemFunctions.jsonToXml(cc, rootName, new SerialClob(json.toCharArray()), true);
+		assertEquals(expected, xml.getString());
 	}
 	
 	@Test public void testJsonToXml1() throws Exception {
@@ -595,6 +595,26 @@ public class TestSQLXMLProcessing {
         executeStreaming(sql, expected, -1);
     }
 
+    @Test public void testXmlTableStreamingPredicate() throws Throwable {
+    	String sql = "select x.x from xmltable('/a/b[@x > 1][c]' passing xmlparse(document '<a><b x=''1''><c/></b><b x=''2''><c/></b><b x=''3''/></a>') columns x integer path '@x') as x"; //$NON-NLS-1$
+        
+        final List<?>[] expected = new List<?>[] {
+        		Arrays.asList(2),
+        };    
+    
+        executeStreaming(sql, expected, -1);
+    }
+    
+    @Test public void testXmlTablePositionalPredicate() throws Exception {
+    	String sql = "select x.x from xmltable('/a/b[2]' passing xmlparse(document '<a><b x=''1''/><b x=''2''/></a>') columns x integer path '@x') as x"; //$NON-NLS-1$
+        
+        List<?>[] expected = new List<?>[] {
+        		Arrays.asList(2),
+        };    
+    
+        process(sql, expected);
+    }
+
 	private void executeStreaming(String sql, final List<?>[] expected, int batchSize)
 			throws Throwable {
 		final CommandContext cc = createCommandContext();
@@ -409,6 +409,23 @@ public class TestTextTable {
         process(sql, expected);
     }
 	
+	@Test public void testReadBufferBoundaries() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			sb.append(" \"a\"\"b\" , 12 \r\n"); //$NON-NLS-1$
+		}
+		String sql = "select count(*), max(x), min(y) from texttable(? COLUMNS x string, y integer) x"; //$NON-NLS-1$
+		
+		List<?>[] expected = new List<?>[] {
+				Arrays.asList(1000, "a\"b", 12),
+		};
+		
+		FakeDataManager dataManager = new FakeDataManager();
+		sampleData1(dataManager);
+		
+		processPreparedStatement(sql, expected, dataManager, new DefaultCapabilitiesFinder(), RealMetadataFactory.example1Cached(), Arrays.asList(new ClobType(new ClobImpl(sb.toString()))));
+	}
+	
 	public static void process(String sql, List<?>[] expectedResults) throws Exception {    
     	FakeDataManager dataManager = new FakeDataManager();
         sampleData1(dataManager);
@@ -42,6 +42,7 @@ import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidException;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.core.types.DataTypeManager;
+import org.teiid.query.eval.CompiledExpression;
 import org.teiid.query.eval.Evaluator;
 import org.teiid.query.function.FunctionDescriptor;
 import org.teiid.query.parser.QueryParser;
@@ -51,9 +52,14 @@ import org.teiid.query.resolver.TestFunctionResolving;
 import static org.teiid.query.resolver.TestFunctionResolving.assertEval;
 import org.teiid.query.sql.lang.CollectionValueIterator;
 import org.teiid.query.sql.lang.CompareCriteria;
+import org.teiid.query.sql.lang.CompoundCriteria;
+import org.teiid.query.sql.lang.Criteria;
 import org.teiid.query.sql.lang.IsNullCriteria;
+import org.teiid.query.sql.lang.MatchCriteria;
+import org.teiid.query.sql.lang.NotCriteria;
 import org.teiid.query.sql.lang.Query;
 import org.teiid.query.sql.lang.QueryCommand;
+import org.teiid.query.sql.lang.SetCriteria;
 import org.teiid.query.sql.lang.SubqueryContainer;
 import org.teiid.query.sql.symbol.*;
 import org.teiid.query.sql.util.ValueIterator;
@@ -181,6 +187,99 @@ public class TestExpressionEvaluator {
         }
     }
 
+    @Test public void testCompiledExpression() throws Exception {
+        ElementSymbol e1 = new ElementSymbol("e1"); //$NON-NLS-1$
+        e1.setType(String.class);        
+        ElementSymbol e2 = new ElementSymbol("e2"); //$NON-NLS-1$
+        e2.setType(Integer.class);
+        
+        Function func = new Function("concat", new Expression[] { e1, new Constant("x") }); //$NON-NLS-1$
+        func.setFunctionDescriptor(RealMetadataFactory.SFM.getSystemFunctionLibrary().findFunction("concat", new Class[] { String.class, String.class } )); //$NON-NLS-1$
+        func.setType(String.class);
+        
+        Criteria gt = new CompareCriteria(e2, CompareCriteria.GT, new Constant(1));
+        Criteria crit = new CompoundCriteria(CompoundCriteria.OR, gt, new NotCriteria(new CompareCriteria(e1, CompareCriteria.EQ, new Constant("a"))));
+        SearchedCaseExpression expr = new SearchedCaseExpression(Arrays.asList(gt, new IsNullCriteria(e2)), Arrays.asList(func, new Constant("null")));
+        expr.setElseExpression(e1);
+        
+        Map<Expression, Integer> elements = new HashMap<Expression, Integer>();
+        elements.put(e1, 0);
+        elements.put(e2, 1);
+        Evaluator eval = new Evaluator(elements, null, null);
+        CompiledExpression compiledExpr = eval.compile(expr);
+        CompiledExpression compiledCrit = eval.compileCriteria(crit);
+        
+        Object[][] tuples = new Object[][] {{"a", 2}, {"a", null}, {"a", 0}, {null, 5}, {"b", null}, {null, null}};
+        for (Object[] values : tuples) {
+        	List<Object> tuple = Arrays.asList(values);
+        	assertEquals(eval.evaluate(expr, tuple), compiledExpr.evaluate(tuple));
+        	assertEquals(eval.evaluateTVL(crit, tuple), compiledCrit.evaluateTVL(tuple));
+        	assertEquals(eval.evaluate(crit, tuple), compiledCrit.matches(tuple));
+        }
+        assertEquals("ax", compiledExpr.evaluate(Arrays.asList("a", 2)));
+        assertNull(compiledCrit.evaluateTVL(Arrays.asList(null, 0)));
+    }
+    
+    @Test public void testCompiledFilter() throws Exception {
+        ElementSymbol e1 = new ElementSymbol("e1"); //$NON-NLS-1$
+        e1.setType(String.class);        
+        ElementSymbol e2 = new ElementSymbol("e2"); //$NON-NLS-1$
+        e2.setType(Integer.class);
+        
+        SetCriteria in = new SetCriteria(e2, Arrays.asList(new Constant(1), new Constant(5)));
+        in.setAllConstants(true);
+        SetCriteria notIn = new SetCriteria(e1, Arrays.asList(new Constant("a"), new Constant(null, String.class))); //$NON-NLS-1$
+        notIn.setAllConstants(true);
+        notIn.setNegated(true);
+        MatchCriteria notLike = new MatchCriteria(e1, new Constant("b")); //$NON-NLS-1$
+        notLike.setNegated(true);
+        IsNullCriteria isNotNull = new IsNullCriteria(e2);
+        isNotNull.setNegated(true);
+        Criteria[] crits = new Criteria[] {
+        		new CompareCriteria(e2, CompareCriteria.GT, new Constant(1)),
+        		new CompareCriteria(e2, CompareCriteria.NE, new Constant(5)),
+        		new CompareCriteria(e1, CompareCriteria.LE, new Constant("a")), //$NON-NLS-1$
+        		in, 
+        		notIn,
+        		new MatchCriteria(e1, new Constant("a%")), //$NON-NLS-1$
+        		notLike,
+        		new IsNullCriteria(e2),
+        		isNotNull,
+        		new CompoundCriteria(CompoundCriteria.AND, new CompareCriteria(e2, CompareCriteria.GE, new Constant(0)), new CompareCriteria(e1, CompareCriteria.EQ, new Constant("a"))), //$NON-NLS-1$
+        		new CompoundCriteria(CompoundCriteria.OR, in, new MatchCriteria(e1, new Constant("%b"))), //$NON-NLS-1$
+        		new NotCriteria(new CompareCriteria(e2, CompareCriteria.LT, new Constant(2))),
+        };
+        
+        Map<Expression, Integer> elements = new HashMap<Expression, Integer>();
+        elements.put(e1, 0);
+        elements.put(e2, 1);
+        Evaluator eval = new Evaluator(elements, null, null);
+        List<List<?>> tuples = new ArrayList<List<?>>();
+        Object[][] values = new Object[][] {{"a", 2}, {"a", null}, {"a", 0}, {null, 5}, {"b", null}, {null, null}, {"ab", 1}, {"c", 5}};
+        for (Object[] row : values) {
+        	tuples.add(Arrays.asList(row));
+        }
+        for (Criteria crit : crits) {
+        	CompiledExpression compiledCrit = eval.compileCriteria(crit);
+        	List<Integer> expected = new ArrayList<Integer>();
+        	for (int i = 0; i < tuples.size(); i++) {
+        		if (eval.evaluate(crit, tuples.get(i))) {
+        			expected.add(i);
+        		}
+        	}
+        	int[] selection = new int[tuples.size()];
+        	for (int i = 0; i < selection.length; i++) {
+        		selection[i] = i;
+        	}
+        	int count = compiledCrit.filter(tuples, selection, selection.length);
+        	List<Integer> actual = new ArrayList<Integer>();
+        	for (int i = 0; i < count; i++) {
+        		actual.add(selection[i]);
+        	}
+        	assertEquals(crit.toString(), expected, actual);
+        }
+    }
+    
     @Test public void testFunction1() {
         ElementSymbol e1 = new ElementSymbol("e1"); //$NON-NLS-1$
         e1.setType(String.class);        
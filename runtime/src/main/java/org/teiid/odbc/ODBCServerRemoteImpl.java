@@ -479,6 +479,12 @@ public class ODBCServerRemoteImpl implements ODBCServerRemote {
 				// close if the name is already used or the unnamed prepare; otherwise
 				// stmt is alive until session ends.
 				if (prepareName.equals(UNNAMED)) {
+					Prepared previous = this.preparedMap.get(prepareName);
+					if (previous != null && previous.matches(sql, paramType)) {
+						//pipelined clients will re-parse the same unnamed statement for each execution
+						this.client.prepareCompleted(prepareName);
+						return;
+					}
 					this.preparedMap.remove(prepareName);
 				} else {
 					Prepared previous = this.preparedMap.get(prepareName);
@@ -1149,7 +1155,24 @@ public class ODBCServerRemoteImpl implements ODBCServerRemote {
         /**
          * calculated column metadata
          */
-        final List<PgColInfo> columnMetadata;	
+        final List<PgColInfo> columnMetadata;
+        
+        /**
+         * Determine if a parse of the given sql and types can reuse this object.
+         * Only statements without result columns are considered so that the column
+         * metadata does not need to be recomputed.
+         */
+        boolean matches(String otherSql, int[] otherParamType) {
+        	if (columnMetadata != null || paramType == null || !sql.equals(otherSql) || paramType.length != otherParamType.length) {
+        		return false;
+        	}
+        	for (int i = 0; i < otherParamType.length; i++) {
+        		if (otherParamType[i] != 0 && otherParamType[i] != paramType[i]) {
+        			return false;
+        		}
+        	}
+        	return true;
+        }
     }
 
     /**
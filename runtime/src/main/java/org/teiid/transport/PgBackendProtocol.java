@@ -149,7 +149,7 @@ public class PgBackendProtocol implements ChannelDownstreamHandler, ODBCClientRe
     				rowsSent++;
     				rowsInBuffer++;
     				boolean done = rowsSent == rows2Send;
-    				flushResults(done);
+    				flushResults();
     				processNext = !done;
     				if (done) {
     					if (sql != null) {
@@ -158,7 +158,6 @@ public class PgBackendProtocol implements ChannelDownstreamHandler, ODBCClientRe
     					result.getResultsReceiver().receiveResults(rowsSent);
     				}
     			} else {
-    				sendContents();
     				if (sql != null) {
 		    			sendCommandComplete(sql, rowsSent);
 		    		}
@@ -172,9 +171,13 @@ public class PgBackendProtocol implements ChannelDownstreamHandler, ODBCClientRe
 			return processNext;
 		}
 		
-		private void flushResults(boolean force) {
+		/**
+		 * Only write once the buffer is nearly full.  The remaining rows are sent
+		 * along with the completion messages on the next sync/flush. 
+		 */
+		private void flushResults() {
 			int avgRowsize = dataOut.writerIndex()/rowsInBuffer;
-			if (force || (maxBufferSize - dataOut.writerIndex()) < (avgRowsize*2)) {
+			if ((maxBufferSize - dataOut.writerIndex()) < (avgRowsize*2)) {
 				sendContents();
 				initBuffer(maxBufferSize / 8);
 				rowsInBuffer = 0;
@@ -187,6 +190,7 @@ public class PgBackendProtocol implements ChannelDownstreamHandler, ODBCClientRe
 
     private ChannelBuffer dataOut;
 	private OutputStreamWriter writer;
+	private int messageStart;
 
     private Properties props;    
     private Charset encoding = Charset.forName("UTF-8");
@@ -383,14 +387,14 @@ public class PgBackendProtocol implements ChannelDownstreamHandler, ODBCClientRe
 	public void terminated() {
 		trace("channel being terminated");
 		// no need to send any reply; this is showing as malformed packet.
-		this.ctx.getChannel().close();
+		close();
 	}
 	
 	@Override
 	public void flush() {
-		this.dataOut = null;
-		this.writer = null;
-		Channels.write(this.ctx.getChannel(), null);
+		if (this.dataOut != null) {
+			sendContents();
+		}
 	}
 
 	@Override
@@ -400,6 +404,19 @@ public class PgBackendProtocol implements ChannelDownstreamHandler, ODBCClientRe
 	
 	private void terminate(Throwable t) {
 		trace("channel being terminated - ", t.getMessage());
+		close();
+	}
+	
+	/**
+	 * Close the channel once any pending messages have been written
+	 */
+	private void close() {
+		if (this.dataOut != null) {
+			ChannelFuture future = this.message.getFuture();
+			sendContents();
+			future.addListener(ChannelFutureListener.CLOSE);
+			return;
+		}
 		this.ctx.getChannel().close();
 	}
 
@@ -614,7 +631,7 @@ public class PgBackendProtocol implements ChannelDownstreamHandler, ODBCClientRe
 		write('D');
 		writeString(e.toString());
 		write(0);
-		sendMessage();
+		sendMessage(true);
 	}
 	
 	private void sendRowDescription(List<PgColInfo> cols) {
@@ -664,7 +681,7 @@ public class PgBackendProtocol implements ChannelDownstreamHandler, ODBCClientRe
 		write('M');
 		writeString(message);
 		write(0);
-		sendMessage();
+		sendMessage(true);
 	}
 	
 	private void sendParseComplete() {
@@ -686,20 +703,20 @@ public class PgBackendProtocol implements ChannelDownstreamHandler, ODBCClientRe
 	private void sendAuthenticationCleartextPassword() {
 		startMessage('R');
 		writeInt(3);
-		sendMessage();
+		sendMessage(true);
 	}
 	
 	private void sendAuthenticationGSS() {
 		startMessage('R');
 		writeInt(7);
-		sendMessage();
+		sendMessage(true);
 	}
 	
 	private void sendAuthenticationGSSContinue(byte[] serviceToken)  {
 		startMessage('R');
 		writeInt(8);
 		write(serviceToken);
-		sendMessage();
+		sendMessage(true);
 	}	
 	
 	private void sendAuthenticationOk() {
@@ -725,7 +742,7 @@ public class PgBackendProtocol implements ChannelDownstreamHandler, ODBCClientRe
 			}
 		}
 		write((byte) c);
-		sendMessage();
+		sendMessage(true);
 	}
 
 	private void sendBackendKeyData(int processId, int screctKey) {
@@ -792,22 +809,41 @@ public class PgBackendProtocol implements ChannelDownstreamHandler, ODBCClientRe
 		if (estimatedLength > -1) {
 			initBuffer(estimatedLength);
 		}
+		this.messageStart = this.dataOut.writerIndex();
 		this.dataOut.writeByte((byte)newMessageType);
-		int nextByte = this.dataOut.writerIndex() + 4;
-		this.dataOut.ensureWritableBytes(nextByte);
-		this.dataOut.writerIndex(nextByte);
+		this.dataOut.ensureWritableBytes(4);
+		this.dataOut.writerIndex(this.messageStart + 5);
 	}
 
+	/**
+	 * Messages are appended to the pending buffer, which is only
+	 * replaced once its contents have been sent.
+	 */
 	private void initBuffer(int estimatedLength) {
+		if (this.dataOut != null) {
+			return;
+		}
 		this.dataOut = ChannelBuffers.dynamicBuffer(estimatedLength);
 		ChannelBufferOutputStream cbos = new ChannelBufferOutputStream(this.dataOut);
 		this.writer = new OutputStreamWriter(cbos, this.encoding);
 	}
 
 	private void sendMessage() {
+		sendMessage(false);
+	}
+	
+	/**
+	 * Complete the current message.  Unless forced the message is held with 
+	 * the other pending messages so that a pipelined series of extended query 
+	 * messages is written as a single packet at the next sync/flush or once the 
+	 * buffer is full.
+	 */
+	private void sendMessage(boolean flush) {
 		int pos = this.dataOut.writerIndex();
-		this.dataOut.setInt(1, pos - 1);
-		sendContents();
+		this.dataOut.setInt(this.messageStart + 1, pos - this.messageStart - 1);
+		if (flush || pos >= this.maxBufferSize) {
+			sendContents();
+		}
 	}
 	
 	private void sendContents() {
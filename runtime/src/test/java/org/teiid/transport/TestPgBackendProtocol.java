@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.transport;
+
+import static org.junit.Assert.*;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelEvent;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.MessageEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.teiid.net.socket.ServiceInvocationStruct;
+import org.teiid.odbc.ODBCClientRemote;
+
+@SuppressWarnings("nls")
+public class TestPgBackendProtocol {
+	
+	private ChannelHandlerContext ctx;
+	private PgBackendProtocol protocol;
+	
+	@Before public void setup() {
+		ctx = Mockito.mock(ChannelHandlerContext.class);
+		Mockito.stub(ctx.getChannel()).toReturn(Mockito.mock(Channel.class));
+	}
+	
+	private void invoke(String methodName, Object... args) throws Exception {
+		MessageEvent me = Mockito.mock(MessageEvent.class);
+		Mockito.stub(me.getMessage()).toReturn(new ServiceInvocationStruct(args, methodName, ODBCClientRemote.class));
+		Mockito.stub(me.getFuture()).toReturn(Mockito.mock(ChannelFuture.class));
+		protocol.handleDownstream(ctx, me);
+	}
+	
+	private void helpPipelineInserts(int count) throws Exception {
+		for (int i = 0; i < count; i++) {
+			invoke("prepareCompleted", "x");
+			invoke("bindComplete");
+			invoke("sendUpdateCount", "insert into x (y) values (?)", 1);
+		}
+	}
+	
+	@Test public void testPipelinedMessagesWrittenOnReady() throws Exception {
+		protocol = new PgBackendProtocol(1 << 20, 100000, null, false);
+		helpPipelineInserts(100);
+		Mockito.verify(ctx, Mockito.never()).sendDownstream((ChannelEvent)Mockito.any());
+		
+		invoke("ready", false, false);
+		ArgumentCaptor<ChannelEvent> events = ArgumentCaptor.forClass(ChannelEvent.class);
+		Mockito.verify(ctx, Mockito.times(1)).sendDownstream(events.capture());
+		
+		//parse, bind and command complete for each insert followed by ready for query
+		ChannelBuffer cb = (ChannelBuffer)((MessageEvent)events.getValue()).getMessage();
+		assertEquals('1', cb.getByte(0));
+		assertEquals('2', cb.getByte(5));
+		assertEquals('C', cb.getByte(10));
+		assertEquals(100 * 24 + 6, cb.readableBytes());
+		assertEquals('Z', cb.getByte(cb.readableBytes() - 6));
+	}
+	
+	@Test public void testFlush() throws Exception {
+		protocol = new PgBackendProtocol(1 << 20, 100000, null, false);
+		helpPipelineInserts(2);
+		invoke("flush");
+		Mockito.verify(ctx, Mockito.times(1)).sendDownstream((ChannelEvent)Mockito.any());
+		
+		//nothing pending
+		invoke("flush");
+		Mockito.verify(ctx, Mockito.times(1)).sendDownstream((ChannelEvent)Mockito.any());
+	}
+	
+	@Test public void testWrittenWhenBufferFull() throws Exception {
+		protocol = new PgBackendProtocol(1 << 20, 240, null, false);
+		helpPipelineInserts(100);
+		//each write holds about the max buffer size of messages
+		Mockito.verify(ctx, Mockito.times(10)).sendDownstream((ChannelEvent)Mockito.any());
+	}
+
+}
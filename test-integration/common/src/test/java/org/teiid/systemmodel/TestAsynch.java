@@ -41,6 +41,8 @@ import org.teiid.adminapi.Model.Type;
 import org.teiid.adminapi.impl.ModelMetaData;
 import org.teiid.client.util.ResultsFuture;
 import org.teiid.jdbc.AsynchPositioningException;
+import org.teiid.jdbc.BatchSubscriber;
+import org.teiid.jdbc.BatchSubscription;
 import org.teiid.jdbc.ConnectionImpl;
 import org.teiid.jdbc.ContinuousStatementCallback;
 import org.teiid.jdbc.FakeServer;
@@ -138,6 +140,48 @@ public class TestAsynch {
 		assertEquals(10000, result.get().intValue());
 	}
 	
+	@Test public void testBatchSubscriber() throws Exception {
+		Statement stmt = this.internalConnection.createStatement();
+		TeiidStatement ts = stmt.unwrap(TeiidStatement.class);
+		stmt.setFetchSize(100);
+		final ResultsFuture<Integer> result = new ResultsFuture<Integer>(); 
+		ts.submitExecute("select * from sys.tables a, sys.tables b, sys.tables c", new BatchSubscriber() {
+			int rowCount;
+			BatchSubscription subscription;
+			
+			@Override
+			public void onSubscribe(Statement s, BatchSubscription sub) {
+				this.subscription = sub;
+				sub.request(150);
+			}
+			
+			@Override
+			public void onNext(Statement s, List<List<?>> rows) {
+				assertTrue(rows.size() <= 100);
+				rowCount += rows.size();
+				if (rowCount % 150 == 0) {
+					if (rowCount == 3000) {
+						subscription.cancel();
+						result.getResultsReceiver().receiveResults(rowCount);
+						return;
+					}
+					subscription.request(150);
+				}
+			}
+			
+			@Override
+			public void onError(Statement s, Exception e) {
+				result.getResultsReceiver().exceptionOccurred(e);
+			}
+			
+			@Override
+			public void onComplete(Statement s) {
+				result.getResultsReceiver().receiveResults(rowCount);
+			}
+		}, new RequestOptions());
+		assertEquals(3000, result.get().intValue());
+	}
+	
 	@Test public void testAsynchContinuousEmpty() throws Exception {
 		Statement stmt = this.internalConnection.createStatement();
 		TeiidStatement ts = stmt.unwrap(TeiidStatement.class);
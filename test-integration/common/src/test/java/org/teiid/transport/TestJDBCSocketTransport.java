@@ -38,6 +38,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
 
 import org.jboss.netty.channel.ChannelEvent;
@@ -47,6 +48,7 @@ import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.teiid.client.util.ResultsFuture;
 import org.teiid.common.buffer.BufferManagerFactory;
 import org.teiid.common.buffer.StorageManager;
 import org.teiid.common.buffer.impl.BufferManagerImpl;
@@ -61,11 +63,15 @@ import org.teiid.core.util.ObjectConverterUtil;
 import org.teiid.core.util.UnitTestUtil;
 import org.teiid.dqp.internal.datamgr.ConnectorManagerRepository;
 import org.teiid.dqp.service.AutoGenDataService;
+import org.teiid.jdbc.BatchSubscriber;
+import org.teiid.jdbc.BatchSubscription;
 import org.teiid.jdbc.ConnectionImpl;
 import org.teiid.jdbc.ConnectionProfile;
 import org.teiid.jdbc.FakeServer;
+import org.teiid.jdbc.RequestOptions;
 import org.teiid.jdbc.TeiidDriver;
 import org.teiid.jdbc.TeiidSQLException;
+import org.teiid.jdbc.TeiidStatement;
 import org.teiid.jdbc.TestMMDatabaseMetaData;
 import org.teiid.net.CommunicationException;
 import org.teiid.net.ConnectionException;
@@ -154,6 +160,45 @@ public class TestJDBCSocketTransport {
 		TestMMDatabaseMetaData.compareResultSet(s.getResultSet());
 	}
 	
+	@Test public void testBatchSubscriber() throws Exception {
+		Statement s = conn.createStatement();
+		s.setFetchSize(500);
+		final ResultsFuture<Integer> result = new ResultsFuture<Integer>(); 
+		s.unwrap(TeiidStatement.class).submitExecute("select * from tables, columns limit 5000", new BatchSubscriber() {
+			int rowCount;
+			int requested;
+			BatchSubscription subscription;
+			
+			@Override
+			public void onSubscribe(Statement stmt, BatchSubscription sub) {
+				this.subscription = sub;
+				requested = 1000;
+				sub.request(1000);
+			}
+			
+			@Override
+			public void onNext(Statement stmt, List<List<?>> rows) {
+				rowCount += rows.size();
+				assertTrue(rowCount <= requested);
+				if (rowCount == requested) {
+					requested += 1000;
+					subscription.request(1000);
+				}
+			}
+			
+			@Override
+			public void onError(Statement stmt, Exception e) {
+				result.getResultsReceiver().exceptionOccurred(e);
+			}
+			
+			@Override
+			public void onComplete(Statement stmt) {
+				result.getResultsReceiver().receiveResults(rowCount);
+			}
+		}, new RequestOptions());
+		assertEquals(5000, result.get().intValue());
+	}
+	
 	@Test public void testLobStreaming() throws Exception {
 		Statement s = conn.createStatement();
 		assertTrue(s.execute("select xmlelement(name \"root\") from tables"));
@@ -443,6 +443,25 @@ public static class AnonSSLSocketFactory extends SSLSocketFactory {
 		assertNull(ps.getMetaData());
 	}
 	
+	@Test public void testPipelinedBatch() throws Exception {
+		Statement stmt = conn.createStatement();
+		assertFalse(stmt.execute("create local temporary table x (y integer)"));
+		PreparedStatement ps = conn.prepareStatement("insert into x (y) values (?)");
+		for (int i = 0; i < 100; i++) {
+			ps.setInt(1, i);
+			ps.addBatch();
+		}
+		int[] counts = ps.executeBatch();
+		assertEquals(100, counts.length);
+		for (int count : counts) {
+			assertEquals(1, count);
+		}
+		ResultSet rs = stmt.executeQuery("select count(*), sum(y) from x");
+		rs.next();
+		assertEquals(100, rs.getInt(1));
+		assertEquals(4950, rs.getInt(2));
+	}
+	
 	@Test public void testSelectSsl() throws Exception {
 		conn.close();
 		Driver d = new Driver();
@@ -75,6 +75,7 @@ import org.teiid.query.processor.TestTextTable;
 import org.teiid.query.processor.relational.*;
 import org.teiid.query.processor.relational.MergeJoinStrategy.SortOption;
 import org.teiid.query.processor.relational.SortUtility.Mode;
+import org.teiid.query.resolver.util.ResolverVisitor;
 import org.teiid.query.sql.lang.Command;
 import org.teiid.query.sql.lang.JoinType;
 import org.teiid.query.sql.lang.OrderBy;
@@ -390,6 +391,14 @@ public class TestEnginePerformance {
 		helpTestLike(50000, 16);
 	}
 	
+	@Test public void runFunction_1() throws Exception {
+		helpTestFunction(200000, 1);
+	}
+
+	@Test public void runFunction_4() throws Exception {
+		helpTestFunction(100000, 4);
+	}
+	
 	@Test public void runBatchSerialization_String() throws Exception {
 		String[] types = new String[] {DataTypeManager.DefaultDataTypes.STRING};
 		int size = 1024;
@@ -477,6 +486,19 @@ public class TestEnginePerformance {
 		});
 	}
 	
+	private void helpTestFunction(int iterations, int threads) throws Exception {
+		final Expression ex = QueryParser.getQueryParser().parseExpression("concat(substring('abcdefg', 2, 3), convert((1 + 2) * 3 - 4 / 2, string)) || substring('abc', mod(7, 2))"); //$NON-NLS-1$
+		ResolverVisitor.resolveLanguageObject(ex, RealMetadataFactory.example1Cached());
+		assertEquals("bcd7abc", Evaluator.evaluate(ex)); //$NON-NLS-1$
+		runTask(iterations, threads, new Task() {
+			@Override
+			public Void call() throws Exception {
+				Evaluator.evaluate(ex);
+				return null;
+			}
+		});
+	}
+	
 	private void helpTestLargeSort(int iterations, int threads, final int rows) throws InterruptedException, Exception {
 		final List<ElementSymbol> elems = new ArrayList<ElementSymbol>();
 		final int cols = 50;
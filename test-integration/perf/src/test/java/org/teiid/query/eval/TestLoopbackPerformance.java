@@ -0,0 +1,162 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.query.eval;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.teiid.adminapi.impl.ModelMetaData;
+import org.teiid.jdbc.AbstractQueryTest;
+import org.teiid.runtime.EmbeddedConfiguration;
+import org.teiid.runtime.EmbeddedServer;
+import org.teiid.translator.ExecutionFactory;
+import org.teiid.translator.TranslatorException;
+import org.teiid.translator.loopback.LoopbackExecutionFactory;
+
+/**
+ * Repeatable end-to-end workloads against seeded loopback sources.
+ * <br>
+ * The loopback ignores pushed criteria, so the delegate supports no pushdown and
+ * criteria, joins, aggregation and sorting are all performed by the engine.  The 
+ * exception is the dependent model, which supports in criteria so that it may be the
+ * dependent side of a join - the dependent criteria is ignored, but the join criteria 
+ * is still evaluated by the engine.  The expected row counts follow from the seeded 
+ * column values.
+ * <br>
+ * The elapsed time of each workload is reported on standard out.
+ */
+@SuppressWarnings({"nls"})
+public class TestLoopbackPerformance extends AbstractQueryTest {
+	
+	private static final int ITERATIONS = 10;
+	private static final int ORDERS = 100000;
+	private static final int CUSTOMERS = 10000;
+	
+	EmbeddedServer es;
+	
+	@Before public void setup() throws Exception {
+		es = new EmbeddedServer();
+		es.start(new EmbeddedConfiguration());
+		es.addTranslator("synthetic", createTranslator(0, false));
+		es.addTranslator("synthetic-latency", createTranslator(2, false));
+		es.addTranslator("synthetic-dependent", createTranslator(0, true));
+		
+		ModelMetaData orders = new ModelMetaData();
+		orders.setName("orders");
+		orders.setSchemaSourceType("ddl");
+		orders.setSchemaText("create foreign table orders (o_id integer options (distinct_values " + ORDERS + "), c_id integer options (distinct_values " + CUSTOMERS + "), amount double, status string options (distinct_values 5, null_value_count " + ORDERS/10 + ")) options (cardinality " + ORDERS + ")");
+		orders.addSourceMapping("orders", "synthetic", null);
+		
+		ModelMetaData dependent = new ModelMetaData();
+		dependent.setName("dependent");
+		dependent.setSchemaSourceType("ddl");
+		dependent.setSchemaText("create foreign table dep_orders (o_id integer options (distinct_values " + ORDERS + "), c_id integer options (distinct_values " + CUSTOMERS + ")) options (cardinality " + ORDERS + ")");
+		dependent.addSourceMapping("dependent", "synthetic-dependent", null);
+		
+		ModelMetaData customers = new ModelMetaData();
+		customers.setName("customers");
+		customers.setSchemaSourceType("ddl");
+		customers.setSchemaText("create foreign table customer (c_id integer options (distinct_values " + CUSTOMERS + "), name string, region string options (distinct_values 20)) options (cardinality " + CUSTOMERS + ")");
+		customers.addSourceMapping("customers", "synthetic", null);
+		
+		ModelMetaData slow = new ModelMetaData();
+		slow.setName("slow");
+		slow.setSchemaSourceType("ddl");
+		slow.setSchemaText("create foreign table customer (c_id integer options (distinct_values " + CUSTOMERS + "), name string) options (cardinality " + CUSTOMERS + ")");
+		slow.addSourceMapping("slow", "synthetic-latency", null);
+		
+		es.deployVDB("test", orders, dependent, customers, slow);
+		setConnection(es.getDriver().connect("jdbc:teiid:test", null));
+	}
+
+	private LoopbackExecutionFactory createTranslator(int batchLatency, final boolean dependent) throws TranslatorException {
+		LoopbackExecutionFactory lef = new LoopbackExecutionFactory();
+		lef.setRandomSeed(0);
+		lef.setSkew(0.5);
+		lef.setBatchLatency(batchLatency);
+		if (batchLatency > 0) {
+			lef.setPollIntervalInMilli(0);
+		}
+		ExecutionFactory<Object, Object> ef = new ExecutionFactory<Object, Object>() {
+			@Override
+			public boolean supportsInCriteria() {
+				return dependent;
+			}
+			
+			@Override
+			public boolean isSourceRequired() {
+				return false;
+			}
+		};
+		lef.setDelegate(ef);
+		lef.start();
+		return lef;
+	}
+	
+	@After public void teardown() {
+		es.stop();
+	}
+	
+	private void helpTestWorkload(String workload, String sql, int expectedRows) throws Exception {
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			execute(sql);
+			assertEquals(expectedRows, getRowCount());
+		}
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		System.out.println(workload + " " + elapsed + " ms, " + (elapsed / ITERATIONS) + " ms per iteration");
+	}
+	
+	@Test public void testJoin() throws Exception {
+		helpTestWorkload("join", "select o.o_id, c.name from orders o, customers.customer c where o.c_id = c.c_id option makenotdep o, c", 128541);
+	}
+	
+	@Test public void testJoinWithCriteria() throws Exception {
+		helpTestWorkload("join with criteria", "select o.o_id, c.name from orders o, customers.customer c where o.c_id = c.c_id and c.region = 'ABCDEFGHI1'", 9944);
+	}
+	
+	@Test public void testDependentJoin() throws Exception {
+		helpTestWorkload("dependent join", "select o.o_id, c.name from dep_orders o, customers.customer c where o.c_id = c.c_id and c.region = 'ABCDEFGHI1' option makedep o", 10026);
+	}
+	
+	@Test public void testAggregation() throws Exception {
+		helpTestWorkload("aggregation", "select status, count(*), sum(amount), avg(amount), count(distinct c_id) from orders group by status", 6);
+	}
+	
+	@Test public void testSort() throws Exception {
+		helpTestWorkload("sort", "select o_id, amount, status from orders order by amount, status, o_id", ORDERS);
+	}
+	
+	@Test public void testDistinct() throws Exception {
+		helpTestWorkload("distinct", "select distinct c_id from orders", 9997);
+	}
+	
+	@Test public void testJoinWithLatency() throws Exception {
+		helpTestWorkload("join with latency", "select o.o_id, c.name from orders o, slow.customer c where o.c_id = c.c_id option makenotdep o, c", 131294);
+	}
+	
+}